@@ -0,0 +1,26 @@
+plugins {
+    `java-library`
+    application
+}
+
+description = "Renders directory trees of SVG files to PNG images in parallel"
+
+dependencies {
+    api(projects.jsvg)
+    compileOnly(libs.nullabilityAnnotations)
+
+    testImplementation(testLibs.junit.api)
+    testRuntimeOnly(testLibs.junit.engine)
+    testCompileOnly(libs.nullabilityAnnotations)
+}
+
+application {
+    mainClass.set("com.github.weisj.jsvg.rasterizer.Main")
+    applicationDefaultJvmArgs = listOf("-Djava.awt.headless=true")
+}
+
+tasks {
+    test {
+        useJUnitPlatform()
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.rasterizer;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.jetbrains.annotations.NotNull;
+
+import com.github.weisj.jsvg.SVGDocument;
+import com.github.weisj.jsvg.geometry.size.FloatSize;
+import com.github.weisj.jsvg.parser.SVGLoader;
+
+/**
+ * Renders all SVG files of a directory tree to PNG images at a set of scales.
+ * <p>
+ * Documents are processed in parallel. Every worker thread uses its own {@link SVGLoader}, which is reused for all
+ * documents the worker processes. The directory structure of the input is mirrored in the output directory.
+ * For a document {@code icons/folder.svg} the image at scale 1 is written to {@code icons/folder.png} and images at
+ * other scales to e.g. {@code icons/folder@2x.png}.
+ */
+public final class BatchRasterizer {
+    private final float @NotNull [] scales;
+    private final int parallelism;
+
+    public BatchRasterizer(float @NotNull [] scales) {
+        this(scales, Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchRasterizer(float @NotNull [] scales, int parallelism) {
+        if (scales.length == 0) throw new IllegalArgumentException("At least one scale is required");
+        for (float scale : scales) {
+            if (!(scale > 0 && Float.isFinite(scale))) {
+                throw new IllegalArgumentException("Invalid scale " + scale);
+            }
+        }
+        if (parallelism < 1) throw new IllegalArgumentException("Invalid parallelism " + parallelism);
+        this.scales = scales.clone();
+        this.parallelism = parallelism;
+    }
+
+    public @NotNull BatchResult rasterize(@NotNull Path inputDirectory, @NotNull Path outputDirectory)
+            throws IOException {
+        return rasterize(inputDirectory, outputDirectory, f -> {});
+    }
+
+    /**
+     * Rasterizes all files ending in {@code .svg} below the input directory.
+     * A failure to render a single document doesn't abort the run, but is reported in the result.
+     *
+     * @param inputDirectory the directory to search for documents.
+     * @param outputDirectory the directory to write the images to.
+     * @param listener receives the result of each document as soon as it is done. It is called from the worker
+     *        threads, and hence has to be thread safe.
+     * @return the results of all documents.
+     * @throws IOException if the input directory can't be traversed.
+     */
+    public @NotNull BatchResult rasterize(@NotNull Path inputDirectory, @NotNull Path outputDirectory,
+            @NotNull Consumer<@NotNull RasterizedFile> listener) throws IOException {
+        long start = System.nanoTime();
+        List<Path> sources = findDocuments(inputDirectory);
+
+        ThreadLocal<SVGLoader> loader = ThreadLocal.withInitial(SVGLoader::new);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "jsvg-rasterizer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<RasterizedFile>> futures = new ArrayList<>(sources.size());
+            for (Path source : sources) {
+                futures.add(executor.submit(() -> {
+                    RasterizedFile result = rasterize(loader.get(), inputDirectory, source, outputDirectory);
+                    listener.accept(result);
+                    return result;
+                }));
+            }
+            List<RasterizedFile> results = new ArrayList<>(futures.size());
+            for (Future<RasterizedFile> future : futures) {
+                results.add(await(future));
+            }
+            return new BatchResult(results, System.nanoTime() - start);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Determines the name of the image for the given scale.
+     *
+     * @param documentName the file name of the document.
+     * @param scale the scale.
+     * @return the file name of the image.
+     */
+    public static @NotNull String imageName(@NotNull String documentName, float scale) {
+        int extension = documentName.lastIndexOf('.');
+        String baseName = extension > 0 ? documentName.substring(0, extension) : documentName;
+        if (scale == 1) return baseName + ".png";
+        String scaleName = scale == (int) scale ? Integer.toString((int) scale) : Float.toString(scale);
+        return baseName + "@" + scaleName + "x.png";
+    }
+
+    private static @NotNull List<Path> findDocuments(@NotNull Path inputDirectory) throws IOException {
+        try (Stream<Path> files = Files.walk(inputDirectory)) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .filter(p -> p.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".svg"))
+                    .sorted(Comparator.comparing(Path::toString))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private @NotNull RasterizedFile rasterize(@NotNull SVGLoader loader, @NotNull Path inputDirectory,
+            @NotNull Path source, @NotNull Path outputDirectory) {
+        Path relativeSource = inputDirectory.relativize(source);
+        List<Path> outputs = new ArrayList<>(scales.length);
+        long start = System.nanoTime();
+        long loadNanos = 0;
+        try {
+            SVGDocument document = loader.load(source.toUri().toURL());
+            loadNanos = System.nanoTime() - start;
+            if (document == null) throw new IOException("Document could not be parsed");
+
+            Path targetDirectory = outputDirectory.resolve(relativeSource).getParent();
+            Files.createDirectories(targetDirectory);
+            String documentName = source.getFileName().toString();
+            for (float scale : scales) {
+                Path target = targetDirectory.resolve(imageName(documentName, scale));
+                ImageIO.write(render(document, scale), "png", target.toFile());
+                outputs.add(target);
+            }
+            return new RasterizedFile(relativeSource, outputs, loadNanos, System.nanoTime() - start - loadNanos,
+                    null);
+        } catch (Exception e) {
+            if (loadNanos == 0) loadNanos = System.nanoTime() - start;
+            return new RasterizedFile(relativeSource, outputs, loadNanos, System.nanoTime() - start - loadNanos, e);
+        }
+    }
+
+    private static @NotNull BufferedImage render(@NotNull SVGDocument document, float scale) {
+        FloatSize size = document.size();
+        BufferedImage image = new BufferedImage(
+                Math.max(1, (int) Math.ceil(size.width * scale)),
+                Math.max(1, (int) Math.ceil(size.height * scale)),
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.scale(scale, scale);
+        document.render(null, g);
+        g.dispose();
+        return image;
+    }
+
+    private static @NotNull RasterizedFile await(@NotNull Future<RasterizedFile> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rasterizing", e);
+        } catch (ExecutionException e) {
+            // Failures of individual documents are part of the result, hence this can only originate from the listener.
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IOException(cause);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.rasterizer;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The outcome of a {@link BatchRasterizer} run.
+ */
+public final class BatchResult {
+    private final @NotNull List<@NotNull RasterizedFile> files;
+    private final long wallNanos;
+
+    BatchResult(@NotNull List<@NotNull RasterizedFile> files, long wallNanos) {
+        this.files = List.copyOf(files);
+        this.wallNanos = wallNanos;
+    }
+
+    /**
+     * @return the results of all documents, ordered by their path.
+     */
+    public @NotNull List<@NotNull RasterizedFile> files() {
+        return files;
+    }
+
+    public @NotNull List<@NotNull RasterizedFile> failures() {
+        return files.stream().filter(f -> !f.isSuccess()).collect(Collectors.toList());
+    }
+
+    public int imageCount() {
+        return files.stream().mapToInt(f -> f.outputs().size()).sum();
+    }
+
+    /**
+     * @return the elapsed time of the whole run in nanoseconds.
+     */
+    public long wallNanos() {
+        return wallNanos;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.rasterizer;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Command line entry point of the {@link BatchRasterizer}.
+ * <pre>
+ * jsvg-rasterizer [--scales 1,2,...] [--threads n] &lt;input-directory&gt; &lt;output-directory&gt;
+ * </pre>
+ * Prints the timings of every document and exits with status 1 if any document failed to render.
+ */
+public final class Main {
+    private static final String USAGE =
+            "Usage: jsvg-rasterizer [--scales 1,2,...] [--threads n] <input-directory> <output-directory>";
+
+    private Main() {}
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        float[] scales = {1};
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path input = null;
+        Path output = null;
+        BatchRasterizer rasterizer;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--scales":
+                        scales = parseScales(argument(args, ++i));
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(argument(args, ++i));
+                        break;
+                    default:
+                        if (input == null) {
+                            input = Path.of(args[i]);
+                        } else if (output == null) {
+                            output = Path.of(args[i]);
+                        } else {
+                            throw new IllegalArgumentException("Unexpected argument " + args[i]);
+                        }
+                }
+            }
+            if (input == null || output == null) throw new IllegalArgumentException("Missing directories");
+            if (!Files.isDirectory(input)) throw new IllegalArgumentException(input + " is not a directory");
+            rasterizer = new BatchRasterizer(scales, threads);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        PrintStream out = System.out;
+        BatchResult result = rasterizer.rasterize(input, output, file -> {
+            synchronized (out) {
+                if (file.isSuccess()) {
+                    out.printf(Locale.ROOT, "%9.2f ms  %s%n", millis(file.totalNanos()), file.source());
+                } else {
+                    out.printf(Locale.ROOT, "   FAILED     %s: %s%n", file.source(), file.failure());
+                }
+            }
+        });
+
+        int failures = result.failures().size();
+        out.printf(Locale.ROOT, "Rendered %d images of %d documents in %.0f ms (%d failed)%n",
+                result.imageCount(), result.files().size(), millis(result.wallNanos()), failures);
+        if (failures > 0) System.exit(1);
+    }
+
+    private static @NotNull String argument(String @NotNull [] args, int index) {
+        if (index >= args.length) throw new IllegalArgumentException("Missing value for " + args[index - 1]);
+        return args[index];
+    }
+
+    private static float @NotNull [] parseScales(@NotNull String value) {
+        String[] parts = value.split(",");
+        float[] scales = new float[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            scales[i] = Float.parseFloat(parts[i].trim());
+        }
+        return scales;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
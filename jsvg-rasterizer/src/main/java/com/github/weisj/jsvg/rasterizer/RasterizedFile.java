@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.rasterizer;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The outcome of rasterizing a single document.
+ */
+public final class RasterizedFile {
+    private final @NotNull Path source;
+    private final @NotNull List<@NotNull Path> outputs;
+    private final long loadNanos;
+    private final long renderNanos;
+    private final @Nullable Throwable failure;
+
+    RasterizedFile(@NotNull Path source, @NotNull List<@NotNull Path> outputs, long loadNanos, long renderNanos,
+            @Nullable Throwable failure) {
+        this.source = source;
+        this.outputs = List.copyOf(outputs);
+        this.loadNanos = loadNanos;
+        this.renderNanos = renderNanos;
+        this.failure = failure;
+    }
+
+    /**
+     * @return the path of the document relative to the input directory.
+     */
+    public @NotNull Path source() {
+        return source;
+    }
+
+    /**
+     * @return the images written for this document. If rasterization failed this only contains the images written
+     *         before the failure occurred.
+     */
+    public @NotNull List<@NotNull Path> outputs() {
+        return outputs;
+    }
+
+    /**
+     * @return the time spent parsing the document in nanoseconds.
+     */
+    public long loadNanos() {
+        return loadNanos;
+    }
+
+    /**
+     * @return the time spent rendering and encoding the images of all scales in nanoseconds.
+     */
+    public long renderNanos() {
+        return renderNanos;
+    }
+
+    public long totalNanos() {
+        return loadNanos + renderNanos;
+    }
+
+    public boolean isSuccess() {
+        return failure == null;
+    }
+
+    public @Nullable Throwable failure() {
+        return failure;
+    }
+
+    @Override
+    public String toString() {
+        return "RasterizedFile{" +
+                "source=" + source +
+                ", outputs=" + outputs.size() +
+                ", loadNanos=" + loadNanos +
+                ", renderNanos=" + renderNanos +
+                ", failure=" + failure +
+                '}';
+    }
+}
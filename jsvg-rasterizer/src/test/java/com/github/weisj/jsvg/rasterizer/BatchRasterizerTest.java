@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.rasterizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BatchRasterizerTest {
+    private static final String ICON =
+            "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"16\" height=\"12\">"
+                    + "<rect width=\"16\" height=\"12\" fill=\"red\"/></svg>";
+
+    private static void write(@NotNull Path file, @NotNull String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    @Test
+    void rasterizesDirectoryTree(@TempDir Path temp) throws IOException {
+        Path input = temp.resolve("in");
+        Path output = temp.resolve("out");
+        write(input.resolve("a.svg"), ICON);
+        write(input.resolve("nested/b.svg"), ICON);
+        write(input.resolve("nested/broken.svg"), "<svg");
+        write(input.resolve("nested/readme.txt"), "not a document");
+
+        AtomicInteger reported = new AtomicInteger();
+        BatchResult result = new BatchRasterizer(new float[] {1, 2}, 2)
+                .rasterize(input, output, f -> reported.incrementAndGet());
+
+        assertEquals(3, result.files().size());
+        assertEquals(3, reported.get());
+        assertEquals(4, result.imageCount());
+
+        List<RasterizedFile> failures = result.failures();
+        assertEquals(1, failures.size());
+        assertEquals(Path.of("nested", "broken.svg"), failures.get(0).source());
+        assertNotNull(failures.get(0).failure());
+
+        BufferedImage image = ImageIO.read(output.resolve("nested/b.png").toFile());
+        assertEquals(16, image.getWidth());
+        assertEquals(12, image.getHeight());
+        assertEquals(0xFFFF0000, image.getRGB(8, 6));
+
+        BufferedImage scaled = ImageIO.read(output.resolve("a@2x.png").toFile());
+        assertEquals(32, scaled.getWidth());
+        assertEquals(24, scaled.getHeight());
+    }
+
+    @Test
+    void namesImagesByScale() {
+        assertEquals("icon.png", BatchRasterizer.imageName("icon.svg", 1));
+        assertEquals("icon@2x.png", BatchRasterizer.imageName("icon.svg", 2));
+        assertEquals("icon@1.5x.png", BatchRasterizer.imageName("icon.svg", 1.5f));
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchRasterizer(new float[0]));
+        assertThrows(IllegalArgumentException.class, () -> new BatchRasterizer(new float[] {0}));
+        assertThrows(IllegalArgumentException.class, () -> new BatchRasterizer(new float[] {1}, 0));
+    }
+}
@@ -24,6 +24,19 @@ dependencies {
     jmh(testLibs.svgSalamander)
     jmh(testLibs.batik)
 }
+
+sourceSets.named("jmh") {
+    // The corpus benchmarks run over the documents used by the tests.
+    resources.srcDir("src/test/resources")
+}
+
+jmh {
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results-${project.version}.json"))
+    (findProperty("jmh.includes") as String?)?.let { includes.add(it) }
+}
+
 tasks {
 
     compileTestJava {
@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.weisj.jsvg.parser.SVGLoader;
+
+/**
+ * Measures feGaussianBlur across standard deviations and buffer sizes. Small deviations are convolved with a
+ * gaussian kernel, larger ones are approximated by three box blurs per axis, which are split into stripes
+ * processed on the common fork join pool for large buffers. The sequential variant runs with a common pool
+ * parallelism of 1 for comparison.
+ * <p>
+ * Run with {@code ./gradlew :jsvg:jmh -Pjmh.includes=BlurBenchmark}.
+ */
+@Fork(value = 1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class BlurBenchmark {
+
+    @Param({"1", "4", "16", "64"})
+    public float stdDeviation;
+
+    @Param({"256", "1024", "2048"})
+    public int size;
+
+    private SVGDocument document;
+    private BufferedImage image;
+
+    @Setup
+    public void setup() {
+        String svg = "<svg xmlns='http://www.w3.org/2000/svg' width='" + size + "' height='" + size + "'>"
+                + "<filter id='f' x='0' y='0' width='1' height='1'>"
+                + "<feGaussianBlur stdDeviation='" + stdDeviation + "'/></filter>"
+                + "<g filter='url(#f)'>"
+                + "<rect width='" + size + "' height='" + size + "' fill='none'/>"
+                + "<circle cx='50%' cy='50%' r='40%' fill='orange' fill-opacity='0.8'/>"
+                + "<rect x='10%' y='10%' width='30%' height='30%' fill='navy'/>"
+                + "</g></svg>";
+        document = Objects.requireNonNull(
+                new SVGLoader().load(new ByteArrayInputStream(svg.getBytes(StandardCharsets.UTF_8))));
+        image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    @Benchmark
+    public void blur(@NotNull Blackhole blackhole) {
+        render(blackhole);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Djava.util.concurrent.ForkJoinPool.common.parallelism=1")
+    public void blurSequential(@NotNull Blackhole blackhole) {
+        render(blackhole);
+    }
+
+    private void render(@NotNull Blackhole blackhole) {
+        Graphics2D g = image.createGraphics();
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, size, size);
+        g.setComposite(AlphaComposite.SrcOver);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(SVGRenderingHints.KEY_FILTER_CACHE, SVGRenderingHints.VALUE_FILTER_CACHE_OFF);
+        document.render(null, g);
+        g.dispose();
+        blackhole.consume(image);
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.weisj.jsvg.geometry.size.FloatSize;
+import com.github.weisj.jsvg.parser.SVGLoader;
+
+/**
+ * Measures loading, shape computation and rasterization over a categorized corpus of documents.
+ * The documents are taken from the test resources, except for {@link Category#HUGE_PATHS}, which are generated.
+ * Every invocation processes all documents of a category. Rendering is measured with all caches disabled.
+ * <p>
+ * Run with {@code ./gradlew :jsvg:jmh -Pjmh.includes=CorpusBenchmark}. Results including the allocation profile are
+ * written as JSON to {@code build/results/jmh}, named after the project version, so they can be compared between
+ * releases.
+ */
+@Fork(value = 1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CorpusBenchmark {
+    private static final RenderingHints.Key[] CACHE_KEYS = {
+            SVGRenderingHints.KEY_FILTER_CACHE,
+            SVGRenderingHints.KEY_MASK_CACHE,
+            SVGRenderingHints.KEY_PATTERN_CACHE,
+            SVGRenderingHints.KEY_MESH_GRADIENT_CACHE,
+            SVGRenderingHints.KEY_TURBULENCE_CACHE
+    };
+
+    public enum Category {
+        ICONS("icons", "desktop", "drive", "folder", "general", "homeFolder", "image", "missingImage", "newFolder",
+                "pendingImage", "text", "unknown", "upFolder"),
+        FILTERS("filter", "blend", "blend_bug41", "blur", "blur2", "colormatrix", "colormatrix_bug41_1",
+                "colormatrix_bug41_2", "composite", "composite_bug33", "displacement", "edgeModeDuplicate",
+                "edgeModeNone", "edgeModeWrap", "flood", "floodColor_bug29", "merge_composite_bug33", "offset",
+                "outOfBoundsHidden", "outOfBoundsVisible", "slim", "source_alpha_bug30", "turbulence1",
+                "turbulence2", "turbulence3"),
+        MASKS("mask", "chromeLogo", "classIcon", "complexTransform_bug32", "empty_group_issue_48", "mask1", "mask2",
+                "maskContentUnits", "maskUnits", "nestedMask", "overlapping", "translucentMask"),
+        TEXT("text", "dominantBaseline", "fontStretch", "gradientText0", "gradientText1", "gradientText2",
+                "lengthAdjust", "letterSpacing", "text0", "text1", "text2", "text3", "text4", "text5", "text6",
+                "textAnchor", "textClip", "textLength", "textLengthPath"),
+        GRADIENTS("gradient", "bad_gradient_stop_issue_51", "linearGradient", "radialGradient", "radialGradient2",
+                "radialGradient3", "radialGradientFocusRadius", "stripes"),
+        MESH("mesh", "mesh", "mesh2", "mesh3", "mesh4"),
+        HUGE_PATHS(null) {
+            @Override
+            byte @NotNull [] @NotNull [] sources() {
+                return new byte[][] {
+                        generatedPath(2_000, true),
+                        generatedPath(5_000, false)
+                };
+            }
+        };
+
+        private final String directory;
+        private final String[] names;
+
+        Category(String directory, @NotNull String... names) {
+            this.directory = directory;
+            this.names = names;
+        }
+
+        byte @NotNull [] @NotNull [] sources() {
+            byte[][] sources = new byte[names.length][];
+            for (int i = 0; i < names.length; i++) {
+                String path = directory + "/" + names[i] + ".svg";
+                try (InputStream in = Objects.requireNonNull(CorpusBenchmark.class.getResourceAsStream(path), path)) {
+                    sources[i] = in.readAllBytes();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return sources;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Corpus {
+        @Param
+        public Category category;
+
+        private byte[][] sources;
+        private SVGDocument[] documents;
+
+        @Setup
+        public void setup() {
+            sources = category.sources();
+            documents = new SVGDocument[sources.length];
+            for (int i = 0; i < sources.length; i++) {
+                documents[i] = load(sources[i]);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Canvas {
+        @Param({"1", "2", "4"})
+        public float scale;
+
+        private SVGDocument[] documents;
+        private BufferedImage[] images;
+
+        @Setup
+        public void setup(@NotNull Corpus corpus) {
+            documents = corpus.documents;
+            images = new BufferedImage[documents.length];
+            for (int i = 0; i < documents.length; i++) {
+                FloatSize size = documents[i].size();
+                images[i] = new BufferedImage(
+                        Math.max(1, (int) Math.ceil(size.width * scale)),
+                        Math.max(1, (int) Math.ceil(size.height * scale)),
+                        BufferedImage.TYPE_INT_ARGB);
+            }
+        }
+    }
+
+    @Benchmark
+    public void load(@NotNull Corpus corpus, @NotNull Blackhole blackhole) {
+        for (byte[] source : corpus.sources) {
+            blackhole.consume(load(source));
+        }
+    }
+
+    @Benchmark
+    public void computeShape(@NotNull Corpus corpus, @NotNull Blackhole blackhole) {
+        for (SVGDocument document : corpus.documents) {
+            blackhole.consume(document.computeShape());
+        }
+    }
+
+    @Benchmark
+    public void render(@NotNull Canvas canvas, @NotNull Blackhole blackhole) {
+        for (int i = 0; i < canvas.documents.length; i++) {
+            BufferedImage image = canvas.images[i];
+            Graphics2D g = image.createGraphics();
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g.setComposite(AlphaComposite.SrcOver);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            // The documents are painted repeatedly. Without disabling the caches only the first invocation would
+            // measure the rasterization of filters, masks, patterns and mesh gradients.
+            for (RenderingHints.Key cacheKey : CACHE_KEYS) {
+                g.setRenderingHint(cacheKey, SVGRenderingHints.VALUE_CACHE_OFF);
+            }
+            g.scale(canvas.scale, canvas.scale);
+            canvas.documents[i].render(null, g);
+            g.dispose();
+            blackhole.consume(image);
+        }
+    }
+
+    private static @NotNull SVGDocument load(byte @NotNull [] source) {
+        return Objects.requireNonNull(new SVGLoader().load(new ByteArrayInputStream(source)));
+    }
+
+    private static byte @NotNull [] generatedPath(int segments, boolean curves) {
+        // A closed outline with jittered radius around the center. As the angle increases monotonically the outline
+        // doesn't self intersect, resembling e.g. a detailed map contour. The fixed seed makes every run measure the
+        // same geometry.
+        Random random = new Random(segments);
+        int pointsPerSegment = curves ? 3 : 1;
+        int pointCount = segments * pointsPerSegment;
+        StringBuilder path = new StringBuilder(pointCount * 16);
+        appendPoint(path.append('M'), 0, random);
+        for (int i = 1; i <= pointCount; i++) {
+            if ((i - 1) % pointsPerSegment == 0) path.append(curves ? " C" : " L");
+            appendPoint(path, 2 * Math.PI * i / pointCount, random);
+        }
+        path.append(" Z");
+        String paint = curves
+                ? "fill=\"#4a90d9\""
+                : "fill=\"none\" stroke=\"#d94a4a\" stroke-width=\"0.5\"";
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"1000\" height=\"1000\">"
+                + "<path " + paint + " d=\"" + path + "\"/></svg>";
+        return svg.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendPoint(@NotNull StringBuilder path, double angle, @NotNull Random random) {
+        double radius = 300 + 150 * random.nextDouble();
+        path.append(String.format(Locale.ROOT, " %.2f %.2f",
+                500 + radius * Math.cos(angle), 500 + radius * Math.sin(angle)));
+    }
+}
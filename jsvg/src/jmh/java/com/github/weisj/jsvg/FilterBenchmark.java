@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.weisj.jsvg.parser.SVGLoader;
+
+/**
+ * Measures the filter pipeline by rendering a shape through a single filter primitive, or a typical chain of
+ * primitives. The filter buffer covers the whole canvas, hence the measured time is dominated by the pixel work of
+ * the primitives and the transfer of their results between each other.
+ * <p>
+ * Run with {@code ./gradlew :jsvg:jmh -Pjmh.includes=FilterBenchmark}.
+ */
+@Fork(value = 1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class FilterBenchmark {
+    private static final int SIZE = 400;
+
+    public enum Primitive {
+        BLUR("<feGaussianBlur stdDeviation='4'/>"),
+        OFFSET("<feOffset dx='7' dy='5'/>"),
+        COLOR_MATRIX("<feColorMatrix type='saturate' values='0.3'/>"),
+        COMPOSITE("<feFlood flood-color='teal' result='flood'/>"
+                + "<feComposite in='flood' in2='SourceGraphic' operator='in'/>"),
+        BLEND("<feFlood flood-color='teal' result='flood'/>"
+                + "<feBlend in='flood' in2='SourceGraphic' mode='multiply'/>"),
+        TURBULENCE("<feTurbulence type='turbulence' baseFrequency='0.05' numOctaves='2'/>"),
+        DROP_SHADOW("<feOffset in='SourceAlpha' dx='6' dy='6'/>"
+                + "<feGaussianBlur stdDeviation='4'/>"
+                + "<feColorMatrix values='0 0 0 0 0  0 0 0 0 0  0 0 0 0 0  0 0 0 0.4 0'/>"
+                + "<feMerge><feMergeNode/><feMergeNode in='SourceGraphic'/></feMerge>");
+
+        private final String primitives;
+
+        Primitive(@NotNull String primitives) {
+            this.primitives = primitives;
+        }
+
+        byte @NotNull [] source() {
+            String svg = "<svg xmlns='http://www.w3.org/2000/svg' width='" + SIZE + "' height='" + SIZE + "'>"
+                    + "<filter id='f' x='0' y='0' width='1' height='1'>" + primitives + "</filter>"
+                    + "<g filter='url(#f)'>"
+                    + "<rect width='" + SIZE + "' height='" + SIZE + "' fill='none'/>"
+                    + "<circle cx='200' cy='200' r='150' fill='orange' fill-opacity='0.8'/>"
+                    + "<rect x='60' y='60' width='120' height='120' fill='navy'/>"
+                    + "</g></svg>";
+            return svg.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Param
+    public Primitive primitive;
+
+    private SVGDocument document;
+    private BufferedImage image;
+
+    @Setup
+    public void setup() {
+        document = Objects.requireNonNull(new SVGLoader().load(new ByteArrayInputStream(primitive.source())));
+        image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    @Benchmark
+    public void render(@NotNull Blackhole blackhole) {
+        Graphics2D g = image.createGraphics();
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, SIZE, SIZE);
+        g.setComposite(AlphaComposite.SrcOver);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(SVGRenderingHints.KEY_FILTER_CACHE, SVGRenderingHints.VALUE_FILTER_CACHE_OFF);
+        document.render(null, g);
+        g.dispose();
+        blackhole.consume(image);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg;
+
+import java.awt.image.BufferedImage;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.github.weisj.jsvg.util.LruByteCache;
+
+/**
+ * Cache for rasterized layers of expensive subtrees i.e. elements with a filter, clip-path or mask.
+ * A layer holds the whole region of the element and the clip of the output is only applied when the layer is
+ * painted. Layers are kept across paints and reused as long as the element is painted with the same scale and
+ * rotation, subpixel offset, rendering hints and inherited style. In particular translating the output e.g. while
+ * scrolling reuses the layers.
+ * <p>
+ * Filters and masks, which are cut by the clip of the output, are computed from the visible part only if painted
+ * without a layer. The cached rendering of such elements can hence differ slightly from the uncached one.
+ * <p>
+ * The cache is enabled by setting an instance as the value of {@link SVGRenderingHints#KEY_LAYER_CACHE}.
+ * The least recently used layers are evicted once the cached layers exceed the given byte budget.
+ * The cache doesn't hold on to the nodes of the painted document, but the layers of a document which isn't
+ * painted anymore are only released once evicted or the cache is cleared. A cache can be shared between
+ * multiple documents.
+ */
+public final class LayerCache {
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final @NotNull LruByteCache<Object, Layer> layers;
+
+    /**
+     * @param maxBytes the maximum number of bytes occupied by the cached layers.
+     */
+    public LayerCache(long maxBytes) {
+        this.layers = new LruByteCache<>(maxBytes);
+    }
+
+    public long maxBytes() {
+        return layers.maxBytes();
+    }
+
+    public long currentBytes() {
+        return layers.currentBytes();
+    }
+
+    public int layerCount() {
+        return layers.size();
+    }
+
+    public void clear() {
+        layers.clear();
+    }
+
+    @ApiStatus.Internal
+    public boolean canHold(int width, int height) {
+        return layers.canHold(byteSize(width, height));
+    }
+
+    @ApiStatus.Internal
+    public @Nullable Layer get(@NotNull Object key) {
+        return layers.get(key);
+    }
+
+    @ApiStatus.Internal
+    public void put(@NotNull Object key, @NotNull Layer layer) {
+        layers.put(key, layer, layer.byteSize());
+    }
+
+    private static long byteSize(int width, int height) {
+        return (long) width * height * BYTES_PER_PIXEL;
+    }
+
+    @ApiStatus.Internal
+    public static final class Layer {
+        private final @NotNull BufferedImage image;
+        private final int x;
+        private final int y;
+
+        /**
+         * @param image the rasterized layer.
+         * @param x the x offset of the image relative to the integral part of the device translation.
+         * @param y the y offset of the image relative to the integral part of the device translation.
+         */
+        public Layer(@NotNull BufferedImage image, int x, int y) {
+            this.image = image;
+            this.x = x;
+            this.y = y;
+        }
+
+        public @NotNull BufferedImage image() {
+            return image;
+        }
+
+        public int x() {
+            return x;
+        }
+
+        public int y() {
+            return y;
+        }
+
+        private long byteSize() {
+            return LayerCache.byteSize(image.getWidth(), image.getHeight());
+        }
+    }
+}
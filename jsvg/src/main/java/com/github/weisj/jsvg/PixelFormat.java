@@ -0,0 +1,50 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg;
+
+/**
+ * Describes the memory layout of pixel buffers passed to {@link SVGDocument#renderTo}.
+ * <p>
+ * For int based storage every pixel is a single int packed as {@code 0xAARRGGBB}. For byte based storage every
+ * pixel occupies four consecutive bytes in the order given by the name of the format.
+ */
+public enum PixelFormat {
+    /**
+     * Non-premultiplied ARGB. Byte based storage holds the components in the order alpha, red, green, blue.
+     */
+    ARGB(false),
+    /**
+     * Premultiplied BGRA, as commonly used by native compositors. Byte based storage holds the components in the
+     * order blue, green, red, alpha, which coincides with the int layout on little endian platforms.
+     */
+    BGRA_PREMULTIPLIED(true);
+
+    private final boolean premultiplied;
+
+    PixelFormat(boolean premultiplied) {
+        this.premultiplied = premultiplied;
+    }
+
+    public boolean isPremultiplied() {
+        return premultiplied;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg;
+
+import org.jetbrains.annotations.NotNull;
+
+import com.github.weisj.jsvg.nodes.SVGNode;
+
+/**
+ * Receives notifications about the work done while rendering a document. Useful for monitoring where render time
+ * is spent. See {@link RenderMetrics} for a listener which aggregates the events into histograms.
+ * <p>
+ * A listener is installed by setting it as the value of {@link SVGRenderingHints#KEY_RENDER_LISTENER}.
+ * Note that documents may be rendered from multiple threads hence implementations should be thread-safe
+ * if they are shared.
+ */
+public interface RenderListener {
+
+    /**
+     * Listener which ignores all events. Used if no listener has been installed.
+     */
+    RenderListener NONE = new RenderListener() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    enum Phase {
+        /**
+         * Computing the layout of a filter and allocating its buffer.
+         */
+        FILTER_SETUP,
+        /**
+         * Applying a single filter primitive.
+         */
+        FILTER_PRIMITIVE,
+        /**
+         * Rasterizing the content of a mask.
+         */
+        MASK,
+        /**
+         * Rasterizing a pattern tile.
+         */
+        PATTERN,
+        /**
+         * Rasterizing a complex clip path into a soft clip mask.
+         */
+        CLIP_PATH,
+        /**
+         * Rasterizing the patches of a mesh gradient.
+         */
+        MESH_GRADIENT
+    }
+
+    enum Cache {
+        LAYER,
+        CLIP_PATH,
+        MASK,
+        PATTERN,
+        MESH_GRADIENT,
+        FILTER,
+        TURBULENCE
+    }
+
+    /**
+     * Whether events should be reported. Returning false allows callers to skip measuring durations altogether.
+     *
+     * @return true if the listener is interested in events.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * A node is about to be rendered.
+     *
+     * @param node the node.
+     */
+    default void nodeVisited(@NotNull SVGNode node) {}
+
+    /**
+     * An off-screen buffer has been allocated.
+     *
+     * @param width the width of the buffer in pixels.
+     * @param height the height of the buffer in pixels.
+     */
+    default void bufferAllocated(int width, int height) {}
+
+    /**
+     * A phase of rendering has completed.
+     *
+     * @param phase the phase.
+     * @param node the node which was processed e.g. the filter primitive or mask.
+     * @param durationNanos the time spent in nanoseconds.
+     */
+    default void phaseCompleted(@NotNull Phase phase, @NotNull SVGNode node, long durationNanos) {}
+
+    /**
+     * A cache has been queried.
+     *
+     * @param cache the cache.
+     * @param hit whether the cache contained the requested entry.
+     */
+    default void cacheAccessed(@NotNull Cache cache, boolean hit) {}
+}
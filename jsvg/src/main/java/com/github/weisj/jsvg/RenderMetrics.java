@@ -0,0 +1,220 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetbrains.annotations.NotNull;
+
+import com.github.weisj.jsvg.nodes.SVGNode;
+
+/**
+ * A {@link RenderListener} which aggregates render events into counters and histograms.
+ * Use one instance per document to get per document statistics. All methods are thread-safe.
+ */
+public final class RenderMetrics implements RenderListener {
+    private final LongAdder nodesVisited = new LongAdder();
+    private final @NotNull Histogram bufferPixels = new Histogram();
+    private final @NotNull Histogram[] phaseDurations = new Histogram[Phase.values().length];
+    private final @NotNull AtomicLongArray cacheHits = new AtomicLongArray(Cache.values().length);
+    private final @NotNull AtomicLongArray cacheMisses = new AtomicLongArray(Cache.values().length);
+
+    public RenderMetrics() {
+        for (int i = 0; i < phaseDurations.length; i++) {
+            phaseDurations[i] = new Histogram();
+        }
+    }
+
+    @Override
+    public void nodeVisited(@NotNull SVGNode node) {
+        nodesVisited.increment();
+    }
+
+    @Override
+    public void bufferAllocated(int width, int height) {
+        bufferPixels.record((long) width * height);
+    }
+
+    @Override
+    public void phaseCompleted(@NotNull Phase phase, @NotNull SVGNode node, long durationNanos) {
+        phaseDurations[phase.ordinal()].record(durationNanos);
+    }
+
+    @Override
+    public void cacheAccessed(@NotNull Cache cache, boolean hit) {
+        (hit ? cacheHits : cacheMisses).incrementAndGet(cache.ordinal());
+    }
+
+    public long nodesVisited() {
+        return nodesVisited.sum();
+    }
+
+    /**
+     * @return the histogram of the pixel areas of all allocated off-screen buffers.
+     */
+    public @NotNull Histogram bufferPixels() {
+        return bufferPixels;
+    }
+
+    /**
+     * @param phase the phase.
+     * @return the histogram of durations in nanoseconds of the given phase.
+     */
+    public @NotNull Histogram phaseDurations(@NotNull Phase phase) {
+        return phaseDurations[phase.ordinal()];
+    }
+
+    public long cacheHits(@NotNull Cache cache) {
+        return cacheHits.get(cache.ordinal());
+    }
+
+    public long cacheMisses(@NotNull Cache cache) {
+        return cacheMisses.get(cache.ordinal());
+    }
+
+    public void reset() {
+        nodesVisited.reset();
+        bufferPixels.reset();
+        for (Histogram histogram : phaseDurations) {
+            histogram.reset();
+        }
+        for (int i = 0; i < cacheHits.length(); i++) {
+            cacheHits.set(i, 0);
+            cacheMisses.set(i, 0);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("RenderMetrics{");
+        builder.append("\n  nodesVisited=").append(nodesVisited());
+        builder.append(",\n  bufferPixels=").append(bufferPixels);
+        for (Phase phase : Phase.values()) {
+            builder.append(",\n  ").append(phase).append("=").append(phaseDurations(phase));
+        }
+        for (Cache cache : Cache.values()) {
+            builder.append(",\n  ").append(cache).append("_CACHE={hits=").append(cacheHits(cache))
+                    .append(", misses=").append(cacheMisses(cache)).append('}');
+        }
+        return builder.append("\n}").toString();
+    }
+
+    /**
+     * A histogram of non-negative values with power of two buckets. Bucket {@code i} counts the values
+     * {@code v} with {@code 2^(i-1) <= v < 2^i}, bucket 0 counts zeros.
+     */
+    public static final class Histogram {
+        private static final int BUCKET_COUNT = Long.SIZE + 1;
+
+        private final @NotNull AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        private final @NotNull LongAdder count = new LongAdder();
+        private final @NotNull LongAdder sum = new LongAdder();
+        private final @NotNull AtomicLong max = new AtomicLong();
+
+        private Histogram() {}
+
+        void record(long value) {
+            if (value < 0) value = 0;
+            buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(value));
+            count.increment();
+            sum.add(value);
+            max.accumulateAndGet(value, Math::max);
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets.set(i, 0);
+            }
+            count.reset();
+            sum.reset();
+            max.set(0);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public long sum() {
+            return sum.sum();
+        }
+
+        public long max() {
+            return max.get();
+        }
+
+        public double mean() {
+            long n = count();
+            return n == 0 ? 0 : (double) sum() / n;
+        }
+
+        /**
+         * @return the number of values per bucket. See {@link Histogram} for the bucket boundaries.
+         */
+        public long @NotNull [] buckets() {
+            long[] result = new long[BUCKET_COUNT];
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                result[i] = buckets.get(i);
+            }
+            return result;
+        }
+
+        /**
+         * Estimates a quantile of the recorded values. The result is the exclusive upper bound of the bucket
+         * containing the quantile, capped at the maximal recorded value.
+         *
+         * @param quantile the quantile between 0 and 1.
+         * @return the estimated value.
+         */
+        public long quantile(double quantile) {
+            if (quantile < 0 || quantile > 1) throw new IllegalArgumentException("Invalid quantile " + quantile);
+            long[] counts = buckets();
+            long total = 0;
+            for (long c : counts) {
+                total += c;
+            }
+            if (total == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    long upperBound = i == 0 ? 0 : i >= Long.SIZE - 1 ? Long.MAX_VALUE : 1L << i;
+                    return Math.min(upperBound, max());
+                }
+            }
+            return max();
+        }
+
+        @Override
+        public String toString() {
+            return "Histogram{" +
+                    "count=" + count() +
+                    ", mean=" + mean() +
+                    ", p50=" + quantile(0.5) +
+                    ", p99=" + quantile(0.99) +
+                    ", max=" + max() +
+                    '}';
+        }
+    }
+}
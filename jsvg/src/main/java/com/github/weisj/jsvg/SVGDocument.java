@@ -22,8 +22,12 @@
 package com.github.weisj.jsvg;
 
 import java.awt.*;
-import java.awt.geom.Area;
-import java.awt.geom.Path2D;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.List;
 import java.util.Objects;
 
 import javax.swing.*;
@@ -35,11 +39,15 @@ import com.github.weisj.jsvg.attributes.ViewBox;
 import com.github.weisj.jsvg.attributes.font.SVGFont;
 import com.github.weisj.jsvg.geometry.size.FloatSize;
 import com.github.weisj.jsvg.geometry.size.MeasureContext;
+import com.github.weisj.jsvg.jfr.JFR;
+import com.github.weisj.jsvg.jfr.RenderEvent;
 import com.github.weisj.jsvg.nodes.SVG;
+import com.github.weisj.jsvg.nodes.SVGNode;
 import com.github.weisj.jsvg.renderer.*;
 import com.github.weisj.jsvg.renderer.awt.JComponentPlatformSupport;
 import com.github.weisj.jsvg.renderer.awt.NullPlatformSupport;
 import com.github.weisj.jsvg.renderer.awt.PlatformSupport;
+import com.github.weisj.jsvg.util.PixelBuffers;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -51,6 +59,7 @@ public final class SVGDocument {
     private static final boolean DEBUG = false;
     private final @NotNull SVG root;
     private final @NotNull FloatSize size;
+    private volatile @Nullable HitTestCache hitTestCache;
 
     public SVGDocument(@NotNull SVG root) {
         this.root = root;
@@ -67,15 +76,115 @@ public final class SVGDocument {
     }
 
     public @NotNull Shape computeShape(@Nullable ViewBox viewBox) {
-        Area accumulator = new Area(new Path2D.Float());
-        renderWithPlatform(NullPlatformSupport.INSTANCE, new ShapeOutput(accumulator), viewBox);
-        return accumulator;
+        ShapeOutput output = new ShapeOutput();
+        renderWithPlatform(NullPlatformSupport.INSTANCE, output, viewBox);
+        return output.accumulatedShape();
+    }
+
+    public @Nullable SVGNode hitTest(@NotNull Point2D point) {
+        return hitTest(point, null);
+    }
+
+    /**
+     * Finds the element painted topmost at the given point. Content of elements without an id is attributed to the
+     * closest enclosing element with an id. Content instantiated by a {@code <use>} element is attributed to the
+     * {@code <use>} element itself, unless it has an id of its own.
+     * <p>
+     * The point is given in the coordinate system the document would be painted in using the given view box.
+     * The underlying spatial index is computed lazily and reused as long as the same view box is queried.
+     *
+     * @param point the point to test.
+     * @param viewBox the view box the document is painted in or null if it is painted at its own size.
+     * @return the element at the given point or null if there is none.
+     */
+    public @Nullable SVGNode hitTest(@NotNull Point2D point, @Nullable ViewBox viewBox) {
+        return elementIndex(viewBox).elementAt(point);
+    }
+
+    public @NotNull List<@NotNull SVGNode> elementsIntersecting(@NotNull Rectangle2D area) {
+        return elementsIntersecting(area, null);
+    }
+
+    /**
+     * Finds all elements whose painted content intersects the given area.
+     * See {@link #hitTest(Point2D, ViewBox)} for how content is attributed to elements.
+     *
+     * @param area the area to test.
+     * @param viewBox the view box the document is painted in or null if it is painted at its own size.
+     * @return the elements in painting order.
+     */
+    public @NotNull List<@NotNull SVGNode> elementsIntersecting(@NotNull Rectangle2D area,
+            @Nullable ViewBox viewBox) {
+        return elementIndex(viewBox).elementsIntersecting(area);
+    }
+
+    private @NotNull ElementIndex elementIndex(@Nullable ViewBox viewBox) {
+        HitTestCache cache = hitTestCache;
+        if (cache != null && Objects.equals(cache.viewBox, viewBox)) return cache.index;
+        ShapeOutput output = new ShapeOutput();
+        renderWithPlatform(NullPlatformSupport.INSTANCE, output, viewBox);
+        ElementIndex index = new ElementIndex(output.elementShapes());
+        hitTestCache = new HitTestCache(viewBox != null ? new ViewBox(viewBox) : null, index);
+        return index;
     }
 
     public void render(@Nullable JComponent component, @NotNull Graphics2D g) {
         render(component, g, null);
     }
 
+    /**
+     * Renders the document into the given pixel array, scaled to fill the given size. The document is painted on
+     * top of the existing content.
+     *
+     * @param pixels the pixel storage. Pixel {@code (x, y)} is located at index {@code y * stride + x}.
+     * @param width the width of the rendered area in pixels.
+     * @param height the height of the rendered area in pixels.
+     * @param stride the number of pixels between the starts of two consecutive rows.
+     * @param format the pixel format.
+     */
+    public void renderTo(int @NotNull [] pixels, int width, int height, int stride, @NotNull PixelFormat format) {
+        PixelBuffers.paint(pixels, width, height, stride, format, this::renderTo);
+    }
+
+    /**
+     * Renders the document into the given buffer, scaled to fill the given size. The document is painted on top of
+     * the existing content. Pixels are addressed relative to the current position of the buffer and the position
+     * isn't modified. Buffers which aren't backed by an array are painted into through an intermediate array,
+     * because Java2D can't paint into them directly with reasonable performance.
+     *
+     * @param pixels the pixel storage. Pixel {@code (x, y)} is located at index {@code position + y * stride + x}.
+     * @param width the width of the rendered area in pixels.
+     * @param height the height of the rendered area in pixels.
+     * @param stride the number of pixels between the starts of two consecutive rows.
+     * @param format the pixel format.
+     */
+    public void renderTo(@NotNull IntBuffer pixels, int width, int height, int stride, @NotNull PixelFormat format) {
+        PixelBuffers.paint(pixels, width, height, stride, format, this::renderTo);
+    }
+
+    /**
+     * Renders the document into the given buffer, scaled to fill the given size. The document is painted on top of
+     * the existing content. Pixels are addressed relative to the current position of the buffer and the position
+     * isn't modified. As with {@link #renderTo(IntBuffer, int, int, int, PixelFormat)} the pixels are painted
+     * through an intermediate array.
+     *
+     * @param pixels the pixel storage. Pixel {@code (x, y)} starts at byte {@code position + y * stride + 4 * x}.
+     * @param width the width of the rendered area in pixels.
+     * @param height the height of the rendered area in pixels.
+     * @param stride the number of bytes between the starts of two consecutive rows. Must be a multiple of 4.
+     * @param format the pixel format, which also determines the order of the bytes of a pixel.
+     */
+    public void renderTo(@NotNull ByteBuffer pixels, int width, int height, int stride, @NotNull PixelFormat format) {
+        PixelBuffers.paint(pixels, width, height, stride, format, this::renderTo);
+    }
+
+    private void renderTo(@NotNull BufferedImage image) {
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        render(null, g, new ViewBox(image.getWidth(), image.getHeight()));
+        g.dispose();
+    }
+
     private void render(@Nullable JComponent component, @NotNull Graphics2D graphics2D, @Nullable ViewBox bounds) {
         PlatformSupport platformSupport = component != null
                 ? new JComponentPlatformSupport(component)
@@ -93,25 +202,33 @@ public final class SVGDocument {
 
     public void renderWithPlatform(@NotNull PlatformSupport platformSupport, @NotNull Output output,
             @Nullable ViewBox bounds) {
-        RenderContext context = prepareRenderContext(platformSupport, output, bounds);
+        RenderEvent event = JFR.isAvailable() ? RenderEvent.start(System.identityHashCode(root)) : null;
+        try {
+            RenderContext context = prepareRenderContext(platformSupport, output, bounds);
 
-        if (bounds == null) bounds = new ViewBox(root.size(context));
+            if (bounds == null) bounds = new ViewBox(root.size(context));
 
+            if (DEBUG) {
+                final ViewBox finalBounds = bounds;
+                output.debugPaint(g -> {
+                    g.setColor(Color.RED);
+                    g.draw(finalBounds);
+                });
+            }
 
-        if (DEBUG) {
-            final ViewBox finalBounds = bounds;
-            output.debugPaint(g -> {
-                g.setColor(Color.RED);
-                g.draw(finalBounds);
-            });
-        }
-
-        output.applyClip(bounds);
-        output.translate(bounds.x, bounds.y);
+            output.applyClip(bounds);
+            output.translate(bounds.x, bounds.y);
 
-        try (NodeRenderer.Info info = NodeRenderer.createRenderInfo(root, context, output, null)) {
-            Objects.requireNonNull(info);
-            root.renderWithSize(bounds.size(), root.viewBox(context), info.context, info.output);
+            try (NodeRenderer.Info info = NodeRenderer.createRenderInfo(root, context, output, null)) {
+                Objects.requireNonNull(info);
+                root.renderWithSize(bounds.size(), root.viewBox(context), info.context, info.output);
+            }
+        } finally {
+            // Failed renders are recorded as well.
+            if (event != null) {
+                event.finish(bounds != null ? bounds : new ViewBox(0, 0),
+                        output.getClass().getSimpleName());
+            }
         }
     }
 
@@ -152,4 +269,14 @@ public final class SVGDocument {
             g.setRenderingHint(key, o);
         }
     }
+
+    private static final class HitTestCache {
+        private final @Nullable ViewBox viewBox;
+        private final @NotNull ElementIndex index;
+
+        private HitTestCache(@Nullable ViewBox viewBox, @NotNull ElementIndex index) {
+            this.viewBox = viewBox;
+            this.index = index;
+        }
+    }
 }
@@ -0,0 +1,172 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg;
+
+import java.awt.*;
+import java.awt.image.AbstractMultiResolutionImage;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.github.weisj.jsvg.geometry.size.FloatSize;
+
+/**
+ * A {@link java.awt.image.MultiResolutionImage} backed by an {@link SVGDocument}, e.g. for icons which are painted at
+ * different display scales.
+ * <p>
+ * Resolution variants are rendered lazily the first time a given pixel size is requested and are kept using soft
+ * references afterwards, so they may be reclaimed under memory pressure and are then rendered again on demand.
+ * Concurrent requests for the same pixel size are rendered only once, while different sizes may be rendered in
+ * parallel.
+ */
+public final class SVGMultiResolutionImage extends AbstractMultiResolutionImage {
+    private final @NotNull SVGDocument document;
+    private final @Nullable RenderingHints hints;
+    private final int baseWidth;
+    private final int baseHeight;
+    private final @NotNull ConcurrentHashMap<Long, Variant> variants = new ConcurrentHashMap<>();
+
+    public SVGMultiResolutionImage(@NotNull SVGDocument document) {
+        this(document, null);
+    }
+
+    /**
+     * Creates an image with the size of the document as its base size.
+     *
+     * @param document the document to render.
+     * @param hints additional rendering hints used for rendering the variants or null.
+     */
+    public SVGMultiResolutionImage(@NotNull SVGDocument document, @Nullable RenderingHints hints) {
+        this(document, hints, (int) Math.ceil(document.size().width), (int) Math.ceil(document.size().height));
+    }
+
+    /**
+     * Creates an image with the given base size. The document is scaled to fill the size of each variant.
+     *
+     * @param document the document to render.
+     * @param hints additional rendering hints used for rendering the variants or null.
+     * @param baseWidth the width of the image in user space.
+     * @param baseHeight the height of the image in user space.
+     */
+    public SVGMultiResolutionImage(@NotNull SVGDocument document, @Nullable RenderingHints hints,
+            int baseWidth, int baseHeight) {
+        if (baseWidth <= 0 || baseHeight <= 0) {
+            throw new IllegalArgumentException("Invalid size " + baseWidth + "x" + baseHeight);
+        }
+        this.document = document;
+        this.hints = hints != null ? (RenderingHints) hints.clone() : null;
+        this.baseWidth = baseWidth;
+        this.baseHeight = baseHeight;
+    }
+
+    @Override
+    public int getWidth(ImageObserver observer) {
+        return baseWidth;
+    }
+
+    @Override
+    public int getHeight(ImageObserver observer) {
+        return baseHeight;
+    }
+
+    @Override
+    protected @NotNull Image getBaseImage() {
+        return getResolutionVariant(baseWidth, baseHeight);
+    }
+
+    @Override
+    public @NotNull Image getResolutionVariant(double destImageWidth, double destImageHeight) {
+        if (!(destImageWidth > 0 && destImageHeight > 0)) {
+            throw new IllegalArgumentException("Invalid size " + destImageWidth + "x" + destImageHeight);
+        }
+        int width = (int) Math.ceil(destImageWidth);
+        int height = (int) Math.ceil(destImageHeight);
+        long key = ((long) width << 32) | (height & 0xFFFFFFFFL);
+        return variants.computeIfAbsent(key, k -> new Variant(width, height)).image();
+    }
+
+    /**
+     * Returns the base image and all variants which are currently rendered.
+     *
+     * @return the resolution variants.
+     */
+    @Override
+    public @NotNull List<Image> getResolutionVariants() {
+        List<Image> images = new ArrayList<>();
+        images.add(getBaseImage());
+        for (Variant variant : variants.values()) {
+            if (variant.width == baseWidth && variant.height == baseHeight) continue;
+            BufferedImage image = variant.cachedImage();
+            if (image != null) images.add(image);
+        }
+        return images;
+    }
+
+    private @NotNull BufferedImage render(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        if (hints != null) g.addRenderingHints(hints);
+        FloatSize size = document.size();
+        if (size.width > 0 && size.height > 0) {
+            g.scale(width / size.width, height / size.height);
+            document.render(null, g);
+        }
+        g.dispose();
+        return image;
+    }
+
+    private final class Variant {
+        private final int width;
+        private final int height;
+        private volatile @Nullable SoftReference<BufferedImage> image;
+
+        private Variant(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        private @Nullable BufferedImage cachedImage() {
+            SoftReference<BufferedImage> ref = image;
+            return ref != null ? ref.get() : null;
+        }
+
+        private @NotNull BufferedImage image() {
+            BufferedImage img = cachedImage();
+            if (img != null) return img;
+            synchronized (this) {
+                img = cachedImage();
+                if (img == null) {
+                    img = render(width, height);
+                    image = new SoftReference<>(img);
+                }
+                return img;
+            }
+        }
+    }
+}
@@ -23,18 +23,101 @@ package com.github.weisj.jsvg;
 
 import java.awt.*;
 
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public final class SVGRenderingHints {
     private SVGRenderingHints() {}
 
     private static final int P_KEY_IMAGE_ANTIALIASING = 1;
+    private static final int P_KEY_LAYER_CACHE = 2;
+    private static final int P_KEY_RENDER_LISTENER = 3;
+    private static final int P_KEY_SOFT_CLIP_THRESHOLD = 4;
+    private static final int P_KEY_FILTER_CACHE = 5;
+    private static final int P_KEY_MASK_CACHE = 6;
+    private static final int P_KEY_PATTERN_CACHE = 7;
+    private static final int P_KEY_MESH_GRADIENT_CACHE = 8;
+    private static final int P_KEY_TURBULENCE_CACHE = 9;
 
-    public static final RenderingHints.Key KEY_IMAGE_ANTIALIASING = new Key(P_KEY_IMAGE_ANTIALIASING);
+    public static final RenderingHints.Key KEY_IMAGE_ANTIALIASING = new Key(P_KEY_IMAGE_ANTIALIASING, Value.class);
     public static final Object VALUE_IMAGE_ANTIALIASING_ON = Value.ON;
     public static final Object VALUE_IMAGE_ANTIALIASING_OFF = Value.OFF;
 
+    /**
+     * Enables caching of rasterized layers for elements with a filter, clip-path or mask across paints.
+     * The value has to be a {@link LayerCache} instance. Caching is disabled if the hint isn't set.
+     */
+    public static final RenderingHints.Key KEY_LAYER_CACHE = new Key(P_KEY_LAYER_CACHE, LayerCache.class);
+
+    /**
+     * Installs a {@link RenderListener} which is notified about the work done while rendering.
+     * The value has to be a {@link RenderListener} instance e.g. {@link RenderMetrics}.
+     */
+    public static final RenderingHints.Key KEY_RENDER_LISTENER =
+            new Key(P_KEY_RENDER_LISTENER, RenderListener.class);
+
+    /**
+     * The number of path segments above which a clip path is rasterized into an antialiased alpha mask at device
+     * resolution instead of being applied as a geometric clip. Geometric clipping gets very slow for clip paths
+     * containing text or many sub-paths. Like masks the rasterized clip only applies to painted shapes and text,
+     * images are only clipped to the bounds of the clip path.
+     * <p>
+     * The value has to be an {@link Integer}. Defaults to {@link #DEFAULT_SOFT_CLIP_THRESHOLD}.
+     * Use {@link Integer#MAX_VALUE} to always clip geometrically.
+     */
+    public static final RenderingHints.Key KEY_SOFT_CLIP_THRESHOLD =
+            new Key(P_KEY_SOFT_CLIP_THRESHOLD, Integer.class);
+    public static final int DEFAULT_SOFT_CLIP_THRESHOLD = 1000;
+
+    /**
+     * Value of the cache hints which turns the respective cache on.
+     */
+    public static final Object VALUE_CACHE_ON = Value.ON;
+    /**
+     * Value of the cache hints which turns the respective cache off.
+     */
+    public static final Object VALUE_CACHE_OFF = Value.OFF;
+
+    /**
+     * Controls whether the results of filters are cached across paints. A cached result is reused as long as the
+     * filtered element is painted with the same scale, rotation, subpixel offset, visible region and inherited
+     * style.
+     * <p>
+     * All raster caches share a single byte budget. Caching is disabled by default as the results are usually
+     * large. Turn it on if repaint performance is more important than memory.
+     */
+    public static final RenderingHints.Key KEY_FILTER_CACHE = new Key(P_KEY_FILTER_CACHE, Value.class);
+    public static final Object VALUE_FILTER_CACHE_ON = VALUE_CACHE_ON;
+    public static final Object VALUE_FILTER_CACHE_OFF = VALUE_CACHE_OFF;
+
+    /**
+     * Controls whether rendered masks are cached across paints. Use {@link #VALUE_CACHE_ON} or
+     * {@link #VALUE_CACHE_OFF}. Caching is enabled by default.
+     */
+    public static final RenderingHints.Key KEY_MASK_CACHE = new Key(P_KEY_MASK_CACHE, Value.class);
+
+    /**
+     * Controls whether rendered pattern tiles are cached across paints. Use {@link #VALUE_CACHE_ON} or
+     * {@link #VALUE_CACHE_OFF}. Caching is enabled by default.
+     */
+    public static final RenderingHints.Key KEY_PATTERN_CACHE = new Key(P_KEY_PATTERN_CACHE, Value.class);
+
+    /**
+     * Controls whether rasterized mesh gradients are cached across paints. Use {@link #VALUE_CACHE_ON} or
+     * {@link #VALUE_CACHE_OFF}. Caching is enabled by default.
+     */
+    public static final RenderingHints.Key KEY_MESH_GRADIENT_CACHE =
+            new Key(P_KEY_MESH_GRADIENT_CACHE, Value.class);
+
+    /**
+     * Controls whether the noise generated by feTurbulence is cached across paints. Use {@link #VALUE_CACHE_ON} or
+     * {@link #VALUE_CACHE_OFF}. Caching is enabled by default.
+     */
+    public static final RenderingHints.Key KEY_TURBULENCE_CACHE = new Key(P_KEY_TURBULENCE_CACHE, Value.class);
+
     private static final class Key extends RenderingHints.Key {
+        private final @NotNull Class<?> valueType;
+
         /**
          * Construct a key using the indicated private key.  Each
          * subclass of Key maintains its own unique domain of integer
@@ -45,14 +128,16 @@ public final class SVGRenderingHints {
          * pre-existing instance of that subclass of Key.
          *
          * @param privateKey the specified key
+         * @param valueType the type of compatible values
          */
-        private Key(int privateKey) {
+        private Key(int privateKey, @NotNull Class<?> valueType) {
             super(privateKey);
+            this.valueType = valueType;
         }
 
         @Override
         public boolean isCompatibleValue(@Nullable Object val) {
-            return val instanceof Value;
+            return valueType.isInstance(val);
         }
     }
 
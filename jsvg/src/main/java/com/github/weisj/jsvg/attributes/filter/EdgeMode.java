@@ -21,177 +21,99 @@
  */
 package com.github.weisj.jsvg.attributes.filter;
 
+import com.github.weisj.jsvg.nodes.filter.Channel;
 import com.github.weisj.jsvg.nodes.filter.FilterContext;
-import com.github.weisj.jsvg.renderer.GraphicsUtil;
-import com.github.weisj.jsvg.renderer.RenderContext;
+import com.github.weisj.jsvg.nodes.filter.RasterChannel;
 import com.github.weisj.jsvg.util.ImageUtil;
 import org.jetbrains.annotations.NotNull;
 
 import java.awt.*;
-import java.awt.image.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
 
 public enum EdgeMode {
     Duplicate {
         @Override
-        public ImageProducer convolve(@NotNull RenderContext context, @NotNull FilterContext filterContext,
-                @NotNull ImageProducer producer, @NotNull ConvolveOperation convolveOperation) {
-            return convolveDuplicate(context, filterContext, producer, convolveOperation);
+        public void extendLine(int @NotNull [] line, int offset, int length, int before, int after) {
+            Arrays.fill(line, offset - before, offset, line[offset]);
+            Arrays.fill(line, offset + length, offset + length + after, line[offset + length - 1]);
         }
     },
     Wrap {
         @Override
-        public ImageProducer convolve(@NotNull RenderContext context, @NotNull FilterContext filterContext,
-                @NotNull ImageProducer producer, @NotNull ConvolveOperation convolveOperation) {
-            return convolveWrap(context, filterContext, producer, convolveOperation);
+        public void extendLine(int @NotNull [] line, int offset, int length, int before, int after) {
+            for (int i = 0; i < before; i++) {
+                line[offset - 1 - i] = line[offset + length - 1 - i % length];
+            }
+            for (int i = 0; i < after; i++) {
+                line[offset + length + i] = line[offset + i % length];
+            }
         }
     },
     None {
         @Override
-        public ImageProducer convolve(@NotNull RenderContext context, @NotNull FilterContext filterContext,
-                @NotNull ImageProducer producer, @NotNull ConvolveOperation convolveOperation) {
-            return applyConvolutions(filterContext.renderingHints(), ImageUtil.copy(context, producer),
-                    convolveOperation, ConvolveOp.EDGE_ZERO_FILL);
+        public void extendLine(int @NotNull [] line, int offset, int length, int before, int after) {
+            Arrays.fill(line, offset - before, offset, 0);
+            Arrays.fill(line, offset + length, offset + length + after, 0);
         }
     };
 
-    public abstract ImageProducer convolve(@NotNull RenderContext context, @NotNull FilterContext filterContext,
-            @NotNull ImageProducer producer, @NotNull ConvolveOperation convolveOperation);
-
-    public interface ConvolveOperation {
-
-        @NotNull
-        Dimension maximumKernelSize();
-
-        @NotNull
-        ImageProducer convolve(@NotNull BufferedImage image, @NotNull RenderingHints hints, int awtEdgeMode);
-    }
-
-    private static final class EdgeModeImage {
-        private final @NotNull BufferedImage img;
-        private final int xOff;
-        private final int yOff;
-        private final int width;
-        private final int height;
-
-        private EdgeModeImage(@NotNull BufferedImage img, int xOff, int yOff, int width, int height) {
-            this.img = img;
-            this.xOff = xOff;
-            this.yOff = yOff;
-            this.width = width;
-            this.height = height;
-        }
-    }
-
-    private static EdgeModeImage prepareEdgeModeImage(@NotNull RenderContext context,
-            @NotNull ImageProducer producer, @NotNull ConvolveOperation convolveOperation) {
-        Image img = context.platformSupport().createImage(producer);
-        int width = img.getWidth(null);
-        int height = img.getHeight(null);
-
-        Dimension kernelSize = convolveOperation.maximumKernelSize();
-        int xSize = kernelSize.width;
-        int ySize = kernelSize.height;
-
-        BufferedImage bufferedImage = ImageUtil.createCompatibleTransparentImage(width + xSize, height + ySize);
-        Graphics2D g = GraphicsUtil.createGraphics(bufferedImage);
-
-        int xOff = xSize / 2;
-        int yOff = ySize / 2;
-
-        g.translate(xOff, yOff);
-        g.drawImage(img, null, null);
-        g.dispose();
-
-        return new EdgeModeImage(bufferedImage, xOff, yOff, width, height);
+    /**
+     * Fills the {@code padding} pixels on either side of a row or column of pixels according to the edge mode.
+     * Convolutions can then read past the edges of the line without having to pad the whole image.
+     *
+     * @param line the line buffer. The pixels of the line are located at {@code padding} to
+     *        {@code padding + length}.
+     * @param length the number of pixels in the line.
+     * @param padding the number of pixels to extend the line by on either side.
+     */
+    public void extendLine(int @NotNull [] line, int length, int padding) {
+        extendLine(line, padding, length, padding, padding);
     }
 
-    private static @NotNull ImageProducer convolveDuplicate(@NotNull RenderContext context,
-            @NotNull FilterContext filterContext, @NotNull ImageProducer producer,
+    /**
+     * Fills the pixels in front of and behind a row or column of pixels according to the edge mode. Used if only
+     * a part of a line is convolved, in which case the padding only has to be filled where it extends past the
+     * edges of the line.
+     *
+     * @param line the line buffer. The pixels of the line are located at {@code offset} to
+     *        {@code offset + length}.
+     * @param offset the index of the first pixel of the line.
+     * @param length the number of pixels in the line.
+     * @param before the number of pixels to fill in front of the line.
+     * @param after the number of pixels to fill behind the line.
+     */
+    public abstract void extendLine(int @NotNull [] line, int offset, int length, int before, int after);
+
+    public @NotNull Channel convolve(@NotNull FilterContext filterContext, @NotNull Channel channel,
             @NotNull ConvolveOperation convolveOperation) {
-        EdgeModeImage edgeModeImage = prepareEdgeModeImage(context, producer, convolveOperation);
-        int xOff = edgeModeImage.xOff;
-        int yOff = edgeModeImage.yOff;
-        int width = edgeModeImage.width;
-        int height = edgeModeImage.height;
-
-        Graphics2D g = GraphicsUtil.createGraphics(edgeModeImage.img);
-
-        BufferedImage top = edgeModeImage.img.getSubimage(xOff, yOff, width, 1);
-        BufferedImage left = edgeModeImage.img.getSubimage(xOff, yOff, 1, height);
-        BufferedImage right = edgeModeImage.img.getSubimage(xOff + width - 1, yOff, 1, height);
-        BufferedImage bottom = edgeModeImage.img.getSubimage(xOff, yOff + height - 1, width, 1);
-
-        g.drawImage(top, xOff, 0, width, yOff, null);
-        g.drawImage(bottom, xOff, yOff + height, width, yOff, null);
-        g.drawImage(left, 0, yOff, xOff, height, null);
-        g.drawImage(right, xOff + height, yOff, xOff, height, null);
-
-        Color topLeft = new Color(top.getRGB(0, 0), true);
-        Color topRight = new Color(top.getRGB(top.getWidth() - 1, 0), true);
-        Color bottomLeft = new Color(bottom.getRGB(0, 0), true);
-        Color bottomRight = new Color(bottom.getRGB(bottom.getWidth() - 1, 0), true);
-
-        g.setColor(topLeft);
-        g.fillRect(0, 0, xOff, yOff);
-
-        g.setColor(topRight);
-        g.fillRect(xOff + width, 0, xOff, yOff);
-
-        g.setColor(bottomLeft);
-        g.fillRect(0, yOff + height, xOff, yOff);
-
-        g.setColor(bottomRight);
-        g.fillRect(xOff + width, yOff + height, xOff, yOff);
-
-        g.dispose();
-
-        ImageProducer output =
-                applyConvolutions(filterContext.renderingHints(), edgeModeImage.img, convolveOperation,
-                        ConvolveOp.EDGE_NO_OP);
-        CropImageFilter cropImageFilter = new CropImageFilter(xOff, yOff, width, height);
-        return new FilteredImageSource(output, cropImageFilter);
+        Rectangle bounds = channel.bounds();
+        Rectangle resultRegion = filterContext.resultRegion();
+        // Wrapping samples the opposite edge of the whole line, hence the whole channel is convolved.
+        Rectangle region = resultRegion != null && this != Wrap ? resultRegion.intersection(bounds) : bounds;
+        BufferedImage result = ImageUtil.createCompatibleTransparentImage(bounds.width, bounds.height);
+        if (!region.isEmpty()) {
+            region.translate(-bounds.x, -bounds.y);
+            convolveOperation.convolve(channel.raster(), result.getRaster(), region, this);
+        }
+        Channel resultChannel = new RasterChannel(result, bounds.x, bounds.y);
+        return this == Wrap ? RasterChannel.clip(resultChannel, resultRegion) : resultChannel;
     }
 
-    private static ImageProducer convolveWrap(@NotNull RenderContext context, @NotNull FilterContext filterContext,
-            @NotNull ImageProducer producer, @NotNull ConvolveOperation convolveOperation) {
-        EdgeModeImage edgeModeImage = prepareEdgeModeImage(context, producer, convolveOperation);
-        int xOff = edgeModeImage.xOff;
-        int yOff = edgeModeImage.yOff;
-        int width = edgeModeImage.width;
-        int height = edgeModeImage.height;
-
-        Graphics2D g = GraphicsUtil.createGraphics(edgeModeImage.img);
-
-        BufferedImage top = edgeModeImage.img.getSubimage(xOff, yOff, width, yOff);
-        BufferedImage left = edgeModeImage.img.getSubimage(xOff, yOff, xOff, height);
-        BufferedImage right = edgeModeImage.img.getSubimage(width - 1, yOff, xOff, height);
-        BufferedImage bottom = edgeModeImage.img.getSubimage(xOff, height - 1, width, yOff);
-
-        BufferedImage topLeft = edgeModeImage.img.getSubimage(xOff, yOff, xOff, yOff);
-        BufferedImage topRight = edgeModeImage.img.getSubimage(width - 1, yOff, xOff, yOff);
-        BufferedImage bottomLeft = edgeModeImage.img.getSubimage(xOff, height - 1, width, yOff);
-        BufferedImage bottomRight = edgeModeImage.img.getSubimage(width - 1, height - 1, xOff, yOff);
-
-        g.drawImage(bottom, xOff, 0, null);
-        g.drawImage(top, xOff, yOff + height, null);
-        g.drawImage(right, 0, yOff, null);
-        g.drawImage(left, xOff + width, yOff, null);
-
-        g.drawImage(bottomRight, 0, 0, null);
-        g.drawImage(bottomLeft, xOff + width, 0, null);
-        g.drawImage(topRight, 0, yOff + height, null);
-        g.drawImage(topLeft, xOff + width, yOff + height, null);
-
-        ImageProducer output =
-                applyConvolutions(filterContext.renderingHints(), edgeModeImage.img, convolveOperation,
-                        ConvolveOp.EDGE_NO_OP);
-        CropImageFilter cropImageFilter = new CropImageFilter(xOff, yOff, width, height);
-        return new FilteredImageSource(output, cropImageFilter);
-    }
+    public interface ConvolveOperation {
 
-    private static ImageProducer applyConvolutions(@NotNull RenderingHints hints, @NotNull BufferedImage image,
-            @NotNull ConvolveOperation convolveOperation, int awtEdgeMode) {
-        return convolveOperation.convolve(image, hints, awtEdgeMode);
+        /**
+         * Convolves the given raster. Pixels outside the raster are sampled according to the edge mode.
+         *
+         * @param src the premultiplied raster to convolve. It must not be modified.
+         * @param dst the transparent premultiplied raster of the same size to write the result to.
+         * @param region the region of the result to compute relative to the origin of the raster. Pixels of
+         *        {@code dst} outside of it have to stay transparent.
+         * @param edgeMode the edge mode.
+         */
+        void convolve(@NotNull Raster src, @NotNull WritableRaster dst, @NotNull Rectangle region,
+                @NotNull EdgeMode edgeMode);
     }
-
 }
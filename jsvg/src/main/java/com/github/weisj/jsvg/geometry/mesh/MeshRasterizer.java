@@ -0,0 +1,268 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.geometry.mesh;
+
+import java.awt.geom.Point2D;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Rasterizes coons patches directly into a premultiplied ARGB buffer.
+ * <p>
+ * The coons mapping of a patch is evaluated on a grid whose cells are at most {@link #MAX_CELL_SIZE} pixels
+ * large. Every cell is split into two triangles, which are scan converted with their vertex colors interpolated
+ * linearly. As the bilinear color interpolation is evaluated exactly at every grid point the result is
+ * indistinguishable from evaluating it for every pixel.
+ */
+public final class MeshRasterizer {
+    private static final float MAX_CELL_SIZE = 4;
+    private static final int MAX_STEPS = 512;
+    private static final float EDGE_TOLERANCE = 1e-4f;
+
+    private final int[] pixels;
+    private final int offset;
+    private final int scanlineStride;
+    private final int width;
+    private final int height;
+    private final float scaleX;
+    private final float scaleY;
+    private final float originX;
+    private final float originY;
+
+    /**
+     * Creates a rasterizer writing to the given buffer. A point (x, y) of the patches is mapped to the buffer
+     * location (x * scaleX - originX, y * scaleY - originY).
+     *
+     * @param pixels the premultiplied ARGB data of the buffer.
+     * @param offset the offset of the first pixel in the data array.
+     * @param scanlineStride the scanline stride of the buffer.
+     * @param width the width of the buffer.
+     * @param height the height of the buffer.
+     * @param scaleX the horizontal scale from patch to buffer coordinates.
+     * @param scaleY the vertical scale from patch to buffer coordinates.
+     * @param originX the buffer x coordinate corresponding to x = 0.
+     * @param originY the buffer y coordinate corresponding to y = 0.
+     */
+    public MeshRasterizer(int @NotNull [] pixels, int offset, int scanlineStride, int width, int height,
+            float scaleX, float scaleY, float originX, float originY) {
+        this.pixels = pixels;
+        this.offset = offset;
+        this.scanlineStride = scanlineStride;
+        this.width = width;
+        this.height = height;
+        this.scaleX = scaleX;
+        this.scaleY = scaleY;
+        this.originX = originX;
+        this.originY = originY;
+    }
+
+    /**
+     * Fills a patch. The colors are interpolated bilinearly between the corners of the patch.
+     *
+     * @param patch the patch.
+     * @param northWest the non-premultiplied ARGB color at the start of the north curve.
+     * @param northEast the non-premultiplied ARGB color at the start of the east curve.
+     * @param southEast the non-premultiplied ARGB color at the start of the south curve.
+     * @param southWest the non-premultiplied ARGB color at the start of the west curve.
+     */
+    public void fillPatch(@NotNull CoonPatch patch, int northWest, int northEast, int southEast, int southWest) {
+        int uSteps = steps(Math.max(length(patch.north), length(patch.south)));
+        int vSteps = steps(Math.max(length(patch.east), length(patch.west)));
+        int stride = uSteps + 1;
+        int count = stride * (vSteps + 1);
+        float[] xs = new float[count];
+        float[] ys = new float[count];
+        float[][] channels = new float[4][count];
+
+        float[] top = sample(patch.north, uSteps, false);
+        float[] bottom = sample(patch.south, uSteps, true);
+        float[] left = sample(patch.west, vSteps, true);
+        float[] right = sample(patch.east, vSteps, false);
+
+        Point2D.Float p00 = patch.north.a;
+        Point2D.Float p10 = patch.north.d;
+        Point2D.Float p11 = patch.south.a;
+        Point2D.Float p01 = patch.south.d;
+
+        int[] corners = {premultiply(northWest), premultiply(northEast), premultiply(southEast),
+                premultiply(southWest)};
+
+        for (int j = 0; j <= vSteps; j++) {
+            float v = j / (float) vSteps;
+            float lx = left[2 * j];
+            float ly = left[2 * j + 1];
+            float rx = right[2 * j];
+            float ry = right[2 * j + 1];
+            for (int i = 0; i <= uSteps; i++) {
+                float u = i / (float) uSteps;
+                float w00 = (1 - u) * (1 - v);
+                float w10 = u * (1 - v);
+                float w11 = u * v;
+                float w01 = (1 - u) * v;
+                float x = (1 - v) * top[2 * i] + v * bottom[2 * i] + (1 - u) * lx + u * rx
+                        - (w00 * p00.x + w10 * p10.x + w11 * p11.x + w01 * p01.x);
+                float y = (1 - v) * top[2 * i + 1] + v * bottom[2 * i + 1] + (1 - u) * ly + u * ry
+                        - (w00 * p00.y + w10 * p10.y + w11 * p11.y + w01 * p01.y);
+                int index = j * stride + i;
+                xs[index] = x * scaleX - originX;
+                ys[index] = y * scaleY - originY;
+                for (int c = 0; c < 4; c++) {
+                    int shift = 24 - 8 * c;
+                    channels[c][index] = w00 * ((corners[0] >>> shift) & 0xFF)
+                            + w10 * ((corners[1] >>> shift) & 0xFF)
+                            + w11 * ((corners[2] >>> shift) & 0xFF)
+                            + w01 * ((corners[3] >>> shift) & 0xFF);
+                }
+            }
+        }
+
+        for (int j = 0; j < vSteps; j++) {
+            for (int i = 0; i < uSteps; i++) {
+                int i00 = j * stride + i;
+                int i10 = i00 + 1;
+                int i01 = i00 + stride;
+                int i11 = i01 + 1;
+                fillTriangle(xs, ys, channels, i00, i10, i11);
+                fillTriangle(xs, ys, channels, i00, i11, i01);
+            }
+        }
+    }
+
+    private void fillTriangle(float[] xs, float[] ys, float[][] channels, int i0, int i1, int i2) {
+        float x0 = xs[i0];
+        float y0 = ys[i0];
+        float x1 = xs[i1];
+        float y1 = ys[i1];
+        float x2 = xs[i2];
+        float y2 = ys[i2];
+
+        float area = (x1 - x0) * (y2 - y0) - (x2 - x0) * (y1 - y0);
+        if (area == 0 || Float.isNaN(area)) return;
+
+        int minX = Math.max(0, (int) Math.ceil(Math.min(x0, Math.min(x1, x2)) - 0.5f));
+        int maxX = Math.min(width - 1, (int) Math.floor(Math.max(x0, Math.max(x1, x2)) - 0.5f));
+        int minY = Math.max(0, (int) Math.ceil(Math.min(y0, Math.min(y1, y2)) - 0.5f));
+        int maxY = Math.min(height - 1, (int) Math.floor(Math.max(y0, Math.max(y1, y2)) - 0.5f));
+        if (minX > maxX || minY > maxY) return;
+
+        // Barycentric weights of the first two vertices. Dividing by the signed area makes them positive inside
+        // the triangle independent of its orientation. All quantities are affine in the pixel position, hence
+        // they can be evaluated incrementally.
+        float invArea = 1 / area;
+        float dl0dx = -(y2 - y1) * invArea;
+        float dl0dy = (x2 - x1) * invArea;
+        float dl1dx = -(y0 - y2) * invArea;
+        float dl1dy = (x0 - x2) * invArea;
+        float startX = minX + 0.5f;
+        float startY = minY + 0.5f;
+        float l0Start = ((x2 - x1) * (startY - y1) - (y2 - y1) * (startX - x1)) * invArea;
+        float l1Start = ((x0 - x2) * (startY - y2) - (y0 - y2) * (startX - x2)) * invArea;
+
+        float[] alpha = channels[0];
+        float[] red = channels[1];
+        float[] green = channels[2];
+        float[] blue = channels[3];
+        float a2 = alpha[i2];
+        float r2 = red[i2];
+        float g2 = green[i2];
+        float b2 = blue[i2];
+        float da0 = alpha[i0] - a2;
+        float da1 = alpha[i1] - a2;
+        float dr0 = red[i0] - r2;
+        float dr1 = red[i1] - r2;
+        float dg0 = green[i0] - g2;
+        float dg1 = green[i1] - g2;
+        float db0 = blue[i0] - b2;
+        float db1 = blue[i1] - b2;
+        float dadx = dl0dx * da0 + dl1dx * da1;
+        float drdx = dl0dx * dr0 + dl1dx * dr1;
+        float dgdx = dl0dx * dg0 + dl1dx * dg1;
+        float dbdx = dl0dx * db0 + dl1dx * db1;
+
+        for (int py = minY; py <= maxY; py++) {
+            float l0 = l0Start + (py - minY) * dl0dy;
+            float l1 = l1Start + (py - minY) * dl1dy;
+            float a = a2 + l0 * da0 + l1 * da1 + 0.5f;
+            float r = r2 + l0 * dr0 + l1 * dr1 + 0.5f;
+            float g = g2 + l0 * dg0 + l1 * dg1 + 0.5f;
+            float b = b2 + l0 * db0 + l1 * db1 + 0.5f;
+            int row = offset + py * scanlineStride;
+            for (int px = minX; px <= maxX; px++) {
+                // Shared edges are allowed to be filled twice, which avoids gaps due to rounding errors.
+                if (l0 >= -EDGE_TOLERANCE && l1 >= -EDGE_TOLERANCE && l0 + l1 <= 1 + EDGE_TOLERANCE) {
+                    pixels[row + px] = (clamp(a) << 24) | (clamp(r) << 16) | (clamp(g) << 8) | clamp(b);
+                }
+                l0 += dl0dx;
+                l1 += dl1dx;
+                a += dadx;
+                r += drdx;
+                g += dgdx;
+                b += dbdx;
+            }
+        }
+    }
+
+    private static int clamp(float value) {
+        return Math.max(0, Math.min(255, (int) value));
+    }
+
+    private float length(@NotNull Bezier bezier) {
+        // The arc length lies between the chord and the length of the control polygon.
+        float polygon = distance(bezier.a, bezier.b) + distance(bezier.b, bezier.c) + distance(bezier.c, bezier.d);
+        return (polygon + distance(bezier.a, bezier.d)) / 2;
+    }
+
+    private float distance(@NotNull Point2D.Float p, @NotNull Point2D.Float q) {
+        float dx = (q.x - p.x) * scaleX;
+        float dy = (q.y - p.y) * scaleY;
+        return (float) Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private static int steps(float length) {
+        return Math.max(1, Math.min(MAX_STEPS, (int) Math.ceil(length / MAX_CELL_SIZE)));
+    }
+
+    private static float @NotNull [] sample(@NotNull Bezier bezier, int steps, boolean reversed) {
+        float[] points = new float[2 * (steps + 1)];
+        for (int i = 0; i <= steps; i++) {
+            float t = i / (float) steps;
+            if (reversed) t = 1 - t;
+            float mt = 1 - t;
+            float a = mt * mt * mt;
+            float b = 3 * mt * mt * t;
+            float c = 3 * mt * t * t;
+            float d = t * t * t;
+            points[2 * i] = a * bezier.a.x + b * bezier.b.x + c * bezier.c.x + d * bezier.d.x;
+            points[2 * i + 1] = a * bezier.a.y + b * bezier.b.y + c * bezier.c.y + d * bezier.d.y;
+        }
+        return points;
+    }
+
+    private static int premultiply(int argb) {
+        int a = argb >>> 24;
+        if (a == 0xFF) return argb;
+        int r = ((argb >> 16) & 0xFF) * a / 0xFF;
+        int g = ((argb >> 8) & 0xFF) * a / 0xFF;
+        int b = (argb & 0xFF) * a / 0xFF;
+        return (a << 24) | (r << 16) | (g << 8) | b;
+    }
+}
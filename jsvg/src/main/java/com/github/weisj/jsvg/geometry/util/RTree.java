@@ -0,0 +1,152 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.geometry.util;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An immutable R-tree over the bounding boxes of a fixed set of items.
+ * The tree is bulk loaded using the Sort-Tile-Recursive algorithm, which produces nearly fully packed nodes
+ * with little overlap for static data.
+ *
+ * @param <T> the type of the indexed items.
+ */
+public final class RTree<T> {
+    private static final int NODE_CAPACITY = 16;
+
+    private final @Nullable Node root;
+    private final int size;
+
+    public RTree(@NotNull List<? extends T> items, @NotNull Function<? super T, @NotNull Rectangle2D> boundsFunction) {
+        List<Node> nodes = new ArrayList<>(items.size());
+        for (T item : items) {
+            Rectangle2D b = boundsFunction.apply(item);
+            if (!(b.getWidth() >= 0 && b.getHeight() >= 0)) continue;
+            nodes.add(new Node(b.getMinX(), b.getMinY(), b.getMaxX(), b.getMaxY(), item, null));
+        }
+        size = nodes.size();
+        while (nodes.size() > NODE_CAPACITY) {
+            nodes = packLevel(nodes);
+        }
+        root = nodes.isEmpty() ? null : createParent(nodes);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Reports all items whose bounding box intersects the given area. Touching boxes count as intersecting.
+     * No particular order of the reported items is guaranteed.
+     *
+     * @param area the area to search.
+     * @param consumer the consumer receiving the found items.
+     */
+    public void search(@NotNull Rectangle2D area, @NotNull Consumer<? super T> consumer) {
+        if (root == null) return;
+        search(root, area.getMinX(), area.getMinY(), area.getMaxX(), area.getMaxY(), consumer);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void search(@NotNull Node node, double minX, double minY, double maxX, double maxY,
+            @NotNull Consumer<? super T> consumer) {
+        if (!node.intersects(minX, minY, maxX, maxY)) return;
+        Node[] children = node.children;
+        if (children == null) {
+            consumer.accept((T) node.item);
+            return;
+        }
+        for (Node child : children) {
+            search(child, minX, minY, maxX, maxY, consumer);
+        }
+    }
+
+    private static @NotNull List<Node> packLevel(@NotNull List<Node> nodes) {
+        int parentCount = (nodes.size() + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int sliceCount = (int) Math.ceil(Math.sqrt(parentCount));
+        int sliceSize = sliceCount * NODE_CAPACITY;
+
+        nodes.sort(Comparator.comparingDouble(Node::centerX));
+        List<Node> parents = new ArrayList<>(parentCount);
+        for (int sliceStart = 0; sliceStart < nodes.size(); sliceStart += sliceSize) {
+            List<Node> slice = nodes.subList(sliceStart, Math.min(sliceStart + sliceSize, nodes.size()));
+            slice.sort(Comparator.comparingDouble(Node::centerY));
+            for (int start = 0; start < slice.size(); start += NODE_CAPACITY) {
+                parents.add(createParent(slice.subList(start, Math.min(start + NODE_CAPACITY, slice.size()))));
+            }
+        }
+        return parents;
+    }
+
+    private static @NotNull Node createParent(@NotNull List<Node> children) {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (Node child : children) {
+            minX = Math.min(minX, child.minX);
+            minY = Math.min(minY, child.minY);
+            maxX = Math.max(maxX, child.maxX);
+            maxY = Math.max(maxY, child.maxY);
+        }
+        return new Node(minX, minY, maxX, maxY, null, children.toArray(new Node[0]));
+    }
+
+    private static final class Node {
+        private final double minX;
+        private final double minY;
+        private final double maxX;
+        private final double maxY;
+        private final @Nullable Object item;
+        private final Node @Nullable [] children;
+
+        private Node(double minX, double minY, double maxX, double maxY, @Nullable Object item,
+                Node @Nullable [] children) {
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.item = item;
+            this.children = children;
+        }
+
+        private double centerX() {
+            return (minX + maxX) / 2;
+        }
+
+        private double centerY() {
+            return (minY + maxY) / 2;
+        }
+
+        private boolean intersects(double x0, double y0, double x1, double y1) {
+            return minX <= x1 && x0 <= maxX && minY <= y1 && y0 <= maxY;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.jfr;
+
+import java.awt.image.BufferedImage;
+
+import org.jetbrains.annotations.NotNull;
+
+import jdk.jfr.*;
+
+@Name(BufferAllocationEvent.NAME)
+@Label("SVG Buffer Allocation")
+@Category({"JSVG", "Render"})
+@Description("Allocation of an off-screen buffer e.g. for a filter, mask, pattern or layer")
+@StackTrace(false)
+public final class BufferAllocationEvent extends Event {
+    static final String NAME = "com.github.weisj.jsvg.BufferAllocation";
+
+    @Label("Width")
+    public int width;
+
+    @Label("Height")
+    public int height;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+
+    static void emit(@NotNull BufferedImage image) {
+        BufferAllocationEvent event = new BufferAllocationEvent();
+        if (!event.shouldCommit()) return;
+        event.width = image.getWidth();
+        event.height = image.getHeight();
+        int bytesPerPixel = (image.getColorModel().getPixelSize() + Byte.SIZE - 1) / Byte.SIZE;
+        event.bytes = (long) event.width * event.height * bytesPerPixel;
+        event.commit();
+    }
+}
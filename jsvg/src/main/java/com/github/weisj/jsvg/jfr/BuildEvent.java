@@ -0,0 +1,49 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.jfr;
+
+import jdk.jfr.*;
+
+@Name(BuildEvent.NAME)
+@Label("SVG Build Phase")
+@Category({"JSVG", "Load"})
+@Description("A phase of building the parsed node tree of an SVG document")
+@StackTrace(false)
+public final class BuildEvent extends Event {
+    static final String NAME = "com.github.weisj.jsvg.Build";
+
+    public static final String PHASE_CSS = "css";
+    public static final String PHASE_PRE_PROCESSOR = "preProcessor";
+    public static final String PHASE_BUILD = "build";
+    public static final String PHASE_POST_PROCESSOR = "postProcessor";
+    public static final String PHASE_USE_VALIDATION = "useValidation";
+
+    @Label("Document Id")
+    @Description("Identity of the document, shared by all events concerning the same document")
+    public int documentId;
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Element Count")
+    public int elementCount;
+}
@@ -0,0 +1,69 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.jfr;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import jdk.jfr.*;
+
+@Name(FilterEvent.NAME)
+@Label("SVG Filter")
+@Category({"JSVG", "Render"})
+@Description("Application of a filter to the rasterized content of an element")
+@StackTrace(false)
+public final class FilterEvent extends Event {
+    static final String NAME = "com.github.weisj.jsvg.Filter";
+
+    @Label("Document Id")
+    @Description("Identity of the document, shared by all events concerning the same document")
+    public int documentId;
+
+    @Label("Filter Id")
+    public String filterId;
+
+    @Label("Primitive Count")
+    public int primitiveCount;
+
+    @Label("Buffer Width")
+    public int bufferWidth;
+
+    @Label("Buffer Height")
+    public int bufferHeight;
+
+    public static @NotNull FilterEvent start() {
+        FilterEvent event = new FilterEvent();
+        event.documentId = JFR.currentDocumentId();
+        event.begin();
+        return event;
+    }
+
+    public void finish(@Nullable String filterId, int primitiveCount, int bufferWidth, int bufferHeight) {
+        end();
+        if (!shouldCommit()) return;
+        this.filterId = filterId;
+        this.primitiveCount = primitiveCount;
+        this.bufferWidth = bufferWidth;
+        this.bufferHeight = bufferHeight;
+        commit();
+    }
+}
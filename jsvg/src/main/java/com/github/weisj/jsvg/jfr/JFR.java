@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.jfr;
+
+import java.awt.image.BufferedImage;
+import java.util.Optional;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Entry point for flight recorder events. The jdk.jfr module is optional, hence the event classes of this package
+ * may only be loaded once {@link #isAvailable()} has been checked.
+ */
+public final class JFR {
+    private static final boolean AVAILABLE = isModuleReadable();
+    private static final ThreadLocal<int[]> CURRENT_DOCUMENT = ThreadLocal.withInitial(() -> new int[1]);
+
+    private JFR() {}
+
+    private static boolean isModuleReadable() {
+        Optional<Module> jfr = ModuleLayer.boot().findModule("jdk.jfr");
+        return jfr.isPresent() && JFR.class.getModule().canRead(jfr.get());
+    }
+
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    public static void bufferAllocated(@NotNull BufferedImage image) {
+        if (AVAILABLE) BufferAllocationEvent.emit(image);
+    }
+
+    /**
+     * Marks the given document as rendered by the current thread. Events emitted meanwhile are attributed to it.
+     *
+     * @param documentId the id of the document.
+     * @return the id of the document rendered before, which has to be restored using {@link #exitDocument(int)}.
+     */
+    static int enterDocument(int documentId) {
+        int[] current = CURRENT_DOCUMENT.get();
+        int previous = current[0];
+        current[0] = documentId;
+        return previous;
+    }
+
+    static void exitDocument(int previousDocumentId) {
+        CURRENT_DOCUMENT.get()[0] = previousDocumentId;
+    }
+
+    static int currentDocumentId() {
+        return CURRENT_DOCUMENT.get()[0];
+    }
+}
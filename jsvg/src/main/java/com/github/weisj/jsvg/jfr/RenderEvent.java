@@ -0,0 +1,73 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.jfr;
+
+import java.awt.geom.Rectangle2D;
+
+import org.jetbrains.annotations.NotNull;
+
+import jdk.jfr.*;
+
+@Name(RenderEvent.NAME)
+@Label("SVG Render")
+@Category({"JSVG", "Render"})
+@Description("Rendering of an SVG document")
+@StackTrace(false)
+public final class RenderEvent extends Event {
+    static final String NAME = "com.github.weisj.jsvg.Render";
+
+    @Label("Document Id")
+    @Description("Identity of the document, shared by all events concerning the same document")
+    public int documentId;
+
+    @Label("Width")
+    @Description("Width of the rendered area in user space")
+    public float width;
+
+    @Label("Height")
+    @Description("Height of the rendered area in user space")
+    public float height;
+
+    @Label("Output")
+    public String output;
+
+    // Restored after rendering, so events of the enclosing document are attributed to it again.
+    private transient int previousDocumentId;
+
+    public static @NotNull RenderEvent start(int documentId) {
+        RenderEvent event = new RenderEvent();
+        event.documentId = documentId;
+        event.previousDocumentId = JFR.enterDocument(documentId);
+        event.begin();
+        return event;
+    }
+
+    public void finish(@NotNull Rectangle2D area, @NotNull String output) {
+        end();
+        JFR.exitDocument(previousDocumentId);
+        if (!shouldCommit()) return;
+        width = (float) area.getWidth();
+        height = (float) area.getHeight();
+        this.output = output;
+        commit();
+    }
+}
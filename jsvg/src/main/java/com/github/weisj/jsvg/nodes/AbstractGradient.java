@@ -39,6 +39,7 @@ import com.github.weisj.jsvg.nodes.container.ContainerNode;
 import com.github.weisj.jsvg.parser.AttributeNode;
 import com.github.weisj.jsvg.renderer.Output;
 import com.github.weisj.jsvg.renderer.RenderContext;
+import com.github.weisj.jsvg.renderer.jdk.GradientLookup;
 
 @SuppressWarnings("java:S119") // Generic name Self is intentional
 abstract class AbstractGradient<Self extends AbstractGradient<Self>> extends ContainerNode implements SVGPaint {
@@ -48,6 +49,7 @@ abstract class AbstractGradient<Self extends AbstractGradient<Self>> extends Con
 
     private @NotNull Color[] colors;
     private @Percentage float[] offsets;
+    private volatile @Nullable GradientLookup lookup;
 
     final @Percentage float[] offsets() {
         return offsets;
@@ -57,6 +59,23 @@ abstract class AbstractGradient<Self extends AbstractGradient<Self>> extends Con
         return colors;
     }
 
+    /**
+     * The interpolated colors of the gradient stops. They only depend on the stops, hence they are computed once
+     * and shared by all paints created for this gradient, independent of the bounds and transform they are
+     * used with.
+     *
+     * @param colorSpace the color space used for interpolation.
+     * @return the lookup tables for the current stops.
+     */
+    final @NotNull GradientLookup lookup(@NotNull MultipleGradientPaint.ColorSpaceType colorSpace) {
+        GradientLookup l = lookup;
+        if (l == null || !l.isFor(offsets, colors, colorSpace)) {
+            l = new GradientLookup(offsets, colors, colorSpace);
+            lookup = l;
+        }
+        return l;
+    }
+
     @Override
     public final void build(@NotNull AttributeNode attributeNode) {
         super.build(attributeNode);
@@ -22,12 +22,26 @@
 package com.github.weisj.jsvg.nodes;
 
 import java.awt.*;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.Area;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import com.github.weisj.jsvg.RenderListener;
 import com.github.weisj.jsvg.attributes.UnitType;
+import com.github.weisj.jsvg.attributes.font.MeasurableFontSpec;
+import com.github.weisj.jsvg.attributes.paint.PaintParser;
+import com.github.weisj.jsvg.geometry.size.MeasureContext;
+import com.github.weisj.jsvg.geometry.util.GeometryUtil;
+import com.github.weisj.jsvg.jfr.JFR;
 import com.github.weisj.jsvg.nodes.container.ContainerNode;
 import com.github.weisj.jsvg.nodes.prototype.ShapedContainer;
 import com.github.weisj.jsvg.nodes.prototype.spec.Category;
@@ -35,6 +49,10 @@ import com.github.weisj.jsvg.nodes.prototype.spec.ElementCategories;
 import com.github.weisj.jsvg.nodes.prototype.spec.PermittedContent;
 import com.github.weisj.jsvg.nodes.text.Text;
 import com.github.weisj.jsvg.parser.AttributeNode;
+import com.github.weisj.jsvg.renderer.FontRenderContext;
+import com.github.weisj.jsvg.renderer.GraphicsUtil;
+import com.github.weisj.jsvg.renderer.MaskedPaint;
+import com.github.weisj.jsvg.renderer.Output;
 import com.github.weisj.jsvg.renderer.RenderContext;
 
 @ElementCategories({/* None */})
@@ -44,8 +62,17 @@ import com.github.weisj.jsvg.renderer.RenderContext;
 )
 public final class ClipPath extends ContainerNode implements ShapedContainer<SVGNode> {
     public static final String TAG = "clippath";
+    private static final int CLIP_SHAPE_CACHE_SIZE = 32;
     private boolean isValid;
 
+    private final @NotNull Map<ClipShapeKey, Geometry> clipShapeCache =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ClipShapeKey, Geometry> eldest) {
+                    return size() > CLIP_SHAPE_CACHE_SIZE;
+                }
+            };
+
     private UnitType clipPathUnits;
 
     @Override
@@ -77,15 +104,191 @@ public final class ClipPath extends ContainerNode implements ShapedContainer<SVG
     }
 
     public @NotNull Shape clipShape(@NotNull RenderContext context, @NotNull Rectangle2D elementBounds) {
+        return clipShape(context, elementBounds, RenderListener.NONE);
+    }
+
+    /**
+     * Computes the clip shape for an element. As documents are immutable the shape only depends on the measure and
+     * font context and, for object bounding box units, on the bounds of the element. The shapes are cached, hence the
+     * returned shape is shared and must not be modified.
+     *
+     * @param context the context of the clipped element.
+     * @param elementBounds the bounds of the clipped element.
+     * @param listener the listener to report cache accesses to.
+     * @return the clip shape.
+     */
+    public @NotNull Shape clipShape(@NotNull RenderContext context, @NotNull Rectangle2D elementBounds,
+            @NotNull RenderListener listener) {
+        return geometry(context, elementBounds, listener).clipShape();
+    }
+
+    /**
+     * Computes the geometry of the clip path for an element. The geometry is cached in the same way as the
+     * {@link #clipShape(RenderContext, Rectangle2D, RenderListener) clip shape}.
+     *
+     * @param context the context of the clipped element.
+     * @param elementBounds the bounds of the clipped element.
+     * @param listener the listener to report cache accesses to.
+     * @return the geometry.
+     */
+    public @NotNull Geometry geometry(@NotNull RenderContext context, @NotNull Rectangle2D elementBounds,
+            @NotNull RenderListener listener) {
+        ClipShapeKey key = new ClipShapeKey(context,
+                clipPathUnits == UnitType.ObjectBoundingBox ? elementBounds : null);
+        Geometry geometry;
+        synchronized (clipShapeCache) {
+            geometry = clipShapeCache.get(key);
+        }
+        if (listener.isEnabled()) listener.cacheAccessed(RenderListener.Cache.CLIP_PATH, geometry != null);
+        if (geometry != null) return geometry;
+
+        geometry = new Geometry(computeOutline(context, elementBounds));
+        synchronized (clipShapeCache) {
+            clipShapeCache.put(key, geometry);
+        }
+        return geometry;
+    }
+
+    private @NotNull Shape computeOutline(@NotNull RenderContext context, @NotNull Rectangle2D elementBounds) {
         // Todo: Handle bounding-box stuff as well (i.e. combined stroke etc.)
         Shape shape = ShapedContainer.super.elementShape(context);
         if (clipPathUnits == UnitType.ObjectBoundingBox) {
             shape = clipPathUnits.viewTransform(elementBounds).createTransformedShape(shape);
         }
-        Area areaShape = new Area(shape);
-        if (areaShape.isRectangular()) {
-            return areaShape.getBounds();
+        return shape;
+    }
+
+    /**
+     * Rasterizes the clip path at device resolution into an alpha mask. Used instead of geometric clipping for
+     * complex clip paths, for which intersecting the clip with the painted shapes is prohibitively slow.
+     * The result is applied in the same way as a mask, hence it only affects painted shapes and text.
+     *
+     * @param output the output of the clipped element.
+     * @param geometry the geometry of the clip path.
+     * @return the paint applying the mask or null if nothing would be visible.
+     */
+    public @Nullable Paint createSoftClipPaint(@NotNull Output output, @NotNull Geometry geometry) {
+        RenderListener listener = output.renderListener();
+        if (!listener.isEnabled()) return createSoftClipPaintImpl(output, geometry);
+        long start = System.nanoTime();
+        Paint paint = createSoftClipPaintImpl(output, geometry);
+        listener.phaseCompleted(RenderListener.Phase.CLIP_PATH, this, System.nanoTime() - start);
+        return paint;
+    }
+
+    private @Nullable Paint createSoftClipPaintImpl(@NotNull Output output, @NotNull Geometry geometry) {
+        AffineTransform deviceTransform = output.transform();
+        Rectangle2D region = geometry.bounds().createIntersection(output.clipBounds());
+        if (region.isEmpty()) return null;
+        Rectangle2D deviceRegion = GeometryUtil.containingBoundsAfterTransform(deviceTransform, region);
+        int x = (int) Math.floor(deviceRegion.getMinX());
+        int y = (int) Math.floor(deviceRegion.getMinY());
+        int width = (int) Math.ceil(deviceRegion.getMaxX()) - x;
+        int height = (int) Math.ceil(deviceRegion.getMaxY()) - y;
+        if (width <= 0 || height <= 0) return null;
+
+        BufferedImage mask = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        output.renderListener().bufferAllocated(width, height);
+        JFR.bufferAllocated(mask);
+        Graphics2D g = GraphicsUtil.createGraphics(mask);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.translate(-x, -y);
+        g.transform(deviceTransform);
+        g.setColor(Color.WHITE);
+        g.fill(geometry.outline());
+        g.dispose();
+
+        return new MaskedPaint(PaintParser.DEFAULT_COLOR, mask.getRaster(), new Point2D.Double(x, y));
+    }
+
+    /**
+     * The geometry of a clip path applied to an element.
+     */
+    public static final class Geometry {
+        private final @NotNull Shape outline;
+        private final int segmentCount;
+        private volatile Shape clipShape;
+
+        private Geometry(@NotNull Shape outline) {
+            this.outline = outline;
+            int count = 0;
+            for (PathIterator it = outline.getPathIterator(null); !it.isDone(); it.next()) {
+                count++;
+            }
+            this.segmentCount = count;
+        }
+
+        /**
+         * The outline of the clip path as the union of the shapes of its children.
+         *
+         * @return the outline.
+         */
+        public @NotNull Shape outline() {
+            return outline;
+        }
+
+        /**
+         * The number of path segments of the outline. Used as a measure for the cost of geometric clipping.
+         *
+         * @return the segment count.
+         */
+        public int segmentCount() {
+            return segmentCount;
+        }
+
+        /**
+         * The bounds of the clip shape if it has already been computed, otherwise the bounds of the outline.
+         *
+         * @return the bounds.
+         */
+        public @NotNull Rectangle2D bounds() {
+            Shape shape = clipShape;
+            return shape != null ? shape.getBounds2D() : outline.getBounds2D();
+        }
+
+        /**
+         * The shape to clip to. It is computed on first use, as constructing it is costly for complex outlines.
+         *
+         * @return the clip shape.
+         */
+        public @NotNull Shape clipShape() {
+            Shape shape = clipShape;
+            if (shape == null) {
+                Area areaShape = new Area(outline);
+                shape = areaShape.isRectangular() ? areaShape.getBounds() : areaShape;
+                clipShape = shape;
+            }
+            return shape;
+        }
+    }
+
+    private static final class ClipShapeKey {
+        private final @NotNull MeasureContext measureContext;
+        private final @NotNull MeasurableFontSpec fontSpec;
+        private final @NotNull FontRenderContext fontRenderContext;
+        private final @Nullable Rectangle2D elementBounds;
+
+        private ClipShapeKey(@NotNull RenderContext context, @Nullable Rectangle2D elementBounds) {
+            this.measureContext = context.measureContext();
+            this.fontSpec = context.fontSpec();
+            this.fontRenderContext = context.fontRenderContext();
+            this.elementBounds = elementBounds != null ? new Rectangle2D.Double(elementBounds.getX(),
+                    elementBounds.getY(), elementBounds.getWidth(), elementBounds.getHeight()) : null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ClipShapeKey that)) return false;
+            return measureContext.equals(that.measureContext)
+                    && fontSpec.equals(that.fontSpec)
+                    && fontRenderContext.equals(that.fontRenderContext)
+                    && Objects.equals(elementBounds, that.elementBounds);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(measureContext, fontSpec, fontRenderContext, elementBounds);
         }
-        return areaShape;
     }
 }
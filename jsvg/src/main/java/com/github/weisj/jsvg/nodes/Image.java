@@ -98,6 +98,15 @@ public final class Image extends RenderableSVGNode {
         }
     }
 
+    /**
+     * Whether the image is still being loaded. Until then a placeholder is painted in its place.
+     *
+     * @return true if the image resource isn't available yet.
+     */
+    public boolean isLoading() {
+        return imgResource != null && !(imgResource instanceof ValueUIFuture);
+    }
+
     private @Nullable RenderableResource fetchImage(@NotNull RenderContext context) {
         if (imgResource == null) return null;
         if (imgResource instanceof ValueUIFuture) return imgResource.get();
@@ -39,6 +39,15 @@ public final class InplaceBoxBlurFilter {
 
     public static void horizontalPass(@NotNull Raster src, @NotNull WritableRaster dst,
             int skipX, int skipY, int boxSize, int loc) {
+        horizontalPass(src, dst, skipX, skipY, boxSize, loc, 0, src.getHeight());
+    }
+
+    /**
+     * Blurs the rows {@code startY} (inclusive) to {@code endY} (exclusive). Rows are independent of each other,
+     * hence disjoint ranges of rows can be processed concurrently.
+     */
+    public static void horizontalPass(@NotNull Raster src, @NotNull WritableRaster dst,
+            int skipX, int skipY, int boxSize, int loc, int startY, int endY) {
         int width = src.getWidth();
         int height = src.getHeight();
 
@@ -58,7 +67,8 @@ public final class InplaceBoxBlurFilter {
         int curr, prev;
         int scale = (1 << 24) / boxSize;
 
-        for (int y = skipY; y < (height - skipY); y++) {
+        int lastY = Math.min(height - skipY, endY);
+        for (int y = Math.max(skipY, startY); y < lastY; y++) {
             int sp = srcOff + y * srcScanStride;
             int dp = dstOff + y * dstScanStride;
             int rowEnd = sp + (width - skipX);
@@ -117,8 +127,80 @@ public final class InplaceBoxBlurFilter {
         }
     }
 
+    /**
+     * Blurs the first {@code length} pixels of the given line in place. The box sum of the pixels starting at
+     * {@code i} is stored at {@code i + loc}, hence the first {@code loc} and the last {@code boxSize - 1 - loc}
+     * pixels keep their value.
+     */
+    public static void linePass(int @NotNull [] line, int length, int boxSize, int loc) {
+        if (length < boxSize) return;
+
+        int[] buffer = new int[boxSize];
+        int curr, prev;
+        int scale = (1 << 24) / boxSize;
+
+        int sp = 0;
+        int k = 0;
+        int sumA = 0;
+        int sumR = 0;
+        int sumG = 0;
+        int sumB = 0;
+
+        while (sp < boxSize) {
+            curr = buffer[k] = line[sp];
+            sumA += (curr >>> 24);
+            sumR += (curr >> 16) & 0xFF;
+            sumG += (curr >> 8) & 0xFF;
+            sumB += curr & 0xFF;
+            k++;
+            sp++;
+        }
+
+        int dp = loc;
+        prev = line[dp] = (((sumA * scale) & 0xFF000000) |
+                (((sumR * scale) & 0xFF000000) >>> 8) |
+                (((sumG * scale) & 0xFF000000) >>> 16) |
+                (((sumB * scale) & 0xFF000000) >>> 24));
+        dp++;
+        k = 0;
+        while (sp < length) {
+            curr = buffer[k];
+            if (curr == line[sp]) {
+                line[dp] = prev;
+            } else {
+                sumA -= (curr >>> 24);
+                sumR -= (curr >> 16) & 0xFF;
+                sumG -= (curr >> 8) & 0xFF;
+                sumB -= curr & 0xFF;
+
+                curr = buffer[k] = line[sp];
+
+                sumA += (curr >>> 24);
+                sumR += (curr >> 16) & 0xFF;
+                sumG += (curr >> 8) & 0xFF;
+                sumB += curr & 0xFF;
+                prev = line[dp] = (((sumA * scale) & 0xFF000000) |
+                        (((sumR * scale) & 0xFF000000) >>> 8) |
+                        (((sumG * scale) & 0xFF000000) >>> 16) |
+                        (((sumB * scale) & 0xFF000000) >>> 24));
+            }
+            if (++k == boxSize) k = 0;
+            sp++;
+            dp++;
+        }
+    }
+
     public static void verticalPass(@NotNull Raster src, @NotNull WritableRaster dst,
             int skipX, int skipY, int boxSize, int loc) {
+        verticalPass(src, dst, skipX, skipY, boxSize, loc, 0, src.getWidth());
+    }
+
+    /**
+     * Blurs the columns {@code startX} (inclusive) to {@code endX} (exclusive). Columns are independent of each
+     * other, hence disjoint ranges of columns can be processed concurrently.
+     */
+    public static void verticalPass(@NotNull Raster src, @NotNull WritableRaster dst,
+            int skipX, int skipY, int boxSize, int loc, int startX, int endX) {
         int w = src.getWidth();
         int h = src.getHeight();
 
@@ -139,7 +221,8 @@ public final class InplaceBoxBlurFilter {
 
         final int scale = (1 << 24) / boxSize;
 
-        for (int x = skipX; x < (w - skipX); x++) {
+        int lastX = Math.min(w - skipX, endX);
+        for (int x = Math.max(skipX, startX); x < lastX; x++) {
             int sp = srcOff + x;
             int dp = dstOff + x;
             int colEnd = sp + (h - skipY) * srcScanStride;
@@ -40,6 +40,7 @@ import com.github.weisj.jsvg.nodes.prototype.spec.Category;
 import com.github.weisj.jsvg.nodes.prototype.spec.ElementCategories;
 import com.github.weisj.jsvg.nodes.prototype.spec.PermittedContent;
 import com.github.weisj.jsvg.parser.AttributeNode;
+import com.github.weisj.jsvg.renderer.jdk.SVGLinearGradientPaint;
 
 @ElementCategories(Category.Gradient)
 @PermittedContent(
@@ -74,8 +75,9 @@ public final class LinearGradient extends AbstractGradient<LinearGradient> {
         Point2D.Float pt2 = new Point2D.Float(x2.resolveWidth(measure), y2.resolveHeight(measure));
         if (pt1.equals(pt2)) return gradColors[0];
 
-        return new LinearGradientPaint(pt1, pt2, gradOffsets, gradColors, spreadMethod.cycleMethod(),
-                MultipleGradientPaint.ColorSpaceType.SRGB, computeViewTransform(bounds));
+        MultipleGradientPaint.ColorSpaceType colorSpace = MultipleGradientPaint.ColorSpaceType.SRGB;
+        return new SVGLinearGradientPaint(pt1, pt2, gradOffsets, gradColors, spreadMethod.cycleMethod(),
+                colorSpace, computeViewTransform(bounds), lookup(colorSpace));
     }
 
     @Override
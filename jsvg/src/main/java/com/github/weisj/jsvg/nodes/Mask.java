@@ -22,14 +22,22 @@
 package com.github.weisj.jsvg.nodes;
 
 import java.awt.*;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Objects;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import com.github.weisj.jsvg.RenderListener;
+import com.github.weisj.jsvg.SVGRenderingHints;
 import com.github.weisj.jsvg.attributes.UnitType;
 import com.github.weisj.jsvg.attributes.paint.PaintParser;
 import com.github.weisj.jsvg.geometry.size.Length;
+import com.github.weisj.jsvg.geometry.size.MeasureContext;
 import com.github.weisj.jsvg.geometry.size.Unit;
 import com.github.weisj.jsvg.nodes.container.CommonRenderableContainerNode;
 import com.github.weisj.jsvg.nodes.filter.Filter;
@@ -39,12 +47,13 @@ import com.github.weisj.jsvg.nodes.prototype.spec.ElementCategories;
 import com.github.weisj.jsvg.nodes.prototype.spec.PermittedContent;
 import com.github.weisj.jsvg.nodes.text.Text;
 import com.github.weisj.jsvg.parser.AttributeNode;
-import com.github.weisj.jsvg.renderer.Graphics2DOutput;
+import com.github.weisj.jsvg.renderer.GraphicsUtil;
 import com.github.weisj.jsvg.renderer.MaskedPaint;
 import com.github.weisj.jsvg.renderer.Output;
 import com.github.weisj.jsvg.renderer.RenderContext;
 import com.github.weisj.jsvg.util.BlittableImage;
 import com.github.weisj.jsvg.util.ImageUtil;
+import com.github.weisj.jsvg.util.RasterCache;
 
 @ElementCategories(Category.Container)
 @PermittedContent(
@@ -59,6 +68,11 @@ import com.github.weisj.jsvg.util.ImageUtil;
 public final class Mask extends CommonRenderableContainerNode implements Instantiator {
     private static final boolean DEBUG = false;
     public static final String TAG = "mask";
+    private static final long MASK_CACHE_BYTES = 4 << 20;
+
+    private final @NotNull RasterCache<MaskKey, CachedMask> maskCache =
+            new RasterCache<>(MASK_CACHE_BYTES, RenderListener.Cache.MASK, SVGRenderingHints.KEY_MASK_CACHE,
+                    CachedMask::byteSize);
 
     private Length x;
     private Length y;
@@ -85,37 +99,150 @@ public final class Mask extends CommonRenderableContainerNode implements Instant
         maskUnits = attributeNode.getEnum("maskUnits", UnitType.ObjectBoundingBox);
     }
 
-    public @NotNull Paint createMaskPaint(@NotNull Output output, @NotNull RenderContext context,
-            @NotNull Rectangle2D objectBounds) {
+    /**
+     * The region outside of which the masked element is invisible.
+     *
+     * @param context the render context of the masked element.
+     * @param objectBounds the bounds of the masked element.
+     * @return the mask region in user space.
+     */
+    public @NotNull Rectangle2D maskRegion(@NotNull RenderContext context, @NotNull Rectangle2D objectBounds) {
         Rectangle2D.Double maskBounds = maskUnits.computeViewBounds(
                 context.measureContext(), objectBounds, x, y, width, height);
+        return maskBounds.createIntersection(objectBounds);
+    }
 
-        BlittableImage blitImage = BlittableImage.create(
-                ImageUtil::createLuminosityBuffer, context, output.clipBounds(),
-                maskBounds.createIntersection(objectBounds), objectBounds, maskContentUnits);
-        Rectangle2D maskBoundsInUserSpace = blitImage.boundsInUserSpace();
-
-        if (isInvalidMaskingArea(maskBoundsInUserSpace)) return PaintParser.DEFAULT_COLOR;
-
-        blitImage.renderNode(output, this, this);
+    public @NotNull Paint createMaskPaint(@NotNull Output output, @NotNull RenderContext context,
+            @NotNull Rectangle2D objectBounds) {
+        RenderListener listener = output.renderListener();
+        if (!listener.isEnabled()) return createMaskPaintImpl(output, context, objectBounds);
+        long start = System.nanoTime();
+        Paint paint = createMaskPaintImpl(output, context, objectBounds);
+        listener.phaseCompleted(RenderListener.Phase.MASK, this, System.nanoTime() - start);
+        return paint;
+    }
 
+    private @NotNull Paint createMaskPaintImpl(@NotNull Output output, @NotNull RenderContext context,
+            @NotNull Rectangle2D objectBounds) {
+        Rectangle2D maskRegion = maskRegion(context, objectBounds);
+        Rectangle2D clipBounds = output.clipBounds();
+
+        // The mask only depends on the transform up to integral translations, which allows reusing it
+        // across repaints and for elements at different positions.
+        AffineTransform deviceTransform = new AffineTransform(context.rootTransform());
+        deviceTransform.concatenate(context.userSpaceTransform());
+        double tx = Math.floor(deviceTransform.getTranslateX());
+        double ty = Math.floor(deviceTransform.getTranslateY());
+        MaskKey key = new MaskKey(context, deviceTransform, tx, ty, objectBounds,
+                BlittableImage.boundsInRootSpace(context, clipBounds, maskRegion),
+                GraphicsUtil.rasterizationHints(output));
+
+        boolean useCache = maskCache.isEnabled(output);
+        CachedMask mask = useCache ? maskCache.get(key, output.renderListener()) : null;
+        if (mask == null) {
+            mask = renderMask(output, context, clipBounds, maskRegion, objectBounds, tx, ty);
+            if (useCache) maskCache.put(key, mask);
+        }
+        if (mask.image == null) return PaintParser.DEFAULT_COLOR;
+        int maskX = (int) (mask.offsetX + tx);
+        int maskY = (int) (mask.offsetY + ty);
 
         if (DEBUG) {
+            BufferedImage maskImage = mask.image;
             output.debugPaint(g -> {
+                g.setTransform(new AffineTransform());
                 g.setComposite(AlphaComposite.SrcOver.derive(0.5f));
-                blitImage.blitTo(new Graphics2DOutput(g), context);
+                g.drawImage(maskImage, maskX, maskY, null);
             });
         }
 
-        Point2D offset = new Point2D.Double(maskBoundsInUserSpace.getX(), maskBoundsInUserSpace.getY());
-        context.rootTransform().transform(offset, offset);
-        return new MaskedPaint(PaintParser.DEFAULT_COLOR, blitImage.image().getRaster(), offset);
+        return new MaskedPaint(PaintParser.DEFAULT_COLOR, mask.image.getRaster(), new Point2D.Double(maskX, maskY));
+    }
+
+    private @NotNull CachedMask renderMask(@NotNull Output output, @NotNull RenderContext context,
+            @NotNull Rectangle2D clipBounds, @NotNull Rectangle2D maskRegion, @NotNull Rectangle2D objectBounds,
+            double tx, double ty) {
+        BlittableImage blitImage = BlittableImage.create(
+                ImageUtil::createLuminosityBuffer, output, context, clipBounds,
+                maskRegion, objectBounds, maskContentUnits);
+        Rectangle2D maskBoundsInUserSpace = blitImage.boundsInUserSpace();
+
+        if (isInvalidMaskingArea(maskBoundsInUserSpace)) return new CachedMask(null, 0, 0);
+
+        blitImage.renderNode(output, this, this);
+
+        // Both the origin and tx/ty are in device space, so the offset is an exact integer.
+        Point origin = blitImage.originInRootSpace();
+        return new CachedMask(blitImage.image(), origin.x - tx, origin.y - ty);
     }
 
     private static boolean isInvalidMaskingArea(@NotNull Rectangle2D area) {
         return area.isEmpty() || Double.isNaN(area.getWidth()) || Double.isNaN(area.getHeight());
     }
 
+    private static final class CachedMask {
+        private final @Nullable BufferedImage image;
+        private final double offsetX;
+        private final double offsetY;
+
+        private CachedMask(@Nullable BufferedImage image, double offsetX, double offsetY) {
+            this.image = image;
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+        }
+
+        private long byteSize() {
+            return image != null ? RasterCache.byteSize(image.getRaster()) : 0;
+        }
+    }
+
+    private static final class MaskKey {
+        private final double[] userSpaceMatrix = new double[4];
+        private final double[] rootMatrix = new double[4];
+        private final double fractionalX;
+        private final double fractionalY;
+        private final @NotNull Rectangle2D objectBounds;
+        private final @NotNull Rectangle2D visibleBounds;
+        private final @NotNull MeasureContext measureContext;
+        private final @NotNull RenderingHints hints;
+
+        private MaskKey(@NotNull RenderContext context, @NotNull AffineTransform deviceTransform, double tx,
+                double ty, @NotNull Rectangle2D objectBounds, @NotNull Rectangle2D visibleBounds,
+                @NotNull RenderingHints hints) {
+            context.userSpaceTransform().getMatrix(userSpaceMatrix);
+            context.rootTransform().getMatrix(rootMatrix);
+            this.fractionalX = deviceTransform.getTranslateX() - tx;
+            this.fractionalY = deviceTransform.getTranslateY() - ty;
+            this.objectBounds = new Rectangle2D.Double(objectBounds.getX(), objectBounds.getY(),
+                    objectBounds.getWidth(), objectBounds.getHeight());
+            // Relative to the integral device translation.
+            this.visibleBounds = new Rectangle2D.Double(visibleBounds.getX() - tx, visibleBounds.getY() - ty,
+                    visibleBounds.getWidth(), visibleBounds.getHeight());
+            this.measureContext = context.measureContext();
+            this.hints = hints;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MaskKey that)) return false;
+            return Arrays.equals(userSpaceMatrix, that.userSpaceMatrix)
+                    && Arrays.equals(rootMatrix, that.rootMatrix)
+                    && Double.compare(that.fractionalX, fractionalX) == 0
+                    && Double.compare(that.fractionalY, fractionalY) == 0
+                    && objectBounds.equals(that.objectBounds)
+                    && visibleBounds.equals(that.visibleBounds)
+                    && measureContext.equals(that.measureContext)
+                    && hints.equals(that.hints);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(Arrays.hashCode(userSpaceMatrix), Arrays.hashCode(rootMatrix), fractionalX,
+                    fractionalY, objectBounds, visibleBounds, measureContext, hints);
+        }
+    }
+
     @Override
     public boolean requiresInstantiation() {
         return true;
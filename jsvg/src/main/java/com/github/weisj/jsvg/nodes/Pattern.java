@@ -26,10 +26,13 @@ import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
+import java.util.Objects;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import com.github.weisj.jsvg.RenderListener;
+import com.github.weisj.jsvg.SVGRenderingHints;
 import com.github.weisj.jsvg.attributes.Overflow;
 import com.github.weisj.jsvg.attributes.PreserveAspectRatio;
 import com.github.weisj.jsvg.attributes.UnitType;
@@ -38,6 +41,8 @@ import com.github.weisj.jsvg.attributes.paint.SVGPaint;
 import com.github.weisj.jsvg.geometry.size.FloatSize;
 import com.github.weisj.jsvg.geometry.size.Length;
 import com.github.weisj.jsvg.geometry.size.MeasureContext;
+import com.github.weisj.jsvg.geometry.util.GeometryUtil;
+import com.github.weisj.jsvg.jfr.JFR;
 import com.github.weisj.jsvg.nodes.container.BaseInnerViewContainer;
 import com.github.weisj.jsvg.nodes.filter.Filter;
 import com.github.weisj.jsvg.nodes.prototype.ShapedContainer;
@@ -48,6 +53,7 @@ import com.github.weisj.jsvg.nodes.text.Text;
 import com.github.weisj.jsvg.parser.AttributeNode;
 import com.github.weisj.jsvg.renderer.*;
 import com.github.weisj.jsvg.util.ImageUtil;
+import com.github.weisj.jsvg.util.RasterCache;
 
 @ElementCategories(Category.Container)
 @PermittedContent(
@@ -61,6 +67,11 @@ import com.github.weisj.jsvg.util.ImageUtil;
 )
 public final class Pattern extends BaseInnerViewContainer implements SVGPaint, ShapedContainer<SVGNode> {
     public static final String TAG = "pattern";
+    private static final long TILE_CACHE_BYTES = 4 << 20;
+
+    private final @NotNull RasterCache<TileKey, BufferedImage> tileCache =
+            new RasterCache<>(TILE_CACHE_BYTES, RenderListener.Cache.PATTERN, SVGRenderingHints.KEY_PATTERN_CACHE,
+                    img -> RasterCache.byteSize(img.getRaster()));
 
     private Length x;
     private Length y;
@@ -158,12 +169,43 @@ public final class Pattern extends BaseInnerViewContainer implements SVGPaint, S
 
     private @NotNull Paint paintForBounds(@NotNull Output output, @NotNull RenderContext context,
             @NotNull Rectangle2D bounds) {
+        RenderListener listener = output.renderListener();
+        if (!listener.isEnabled()) return paintForBoundsImpl(output, context, bounds);
+        long start = System.nanoTime();
+        Paint paint = paintForBoundsImpl(output, context, bounds);
+        listener.phaseCompleted(RenderListener.Phase.PATTERN, this, System.nanoTime() - start);
+        return paint;
+    }
+
+    private @NotNull Paint paintForBoundsImpl(@NotNull Output output, @NotNull RenderContext context,
+            @NotNull Rectangle2D bounds) {
         MeasureContext measure = context.measureContext();
         Rectangle2D.Double patternBounds = patternUnits.computeViewBounds(measure, bounds, x, y, width, height);
 
+        // The tile only depends on the size of the pattern, not on its position. Hence, it can be shared
+        // by all shapes painted with the same pattern size and scale.
+        TileKey key = new TileKey(patternBounds, output.transform(), patternContentUnits.deriveMeasure(measure),
+                GraphicsUtil.rasterizationHints(output));
+        boolean useCache = tileCache.isEnabled(output);
+        BufferedImage img = useCache ? tileCache.get(key, output.renderListener()) : null;
+        if (img == null) {
+            img = renderTile(output, measure, patternBounds);
+            if (useCache) tileCache.put(key, img);
+        }
+
+        // Fixme: When patternTransform != null antialiasing is broken
+        return patternTransform != null
+                ? new TransformedPaint(new TexturePaint(img, patternBounds), patternTransform)
+                : new TexturePaint(img, patternBounds);
+    }
+
+    private @NotNull BufferedImage renderTile(@NotNull Output output, @NotNull MeasureContext measure,
+            @NotNull Rectangle2D.Double patternBounds) {
         // TODO: With overflow = visible this does not result in the correct behaviour
         BufferedImage img =
                 ImageUtil.createCompatibleTransparentImage(output, patternBounds.width, patternBounds.height);
+        output.renderListener().bufferAllocated(img.getWidth(), img.getHeight());
+        JFR.bufferAllocated(img);
         Graphics2D imgGraphics = GraphicsUtil.createGraphics(img);
         imgGraphics.setRenderingHints(output.renderingHints());
         imgGraphics.scale(img.getWidth() / patternBounds.width, img.getHeight() / patternBounds.height);
@@ -185,10 +227,42 @@ public final class Pattern extends BaseInnerViewContainer implements SVGPaint, S
 
         renderWithSize(size, view, aspectRation, patternContext, new Graphics2DOutput(imgGraphics));
         imgGraphics.dispose();
+        return img;
+    }
 
-        // Fixme: When patternTransform != null antialiasing is broken
-        return patternTransform != null
-                ? new TransformedPaint(new TexturePaint(img, patternBounds), patternTransform)
-                : new TexturePaint(img, patternBounds);
+    private static final class TileKey {
+        private final double width;
+        private final double height;
+        private final double scaleX;
+        private final double scaleY;
+        private final @NotNull MeasureContext measureContext;
+        private final @NotNull RenderingHints hints;
+
+        private TileKey(@NotNull Rectangle2D patternBounds, @NotNull AffineTransform deviceTransform,
+                @NotNull MeasureContext measureContext, @NotNull RenderingHints hints) {
+            this.width = patternBounds.getWidth();
+            this.height = patternBounds.getHeight();
+            this.scaleX = GeometryUtil.scaleXOfTransform(deviceTransform);
+            this.scaleY = GeometryUtil.scaleYOfTransform(deviceTransform);
+            this.measureContext = measureContext;
+            this.hints = hints;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TileKey that)) return false;
+            return Double.compare(that.width, width) == 0
+                    && Double.compare(that.height, height) == 0
+                    && Double.compare(that.scaleX, scaleX) == 0
+                    && Double.compare(that.scaleY, scaleY) == 0
+                    && measureContext.equals(that.measureContext)
+                    && hints.equals(that.hints);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(width, height, scaleX, scaleY, measureContext, hints);
+        }
     }
 }
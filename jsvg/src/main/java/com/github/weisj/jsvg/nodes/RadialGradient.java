@@ -81,9 +81,10 @@ public final class RadialGradient extends AbstractGradient<RadialGradient> {
         float radius = r.resolveLength(measure);
         float focusRadius = fr.resolveLength(measure);
 
+        MultipleGradientPaint.ColorSpaceType colorSpace = MultipleGradientPaint.ColorSpaceType.SRGB;
         return new SVGRadialGradientPaint(center, radius, focusCenter, focusRadius,
                 gradOffsets, gradColors, spreadMethod.cycleMethod(),
-                MultipleGradientPaint.ColorSpaceType.SRGB, computeViewTransform(bounds));
+                colorSpace, computeViewTransform(bounds), lookup(colorSpace));
     }
 
     @Override
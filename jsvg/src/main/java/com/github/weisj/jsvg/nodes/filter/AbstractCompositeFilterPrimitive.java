@@ -23,6 +23,7 @@ package com.github.weisj.jsvg.nodes.filter;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.util.List;
 
 import org.jetbrains.annotations.MustBeInvokedByOverriders;
 import org.jetbrains.annotations.NotNull;
@@ -55,6 +56,11 @@ abstract class AbstractCompositeFilterPrimitive extends AbstractFilterPrimitive
         return impl.channel(inputChannel2, filterContext);
     }
 
+    @Override
+    public @NotNull List<@NotNull FilterChannelKey> inputChannels() {
+        return List.of(impl().inputChannelKey(), inputChannel2);
+    }
+
     @Override
     public void layoutFilter(@NotNull RenderContext context, @NotNull FilterLayoutContext filterLayoutContext) {
         LayoutBounds in = impl().layoutInput(filterLayoutContext);
@@ -65,14 +71,19 @@ abstract class AbstractCompositeFilterPrimitive extends AbstractFilterPrimitive
     @Override
     public void applyFilter(@NotNull RenderContext context, @NotNull FilterContext filterContext) {
         FilterPrimitiveBase impl = impl();
-        BufferedImage dst = destinationChannel(impl, filterContext).toBufferedImageNonAliased(context);
+        Channel destination = destinationChannel(impl, filterContext);
+        Channel source = sourceChannel(impl, filterContext);
+        Rectangle bounds = destination.bounds();
+        Rectangle sourceBounds = source.bounds();
 
-        Image other = context.platformSupport().createImage(sourceChannel(impl, filterContext).producer());
+        Rectangle region = filterContext.resultRegion();
+        BufferedImage dst = RasterChannel.copyImage(destination, region);
         Graphics2D imgGraphics = GraphicsUtil.createGraphics(dst);
+        if (region != null) imgGraphics.clipRect(region.x - bounds.x, region.y - bounds.y, region.width, region.height);
         imgGraphics.setComposite(composite());
-        imgGraphics.drawImage(other, null, context.platformSupport().imageObserver());
+        imgGraphics.drawImage(source.image(), sourceBounds.x - bounds.x, sourceBounds.y - bounds.y, null);
         imgGraphics.dispose();
 
-        impl.saveResult(new ImageProducerChannel(dst.getSource()), filterContext);
+        impl.saveResult(new RasterChannel(dst, bounds.x, bounds.y), filterContext);
     }
 }
@@ -22,10 +22,16 @@
 package com.github.weisj.jsvg.nodes.filter;
 
 
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+
 import org.jetbrains.annotations.MustBeInvokedByOverriders;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import com.github.weisj.jsvg.attributes.filter.FilterChannelKey;
 import com.github.weisj.jsvg.geometry.size.Length;
+import com.github.weisj.jsvg.geometry.size.MeasureContext;
 import com.github.weisj.jsvg.nodes.AbstractSVGNode;
 import com.github.weisj.jsvg.parser.AttributeNode;
 
@@ -63,4 +69,20 @@ public abstract class AbstractFilterPrimitive extends AbstractSVGNode implements
     public @NotNull Length height() {
         return impl().height;
     }
+
+    @Override
+    public @NotNull List<@NotNull FilterChannelKey> inputChannels() {
+        return List.of(impl().inputChannelKey());
+    }
+
+    @Override
+    public @NotNull FilterChannelKey resultChannel() {
+        return impl().resultChannelKey();
+    }
+
+    @Override
+    public @Nullable Rectangle2D subregion(@NotNull MeasureContext measureContext,
+            @NotNull FilterContext filterContext) {
+        return impl().subregion(measureContext, filterContext);
+    }
 }
@@ -23,40 +23,39 @@ package com.github.weisj.jsvg.nodes.filter;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.awt.image.ImageFilter;
-import java.awt.image.ImageProducer;
+import java.awt.image.WritableRaster;
 
 import org.jetbrains.annotations.NotNull;
 
-import com.github.weisj.jsvg.renderer.RenderContext;
-
+/**
+ * The result of a filter primitive. Pixels are stored as premultiplied ARGB in an int raster whose bounds are the
+ * bounds of the channel in the pixel space of the filter buffer.
+ * <p>
+ * A channel may be consumed by several primitives, hence its pixels must never be modified. Primitives which work
+ * in place have to do so on a {@link #copyImage() copy}.
+ */
 public interface Channel {
 
-    @NotNull
-    ImageProducer producer();
-
-    default @NotNull Image toImage(@NotNull RenderContext context) {
-        return context.platformSupport().createImage(producer());
+    default @NotNull Rectangle bounds() {
+        return raster().getBounds();
     }
 
-    default @NotNull BufferedImage toBufferedImageNonAliased(@NotNull RenderContext context) {
-        return makeNonAliased(toImage(context));
-    }
+    @NotNull
+    WritableRaster raster();
+
+    /**
+     * An image backed by the pixels of the channel. The origin of the image corresponds to the location of
+     * {@link #bounds()}.
+     *
+     * @return the image.
+     */
+    @NotNull
+    BufferedImage image();
 
-    static @NotNull BufferedImage makeNonAliased(@NotNull Image img) {
-        BufferedImage bufferedImage = new BufferedImage(
-                img.getWidth(null),
-                img.getHeight(null),
-                BufferedImage.TYPE_INT_ARGB);
-        Graphics imageGraphics = bufferedImage.getGraphics();
-        imageGraphics.drawImage(img, 0, 0, null);
-        imageGraphics.dispose();
-        return bufferedImage;
+    default @NotNull BufferedImage copyImage() {
+        return RasterChannel.copy(image());
     }
 
     @NotNull
-    Channel applyFilter(@NotNull ImageFilter filter);
-
-    @NotNull
-    PixelProvider pixels(@NotNull RenderContext context);
+    PixelProvider pixels();
 }
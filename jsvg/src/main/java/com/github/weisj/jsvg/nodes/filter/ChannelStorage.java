@@ -43,6 +43,10 @@ public final class ChannelStorage<T> {
         storage.put(key.key(), new LazyProvider<>(value));
     }
 
+    public void remove(@NotNull FilterChannelKey key) {
+        storage.remove(key.key());
+    }
+
     public @NotNull T get(@NotNull FilterChannelKey key) {
         Provider<T> provider = storage.get(key.key());
         if (provider == null) throw new IllegalFilterStateException("Channel " + key + " not found.");
@@ -21,8 +21,9 @@
  */
 package com.github.weisj.jsvg.nodes.filter;
 
-import java.awt.image.RGBImageFilter;
-import java.util.Arrays;
+import java.awt.*;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
 import java.util.Locale;
 
 import org.jetbrains.annotations.NotNull;
@@ -36,16 +37,17 @@ import com.github.weisj.jsvg.nodes.prototype.spec.ElementCategories;
 import com.github.weisj.jsvg.nodes.prototype.spec.PermittedContent;
 import com.github.weisj.jsvg.parser.AttributeNode;
 import com.github.weisj.jsvg.renderer.RenderContext;
+import com.github.weisj.jsvg.util.ImageUtil;
 
 @ElementCategories(Category.FilterPrimitive)
 @PermittedContent(
     anyOf = {Animate.class, Set.class}
 )
-public final class FeColorMatrix extends AbstractFilterPrimitive {
+public final class FeColorMatrix extends AbstractFilterPrimitive implements PointwiseFilterPrimitive {
     public static final String TAG = "fecolormatrix";
     private static final String KEY_VALUES = "values";
 
-    private @Nullable AffineRGBImageFilter filter;
+    private @Nullable AffineColorFilter filter;
 
     @Override
     public @NotNull String tagName() {
@@ -61,38 +63,30 @@ public final class FeColorMatrix extends AbstractFilterPrimitive {
         switch (type.toLowerCase(Locale.ENGLISH)) {
             case "matrix":
                 double[] colorTransform = attributeNode.getDoubleList(KEY_VALUES);
-                if (colorTransform.length == 20) {
-                    boolean isIdentity = Arrays.equals(colorTransform,
-                            new double[] {
-                                    1, 0, 0, 0, 0,
-                                    0, 1, 0, 0, 0,
-                                    0, 0, 1, 0, 0,
-                                    0, 0, 0, 1, 0});
-                    if (!isIdentity) filter = new MatrixRGBFilter(colorTransform);
+                if (colorTransform.length == 20 && !isNearIdentity(colorTransform, 5, 4)) {
+                    filter = new MatrixRGBFilter(colorTransform);
                 }
                 break;
             case "saturate":
                 float s = attributeNode.getFloat(KEY_VALUES, 1);
-                if (s != 1) {
-                    filter = new LinearRGBFilter(
-                            0.213 + 0.787 * s, 0.715 * (1 - s), 0.072 * (1 - s),
-                            0.213 * (1 - s), 0.715 + 0.285 * s, 0.072 * (1 - s),
-                            0.213 * (1 - s), 0.715 * (1 - s), 0.072 + 0.928 * s);
-                }
+                double[] saturate = {
+                        0.213 + 0.787 * s, 0.715 * (1 - s), 0.072 * (1 - s),
+                        0.213 * (1 - s), 0.715 + 0.285 * s, 0.072 * (1 - s),
+                        0.213 * (1 - s), 0.715 * (1 - s), 0.072 + 0.928 * s};
+                if (!isNearIdentity(saturate, 3, 3)) filter = new MatrixRGBFilter(colorMatrix(saturate));
                 break;
             case "huerotate":
                 float hueRotate = attributeNode.getFloat(KEY_VALUES, 0);
-                if (hueRotate != 1) {
-                    double radians = Math.toRadians(hueRotate);
-                    double sin = Math.sin(radians);
-                    double cos = Math.cos(radians);
-                    //@formatter:off
-                    filter = new LinearRGBFilter(
-                        0.213 + cos * 0.787 - sin * 0.2127, 0.715 - 0.715 * cos - 0.715 * sin,0.072 - 0.072 * cos + 0.982 * sin,
-                        0.213 - cos * 0.213 + sin * 0.143, 0.715 + 0.285 * cos + 0.140 * sin,0.072 - 0.072 * cos - 0.283 * sin,
-                        0.213 - cos * 0.213 - sin * 0.787, 0.715 - 0.715 * cos + 0.715 * sin,0.072 + 0.982 * cos + 0.072 * sin);
-                    //@formatter:on
-                }
+                double radians = Math.toRadians(hueRotate);
+                double sin = Math.sin(radians);
+                double cos = Math.cos(radians);
+                //@formatter:off
+                double[] rotation = {
+                    0.213 + cos * 0.787 - sin * 0.2127, 0.715 - 0.715 * cos - 0.715 * sin,0.072 - 0.072 * cos + 0.982 * sin,
+                    0.213 - cos * 0.213 + sin * 0.143, 0.715 + 0.285 * cos + 0.140 * sin,0.072 - 0.072 * cos - 0.283 * sin,
+                    0.213 - cos * 0.213 - sin * 0.787, 0.715 - 0.715 * cos + 0.715 * sin,0.072 + 0.982 * cos + 0.072 * sin};
+                //@formatter:on
+                if (!isNearIdentity(rotation, 3, 3)) filter = new MatrixRGBFilter(colorMatrix(rotation));
                 break;
             case "luminancetoalpha":
                 filter = new LuminanceToAlphaFilter();
@@ -102,6 +96,43 @@ public final class FeColorMatrix extends AbstractFilterPrimitive {
         }
     }
 
+    /**
+     * Checks whether the matrix changes colors by less than half a code value, in which case the result after
+     * rounding is the input color.
+     *
+     * @param matrix the matrix in row major order. Columns past the number of rows are offsets scaled to
+     *        [0, 1].
+     * @param columns the number of columns.
+     * @param rows the number of rows.
+     * @return true if the matrix acts as the identity.
+     */
+    private static boolean isNearIdentity(double @NotNull [] matrix, int columns, int rows) {
+        for (int row = 0; row < rows; row++) {
+            double deviation = 0;
+            for (int column = 0; column < columns; column++) {
+                double expected = row == column ? 1 : 0;
+                deviation += Math.abs(matrix[row * columns + column] - expected);
+            }
+            if (deviation * 255 >= 0.5) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Extends a 3x3 matrix acting on the color components to a full color matrix, which leaves alpha unchanged.
+     *
+     * @param rgb the matrix in row major order.
+     * @return the color matrix in row major order.
+     */
+    private static double @NotNull [] colorMatrix(double @NotNull [] rgb) {
+        double[] matrix = new double[20];
+        for (int row = 0; row < 3; row++) {
+            System.arraycopy(rgb, row * 3, matrix, row * 5, 3);
+        }
+        matrix[18] = 1;
+        return matrix;
+    }
+
     @Override
     public void layoutFilter(@NotNull RenderContext context, @NotNull FilterLayoutContext filterLayoutContext) {
         // Doesn't change the input bounds regardless whether filter is specified or not.
@@ -115,123 +146,180 @@ public final class FeColorMatrix extends AbstractFilterPrimitive {
 
     @Override
     public void applyFilter(@NotNull RenderContext context, @NotNull FilterContext filterContext) {
-        @Nullable RGBImageFilter f = filter;
+        @Nullable AffineColorFilter f = filter;
         if (f == null) {
             impl().noop(filterContext);
             return;
         }
-        impl().saveResult(impl().inputChannel(filterContext).applyFilter(f), filterContext);
+        impl().saveResult(f.apply(impl().inputChannel(filterContext), filterContext.resultRegion()), filterContext);
     }
 
-    private static int toRgbRange(double value) {
-        return (int) Math.max(Math.min(Math.round(value), 255), 0);
+    @Override
+    public @NotNull Point translation(@NotNull FilterContext context) {
+        return new Point();
     }
 
-    private static abstract class AffineRGBImageFilter extends RGBImageFilter {
-        abstract boolean isLinear();
+    @Override
+    public boolean filtersColors() {
+        return filter != null;
     }
 
-    private static final class MatrixRGBFilter extends AffineRGBImageFilter {
+    @Override
+    public void filterRow(int @NotNull [] pixels, int offset, int length) {
+        if (filter != null) filter.filterRow(pixels, offset, pixels, offset, length);
+    }
+
+    private static int clampComponent(float value, int max) {
+        if (value <= 0) return 0;
+        if (value >= max) return max;
+        return (int) (value + 0.5f);
+    }
 
-        private final double r1, r2, r3, r4, r5;
-        private final double g1, g2, g3, g4, g5;
-        private final double b1, b2, b3, b4, b5;
-        private final double a1, a2, a3, a4, a5;
+    /*
+     * Conversion between premultiplied and non-premultiplied components indexed by (alpha << 8) | component.
+     * The values match RasterChannel#premultiply and RasterChannel#unpremultiply.
+     */
+    private static final class PremultiplyTables {
+        private static final byte[] PREMULTIPLY = new byte[256 * 256];
+        private static final byte[] UNPREMULTIPLY = new byte[256 * 256];
 
-        private MatrixRGBFilter(double[] values) {
-            r1 = values[0];
-            r2 = values[1];
-            r3 = values[2];
-            r4 = values[3];
-            r5 = values[4];
-
-            g1 = values[5];
-            g2 = values[6];
-            g3 = values[7];
-            g4 = values[8];
-            g5 = values[9];
-
-            b1 = values[10];
-            b2 = values[11];
-            b3 = values[12];
-            b4 = values[13];
-            b5 = values[14];
-
-            a1 = values[15];
-            a2 = values[16];
-            a3 = values[17];
-            a4 = values[18];
-            a5 = values[19];
+        static {
+            for (int a = 1; a < 256; a++) {
+                for (int c = 0; c < 256; c++) {
+                    PREMULTIPLY[(a << 8) | c] = (byte) ((c * a + 127) / 255);
+                    UNPREMULTIPLY[(a << 8) | c] = (byte) Math.min(255, (c * 255 + a / 2) / a);
+                }
+            }
         }
 
-        @Override
-        boolean isLinear() {
-            return r5 == 0 && g5 == 0 && b5 == 0 && a5 == 0;
+        private PremultiplyTables() {}
+
+        private static int unpremultiply(int alpha, int component) {
+            return UNPREMULTIPLY[(alpha << 8) | component] & 0xFF;
         }
 
-        @Override
-        public int filterRGB(int x, int y, int rgb) {
-            int a = (rgb >> 24) & 0xFF;
-            int r = (rgb >> 16) & 0xFF;
-            int g = (rgb >> 8) & 0xFF;
-            int b = rgb & 0xFF;
-
-            int nr = toRgbRange(r1 * r + r2 * g + r3 * b + r4 * a + r5 * 255);
-            int ng = toRgbRange(g1 * r + g2 * g + g3 * b + g4 * a + g5 * 255);
-            int nb = toRgbRange(b1 * r + b2 * g + b3 * b + b4 * a + b5 * 255);
-            int na = toRgbRange(a1 * r + a2 * g + a3 * b + a4 * a + a5 * 255);
-
-            return ((na & 0xFF) << 24) |
-                    ((nr & 0xFF) << 16) |
-                    ((ng & 0xFF) << 8) |
-                    (nb & 0xFF);
+        private static int premultiply(int alpha, int component) {
+            return PREMULTIPLY[(alpha << 8) | component] & 0xFF;
         }
     }
 
-    private static final class LinearRGBFilter extends AffineRGBImageFilter {
-        private final double r1, r2, r3;
-        private final double g1, g2, g3;
-        private final double b1, b2, b3;
-
-        private LinearRGBFilter(
-                double r1, double r2, double r3,
-                double g1, double g2, double g3,
-                double b1, double b2, double b3) {
-            this.r1 = r1;
-            this.r2 = r2;
-            this.r3 = r3;
-            this.g1 = g1;
-            this.g2 = g2;
-            this.g3 = g3;
-            this.b1 = b1;
-            this.b2 = b2;
-            this.b3 = b3;
+    private abstract static class AffineColorFilter {
+        abstract boolean isLinear();
+
+        /**
+         * Filters a row of premultiplied pixels.
+         *
+         * @param src the source pixels.
+         * @param sp the index of the first source pixel.
+         * @param dst the destination pixels.
+         * @param dp the index of the first destination pixel.
+         * @param length the number of pixels.
+         */
+        abstract void filterRow(int @NotNull [] src, int sp, int @NotNull [] dst, int dp, int length);
+
+        /**
+         * Filters the pixels of a channel.
+         *
+         * @param input the channel.
+         * @param region the region to filter or null if the whole channel should be filtered. Pixels outside of it
+         *        are transparent.
+         * @return the filtered channel.
+         */
+        final @NotNull Channel apply(@NotNull Channel input, @Nullable Rectangle region) {
+            Rectangle bounds = input.bounds();
+            Rectangle r = region != null ? region.intersection(bounds) : bounds;
+            Raster src = input.raster();
+            WritableRaster dst = RasterChannel.createRaster(bounds);
+            if (r.isEmpty()) return new RasterChannel(dst);
+            int[] srcPixels = ImageUtil.getINT_RGBA_DataBank(src);
+            int[] dstPixels = ImageUtil.getINT_RGBA_DataBank(dst);
+            int srcStride = ImageUtil.getINT_RGBA_ScanlineStride(src);
+            int dstStride = ImageUtil.getINT_RGBA_ScanlineStride(dst);
+            int srcOffset = ImageUtil.getINT_RGBA_DataOffset(src)
+                    + (r.y - bounds.y) * srcStride + r.x - bounds.x;
+            int dstOffset = ImageUtil.getINT_RGBA_DataOffset(dst)
+                    + (r.y - bounds.y) * dstStride + r.x - bounds.x;
+
+            for (int y = 0; y < r.height; y++) {
+                filterRow(srcPixels, srcOffset + y * srcStride, dstPixels, dstOffset + y * dstStride, r.width);
+            }
+            return new RasterChannel(dst);
+        }
+    }
+
+    private static final class MatrixRGBFilter extends AffineColorFilter {
+
+        private final float r1, r2, r3, r4, r5;
+        private final float g1, g2, g3, g4, g5;
+        private final float b1, b2, b3, b4, b5;
+        private final float a1, a2, a3, a4, a5;
+
+        private MatrixRGBFilter(double[] values) {
+            // The offsets are scaled to the component range upfront.
+            r1 = (float) values[0];
+            r2 = (float) values[1];
+            r3 = (float) values[2];
+            r4 = (float) values[3];
+            r5 = (float) (values[4] * 255);
+
+            g1 = (float) values[5];
+            g2 = (float) values[6];
+            g3 = (float) values[7];
+            g4 = (float) values[8];
+            g5 = (float) (values[9] * 255);
+
+            b1 = (float) values[10];
+            b2 = (float) values[11];
+            b3 = (float) values[12];
+            b4 = (float) values[13];
+            b5 = (float) (values[14] * 255);
+
+            a1 = (float) values[15];
+            a2 = (float) values[16];
+            a3 = (float) values[17];
+            a4 = (float) values[18];
+            a5 = (float) (values[19] * 255);
         }
 
         @Override
         boolean isLinear() {
-            return true;
+            return r5 == 0 && g5 == 0 && b5 == 0 && a5 == 0;
         }
 
         @Override
-        public int filterRGB(int x, int y, int rgb) {
-            int a = (rgb >> 24) & 0xFF;
-            int r = (rgb >> 16) & 0xFF;
-            int g = (rgb >> 8) & 0xFF;
-            int b = rgb & 0xFF;
-
-            int nr = toRgbRange(r1 * r + r2 * g + r3 * b);
-            int ng = toRgbRange(g1 * r + g2 * g + g3 * b);
-            int nb = toRgbRange(b1 * r + b2 * g + b3 * b);
-
-            return (a << 24) |
-                    ((nr & 0xFF) << 16) |
-                    ((ng & 0xFF) << 8) |
-                    (nb & 0xFF);
+        void filterRow(int @NotNull [] src, int sp, int @NotNull [] dst, int dp, int length) {
+            // Filtered images usually consist of large areas of the same color.
+            int lastIn = 0;
+            int lastOut = filterPixel(0);
+            for (int i = 0; i < length; i++) {
+                int pixel = src[sp + i];
+                if (pixel != lastIn) {
+                    lastIn = pixel;
+                    lastOut = filterPixel(pixel);
+                }
+                dst[dp + i] = lastOut;
+            }
+        }
+
+        private int filterPixel(int pixel) {
+            int a = pixel >>> 24;
+            int r = PremultiplyTables.unpremultiply(a, (pixel >> 16) & 0xFF);
+            int g = PremultiplyTables.unpremultiply(a, (pixel >> 8) & 0xFF);
+            int b = PremultiplyTables.unpremultiply(a, pixel & 0xFF);
+
+            int na = clampComponent(a1 * r + a2 * g + a3 * b + a4 * a + a5, 255);
+            int nr = clampComponent(r1 * r + r2 * g + r3 * b + r4 * a + r5, 255);
+            int ng = clampComponent(g1 * r + g2 * g + g3 * b + g4 * a + g5, 255);
+            int nb = clampComponent(b1 * r + b2 * g + b3 * b + b4 * a + b5, 255);
+
+            return (na << 24)
+                    | (PremultiplyTables.premultiply(na, nr) << 16)
+                    | (PremultiplyTables.premultiply(na, ng) << 8)
+                    | PremultiplyTables.premultiply(na, nb);
         }
     }
 
-    private static final class LuminanceToAlphaFilter extends AffineRGBImageFilter {
+    private static final class LuminanceToAlphaFilter extends AffineColorFilter {
 
         @Override
         boolean isLinear() {
@@ -239,13 +327,21 @@ public final class FeColorMatrix extends AbstractFilterPrimitive {
         }
 
         @Override
-        public int filterRGB(int x, int y, int rgb) {
-            int r = (rgb >> 16) & 0xFF;
-            int g = (rgb >> 8) & 0xFF;
-            int b = rgb & 0xFF;
-
-            int na = toRgbRange(0.2125 * r + 0.7164 * g + 0.0712 * b);
-            return (na & 0xFF) << 24;
+        void filterRow(int @NotNull [] src, int sp, int @NotNull [] dst, int dp, int length) {
+            int lastIn = 0;
+            int lastOut = 0;
+            for (int i = 0; i < length; i++) {
+                int pixel = src[sp + i];
+                if (pixel != lastIn) {
+                    int a = pixel >>> 24;
+                    int r = PremultiplyTables.unpremultiply(a, (pixel >> 16) & 0xFF);
+                    int g = PremultiplyTables.unpremultiply(a, (pixel >> 8) & 0xFF);
+                    int b = PremultiplyTables.unpremultiply(a, pixel & 0xFF);
+                    lastIn = pixel;
+                    lastOut = clampComponent(0.2125f * r + 0.7164f * g + 0.0712f * b, 255) << 24;
+                }
+                dst[dp + i] = lastOut;
+            }
         }
     }
 }
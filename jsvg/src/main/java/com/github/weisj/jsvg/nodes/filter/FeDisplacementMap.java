@@ -22,12 +22,13 @@
 package com.github.weisj.jsvg.nodes.filter;
 
 import java.awt.*;
-import java.awt.color.ColorSpace;
-import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
-import java.awt.image.*;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.util.List;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import com.github.weisj.jsvg.attributes.filter.ColorChannel;
 import com.github.weisj.jsvg.attributes.filter.DefaultFilterChannel;
@@ -71,6 +72,17 @@ public final class FeDisplacementMap extends AbstractFilterPrimitive {
         inputChannel2 = attributeNode.getFilterChannelKey("in2", DefaultFilterChannel.LastResult);
     }
 
+    @Override
+    public @NotNull List<@NotNull FilterChannelKey> inputChannels() {
+        return List.of(impl().inputChannelKey(), inputChannel2);
+    }
+
+    @Override
+    public @Nullable Rectangle inputRegion(@NotNull Rectangle resultRegion, @NotNull FilterContext filterContext) {
+        // The displacement may read the input from anywhere.
+        return null;
+    }
+
     @Override
     public void layoutFilter(@NotNull RenderContext context, @NotNull FilterLayoutContext filterLayoutContext) {
         // TODO: Is this correct? May need to grow up to the filterPrimitiveRegion.
@@ -85,106 +97,68 @@ public final class FeDisplacementMap extends AbstractFilterPrimitive {
         }
         Channel input = impl().inputChannel(filterContext);
         Channel displacementInput = filterContext.getChannel(inputChannel2);
-
-        ImageFilter displacementFilter = new BufferedImageFilter(
-                new DisplacementOp(displacementInput.pixels(context), filterContext.info().tile()));
-        impl().saveResult(input.applyFilter(displacementFilter), filterContext);
+        impl().saveResult(displace(input, displacementInput.pixels(), filterContext.info().tile(),
+                filterContext.resultRegion()), filterContext);
     }
 
-    private final class DisplacementOp implements BufferedImageOp {
-
-        private final @NotNull PixelProvider displacementChannel;
-        private final Rectangle2D sourceBounds;
-
-        private DisplacementOp(@NotNull PixelProvider displacementChannel, Rectangle2D sourceBounds) {
-            this.displacementChannel = displacementChannel;
-            this.sourceBounds = sourceBounds;
-        }
-
-        @Override
-        public BufferedImage createCompatibleDestImage(BufferedImage src, ColorModel dstCM) {
-            if (dstCM == null) dstCM = src.getColorModel();
-            return new BufferedImage(dstCM, dstCM.createCompatibleWritableRaster(src.getWidth(), src.getHeight()),
-                    dstCM.isAlphaPremultiplied(), null);
-        }
-
-        @Override
-        public Rectangle2D getBounds2D(BufferedImage src) {
-            return new Rectangle(0, 0, src.getWidth(), src.getHeight());
-        }
-
-        @Override
-        public Point2D getPoint2D(Point2D srcPt, Point2D dstPt) {
-            return (Point2D) srcPt.clone();
-        }
-
-        @Override
-        public BufferedImage filter(BufferedImage src, BufferedImage dest) {
-            if (src == null) {
-                throw new NullPointerException("src image is null");
-            }
-            if (src == dest) {
-                throw new IllegalArgumentException("src image cannot be the " +
-                        "same as the dst image");
-            }
-
-            BufferedImage result = dest;
-
-            if (result == null) {
-                ColorSpace cs = ColorSpace.getInstance(ColorSpace.CS_sRGB);
-                ColorModel cm = new DirectColorModel(cs, 32, 0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000,
-                        false, DataBuffer.TYPE_INT);
-                result = createCompatibleDestImage(src, cm);
+    private @NotNull Channel displace(@NotNull Channel input, @NotNull PixelProvider displacementChannel,
+            @NotNull Rectangle2D sourceBounds, @Nullable Rectangle region) {
+        Raster src = input.raster();
+        Rectangle bounds = input.bounds();
+        WritableRaster dst = RasterChannel.createRaster(bounds);
+        // The region relative to the origin of the raster.
+        Rectangle r = region != null ? region.intersection(bounds) : new Rectangle(bounds);
+        r.translate(-bounds.x, -bounds.y);
+
+        final int w = dst.getWidth();
+        final int h = dst.getHeight();
+        final double scaleX = sourceBounds.getWidth() / w;
+        final double scaleY = sourceBounds.getHeight() / h;
+        final double startX = sourceBounds.getX();
+        final double startY = sourceBounds.getY();
+
+        final int[] srcPixels = ImageUtil.getINT_RGBA_DataBank(src);
+        final int srcStride = ImageUtil.getINT_RGBA_ScanlineStride(src);
+        final int srcOffset = ImageUtil.getINT_RGBA_DataOffset(src);
+        final int[] destPixels = ImageUtil.getINT_RGBA_DataBank(dst);
+        final int dstAdjust = ImageUtil.getINT_RGBA_DataAdjust(dst);
+        int dp = ImageUtil.getINT_RGBA_DataOffset(dst);
+
+        double point_0, point_1 = startY;
+        int x, y = 0;
+        for (int i = 0; i < h; i++) {
+            if (i < r.y || i >= r.y + r.height) {
+                point_1 += scaleY;
+                dp += w + dstAdjust;
+                y++;
+                continue;
             }
-
-            WritableRaster raster = result.getRaster();
-
-            final int w = raster.getWidth();
-            final int h = raster.getHeight();
-
-            final double scaleX = sourceBounds.getWidth() / w;
-            final double scaleY = sourceBounds.getHeight() / h;
-
-            final double startX = sourceBounds.getX();
-            final double startY = sourceBounds.getY();
-
-            Raster sourceRaster = src.getRaster();
-            Rectangle sourceRasterBounds = sourceRaster.getBounds();
-
-            final int[] destPixels = ImageUtil.getINT_RGBA_DataBank(raster);
-            final int dstAdjust = ImageUtil.getINT_RGBA_DataAdjust(raster);
-            int dp = ImageUtil.getINT_RGBA_DataOffset(raster);
-
-            double point_0, point_1 = startY;
-            int x, y = 0;
-            for (int i = 0; i < h; i++) {
-                x = 0;
-                point_0 = startX;
-                for (int end = dp + w; dp < end; dp++) {
-                    int displacementRGB = displacementChannel.pixelAt(point_0, point_1);
-                    double xDisplacement = xChannelSelector.value(displacementRGB) / 255.0 - 0.5f;
-                    double yDisplacement = yChannelSelector.value(displacementRGB) / 255.0 - 0.5f;
-                    int xDest = (int) (x + scale * xDisplacement / scaleX);
-                    int yDest = (int) (y + scale * yDisplacement / scaleY);
-                    if (sourceRasterBounds.contains(xDest, yDest)) {
-                        destPixels[dp] = src.getRGB(xDest, yDest);
-                    } else {
-                        destPixels[dp] = 0;
-                    }
+            x = 0;
+            point_0 = startX;
+            for (int end = dp + w; dp < end; dp++) {
+                // Sample positions are accumulated, hence they are advanced for pixels outside the region too.
+                if (x < r.x || x >= r.x + r.width) {
                     point_0 += scaleX;
                     x++;
+                    continue;
                 }
-                point_1 += scaleY;
-                dp += dstAdjust;
-                y++;
+                int displacementRGB = displacementChannel.pixelAt(point_0, point_1);
+                double xDisplacement = xChannelSelector.value(displacementRGB) / 255.0 - 0.5f;
+                double yDisplacement = yChannelSelector.value(displacementRGB) / 255.0 - 0.5f;
+                int xDest = (int) (x + scale * xDisplacement / scaleX);
+                int yDest = (int) (y + scale * yDisplacement / scaleY);
+                if (xDest >= 0 && yDest >= 0 && xDest < w && yDest < h) {
+                    destPixels[dp] = srcPixels[srcOffset + yDest * srcStride + xDest];
+                } else {
+                    destPixels[dp] = 0;
+                }
+                point_0 += scaleX;
+                x++;
             }
-
-            return result;
-        }
-
-        @Override
-        public RenderingHints getRenderingHints() {
-            return null;
+            point_1 += scaleY;
+            dp += dstAdjust;
+            y++;
         }
+        return new RasterChannel(dst);
     }
 }
@@ -23,9 +23,12 @@ package com.github.weisj.jsvg.nodes.filter;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.util.List;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import com.github.weisj.jsvg.attributes.filter.FilterChannelKey;
 import com.github.weisj.jsvg.attributes.filter.LayoutBounds;
 import com.github.weisj.jsvg.attributes.paint.AwtSVGPaint;
 import com.github.weisj.jsvg.attributes.paint.SVGPaint;
@@ -39,6 +42,7 @@ import com.github.weisj.jsvg.parser.AttributeNode;
 import com.github.weisj.jsvg.renderer.Graphics2DOutput;
 import com.github.weisj.jsvg.renderer.GraphicsUtil;
 import com.github.weisj.jsvg.renderer.RenderContext;
+import com.github.weisj.jsvg.util.ImageUtil;
 
 @ElementCategories(Category.FilterPrimitive)
 @PermittedContent(
@@ -62,6 +66,11 @@ public final class FeFlood extends AbstractFilterPrimitive {
         floodOpacity = attributeNode.getPercentage("flood-opacity", 1);
     }
 
+    @Override
+    public @NotNull List<@NotNull FilterChannelKey> inputChannels() {
+        return List.of();
+    }
+
     @Override
     public void layoutFilter(@NotNull RenderContext context, @NotNull FilterLayoutContext filterLayoutContext) {
         LayoutBounds layoutBounds = new LayoutBounds(
@@ -72,18 +81,42 @@ public final class FeFlood extends AbstractFilterPrimitive {
 
     @Override
     public void applyFilter(@NotNull RenderContext context, @NotNull FilterContext filterContext) {
-        // Todo: We should be able to optimize this heavily by implementing a custom image producer.
-        // and even then filters like feBlend could benefit from knowing that this is a constant color.
         Filter.FilterInfo info = filterContext.info();
-        BufferedImage img = new BufferedImage(info.imageWidth, info.imageHeight, BufferedImage.TYPE_INT_ARGB);
-        if (floodOpacity != 0) {
-            Graphics2D graphics = GraphicsUtil.createGraphics(img);
-            graphics.setComposite(AlphaComposite.Src.derive(floodOpacity));
-            Rectangle rect = new Rectangle(0, 0, img.getWidth(), img.getHeight());
-            floodColor.fillShape(new Graphics2DOutput(graphics), context, rect, rect);
-            graphics.dispose();
-        }
-        impl().saveResult(new ImageProducerChannel(img.getSource()), filterContext);
+        BufferedImage img = ImageUtil.createCompatibleTransparentImage(info.imageWidth, info.imageHeight);
+        flood(context, img, filterContext.resultRegion());
+        impl().saveResult(new RasterChannel(img), filterContext);
+    }
+
+    /**
+     * @return whether every pixel of the result has the same color.
+     */
+    boolean isConstantColor() {
+        return floodOpacity == 0
+                || (floodColor instanceof AwtSVGPaint awtPaint && awtPaint.paint() instanceof Color);
+    }
+
+    /**
+     * The premultiplied color of the result. Only meaningful if {@link #isConstantColor()} is true.
+     *
+     * @param context the render context.
+     * @return the color of the result.
+     */
+    int floodPixel(@NotNull RenderContext context) {
+        BufferedImage img = ImageUtil.createCompatibleTransparentImage(1, 1);
+        flood(context, img, null);
+        return ImageUtil.getINT_RGBA_DataBank(img.getRaster())[0];
+    }
+
+    private void flood(@NotNull RenderContext context, @NotNull BufferedImage img, @Nullable Rectangle region) {
+        if (floodOpacity == 0) return;
+        Rectangle rect = new Rectangle(0, 0, img.getWidth(), img.getHeight());
+        if (region != null && !region.intersects(rect)) return;
+        Graphics2D graphics = GraphicsUtil.createGraphics(img);
+        graphics.setComposite(AlphaComposite.Src.derive(floodOpacity));
+        // The paint is still laid out relative to the whole buffer.
+        if (region != null) graphics.clip(region);
+        floodColor.fillShape(new Graphics2DOutput(graphics), context, rect, rect);
+        graphics.dispose();
     }
 
 }
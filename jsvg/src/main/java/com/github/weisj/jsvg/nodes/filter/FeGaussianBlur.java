@@ -24,7 +24,9 @@ package com.github.weisj.jsvg.nodes.filter;
 
 import java.awt.*;
 import java.awt.geom.AffineTransform;
-import java.awt.image.*;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -40,6 +42,8 @@ import com.github.weisj.jsvg.nodes.prototype.spec.ElementCategories;
 import com.github.weisj.jsvg.nodes.prototype.spec.PermittedContent;
 import com.github.weisj.jsvg.parser.AttributeNode;
 import com.github.weisj.jsvg.renderer.RenderContext;
+import com.github.weisj.jsvg.util.ImageUtil;
+import com.github.weisj.jsvg.util.ParallelUtil;
 
 @ElementCategories(Category.FilterPrimitive)
 @PermittedContent(
@@ -58,8 +62,8 @@ public final class FeGaussianBlur extends AbstractFilterPrimitive {
 
     private double xCurrent;
     private double yCurrent;
-    private Kernel xBlur;
-    private Kernel yBlur;
+    private float[] xBlur;
+    private float[] yBlur;
 
     @Override
     public @NotNull String tagName() {
@@ -93,6 +97,22 @@ public final class FeGaussianBlur extends AbstractFilterPrimitive {
         impl().saveLayoutResult(input.grow(hExtend, vExtend, filterLayoutContext), filterLayoutContext);
     }
 
+    @Override
+    public @Nullable Rectangle inputRegion(@NotNull Rectangle resultRegion, @NotNull FilterContext filterContext) {
+        // Wrapping reads the opposite edge of the input.
+        if (edgeMode == EdgeMode.Wrap) return null;
+        double[] sigma = computeAbsoluteStdDeviation(filterContext.info().output().transform());
+        Rectangle region = new Rectangle(resultRegion);
+        region.grow(linePadding(sigma[0]), linePadding(sigma[1]));
+        return region;
+    }
+
+    private static int linePadding(double sigma) {
+        if (sigma <= 0) return 0;
+        int diameter = kernelDiameterForStandardDeviation(sigma);
+        return sigma < BOX_BLUR_APPROXIMATION_THRESHOLD ? diameter / 2 : new BoxLineBlur(diameter).padding();
+    }
+
     @Override
     public void applyFilter(@NotNull RenderContext context, @NotNull FilterContext filterContext) {
         if (stdDeviation.length == 0) {
@@ -109,10 +129,10 @@ public final class FeGaussianBlur extends AbstractFilterPrimitive {
             return;
         }
 
-        ImageProducer input = impl().inputChannel(filterContext).producer();
+        Channel input = impl().inputChannel(filterContext);
 
-        Kernel xBlurKernel = null;
-        Kernel yBlurKernel = null;
+        float[] xBlurKernel = null;
+        float[] yBlurKernel = null;
         int dX = kernelDiameterForStandardDeviation(xSigma);
         int dY = kernelDiameterForStandardDeviation(ySigma);
 
@@ -120,34 +140,36 @@ public final class FeGaussianBlur extends AbstractFilterPrimitive {
             xBlurKernel = createConvolveKernel(dX, xSigma, true);
         }
         if (ySigma > 0 && ySigma < BOX_BLUR_APPROXIMATION_THRESHOLD) {
-            yBlurKernel = createConvolveKernel(dX, ySigma, false);
+            yBlurKernel = createConvolveKernel(dY, ySigma, false);
         }
 
-        ImageProducer output = edgeMode.convolve(context, filterContext, input,
-                new MixedQualityConvolveOperation(xBlurKernel, yBlurKernel, dX, dY));
-        impl().saveResult(new ImageProducerChannel(output), filterContext);
+        LineBlur xLineBlur = xSigma > 0 ? createLineBlur(xBlurKernel, dX) : null;
+        LineBlur yLineBlur = ySigma > 0 ? createLineBlur(yBlurKernel, dY) : null;
+
+        Channel output = edgeMode.convolve(filterContext, input,
+                new SeparableConvolveOperation(xLineBlur, yLineBlur));
+        impl().saveResult(output, filterContext);
     }
 
+    private static @NotNull LineBlur createLineBlur(float @Nullable [] kernel, int diameter) {
+        return kernel != null ? new KernelLineBlur(kernel) : new BoxLineBlur(diameter);
+    }
 
-    private @NotNull Kernel createConvolveKernel(int diameter, double sigma, boolean horizontal) {
+    private float @NotNull [] createConvolveKernel(int diameter, double sigma, boolean horizontal) {
         if (horizontal && xBlur != null && xCurrent == sigma) return xBlur;
         if (!horizontal && yBlur != null && yCurrent == sigma) return yBlur;
 
-        if (horizontal) {
-            xCurrent = sigma;
-        } else {
-            yCurrent = sigma;
-        }
-
         float[] data = computeGaussianKernelData(diameter, sigma);
 
         if (horizontal) {
-            xBlur = new Kernel(diameter, 1, data);
+            xCurrent = sigma;
+            xBlur = data;
         } else {
-            yBlur = new Kernel(1, diameter, data);
+            yCurrent = sigma;
+            yBlur = data;
         }
 
-        return horizontal ? xBlur : yBlur;
+        return data;
     }
 
     private static float normalConvolve(float x, double standardDeviation) {
@@ -190,75 +212,268 @@ public final class FeGaussianBlur extends AbstractFilterPrimitive {
     }
 
 
-    private static final class MixedQualityConvolveOperation implements EdgeMode.ConvolveOperation {
+    /**
+     * Blurs a single row or column of pixels in place.
+     */
+    private interface LineBlur {
+
+        /**
+         * @return the number of pixels by which a line has to be extended on either side.
+         */
+        int padding();
+
+        /**
+         * Blurs the given line which is extended by {@link #padding()} pixels on either side.
+         *
+         * @param line the extended line.
+         * @param length the number of pixels in the line excluding the padding.
+         * @return the index of the first blurred pixel of the line.
+         */
+        int blur(int @NotNull [] line, int length);
+    }
 
-        private final @Nullable Kernel xKernel;
-        private final @Nullable Kernel yKernel;
+    /**
+     * Approximates the gaussian blur using three successive box blurs.
+     */
+    private static final class BoxLineBlur implements LineBlur {
+        private final int[] boxSizes;
+        private final int[] locations;
+        private final int padding;
+
+        private BoxLineBlur(int diameter) {
+            if ((diameter & 0x01) == 0) {
+                boxSizes = new int[] {diameter, diameter, diameter + 1};
+                locations = new int[] {diameter / 2, diameter / 2 - 1, diameter / 2};
+            } else {
+                boxSizes = new int[] {diameter, diameter, diameter};
+                locations = new int[] {diameter / 2, diameter / 2, diameter / 2};
+            }
+            // Each pass shifts the valid part of the line by its location on the left and the remainder of the box
+            // on the right. Both add up to the same amount.
+            int sum = 0;
+            for (int loc : locations) {
+                sum += loc;
+            }
+            padding = sum;
+        }
 
-        private final int dX;
-        private final int dY;
+        @Override
+        public int padding() {
+            return padding;
+        }
 
-        private MixedQualityConvolveOperation(@Nullable Kernel xKernel, @Nullable Kernel yKernel, int dX, int dY) {
-            this.xKernel = xKernel;
-            this.yKernel = yKernel;
-            this.dX = dX;
-            this.dY = dY;
+        @Override
+        public int blur(int @NotNull [] line, int length) {
+            int extendedLength = length + 2 * padding;
+            for (int i = 0; i < boxSizes.length; i++) {
+                InplaceBoxBlurFilter.linePass(line, extendedLength, boxSizes[i], locations[i]);
+            }
+            return padding;
         }
+    }
 
+    /**
+     * Convolves the line with a gaussian kernel. Used for small deviations where the box blur approximation is
+     * too coarse. The weights are quantized in the same way {@link java.awt.image.ConvolveOp} quantizes kernels
+     * for 8-bit samples and the weighted sums are truncated, hence the result is the same.
+     */
+    private static final class KernelLineBlur implements LineBlur {
+        // The weights have 22 fractional bits if they add up to at least one and 23 bits otherwise. If rounding
+        // the weights would make them add up to more than one they are truncated instead.
+        private static final int WEIGHT_BITS = 22;
+        private static final int MAX_WEIGHT_SHIFT = WEIGHT_BITS + 1;
+
+        private final int[] weights;
+        private final int shift;
+
+        private KernelLineBlur(float @NotNull [] kernel) {
+            double kernelSum = 0;
+            for (float k : kernel) {
+                kernelSum += k;
+            }
+            shift = Math.min(MAX_WEIGHT_SHIFT, WEIGHT_BITS - Math.getExponent(kernelSum));
+            double scale = 1L << shift;
+            weights = new int[kernel.length];
+            int weightSum = 0;
+            for (int i = 0; i < kernel.length; i++) {
+                weights[i] = (int) (kernel[i] * scale + 0.5);
+                weightSum += weights[i];
+            }
+            if (weightSum >= 1 << MAX_WEIGHT_SHIFT) {
+                for (int i = 0; i < kernel.length; i++) {
+                    weights[i] = (int) (kernel[i] * scale);
+                }
+            }
+        }
 
         @Override
-        public @NotNull Dimension maximumKernelSize() {
-            return new Dimension(
-                    xKernel != null ? xKernel.getXOrigin() : dX,
-                    yKernel != null ? yKernel.getXOrigin() : dY);
+        public int padding() {
+            return weights.length / 2;
         }
 
         @Override
-        public @NotNull ImageProducer convolve(@NotNull BufferedImage image, @NotNull RenderingHints hints,
-                int awtEdgeMode) {
-            WritableRaster raster = image.getRaster();
-            if (xKernel != null && yKernel != null) {
-                BufferedImageOp op = new MultiConvolveOp(new ConvolveOp[] {
-                        new ConvolveOp(xKernel, awtEdgeMode, hints),
-                        new ConvolveOp(yKernel, awtEdgeMode, hints)
-                });
-                return new FilteredImageSource(image.getSource(), new BufferedImageFilter(op));
-            } else if (xKernel != null) {
-                verticalBoxBlur(raster);
-                return new FilteredImageSource(image.getSource(), new BufferedImageFilter(
-                        new ConvolveOp(xKernel, awtEdgeMode, hints)));
-            } else if (yKernel != null) {
-                horizontalBoxBlur(raster);
-                return new FilteredImageSource(image.getSource(), new BufferedImageFilter(
-                        new ConvolveOp(yKernel, awtEdgeMode, hints)));
-            } else {
-                horizontalBoxBlur(raster);
-                verticalBoxBlur(raster);
-                return image.getSource();
+        public int blur(int @NotNull [] line, int length) {
+            int[] w = weights;
+            int size = w.length;
+            // The result for pixel i is stored at i, which only depends on pixels at or after i. Hence, the line can
+            // be overwritten while iterating.
+            for (int i = 0; i < length; i++) {
+                int a = 0;
+                int r = 0;
+                int g = 0;
+                int b = 0;
+                for (int j = 0; j < size; j++) {
+                    int argb = line[i + j];
+                    int weight = w[j];
+                    a += weight * (argb >>> 24);
+                    r += weight * ((argb >> 16) & 0xFF);
+                    g += weight * ((argb >> 8) & 0xFF);
+                    b += weight * (argb & 0xFF);
+                }
+                line[i] = (clampChannel(a) << 24) | (clampChannel(r) << 16) | (clampChannel(g) << 8) | clampChannel(b);
             }
+            return 0;
+        }
+
+        private int clampChannel(int value) {
+            return Math.min(255, value >>> shift);
+        }
+    }
+
+    private static final class SeparableConvolveOperation implements EdgeMode.ConvolveOperation {
+        /*
+         * Columns are gathered in blocks such that each row of the block is read from a contiguous part of the
+         * raster.
+         */
+        private static final int COLUMN_BLOCK_SIZE = 16;
+
+        private final @Nullable LineBlur xBlur;
+        private final @Nullable LineBlur yBlur;
+
+        private SeparableConvolveOperation(@Nullable LineBlur xBlur, @Nullable LineBlur yBlur) {
+            this.xBlur = xBlur;
+            this.yBlur = yBlur;
         }
 
-        private void horizontalBoxBlur(@NotNull WritableRaster raster) {
-            if ((dX & 0x01) == 0) {
-                InplaceBoxBlurFilter.horizontalPass(raster, raster, 0, 0, dX, dX / 2);
-                InplaceBoxBlurFilter.horizontalPass(raster, raster, 0, 0, dX, dX / 2 - 1);
-                InplaceBoxBlurFilter.horizontalPass(raster, raster, 0, 0, dX + 1, dX / 2);
+        @Override
+        public void convolve(@NotNull Raster src, @NotNull WritableRaster dst, @NotNull Rectangle region,
+                @NotNull EdgeMode edgeMode) {
+            // The box passes are applied before the kernel passes.
+            if (xBlur instanceof KernelLineBlur && yBlur instanceof BoxLineBlur) {
+                convolveColumnsFirst(src, dst, region, edgeMode, xBlur, yBlur);
+                return;
+            }
+            // The column pass reads the rows around the region.
+            int yPadding = yBlur != null ? yBlur.padding() : 0;
+            int startY = Math.max(0, region.y - yPadding);
+            int endY = Math.min(src.getHeight(), region.y + region.height + yPadding);
+            if (xBlur != null) {
+                blurRows(src, dst, xBlur, edgeMode, region.x, region.width, startY, endY);
             } else {
-                InplaceBoxBlurFilter.horizontalPass(raster, raster, 0, 0, dX, dX / 2);
-                InplaceBoxBlurFilter.horizontalPass(raster, raster, 0, 0, dX, dX / 2);
-                InplaceBoxBlurFilter.horizontalPass(raster, raster, 0, 0, dX, dX / 2);
+                dst.setRect(src.createChild(src.getMinX() + region.x, src.getMinY() + startY,
+                        region.width, endY - startY, region.x, startY, null));
+            }
+            if (yBlur != null) {
+                // The columns are read into line buffers first, hence they can be blurred in place.
+                blurColumns(dst, yBlur, edgeMode, region, startY, endY);
+                clear(dst, region.x, region.width, startY, region.y);
+                clear(dst, region.x, region.width, region.y + region.height, endY);
             }
         }
 
-        private void verticalBoxBlur(@NotNull WritableRaster raster) {
-            if ((dY & 0x01) == 0) {
-                InplaceBoxBlurFilter.verticalPass(raster, raster, 0, 0, dY, dY / 2);
-                InplaceBoxBlurFilter.verticalPass(raster, raster, 0, 0, dY, dY / 2 - 1);
-                InplaceBoxBlurFilter.verticalPass(raster, raster, 0, 0, dY + 1, dY / 2);
-            } else {
-                InplaceBoxBlurFilter.verticalPass(raster, raster, 0, 0, dY, dY / 2);
-                InplaceBoxBlurFilter.verticalPass(raster, raster, 0, 0, dY, dY / 2);
-                InplaceBoxBlurFilter.verticalPass(raster, raster, 0, 0, dY, dY / 2);
+        private static void convolveColumnsFirst(@NotNull Raster src, @NotNull WritableRaster dst,
+                @NotNull Rectangle region, @NotNull EdgeMode edgeMode, @NotNull LineBlur xBlur,
+                @NotNull LineBlur yBlur) {
+            // The row pass reads the columns around the region.
+            int xPadding = xBlur.padding();
+            int startX = Math.max(0, region.x - xPadding);
+            int endX = Math.min(src.getWidth(), region.x + region.width + xPadding);
+            int yPadding = yBlur.padding();
+            int startY = Math.max(0, region.y - yPadding);
+            int endY = Math.min(src.getHeight(), region.y + region.height + yPadding);
+            dst.setRect(src.createChild(src.getMinX() + startX, src.getMinY() + startY,
+                    endX - startX, endY - startY, startX, startY, null));
+            blurColumns(dst, yBlur, edgeMode, new Rectangle(startX, region.y, endX - startX, region.height),
+                    startY, endY);
+            clear(dst, startX, endX - startX, startY, region.y);
+            clear(dst, startX, endX - startX, region.y + region.height, endY);
+            // The rows are read into a line buffer first, hence they can be blurred in place.
+            blurRows(dst, dst, xBlur, edgeMode, region.x, region.width, region.y, region.y + region.height);
+            clear(dst, startX, region.x - startX, region.y, region.y + region.height);
+            clear(dst, region.x + region.width, endX - region.x - region.width, region.y,
+                    region.y + region.height);
+        }
+
+        private static void blurRows(@NotNull Raster src, @NotNull WritableRaster dst, @NotNull LineBlur blur,
+                @NotNull EdgeMode edgeMode, int x, int width, int startY, int endY) {
+            int[] srcPixels = ImageUtil.getINT_RGBA_DataBank(src);
+            int srcOffset = ImageUtil.getINT_RGBA_DataOffset(src);
+            int srcStride = ImageUtil.getINT_RGBA_ScanlineStride(src);
+            int[] dstPixels = ImageUtil.getINT_RGBA_DataBank(dst);
+            int dstOffset = ImageUtil.getINT_RGBA_DataOffset(dst);
+            int dstStride = ImageUtil.getINT_RGBA_ScanlineStride(dst);
+            int padding = blur.padding();
+            // The padding is read from the raster where available and only extended past its edges.
+            int before = Math.min(padding, x);
+            int after = Math.min(padding, src.getWidth() - x - width);
+            int length = before + width + after;
+
+            ParallelUtil.forEachStripe(startY, endY, width, (fromY, toY) -> {
+                int[] line = new int[width + 2 * padding];
+                for (int y = fromY; y < toY; y++) {
+                    System.arraycopy(srcPixels, srcOffset + y * srcStride + x - before, line, padding - before,
+                            length);
+                    edgeMode.extendLine(line, padding - before, length, padding - before, padding - after);
+                    int resultOffset = blur.blur(line, width);
+                    System.arraycopy(line, resultOffset, dstPixels, dstOffset + y * dstStride + x, width);
+                }
+            });
+        }
+
+        private static void blurColumns(@NotNull WritableRaster raster, @NotNull LineBlur blur,
+                @NotNull EdgeMode edgeMode, @NotNull Rectangle region, int startY, int endY) {
+            int[] pixels = ImageUtil.getINT_RGBA_DataBank(raster);
+            int offset = ImageUtil.getINT_RGBA_DataOffset(raster);
+            int stride = ImageUtil.getINT_RGBA_ScanlineStride(raster);
+            int padding = blur.padding();
+            int height = region.height;
+            int before = region.y - startY;
+            int after = endY - region.y - height;
+            int length = endY - startY;
+
+            ParallelUtil.forEachStripe(region.x, region.x + region.width, length, (startX, endX) -> {
+                int[][] lines = new int[Math.min(COLUMN_BLOCK_SIZE, endX - startX)][height + 2 * padding];
+                int[] resultOffsets = new int[lines.length];
+                for (int x = startX; x < endX; x += lines.length) {
+                    int blockSize = Math.min(lines.length, endX - x);
+                    for (int y = startY; y < endY; y++) {
+                        int p = offset + y * stride + x;
+                        int l = padding + y - region.y;
+                        for (int i = 0; i < blockSize; i++) {
+                            lines[i][l] = pixels[p + i];
+                        }
+                    }
+                    for (int i = 0; i < blockSize; i++) {
+                        edgeMode.extendLine(lines[i], padding - before, length, padding - before, padding - after);
+                        resultOffsets[i] = blur.blur(lines[i], height);
+                    }
+                    for (int y = 0; y < height; y++) {
+                        int p = offset + (region.y + y) * stride + x;
+                        for (int i = 0; i < blockSize; i++) {
+                            pixels[p + i] = lines[i][resultOffsets[i] + y];
+                        }
+                    }
+                }
+            });
+        }
+
+        private static void clear(@NotNull WritableRaster raster, int x, int width, int startY, int endY) {
+            int[] pixels = ImageUtil.getINT_RGBA_DataBank(raster);
+            int offset = ImageUtil.getINT_RGBA_DataOffset(raster);
+            int stride = ImageUtil.getINT_RGBA_ScanlineStride(raster);
+            for (int y = startY; y < endY; y++) {
+                int p = offset + y * stride + x;
+                Arrays.fill(pixels, p, p + width, 0);
             }
         }
     }
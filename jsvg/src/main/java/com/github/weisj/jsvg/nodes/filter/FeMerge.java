@@ -22,15 +22,18 @@
 package com.github.weisj.jsvg.nodes.filter;
 
 import java.awt.*;
+import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.util.List;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import com.github.weisj.jsvg.attributes.filter.DefaultFilterChannel;
 import com.github.weisj.jsvg.attributes.filter.FilterChannelKey;
 import com.github.weisj.jsvg.attributes.filter.LayoutBounds;
 import com.github.weisj.jsvg.geometry.size.Length;
+import com.github.weisj.jsvg.geometry.size.MeasureContext;
 import com.github.weisj.jsvg.nodes.container.ContainerNode;
 import com.github.weisj.jsvg.nodes.prototype.spec.Category;
 import com.github.weisj.jsvg.nodes.prototype.spec.ElementCategories;
@@ -92,6 +95,23 @@ public final class FeMerge extends ContainerNode implements FilterPrimitive {
         return filterPrimitiveBase.height;
     }
 
+    @Override
+    public @NotNull List<@NotNull FilterChannelKey> inputChannels() {
+        if (inputChannels.length == 0) return List.of(DefaultFilterChannel.SourceGraphic);
+        return List.of(inputChannels);
+    }
+
+    @Override
+    public @NotNull FilterChannelKey resultChannel() {
+        return filterPrimitiveBase.resultChannelKey();
+    }
+
+    @Override
+    public @Nullable Rectangle2D subregion(@NotNull MeasureContext measureContext,
+            @NotNull FilterContext filterContext) {
+        return filterPrimitiveBase.subregion(measureContext, filterContext);
+    }
+
     @Override
     public void layoutFilter(@NotNull RenderContext context, @NotNull FilterLayoutContext filterLayoutContext) {
         if (inputChannels.length == 0) {
@@ -110,23 +130,31 @@ public final class FeMerge extends ContainerNode implements FilterPrimitive {
 
     @Override
     public void applyFilter(@NotNull RenderContext context, @NotNull FilterContext filterContext) {
+        Rectangle region = filterContext.resultRegion();
         if (inputChannels.length == 0) {
-            filterPrimitiveBase.saveResult(
-                    filterPrimitiveBase.channel(DefaultFilterChannel.SourceGraphic, filterContext),
+            filterPrimitiveBase.saveResult(RasterChannel.clip(
+                    filterPrimitiveBase.channel(DefaultFilterChannel.SourceGraphic, filterContext), region),
                     filterContext);
             return;
         }
         Channel in = filterPrimitiveBase.channel(inputChannels[0], filterContext);
-        Channel result = in;
-        if (inputChannels.length > 1) {
-            BufferedImage dst = in.toBufferedImageNonAliased(context);
+        Channel result;
+        if (inputChannels.length == 1) {
+            result = RasterChannel.clip(in, region);
+        } else {
+            Rectangle bounds = in.bounds();
+            BufferedImage dst = RasterChannel.copyImage(in, region);
             Graphics2D imgGraphics = GraphicsUtil.createGraphics(dst);
+            if (region != null) {
+                imgGraphics.clipRect(region.x - bounds.x, region.y - bounds.y, region.width, region.height);
+            }
             for (int i = 1; i < inputChannels.length; i++) {
                 Channel channel = filterPrimitiveBase.channel(inputChannels[i], filterContext);
-                imgGraphics.drawImage(context.platformSupport().createImage(channel.producer()),
-                        null, context.platformSupport().imageObserver());
+                Rectangle channelBounds = channel.bounds();
+                imgGraphics.drawImage(channel.image(), channelBounds.x - bounds.x, channelBounds.y - bounds.y, null);
             }
-            result = new ImageProducerChannel(dst.getSource());
+            imgGraphics.dispose();
+            result = new RasterChannel(dst, bounds.x, bounds.y);
         }
         filterPrimitiveBase.saveResult(result, filterContext);
     }
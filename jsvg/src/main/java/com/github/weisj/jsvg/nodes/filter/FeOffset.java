@@ -21,11 +21,14 @@
  */
 package com.github.weisj.jsvg.nodes.filter;
 
+import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.AffineTransformOp;
-import java.awt.image.BufferedImageFilter;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -40,12 +43,13 @@ import com.github.weisj.jsvg.nodes.prototype.spec.ElementCategories;
 import com.github.weisj.jsvg.nodes.prototype.spec.PermittedContent;
 import com.github.weisj.jsvg.parser.AttributeNode;
 import com.github.weisj.jsvg.renderer.RenderContext;
+import com.github.weisj.jsvg.util.ImageUtil;
 
 @ElementCategories(Category.FilterPrimitive)
 @PermittedContent(
     anyOf = {Animate.class, Set.class}
 )
-public final class FeOffset extends AbstractFilterPrimitive {
+public final class FeOffset extends AbstractFilterPrimitive implements PointwiseFilterPrimitive {
     public static final String TAG = "feOffset";
 
     private float dx;
@@ -87,19 +91,101 @@ public final class FeOffset extends AbstractFilterPrimitive {
         impl().saveLayoutResult(result, filterLayoutContext);
     }
 
+    private @NotNull Point2D.Double offset(@NotNull FilterContext filterContext) {
+        AffineTransform at = filterContext.info().output().transform();
+        return offset(at, filterContext.primitiveUnits(), filterContext.info().elementBounds());
+    }
+
+    @Override
+    public @Nullable Point translation(@NotNull FilterContext context) {
+        if (dx == 0 && dy == 0) return new Point();
+        Point2D.Double off = offset(context);
+        if (off.x != Math.rint(off.x) || off.y != Math.rint(off.y)) return null;
+        return new Point((int) off.x, (int) off.y);
+    }
+
+    @Override
+    public @NotNull Rectangle inputRegion(@NotNull Rectangle resultRegion, @NotNull FilterContext filterContext) {
+        if (dx == 0 && dy == 0) return resultRegion;
+        Point2D.Double off = offset(filterContext);
+        if (off.x == Math.rint(off.x) && off.y == Math.rint(off.y)) {
+            Rectangle region = new Rectangle(resultRegion);
+            region.translate((int) -off.x, (int) -off.y);
+            return region;
+        }
+        // Interpolation reads the neighbouring pixels.
+        int x0 = (int) Math.floor(resultRegion.x - off.x) - 1;
+        int y0 = (int) Math.floor(resultRegion.y - off.y) - 1;
+        int x1 = (int) Math.ceil(resultRegion.x + resultRegion.width - off.x) + 1;
+        int y1 = (int) Math.ceil(resultRegion.y + resultRegion.height - off.y) + 1;
+        return new Rectangle(x0, y0, x1 - x0, y1 - y0);
+    }
+
+    @Override
+    public boolean filtersColors() {
+        return false;
+    }
+
+    @Override
+    public void filterRow(int @NotNull [] pixels, int offset, int length) {
+        // Only translates its input.
+    }
+
     @Override
     public void applyFilter(@NotNull RenderContext context, @NotNull FilterContext filterContext) {
         Channel in = impl().inputChannel(filterContext);
-        Channel result = in;
-        if (dx != 0 || dy != 0) {
-            AffineTransform at = filterContext.info().output().transform();
-            Point2D.Double off = offset(at, filterContext.primitiveUnits(), filterContext.info().elementBounds());
-            AffineTransform transform = AffineTransform.getTranslateInstance(off.x, off.y);
-
-            AffineTransformOp op = new AffineTransformOp(transform, filterContext.renderingHints());
-            result = in.applyFilter(new BufferedImageFilter(op));
+        Rectangle region = filterContext.resultRegion();
+        Channel result;
+        if (dx == 0 && dy == 0) {
+            result = RasterChannel.clip(in, region);
+        } else {
+            Point2D.Double off = offset(filterContext);
+            Rectangle bounds = in.bounds();
+            // Content moved past the edges of the input is kept, as subsequent primitives e.g. a blur may still
+            // pull it back into the filter region.
+            int x0 = (int) Math.floor(bounds.x + off.x);
+            int y0 = (int) Math.floor(bounds.y + off.y);
+            int x1 = (int) Math.ceil(bounds.x + bounds.width + off.x);
+            int y1 = (int) Math.ceil(bounds.y + bounds.height + off.y);
+            Rectangle resultBounds = bounds.union(new Rectangle(x0, y0, x1 - x0, y1 - y0));
+            if (off.x == Math.rint(off.x) && off.y == Math.rint(off.y)) {
+                result = translate(in, resultBounds, (int) off.x, (int) off.y, region);
+            } else {
+                AffineTransform transform = AffineTransform.getTranslateInstance(
+                        bounds.x - resultBounds.x + off.x, bounds.y - resultBounds.y + off.y);
+                AffineTransformOp op = new AffineTransformOp(transform, filterContext.renderingHints());
+                BufferedImage dst = ImageUtil.createCompatibleTransparentImage(
+                        resultBounds.width, resultBounds.height);
+                op.filter(in.image(), dst);
+                result = RasterChannel.clip(new RasterChannel(dst, resultBounds.x, resultBounds.y), region);
+            }
         }
 
         impl().saveResult(result, filterContext);
     }
+
+    private static @NotNull Channel translate(@NotNull Channel in, @NotNull Rectangle resultBounds, int dx, int dy,
+            @Nullable Rectangle region) {
+        Raster src = in.raster();
+        WritableRaster dst = RasterChannel.createRaster(resultBounds);
+        Rectangle moved = new Rectangle(in.bounds());
+        moved.translate(dx, dy);
+        // Only the part of the input which ends up inside the region is copied.
+        Rectangle copied = region != null ? moved.intersection(region) : moved;
+        if (copied.isEmpty()) return new RasterChannel(dst);
+
+        int[] srcPixels = ImageUtil.getINT_RGBA_DataBank(src);
+        int[] dstPixels = ImageUtil.getINT_RGBA_DataBank(dst);
+        int srcStride = ImageUtil.getINT_RGBA_ScanlineStride(src);
+        int dstStride = ImageUtil.getINT_RGBA_ScanlineStride(dst);
+        int srcOffset = ImageUtil.getINT_RGBA_DataOffset(src)
+                + (copied.y - moved.y) * srcStride + copied.x - moved.x;
+        int dstOffset = ImageUtil.getINT_RGBA_DataOffset(dst)
+                + (copied.y - resultBounds.y) * dstStride + copied.x - resultBounds.x;
+        for (int y = 0; y < copied.height; y++) {
+            System.arraycopy(srcPixels, srcOffset + y * srcStride, dstPixels, dstOffset + y * dstStride,
+                    copied.width);
+        }
+        return new RasterChannel(dst);
+    }
 }
@@ -21,12 +21,19 @@
  */
 package com.github.weisj.jsvg.nodes.filter;
 
+import java.awt.*;
 import java.awt.color.ColorSpace;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.*;
+import java.util.List;
+import java.util.Objects;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import com.github.weisj.jsvg.RenderListener;
+import com.github.weisj.jsvg.SVGRenderingHints;
+import com.github.weisj.jsvg.attributes.filter.FilterChannelKey;
 import com.github.weisj.jsvg.attributes.filter.LayoutBounds;
 import com.github.weisj.jsvg.geometry.noise.PerlinTurbulence;
 import com.github.weisj.jsvg.geometry.size.FloatInsets;
@@ -38,6 +45,8 @@ import com.github.weisj.jsvg.nodes.prototype.spec.PermittedContent;
 import com.github.weisj.jsvg.parser.AttributeNode;
 import com.github.weisj.jsvg.renderer.RenderContext;
 import com.github.weisj.jsvg.util.ImageUtil;
+import com.github.weisj.jsvg.util.ParallelUtil;
+import com.github.weisj.jsvg.util.RasterCache;
 
 @ElementCategories(Category.FilterPrimitive)
 @PermittedContent(
@@ -45,6 +54,7 @@ import com.github.weisj.jsvg.util.ImageUtil;
 )
 public final class FeTurbulence extends AbstractFilterPrimitive {
     public static final String TAG = "feturbulence";
+    private static final long TILE_CACHE_BYTES = 16 << 20;
 
     public enum Type {
         fractalNoise,
@@ -57,6 +67,10 @@ public final class FeTurbulence extends AbstractFilterPrimitive {
 
     private Type type;
 
+    private final @NotNull RasterCache<TileKey, WritableRaster> tileCache =
+            new RasterCache<>(TILE_CACHE_BYTES, RenderListener.Cache.TURBULENCE,
+                    SVGRenderingHints.KEY_TURBULENCE_CACHE, RasterCache::byteSize);
+
     @Override
     public @NotNull String tagName() {
         return TAG;
@@ -80,6 +94,11 @@ public final class FeTurbulence extends AbstractFilterPrimitive {
         type = attributeNode.getEnum("type", Type.fractalNoise);
     }
 
+    @Override
+    public @NotNull List<@NotNull FilterChannelKey> inputChannels() {
+        return List.of();
+    }
+
     @Override
     public void layoutFilter(@NotNull RenderContext context, @NotNull FilterLayoutContext filterLayoutContext) {
         impl().saveLayoutResult(
@@ -92,13 +111,27 @@ public final class FeTurbulence extends AbstractFilterPrimitive {
     @Override
     public void applyFilter(@NotNull RenderContext context, @NotNull FilterContext filterContext) {
         Filter.FilterInfo info = filterContext.info();
-        Channel turbulenceChannel =
-                new TurbulenceChannel(info.imageBounds(), info.imageWidth, info.imageHeight, seed, numOctaves,
-                        baseFrequency[0], baseFrequency.length > 1 ? baseFrequency[1] : baseFrequency[0], type);
+        double xFrequency = baseFrequency[0];
+        double yFrequency = baseFrequency.length > 1 ? baseFrequency[1] : baseFrequency[0];
+        Rectangle2D tileBounds = info.imageBounds();
+        Rectangle imageRect = new Rectangle(info.imageWidth, info.imageHeight);
+        Rectangle region = filterContext.resultRegion();
+        if (region != null) region = region.contains(imageRect) ? null : region.intersection(imageRect);
+        if (region != null && region.isEmpty()) region = new Rectangle();
+        TileKey key = new TileKey(seed, numOctaves, xFrequency, yFrequency, type, tileBounds,
+                info.imageWidth, info.imageHeight, region);
+        Channel turbulenceChannel = new TurbulenceChannel(tileBounds, info.imageWidth, info.imageHeight, region,
+                seed, numOctaves, xFrequency, yFrequency, type,
+                tileCache.isEnabled(info.output()) ? tileCache : null, key, info.output().renderListener());
         impl().saveResult(turbulenceChannel, filterContext);
     }
 
     public static final class TurbulenceChannel implements Channel, PixelProvider {
+        /*
+         * Maps linear RGB components to sRGB. Taken from the color model to produce the same values as the
+         * conversion by Java2D.
+         */
+        private static final int[] LINEAR_RGB_TO_SRGB = createLinearRGBToSRGBTable();
 
         private final PerlinTurbulence perlinTurbulence;
         private final double[] channels = new double[4];
@@ -106,75 +139,115 @@ public final class FeTurbulence extends AbstractFilterPrimitive {
         private final int imageHeight;
         private final Type type;
         private final Rectangle2D tileBounds;
-        private BufferedImage bufferedImage;
+        private final @Nullable Rectangle region;
+        private final @Nullable RasterCache<TileKey, WritableRaster> tileCache;
+        private final @NotNull TileKey key;
+        private final @NotNull RenderListener listener;
+        private RasterChannel raster;
 
         private TurbulenceChannel(@NotNull Rectangle2D tileBounds, int imageWidth, int imageHeight,
-                                  float seed, int octaves, double xFrequency, double yFrequency, Type type) {
+                @Nullable Rectangle region, float seed, int octaves, double xFrequency, double yFrequency, Type type,
+                @Nullable RasterCache<TileKey, WritableRaster> tileCache, @NotNull TileKey key,
+                @NotNull RenderListener listener) {
             this.tileBounds = tileBounds;
             this.imageWidth = imageWidth;
             this.imageHeight = imageHeight;
+            this.region = region;
             this.type = type;
+            this.tileCache = tileCache;
+            this.key = key;
+            this.listener = listener;
             this.perlinTurbulence = new PerlinTurbulence((int) seed, octaves, xFrequency, yFrequency);
         }
 
-        private @NotNull BufferedImage ensureImageBackingStore() {
-            if (bufferedImage == null) {
-                ColorSpace cs = ColorSpace.getInstance(ColorSpace.CS_LINEAR_RGB);
-                ColorModel cm = new DirectColorModel(cs, 32, 0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000,
-                        false, DataBuffer.TYPE_INT);
-                WritableRaster dest = cm.createCompatibleWritableRaster(imageWidth, imageHeight);
-                bufferedImage = new BufferedImage(cm, dest, false, null);
+        private static int @NotNull [] createLinearRGBToSRGBTable() {
+            ColorSpace cs = ColorSpace.getInstance(ColorSpace.CS_LINEAR_RGB);
+            ColorModel cm = new DirectColorModel(cs, 32, 0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000,
+                    false, DataBuffer.TYPE_INT);
+            int[] table = new int[256];
+            for (int i = 0; i < table.length; i++) {
+                table[i] = cm.getRed(0xFF000000 | (i << 16));
+            }
+            return table;
+        }
 
-                final int w = dest.getWidth();
-                final int h = dest.getHeight();
+        private @NotNull RasterChannel ensureRaster() {
+            if (raster == null) {
+                // Cached tiles are shared between channels. This is fine as channels are never modified.
+                WritableRaster dest = tileCache != null ? tileCache.get(key, listener) : null;
+                if (dest == null) {
+                    dest = createTile();
+                    if (tileCache != null) tileCache.put(key, dest);
+                }
+                raster = new RasterChannel(dest);
+            }
+            return raster;
+        }
+
+        private @NotNull WritableRaster createTile() {
+            WritableRaster dest = RasterChannel.createRaster(new Rectangle(imageWidth, imageHeight));
 
-                final double scaleX = tileBounds.getWidth() / (double) w;
-                final double scaleY = tileBounds.getHeight() / (double) h;
+            final int w = dest.getWidth();
+            final int h = dest.getHeight();
 
-                final double startX = tileBounds.getX();
-                final double startY = tileBounds.getY();
+            final double scaleX = tileBounds.getWidth() / (double) w;
+            final double scaleY = tileBounds.getHeight() / (double) h;
 
-                boolean fractalNoise = type == Type.fractalNoise;
 
-                final int[] destPixels = ImageUtil.getINT_RGBA_DataBank(dest);
-                final int dstAdjust = ImageUtil.getINT_RGBA_DataAdjust(dest);
-                int dp = ImageUtil.getINT_RGBA_DataOffset(dest);
+            boolean fractalNoise = type == Type.fractalNoise;
 
-                double point_1 = startY;
-                for (int i = 0; i < h; i++) {
-                    double point_0 = startX;
-                    for (int end = dp + w; dp < end; dp++) {
-                        perlinTurbulence.turbulence(channels, point_0, point_1, fractalNoise, null, null);
-                        destPixels[dp] = cm.getRGB(channelsToRGB(channels));
-                        point_0 += scaleX;
+            final int[] destPixels = ImageUtil.getINT_RGBA_DataBank(dest);
+            final int scanlineStride = ImageUtil.getINT_RGBA_ScanlineStride(dest);
+            final int dataOffset = ImageUtil.getINT_RGBA_DataOffset(dest);
+
+            // Sample positions are accumulated along rows and columns. Computing them upfront allows any part of the
+            // tile to be generated independently of the rest.
+            final double[] rowY = accumulate(tileBounds.getY(), scaleY, h);
+            final double[] columnX = accumulate(tileBounds.getX(), scaleX, w);
+
+            Rectangle r = region != null ? region : new Rectangle(w, h);
+            ParallelUtil.forEachStripe(r.y, r.y + r.height, r.width, (startRow, endRow) -> {
+                double[] rowChannels = new double[4];
+                for (int i = startRow; i < endRow; i++) {
+                    int dp = dataOffset + i * scanlineStride;
+                    for (int j = r.x; j < r.x + r.width; j++) {
+                        perlinTurbulence.turbulence(rowChannels, columnX[j], rowY[i], fractalNoise, null, null);
+                        destPixels[dp + j] = RasterChannel.premultiply(linearToSRGB(channelsToRGB(rowChannels)));
                     }
-                    point_1 += scaleY;
-                    dp += dstAdjust;
                 }
+            });
+            return dest;
+        }
+
+        private static double @NotNull [] accumulate(double start, double step, int count) {
+            double[] positions = new double[count];
+            double position = start;
+            for (int i = 0; i < count; i++) {
+                positions[i] = position;
+                position += step;
             }
-            return bufferedImage;
+            return positions;
         }
 
-        @Override
-        public @NotNull ImageProducer producer() {
-            return ensureImageBackingStore().getSource();
+        private static int linearToSRGB(int argb) {
+            return (argb & 0xFF000000)
+                    | (LINEAR_RGB_TO_SRGB[(argb >> 16) & 0xFF] << 16)
+                    | (LINEAR_RGB_TO_SRGB[(argb >> 8) & 0xFF] << 8)
+                    | LINEAR_RGB_TO_SRGB[argb & 0xFF];
         }
 
         @Override
-        public @NotNull BufferedImage toBufferedImageNonAliased(@NotNull RenderContext context) {
-            BufferedImage img = ensureImageBackingStore();
-            ColorModel cm = img.getColorModel();
-            WritableRaster raster = img.copyData(null);
-            return new BufferedImage(cm, raster, cm.isAlphaPremultiplied(), null);
+        public @NotNull WritableRaster raster() {
+            return ensureRaster().raster();
         }
 
         @Override
-        public @NotNull Channel applyFilter(@NotNull ImageFilter filter) {
-            return new ImageProducerChannel(new FilteredImageSource(producer(), filter));
+        public @NotNull BufferedImage image() {
+            return ensureRaster().image();
         }
 
         @Override
-        public @NotNull PixelProvider pixels(@NotNull RenderContext context) {
+        public @NotNull PixelProvider pixels() {
             return this;
         }
 
@@ -217,4 +290,49 @@ public final class FeTurbulence extends AbstractFilterPrimitive {
             return j;
         }
     }
+
+    private static final class TileKey {
+        private final float seed;
+        private final int octaves;
+        private final double xFrequency;
+        private final double yFrequency;
+        private final @NotNull Type type;
+        private final @NotNull Rectangle2D tileBounds;
+        private final int width;
+        private final int height;
+        private final @Nullable Rectangle region;
+
+        private TileKey(float seed, int octaves, double xFrequency, double yFrequency, @NotNull Type type,
+                @NotNull Rectangle2D tileBounds, int width, int height, @Nullable Rectangle region) {
+            this.seed = seed;
+            this.octaves = octaves;
+            this.xFrequency = xFrequency;
+            this.yFrequency = yFrequency;
+            this.type = type;
+            this.tileBounds = tileBounds.getBounds2D();
+            this.width = width;
+            this.height = height;
+            this.region = region;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TileKey that)) return false;
+            return Float.compare(that.seed, seed) == 0
+                    && octaves == that.octaves
+                    && Double.compare(that.xFrequency, xFrequency) == 0
+                    && Double.compare(that.yFrequency, yFrequency) == 0
+                    && type == that.type
+                    && tileBounds.equals(that.tileBounds)
+                    && width == that.width
+                    && height == that.height
+                    && Objects.equals(region, that.region);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(seed, octaves, xFrequency, yFrequency, type, tileBounds, width, height, region);
+        }
+    }
 }
@@ -22,6 +22,7 @@
 package com.github.weisj.jsvg.nodes.filter;
 
 import java.awt.*;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.*;
 import java.util.Objects;
@@ -29,6 +30,8 @@ import java.util.Objects;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import com.github.weisj.jsvg.RenderListener;
+import com.github.weisj.jsvg.SVGRenderingHints;
 import com.github.weisj.jsvg.attributes.UnitType;
 import com.github.weisj.jsvg.attributes.filter.DefaultFilterChannel;
 import com.github.weisj.jsvg.attributes.filter.LayoutBounds;
@@ -36,6 +39,8 @@ import com.github.weisj.jsvg.geometry.size.FloatInsets;
 import com.github.weisj.jsvg.geometry.size.Length;
 import com.github.weisj.jsvg.geometry.size.Unit;
 import com.github.weisj.jsvg.geometry.util.GeometryUtil;
+import com.github.weisj.jsvg.jfr.FilterEvent;
+import com.github.weisj.jsvg.jfr.JFR;
 import com.github.weisj.jsvg.nodes.SVGNode;
 import com.github.weisj.jsvg.nodes.animation.Animate;
 import com.github.weisj.jsvg.nodes.animation.Set;
@@ -49,6 +54,7 @@ import com.github.weisj.jsvg.renderer.Output;
 import com.github.weisj.jsvg.renderer.RenderContext;
 import com.github.weisj.jsvg.util.BlittableImage;
 import com.github.weisj.jsvg.util.ImageUtil;
+import com.github.weisj.jsvg.util.RasterCache;
 
 @ElementCategories({/* None */})
 @PermittedContent(
@@ -61,6 +67,11 @@ public final class Filter extends ContainerNode {
 
     private static final Length DEFAULT_FILTER_COORDINATE = Unit.PERCENTAGE.valueOf(-10);
     private static final Length DEFAULT_FILTER_SIZE = Unit.PERCENTAGE.valueOf(120);
+    private static final long RESULT_CACHE_BYTES = 8 << 20;
+
+    private final @NotNull RasterCache<Object, CachedResult> resultCache =
+            new RasterCache<>(RESULT_CACHE_BYTES, RenderListener.Cache.FILTER, SVGRenderingHints.KEY_FILTER_CACHE,
+                    CachedResult::byteSize);
 
     private Length x;
     private Length y;
@@ -71,6 +82,7 @@ public final class Filter extends ContainerNode {
     private UnitType filterPrimitiveUnits;
 
     private boolean isValid;
+    private FilterGraph graph;
 
     @Override
     public @NotNull String tagName() {
@@ -94,6 +106,8 @@ public final class Filter extends ContainerNode {
             }
         }
 
+        graph = FilterGraph.compile(children());
+
         filterUnits = attributeNode.getEnum("filterUnits", UnitType.ObjectBoundingBox);
         filterPrimitiveUnits = attributeNode.getEnum("primitiveUnits", UnitType.UserSpaceOnUse);
 
@@ -118,10 +132,51 @@ public final class Filter extends ContainerNode {
         return new Length(Unit.PERCENTAGE, length.raw() * 100);
     }
 
+    /**
+     * The region the result of the filter is restricted to.
+     *
+     * @param context the render context of the filtered element.
+     * @param elementBounds the bounds of the filtered element.
+     * @return the filter region in user space.
+     */
+    public @NotNull Rectangle2D filterRegion(@NotNull RenderContext context, @NotNull Rectangle2D elementBounds) {
+        return filterUnits.computeViewBounds(context.measureContext(), elementBounds, x, y, width, height);
+    }
+
+    /**
+     * Paints the cached result of a previous application of the filter.
+     *
+     * @param output the output to paint to.
+     * @param key the key identifying the filtered content, see {@link FilterInfo#cacheResult(Object, double, double)}.
+     * @param tx the integral part of the device translation.
+     * @param ty the integral part of the device translation.
+     * @return true if a cached result was painted, in which case the filtered element doesn't have to be rendered.
+     */
+    public boolean blitCachedResult(@NotNull Output output, @NotNull Object key, double tx, double ty) {
+        CachedResult cached = resultCache.get(key, output.renderListener());
+        if (cached == null) return false;
+        if (cached.image != null) {
+            AffineTransform at = AffineTransform.getTranslateInstance(tx, ty);
+            at.concatenate(cached.transform);
+            output.setTransform(at);
+            output.drawImage(cached.image);
+        }
+        return true;
+    }
+
     public @Nullable FilterInfo createFilterInfo(@NotNull Output output, @NotNull RenderContext context,
             @NotNull Rectangle2D elementBounds) {
-        Rectangle2D.Double filterRegion = filterUnits.computeViewBounds(
-                context.measureContext(), elementBounds, x, y, width, height);
+        RenderListener listener = output.renderListener();
+        if (!listener.isEnabled()) return createFilterInfoImpl(output, context, elementBounds);
+        long start = System.nanoTime();
+        FilterInfo filterInfo = createFilterInfoImpl(output, context, elementBounds);
+        listener.phaseCompleted(RenderListener.Phase.FILTER_SETUP, this, System.nanoTime() - start);
+        return filterInfo;
+    }
+
+    private @Nullable FilterInfo createFilterInfoImpl(@NotNull Output output, @NotNull RenderContext context,
+            @NotNull Rectangle2D elementBounds) {
+        Rectangle2D filterRegion = filterRegion(context, elementBounds);
         Rectangle2D graphicsClipBounds = output.clipBounds();
 
         FilterLayoutContext filterLayoutContext =
@@ -143,7 +198,7 @@ public final class Filter extends ContainerNode {
         filterLayoutContext.resultChannels().addResult(DefaultFilterChannel.SourceGraphic, sourceDependentBounds);
         filterLayoutContext.resultChannels().addResult(DefaultFilterChannel.SourceAlpha, sourceDependentBounds);
 
-        for (SVGNode child : children()) {
+        for (SVGNode child : graph.primitives()) {
             try {
                 FilterPrimitive filterPrimitive = (FilterPrimitive) child;
                 filterPrimitive.layoutFilter(context, filterLayoutContext);
@@ -161,35 +216,64 @@ public final class Filter extends ContainerNode {
                 GeometryUtil.grow(graphicsClipBounds, insets));
 
         BlittableImage blitImage = BlittableImage.create(
-                ImageUtil::createCompatibleTransparentImage, context, clipHeuristicBounds,
+                ImageUtil::createCompatibleTransparentImage, output, context, clipHeuristicBounds,
                 filterRegion, elementBounds, UnitType.UserSpaceOnUse);
 
-        return new FilterInfo(output, blitImage, elementBounds);
+        return new FilterInfo(output, blitImage, elementBounds, filterRegion, graphicsClipBounds, resultCache);
     }
 
     public void applyFilter(@NotNull Output output, @NotNull RenderContext context, @NotNull FilterInfo filterInfo) {
-        ImageProducer producer = filterInfo.blittableImage.image().getSource();
-
+        FilterEvent event = JFR.isAvailable() ? FilterEvent.start() : null;
         FilterContext filterContext = new FilterContext(filterInfo, filterPrimitiveUnits, output.renderingHints());
 
-        Channel sourceChannel = new ImageProducerChannel(producer);
+        Channel sourceChannel = new RasterChannel(filterInfo.blittableImage.image());
         filterContext.resultChannels().addResult(DefaultFilterChannel.SourceGraphic, sourceChannel);
         filterContext.resultChannels().addResult(DefaultFilterChannel.LastResult, sourceChannel);
         filterContext.resultChannels().addResult(DefaultFilterChannel.SourceAlpha,
-                () -> sourceChannel.applyFilter(new AlphaImageFilter()));
+                () -> alphaChannel(sourceChannel));
 
-        for (SVGNode child : children()) {
+        Rectangle[] regions = graph.regions(context.measureContext(), filterContext);
+        RenderListener listener = output.renderListener();
+        for (FilterGraph.Step step : graph.steps()) {
+            long start = listener.isEnabled() ? System.nanoTime() : 0;
             try {
-                FilterPrimitive filterPrimitive = (FilterPrimitive) child;
-                filterPrimitive.applyFilter(context, filterContext);
+                step.apply(context, filterContext, regions);
             } catch (IllegalFilterStateException ignored) {
                 // Just carry on applying filters
             }
-            // Todo: Respect filterPrimitiveRegion
+            if (listener.isEnabled()) {
+                listener.phaseCompleted(RenderListener.Phase.FILTER_PRIMITIVE, step.node(),
+                        System.nanoTime() - start);
+            }
+            step.releaseChannels(filterContext);
+        }
+
+        filterInfo.result = Objects.requireNonNull(filterContext.getChannel(DefaultFilterChannel.LastResult));
+
+        if (event != null) {
+            event.finish(id(), children().size(), filterInfo.imageWidth, filterInfo.imageHeight);
         }
+    }
 
-        filterInfo.producer = Objects.requireNonNull(
-                filterContext.getChannel(DefaultFilterChannel.LastResult)).producer();
+    private static @NotNull Channel alphaChannel(@NotNull Channel channel) {
+        Raster src = channel.raster();
+        WritableRaster dst = RasterChannel.createRaster(channel.bounds());
+        int[] srcPixels = ImageUtil.getINT_RGBA_DataBank(src);
+        int[] dstPixels = ImageUtil.getINT_RGBA_DataBank(dst);
+        int srcStride = ImageUtil.getINT_RGBA_ScanlineStride(src);
+        int dstStride = ImageUtil.getINT_RGBA_ScanlineStride(dst);
+        int srcOffset = ImageUtil.getINT_RGBA_DataOffset(src);
+        int dstOffset = ImageUtil.getINT_RGBA_DataOffset(dst);
+        int width = src.getWidth();
+        int height = src.getHeight();
+        for (int y = 0; y < height; y++) {
+            int sp = srcOffset + y * srcStride;
+            int dp = dstOffset + y * dstStride;
+            for (int x = 0; x < width; x++) {
+                dstPixels[dp + x] = srcPixels[sp + x] & 0xFF000000;
+            }
+        }
+        return new RasterChannel(dst);
     }
 
     @Override
@@ -202,15 +286,26 @@ public final class Filter extends ContainerNode {
         public final int imageHeight;
 
         private final @NotNull Rectangle2D elementBounds;
+        private final @NotNull Rectangle2D filterRegion;
+        private final @NotNull Rectangle2D clipBounds;
         private final @NotNull Output imageOutput;
         private final @NotNull BlittableImage blittableImage;
 
-        private ImageProducer producer;
+        private final @NotNull RasterCache<Object, CachedResult> resultCache;
+        private @Nullable Object resultKey;
+        private double tx;
+        private double ty;
+
+        private Channel result;
 
         private FilterInfo(@NotNull Output output, @NotNull BlittableImage blittableImage,
-                @NotNull Rectangle2D elementBounds) {
+                @NotNull Rectangle2D elementBounds, @NotNull Rectangle2D filterRegion,
+                @NotNull Rectangle2D clipBounds, @NotNull RasterCache<Object, CachedResult> resultCache) {
             this.blittableImage = blittableImage;
             this.elementBounds = elementBounds;
+            this.filterRegion = filterRegion;
+            this.clipBounds = clipBounds;
+            this.resultCache = resultCache;
 
             BufferedImage image = blittableImage.image();
 
@@ -230,6 +325,22 @@ public final class Filter extends ContainerNode {
             return elementBounds;
         }
 
+        /**
+         * @return the filter region in user space.
+         */
+        @NotNull
+        Rectangle2D filterRegion() {
+            return filterRegion;
+        }
+
+        /**
+         * @return the clip bounds of the output in user space.
+         */
+        @NotNull
+        Rectangle2D clipBounds() {
+            return clipBounds;
+        }
+
         public @NotNull Output output() {
             return imageOutput;
         }
@@ -243,6 +354,20 @@ public final class Filter extends ContainerNode {
                     imageBounds.getHeight());
         }
 
+        /**
+         * Keep the result around once it has been blitted. The key has to identify everything the result depends
+         * on i.e. the filtered content, the device transform up to its integral translation and the visible region.
+         *
+         * @param key the key to cache the result under.
+         * @param tx the integral part of the device translation.
+         * @param ty the integral part of the device translation.
+         */
+        public void cacheResult(@NotNull Object key, double tx, double ty) {
+            this.resultKey = key;
+            this.tx = tx;
+            this.ty = ty;
+        }
+
         public void blitImage(@NotNull Output output, @NotNull RenderContext context) {
             Rectangle2D imageBounds = imageBounds();
 
@@ -254,8 +379,27 @@ public final class Filter extends ContainerNode {
             }
 
             blittableImage.prepareForBlitting(output, context);
-            output.drawImage(
-                    context.platformSupport().createImage(producer), context.platformSupport().imageObserver());
+            // Channels may extend beyond the filter region, which clips the result.
+            Rectangle bounds = result.bounds();
+            Rectangle visibleBounds = bounds.intersection(new Rectangle(imageWidth, imageHeight));
+            if (visibleBounds.isEmpty()) {
+                if (resultKey != null) resultCache.put(resultKey, new CachedResult(null, new AffineTransform(), 0));
+                return;
+            }
+            BufferedImage image = result.image();
+            if (!visibleBounds.equals(bounds)) {
+                image = image.getSubimage(visibleBounds.x - bounds.x, visibleBounds.y - bounds.y,
+                        visibleBounds.width, visibleBounds.height);
+            }
+            AffineTransform at = AffineTransform.getTranslateInstance(visibleBounds.x, visibleBounds.y);
+            if (resultKey != null) {
+                AffineTransform transform = AffineTransform.getTranslateInstance(-tx, -ty);
+                transform.concatenate(output.transform());
+                transform.concatenate(at);
+                resultCache.put(resultKey,
+                        new CachedResult(image, transform, RasterCache.byteSize(result.raster())));
+            }
+            output.drawImage(image, at, context.platformSupport().imageObserver());
         }
 
         public void close() {
@@ -263,12 +407,24 @@ public final class Filter extends ContainerNode {
         }
     }
 
-    private static final class AlphaImageFilter extends RGBImageFilter {
-        private final ColorModel model = ColorModel.getRGBdefault();
+    private static final class CachedResult {
+        private final @Nullable BufferedImage image;
+        private final @NotNull AffineTransform transform;
+        private final long byteSize;
+
+        /**
+         * @param image the visible part of the result or null if nothing is visible.
+         * @param transform the transform to blit the image with relative to the integral device translation.
+         * @param byteSize the size of the result including any parts clipped from the image.
+         */
+        private CachedResult(@Nullable BufferedImage image, @NotNull AffineTransform transform, long byteSize) {
+            this.image = image;
+            this.transform = transform;
+            this.byteSize = byteSize;
+        }
 
-        @Override
-        public int filterRGB(int x, int y, int rgb) {
-            return model.getAlpha(rgb) << 24;
+        private long byteSize() {
+            return byteSize;
         }
     }
 }
@@ -22,18 +22,21 @@
 package com.github.weisj.jsvg.nodes.filter;
 
 import java.awt.*;
+import java.awt.geom.Rectangle2D;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import com.github.weisj.jsvg.attributes.UnitType;
 import com.github.weisj.jsvg.attributes.filter.FilterChannelKey;
+import com.github.weisj.jsvg.geometry.util.GeometryUtil;
 
 public final class FilterContext {
     private final @NotNull ChannelStorage<Channel> resultChannels = new ChannelStorage<>();
     private final Filter.FilterInfo info;
     private final @NotNull UnitType primitiveUnits;
     private final @Nullable RenderingHints renderingHints;
+    private @Nullable Rectangle resultRegion;
 
     FilterContext(@NotNull Filter.FilterInfo info, @NotNull UnitType primitiveUnits,
                   @Nullable RenderingHints renderingHints) {
@@ -61,4 +64,37 @@ public final class FilterContext {
     public @NotNull Channel getChannel(@NotNull FilterChannelKey key) {
         return resultChannels.get(key);
     }
+
+    /**
+     * The region of the filter buffer the primitive currently being applied has to compute. It is the subregion
+     * of the primitive intersected with the region read by the primitives consuming its result. Pixels of the
+     * result outside of it are transparent.
+     *
+     * @return the region in the pixel space of the filter buffer or null if the whole result has to be computed.
+     */
+    public @Nullable Rectangle resultRegion() {
+        return resultRegion;
+    }
+
+    void setResultRegion(@Nullable Rectangle resultRegion) {
+        this.resultRegion = resultRegion;
+    }
+
+    /**
+     * Maps a region in user space to the pixels of the filter buffer covered by it.
+     *
+     * @param region the region in user space.
+     * @return the region in the pixel space of the filter buffer.
+     */
+    @NotNull
+    Rectangle bufferRegion(@NotNull Rectangle2D region) {
+        Rectangle2D r = GeometryUtil.containingBoundsAfterTransform(info.output().transform(), region);
+        // Allow for some imprecision such that regions aligned with the pixel grid don't grow.
+        double tolerance = 1e-3;
+        int x0 = (int) Math.floor(r.getMinX() + tolerance);
+        int y0 = (int) Math.floor(r.getMinY() + tolerance);
+        int x1 = (int) Math.ceil(r.getMaxX() - tolerance);
+        int y1 = (int) Math.ceil(r.getMaxY() - tolerance);
+        return new Rectangle(x0, y0, Math.max(0, x1 - x0), Math.max(0, y1 - y0));
+    }
 }
@@ -0,0 +1,579 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.nodes.filter;
+
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.github.weisj.jsvg.attributes.filter.DefaultFilterChannel;
+import com.github.weisj.jsvg.attributes.filter.FilterChannelKey;
+import com.github.weisj.jsvg.geometry.size.MeasureContext;
+import com.github.weisj.jsvg.nodes.SVGNode;
+import com.github.weisj.jsvg.renderer.RenderContext;
+import com.github.weisj.jsvg.util.ImageUtil;
+import com.github.weisj.jsvg.util.ParallelUtil;
+
+/**
+ * The primitives of a filter compiled into the steps needed to compute its result. The graph is derived from the
+ * {@code in}, {@code in2} and {@code result} attributes of the primitives:
+ * <ul>
+ * <li>Primitives which don't contribute to the result of the filter are dropped.</li>
+ * <li>Runs of {@link PointwiseFilterPrimitive}s and floods masked by a composite are applied in a single pass
+ * without saving the intermediate results.</li>
+ * <li>Results are released as soon as their last consumer has run.</li>
+ * <li>Each primitive only computes the part of its result which lies inside its subregion and is read by its
+ * consumers. See {@link #regions(MeasureContext, FilterContext)}.</li>
+ * </ul>
+ */
+final class FilterGraph {
+    private static final DefaultFilterChannel[] INITIAL_CHANNELS = {
+            DefaultFilterChannel.SourceGraphic,
+            DefaultFilterChannel.SourceAlpha,
+            DefaultFilterChannel.LastResult
+    };
+
+    private final @NotNull List<@NotNull SVGNode> primitives;
+    private final @NotNull List<@NotNull Step> steps;
+    /*
+     * The primitives producing the inputs of each primitive or -1 for the initial channels. Null if the inputs
+     * couldn't be resolved.
+     */
+    private final int @Nullable [][] producers;
+    private final int resultProducer;
+
+    private FilterGraph(@NotNull List<@NotNull SVGNode> primitives, @NotNull List<@NotNull Step> steps,
+            int @Nullable [][] producers, int resultProducer) {
+        this.primitives = primitives;
+        this.steps = steps;
+        this.producers = producers;
+        this.resultProducer = resultProducer;
+    }
+
+    /**
+     * @return the primitives contributing to the result in document order.
+     */
+    @NotNull
+    List<@NotNull SVGNode> primitives() {
+        return primitives;
+    }
+
+    @NotNull
+    List<@NotNull Step> steps() {
+        return steps;
+    }
+
+    static @NotNull FilterGraph compile(@NotNull List<? extends @NotNull SVGNode> nodes) {
+        int count = nodes.size();
+        Map<Object, Value> initialValues = new HashMap<>();
+        for (DefaultFilterChannel channel : INITIAL_CHANNELS) {
+            initialValues.put(channel.key(), new Value(-1));
+        }
+
+        Map<Object, Value> bound = new HashMap<>(initialValues);
+        Value[][] inputs = new Value[count][];
+        Value[] outputs = new Value[count];
+        for (int i = 0; i < count; i++) {
+            FilterPrimitive primitive = (FilterPrimitive) nodes.get(i);
+            List<@NotNull FilterChannelKey> inputChannels = primitive.inputChannels();
+            inputs[i] = new Value[inputChannels.size()];
+            for (int j = 0; j < inputs[i].length; j++) {
+                Value value = bound.get(inputChannels.get(j).key());
+                // The primitive fails to find its input when applied. Leave the handling of this to the filter.
+                if (value == null) return uncompiled(nodes);
+                inputs[i][j] = value;
+            }
+            outputs[i] = new Value(i);
+            bound.put(DefaultFilterChannel.LastResult.key(), outputs[i]);
+            bound.put(primitive.resultChannel().key(), outputs[i]);
+        }
+        Value result = bound.get(DefaultFilterChannel.LastResult.key());
+
+        boolean[] live = new boolean[count];
+        if (result.producer >= 0) live[result.producer] = true;
+        for (int i = count - 1; i >= 0; i--) {
+            if (!live[i]) continue;
+            for (Value input : inputs[i]) {
+                if (input.producer >= 0) live[input.producer] = true;
+            }
+        }
+
+        List<Integer> liveIndices = new ArrayList<>();
+        List<@NotNull SVGNode> livePrimitives = new ArrayList<>();
+        int[] liveIndex = new int[count];
+        for (int i = 0; i < count; i++) {
+            if (!live[i]) continue;
+            liveIndex[i] = liveIndices.size();
+            liveIndices.add(i);
+            livePrimitives.add(nodes.get(i));
+            for (Value input : inputs[i]) {
+                input.lastConsumer = i;
+                input.consumerCount++;
+            }
+        }
+
+        int[][] producers = new int[liveIndices.size()][];
+        for (int k = 0; k < producers.length; k++) {
+            Value[] primitiveInputs = inputs[liveIndices.get(k)];
+            producers[k] = new int[primitiveInputs.length];
+            for (int j = 0; j < primitiveInputs.length; j++) {
+                int producer = primitiveInputs[j].producer;
+                producers[k][j] = producer >= 0 ? liveIndex[producer] : -1;
+            }
+        }
+
+        List<@NotNull Step> steps = new ArrayList<>();
+        List<int[]> stepRanges = new ArrayList<>();
+        int k = 0;
+        while (k < liveIndices.size()) {
+            int index = liveIndices.get(k);
+            SVGNode node = nodes.get(index);
+            int end = k + 1;
+            if (node instanceof PointwiseFilterPrimitive) {
+                while (end < liveIndices.size()
+                        && nodes.get(liveIndices.get(end)) instanceof PointwiseFilterPrimitive
+                        && isOnlyInput(outputs[liveIndices.get(end - 1)], liveIndices.get(end), inputs, result)) {
+                    end++;
+                }
+                if (end - k > 1) {
+                    steps.add(new PointwiseRun(livePrimitives.subList(k, end), k));
+                } else {
+                    steps.add(new PrimitiveStep(node, k));
+                }
+            } else if (node instanceof FeFlood flood && k + 1 < liveIndices.size()
+                    && isMaskedFlood(flood, nodes.get(liveIndices.get(k + 1)))
+                    && isOnlyInput(outputs[index], liveIndices.get(k + 1), inputs, result)) {
+                end = k + 2;
+                steps.add(new MaskedFloodStep(flood, (FeComposite) nodes.get(liveIndices.get(k + 1)), k));
+            } else {
+                steps.add(new PrimitiveStep(node, k));
+            }
+            stepRanges.add(new int[] {index, liveIndices.get(end - 1)});
+            k = end;
+        }
+
+        // Replay the bindings of the channels to determine when a channel isn't needed anymore.
+        Map<Object, Value> channels = new HashMap<>(initialValues);
+        Map<Object, FilterChannelKey> channelKeys = new HashMap<>();
+        for (DefaultFilterChannel channel : INITIAL_CHANNELS) {
+            channelKeys.put(channel.key(), channel);
+        }
+        for (int s = 0; s < steps.size(); s++) {
+            int[] range = stepRanges.get(s);
+            for (int i = range[0]; i <= range[1]; i++) {
+                if (!live[i]) continue;
+                FilterChannelKey resultChannel = ((FilterPrimitive) nodes.get(i)).resultChannel();
+                channels.put(DefaultFilterChannel.LastResult.key(), outputs[i]);
+                channels.put(resultChannel.key(), outputs[i]);
+                channelKeys.put(resultChannel.key(), resultChannel);
+            }
+            List<@NotNull FilterChannelKey> released = new ArrayList<>();
+            Iterator<Map.Entry<Object, Value>> it = channels.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Object, Value> entry = it.next();
+                Value value = entry.getValue();
+                if (value != result && value.lastConsumer <= range[1]) {
+                    released.add(channelKeys.get(entry.getKey()));
+                    it.remove();
+                }
+            }
+            steps.get(s).releasedChannels = released;
+        }
+
+        int resultProducer = result.producer >= 0 ? liveIndex[result.producer] : -1;
+        return new FilterGraph(livePrimitives, steps, producers, resultProducer);
+    }
+
+    private static @NotNull FilterGraph uncompiled(@NotNull List<? extends @NotNull SVGNode> nodes) {
+        List<@NotNull Step> steps = new ArrayList<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            steps.add(new PrimitiveStep(nodes.get(i), i));
+        }
+        return new FilterGraph(new ArrayList<>(nodes), steps, null, -1);
+    }
+
+    /**
+     * Computes the region each primitive has to compute. The region of a primitive is its subregion intersected
+     * with the union of the regions its consumers read from it. The result of the filter is read where it is
+     * visible i.e. inside the clip.
+     *
+     * @param measureContext the measure context of the filtered element.
+     * @param filterContext the filter context.
+     * @return the regions in the pixel space of the filter buffer indexed like {@link #primitives()}. A region
+     *         is null if the whole result of the primitive has to be computed.
+     */
+    @Nullable
+    Rectangle @NotNull [] regions(@NotNull MeasureContext measureContext, @NotNull FilterContext filterContext) {
+        int count = primitives.size();
+        Rectangle[] regions = new Rectangle[count];
+        if (producers == null) {
+            // Without knowing the consumers only the subregions apply.
+            for (int i = 0; i < count; i++) {
+                regions[i] = subregion((FilterPrimitive) primitives.get(i), measureContext, filterContext);
+            }
+            return regions;
+        }
+
+        Rectangle[] demand = new Rectangle[count];
+        boolean[] unbounded = new boolean[count];
+        if (resultProducer >= 0) {
+            Filter.FilterInfo info = filterContext.info();
+            Rectangle visible = filterContext.bufferRegion(info.clipBounds());
+            // Guard against rounding differences to the rasterization of the clip.
+            visible.grow(1, 1);
+            demand[resultProducer] = visible.intersection(new Rectangle(info.imageWidth, info.imageHeight));
+        }
+        for (int i = count - 1; i >= 0; i--) {
+            FilterPrimitive primitive = (FilterPrimitive) primitives.get(i);
+            Rectangle region = unbounded[i] ? null : demand[i] != null ? demand[i] : new Rectangle();
+            Rectangle subregion = subregion(primitive, measureContext, filterContext);
+            if (subregion != null) region = region != null ? region.intersection(subregion) : subregion;
+            if (region != null && region.isEmpty()) region = new Rectangle();
+            regions[i] = region;
+
+            Rectangle inputRegion = region != null ? primitive.inputRegion(region, filterContext) : null;
+            for (int producer : producers[i]) {
+                if (producer < 0 || unbounded[producer]) continue;
+                if (inputRegion == null) {
+                    unbounded[producer] = true;
+                } else if (!inputRegion.isEmpty()) {
+                    demand[producer] = demand[producer] != null
+                            ? demand[producer].union(inputRegion)
+                            : new Rectangle(inputRegion);
+                }
+            }
+        }
+        return regions;
+    }
+
+    private static @Nullable Rectangle subregion(@NotNull FilterPrimitive primitive,
+            @NotNull MeasureContext measureContext, @NotNull FilterContext filterContext) {
+        Rectangle2D subregion = primitive.subregion(measureContext, filterContext);
+        return subregion != null ? filterContext.bufferRegion(subregion) : null;
+    }
+
+    private static boolean isOnlyInput(@NotNull Value value, int consumer, @NotNull Value[][] inputs,
+            @NotNull Value result) {
+        return value != result
+                && value.consumerCount == 1
+                && value.lastConsumer == consumer
+                && inputs[consumer][0] == value;
+    }
+
+    private static boolean isMaskedFlood(@NotNull FeFlood flood, @NotNull SVGNode node) {
+        if (!flood.isConstantColor() || !(node instanceof FeComposite composite)) return false;
+        Composite mode = composite.composite();
+        return mode == AlphaComposite.SrcIn || mode == AlphaComposite.SrcOut;
+    }
+
+    private static void saveResult(@NotNull FilterPrimitive primitive, @NotNull Channel result,
+            @NotNull FilterContext filterContext) {
+        filterContext.resultChannels().addResult(primitive.resultChannel(), result);
+        filterContext.resultChannels().addResult(DefaultFilterChannel.LastResult, result);
+    }
+
+    /**
+     * The result of a primitive or one of the initial channels.
+     */
+    private static final class Value {
+        private final int producer;
+        private int lastConsumer = -1;
+        private int consumerCount;
+
+        private Value(int producer) {
+            this.producer = producer;
+        }
+    }
+
+    abstract static class Step {
+        private @NotNull List<@NotNull FilterChannelKey> releasedChannels = List.of();
+
+        /**
+         * @return the node the time spent in the step is attributed to.
+         */
+        abstract @NotNull SVGNode node();
+
+        /**
+         * Applies the primitives of the step.
+         *
+         * @param context the render context.
+         * @param filterContext the filter context.
+         * @param regions the regions of the primitives, see {@link #regions(MeasureContext, FilterContext)}.
+         */
+        abstract void apply(@NotNull RenderContext context, @NotNull FilterContext filterContext,
+                @Nullable Rectangle @NotNull [] regions);
+
+        /**
+         * Removes the channels which aren't read by any of the following steps.
+         *
+         * @param filterContext the filter context.
+         */
+        final void releaseChannels(@NotNull FilterContext filterContext) {
+            for (FilterChannelKey channel : releasedChannels) {
+                filterContext.resultChannels().remove(channel);
+            }
+        }
+    }
+
+    private static final class PrimitiveStep extends Step {
+        private final @NotNull SVGNode node;
+        private final int index;
+
+        private PrimitiveStep(@NotNull SVGNode node, int index) {
+            this.node = node;
+            this.index = index;
+        }
+
+        @Override
+        @NotNull
+        SVGNode node() {
+            return node;
+        }
+
+        @Override
+        void apply(@NotNull RenderContext context, @NotNull FilterContext filterContext,
+                @Nullable Rectangle @NotNull [] regions) {
+            filterContext.setResultRegion(regions[index]);
+            ((FilterPrimitive) node).applyFilter(context, filterContext);
+        }
+    }
+
+    /**
+     * Applies a chain of pointwise primitives where each primitive is the only consumer of its predecessor.
+     * As offsets only move pixels around, all primitives can operate on the buffer of the final result. Each
+     * primitive then filters the region of its result translated by the offsets following it.
+     */
+    private static final class PointwiseRun extends Step {
+        private final @NotNull List<@NotNull SVGNode> nodes;
+        private final int firstIndex;
+
+        private PointwiseRun(@NotNull List<@NotNull SVGNode> nodes, int firstIndex) {
+            this.nodes = nodes;
+            this.firstIndex = firstIndex;
+        }
+
+        @Override
+        @NotNull
+        SVGNode node() {
+            return nodes.get(nodes.size() - 1);
+        }
+
+        @Override
+        void apply(@NotNull RenderContext context, @NotNull FilterContext filterContext,
+                @Nullable Rectangle @NotNull [] regions) {
+            int count = nodes.size();
+            PointwiseFilterPrimitive[] primitives = new PointwiseFilterPrimitive[count];
+            Point[] translations = new Point[count];
+            for (int i = 0; i < count; i++) {
+                primitives[i] = (PointwiseFilterPrimitive) nodes.get(i);
+                translations[i] = primitives[i].translation(filterContext);
+                if (translations[i] == null) {
+                    for (int j = 0; j < count; j++) {
+                        filterContext.setResultRegion(regions[firstIndex + j]);
+                        ((FilterPrimitive) nodes.get(j)).applyFilter(context, filterContext);
+                    }
+                    return;
+                }
+            }
+
+            Channel input = filterContext.getChannel(primitives[0].inputChannels().get(0));
+            Rectangle inputBounds = input.bounds();
+            Rectangle bounds = inputBounds;
+            Rectangle[] extents = new Rectangle[count];
+            for (int i = 0; i < count; i++) {
+                Point t = translations[i];
+                if (t.x != 0 || t.y != 0) {
+                    Rectangle moved = new Rectangle(bounds);
+                    moved.translate(t.x, t.y);
+                    bounds = bounds.union(moved);
+                }
+                extents[i] = new Rectangle(bounds);
+            }
+            // The regions of the primitives translated into the result. Pixels outside of them are transparent.
+            Rectangle[] keptRegions = new Rectangle[count];
+            int tx = 0;
+            int ty = 0;
+            for (int i = count - 1; i >= 0; i--) {
+                extents[i].translate(tx, ty);
+                Rectangle region = regions[firstIndex + i];
+                if (region != null) {
+                    keptRegions[i] = new Rectangle(region);
+                    keptRegions[i].translate(tx, ty);
+                }
+                tx += translations[i].x;
+                ty += translations[i].y;
+            }
+            Rectangle sourceRegion = new Rectangle(inputBounds);
+            sourceRegion.translate(tx, ty);
+            // Everything outside the region of the first primitive is cleared by it anyway.
+            if (keptRegions[0] != null) sourceRegion = sourceRegion.intersection(keptRegions[0]);
+            if (sourceRegion.isEmpty()) sourceRegion = new Rectangle(inputBounds.x + tx, inputBounds.y + ty, 0, 0);
+            Rectangle resultBounds = bounds;
+
+            Raster src = input.raster();
+            WritableRaster dst = RasterChannel.createRaster(resultBounds);
+            int[] srcPixels = ImageUtil.getINT_RGBA_DataBank(src);
+            int[] dstPixels = ImageUtil.getINT_RGBA_DataBank(dst);
+            int srcStride = ImageUtil.getINT_RGBA_ScanlineStride(src);
+            int dstStride = ImageUtil.getINT_RGBA_ScanlineStride(dst);
+            int srcOffset = ImageUtil.getINT_RGBA_DataOffset(src)
+                    + (sourceRegion.y - ty - inputBounds.y) * srcStride + sourceRegion.x - tx - inputBounds.x;
+            int dstOffset = ImageUtil.getINT_RGBA_DataOffset(dst);
+            Rectangle copiedRegion = sourceRegion;
+
+            ParallelUtil.forEachStripe(resultBounds.y, resultBounds.y + resultBounds.height, resultBounds.width,
+                    (start, end) -> {
+                        for (int y = start; y < end; y++) {
+                            int row = dstOffset + (y - resultBounds.y) * dstStride - resultBounds.x;
+                            if (y >= copiedRegion.y && y < copiedRegion.y + copiedRegion.height) {
+                                System.arraycopy(srcPixels, srcOffset + (y - copiedRegion.y) * srcStride,
+                                        dstPixels, row + copiedRegion.x, copiedRegion.width);
+                            }
+                            for (int i = 0; i < count; i++) {
+                                Rectangle extent = extents[i];
+                                if (y < extent.y || y >= extent.y + extent.height) continue;
+                                int from = extent.x;
+                                int to = extent.x + extent.width;
+                                Rectangle kept = keptRegions[i];
+                                if (kept != null) {
+                                    int keptFrom = from;
+                                    int keptTo = from;
+                                    if (y >= kept.y && y < kept.y + kept.height) {
+                                        keptFrom = Math.min(Math.max(kept.x, from), to);
+                                        keptTo = Math.max(Math.min(kept.x + kept.width, to), keptFrom);
+                                    }
+                                    // Pixels outside the region of the first primitive haven't been copied.
+                                    if (i > 0) {
+                                        Arrays.fill(dstPixels, row + from, row + keptFrom, 0);
+                                        Arrays.fill(dstPixels, row + keptTo, row + to, 0);
+                                    }
+                                    from = keptFrom;
+                                    to = keptTo;
+                                }
+                                if (primitives[i].filtersColors() && from < to) {
+                                    primitives[i].filterRow(dstPixels, row + from, to - from);
+                                }
+                            }
+                        }
+                    });
+
+            saveResult(primitives[count - 1], new RasterChannel(dst), filterContext);
+        }
+    }
+
+    /**
+     * Applies a flood of a constant color composited with the operator {@code in} or {@code out} onto another
+     * channel. Instead of filling a buffer with the flood color, the alpha of the destination directly selects the
+     * resulting color.
+     */
+    private static final class MaskedFloodStep extends Step {
+        private final @NotNull FeFlood flood;
+        private final @NotNull FeComposite composite;
+        private final int floodIndex;
+
+        private MaskedFloodStep(@NotNull FeFlood flood, @NotNull FeComposite composite, int floodIndex) {
+            this.flood = flood;
+            this.composite = composite;
+            this.floodIndex = floodIndex;
+        }
+
+        @Override
+        @NotNull
+        SVGNode node() {
+            return composite;
+        }
+
+        @Override
+        void apply(@NotNull RenderContext context, @NotNull FilterContext filterContext,
+                @Nullable Rectangle @NotNull [] regions) {
+            Channel destination = filterContext.getChannel(composite.inputChannels().get(1));
+            boolean inverted = composite.composite() == AlphaComposite.SrcOut;
+            int pixel = flood.floodPixel(context);
+
+            // Matches the rounding of AlphaComposite.
+            int[] colors = new int[256];
+            for (int alpha = 1; alpha < 256; alpha++) {
+                colors[alpha] = (multiply(alpha, pixel >>> 24) << 24)
+                        | (multiply(alpha, (pixel >> 16) & 0xFF) << 16)
+                        | (multiply(alpha, (pixel >> 8) & 0xFF) << 8)
+                        | multiply(alpha, pixel & 0xFF);
+            }
+
+            Rectangle bounds = destination.bounds();
+            Filter.FilterInfo info = filterContext.info();
+            // The flood only covers the filter buffer. Pixels outside of it are kept as is.
+            Rectangle floodBounds = bounds.intersection(new Rectangle(info.imageWidth, info.imageHeight));
+            Rectangle floodRegion = regions[floodIndex];
+            // The flood is transparent outside its region, which clears the result inside the flood bounds.
+            if (floodRegion == null) floodRegion = floodBounds;
+            Rectangle region = regions[floodIndex + 1];
+            region = region != null ? region.intersection(bounds) : bounds;
+
+            Raster src = destination.raster();
+            WritableRaster dst = RasterChannel.createRaster(bounds);
+            int[] srcPixels = ImageUtil.getINT_RGBA_DataBank(src);
+            int[] dstPixels = ImageUtil.getINT_RGBA_DataBank(dst);
+            int srcStride = ImageUtil.getINT_RGBA_ScanlineStride(src);
+            int dstStride = ImageUtil.getINT_RGBA_ScanlineStride(dst);
+            int srcOffset = ImageUtil.getINT_RGBA_DataOffset(src) - bounds.y * srcStride - bounds.x;
+            int dstOffset = ImageUtil.getINT_RGBA_DataOffset(dst) - bounds.y * dstStride - bounds.x;
+            int regionEndY = region.isEmpty() ? region.y : region.y + region.height;
+            for (int y = region.y; y < regionEndY; y++) {
+                int sp = srcOffset + y * srcStride;
+                int dp = dstOffset + y * dstStride;
+                System.arraycopy(srcPixels, sp + region.x, dstPixels, dp + region.x, region.width);
+                if (y < floodBounds.y || y >= floodBounds.y + floodBounds.height) continue;
+                int from = Math.max(floodBounds.x, region.x);
+                int to = Math.min(floodBounds.x + floodBounds.width, region.x + region.width);
+                if (from >= to) continue;
+                int floodFrom = from;
+                int floodTo = from;
+                if (y >= floodRegion.y && y < floodRegion.y + floodRegion.height) {
+                    floodFrom = Math.min(Math.max(floodRegion.x, from), to);
+                    floodTo = Math.max(Math.min(floodRegion.x + floodRegion.width, to), floodFrom);
+                }
+                Arrays.fill(dstPixels, dp + from, dp + floodFrom, 0);
+                for (int x = floodFrom; x < floodTo; x++) {
+                    int alpha = dstPixels[dp + x] >>> 24;
+                    dstPixels[dp + x] = colors[inverted ? 255 - alpha : alpha];
+                }
+                Arrays.fill(dstPixels, dp + floodTo, dp + to, 0);
+            }
+
+            saveResult(composite, new RasterChannel(dst), filterContext);
+        }
+
+        private static int multiply(int a, int b) {
+            return (a * b * 0x10101 + 0x800000) >>> 24;
+        }
+    }
+}
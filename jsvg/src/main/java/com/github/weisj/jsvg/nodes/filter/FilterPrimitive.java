@@ -22,9 +22,17 @@
 package com.github.weisj.jsvg.nodes.filter;
 
 
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import com.github.weisj.jsvg.attributes.filter.DefaultFilterChannel;
+import com.github.weisj.jsvg.attributes.filter.FilterChannelKey;
 import com.github.weisj.jsvg.geometry.size.Length;
+import com.github.weisj.jsvg.geometry.size.MeasureContext;
 import com.github.weisj.jsvg.renderer.RenderContext;
 
 public interface FilterPrimitive {
@@ -45,6 +53,43 @@ public interface FilterPrimitive {
         return true;
     }
 
+    /**
+     * The channels read by the primitive. Used to determine which results are needed before the filter is applied.
+     *
+     * @return the input channels.
+     */
+    @NotNull
+    List<@NotNull FilterChannelKey> inputChannels();
+
+    /**
+     * The channel the result is saved to in addition to {@link DefaultFilterChannel#LastResult}.
+     *
+     * @return the result channel.
+     */
+    @NotNull
+    FilterChannelKey resultChannel();
+
+    /**
+     * The subregion the result of the primitive is restricted to.
+     *
+     * @param measureContext the measure context.
+     * @param filterContext the filter context.
+     * @return the subregion in user space or null if it is the filter region.
+     */
+    @Nullable
+    Rectangle2D subregion(@NotNull MeasureContext measureContext, @NotNull FilterContext filterContext);
+
+    /**
+     * The region of the inputs which is read to compute the given region of the result.
+     *
+     * @param resultRegion the region of the result in the pixel space of the filter buffer.
+     * @param filterContext the filter context.
+     * @return the region of the inputs or null if the whole inputs may be read.
+     */
+    default @Nullable Rectangle inputRegion(@NotNull Rectangle resultRegion, @NotNull FilterContext filterContext) {
+        return resultRegion;
+    }
+
     void layoutFilter(@NotNull RenderContext context, @NotNull FilterLayoutContext filterLayoutContext);
 
     void applyFilter(@NotNull RenderContext context, @NotNull FilterContext filterContext);
@@ -22,12 +22,16 @@
 package com.github.weisj.jsvg.nodes.filter;
 
 
+import java.awt.geom.Rectangle2D;
+
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import com.github.weisj.jsvg.attributes.filter.DefaultFilterChannel;
 import com.github.weisj.jsvg.attributes.filter.FilterChannelKey;
 import com.github.weisj.jsvg.attributes.filter.LayoutBounds;
 import com.github.weisj.jsvg.geometry.size.Length;
+import com.github.weisj.jsvg.geometry.size.MeasureContext;
 import com.github.weisj.jsvg.geometry.size.Unit;
 import com.github.weisj.jsvg.parser.AttributeNode;
 
@@ -41,7 +45,17 @@ public final class FilterPrimitiveBase {
     private final @NotNull FilterChannelKey inputChannel;
     private final @NotNull FilterChannelKey resultChannel;
 
+    private final boolean hasX;
+    private final boolean hasY;
+    private final boolean hasWidth;
+    private final boolean hasHeight;
+
     public FilterPrimitiveBase(@NotNull AttributeNode attributeNode) {
+        hasX = attributeNode.hasAttribute("x");
+        hasY = attributeNode.hasAttribute("y");
+        hasWidth = attributeNode.hasAttribute("width");
+        hasHeight = attributeNode.hasAttribute("height");
+
         x = attributeNode.getLength("x", Unit.PERCENTAGE.valueOf(0));
         y = attributeNode.getLength("y", Unit.PERCENTAGE.valueOf(0));
         width = attributeNode.getLength("width", Unit.PERCENTAGE.valueOf(100));
@@ -51,6 +65,35 @@ public final class FilterPrimitiveBase {
         resultChannel = attributeNode.getFilterChannelKey("result", DefaultFilterChannel.LastResult);
     }
 
+    public @NotNull FilterChannelKey inputChannelKey() {
+        return inputChannel;
+    }
+
+    public @NotNull FilterChannelKey resultChannelKey() {
+        return resultChannel;
+    }
+
+    /**
+     * The subregion the result of the primitive is restricted to. Coordinates which aren't specified default to
+     * the filter region.
+     *
+     * @param measureContext the measure context.
+     * @param context the filter context.
+     * @return the subregion in user space or null if none of the coordinates are specified.
+     */
+    public @Nullable Rectangle2D subregion(@NotNull MeasureContext measureContext, @NotNull FilterContext context) {
+        if (!hasX && !hasY && !hasWidth && !hasHeight) return null;
+        Filter.FilterInfo info = context.info();
+        Rectangle2D region = context.primitiveUnits().computeViewBounds(
+                measureContext, info.elementBounds(), x, y, width, height);
+        Rectangle2D filterRegion = info.filterRegion();
+        return new Rectangle2D.Double(
+                hasX ? region.getX() : filterRegion.getX(),
+                hasY ? region.getY() : filterRegion.getY(),
+                hasWidth ? region.getWidth() : filterRegion.getWidth(),
+                hasHeight ? region.getHeight() : filterRegion.getHeight());
+    }
+
     public @NotNull Channel channel(@NotNull FilterChannelKey key, @NotNull FilterContext context) {
         return context.getChannel(key);
     }
@@ -64,7 +107,7 @@ public final class FilterPrimitiveBase {
     }
 
     public void noop(@NotNull FilterContext context) {
-        saveResult(inputChannel(context), context);
+        saveResult(RasterChannel.clip(inputChannel(context), context.resultRegion()), context);
     }
 
     public void saveLayoutResult(@NotNull LayoutBounds outputBounds, @NotNull FilterLayoutContext filterLayoutContext) {
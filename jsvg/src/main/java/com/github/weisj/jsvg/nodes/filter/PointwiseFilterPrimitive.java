@@ -0,0 +1,57 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.nodes.filter;
+
+import java.awt.*;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A primitive whose result at a pixel only depends on the input at the same pixel up to an integral translation.
+ * Chains of these are applied in a single pass without allocating the intermediate results.
+ */
+interface PointwiseFilterPrimitive extends FilterPrimitive {
+
+    /**
+     * The translation of the input. The result covers the union of the input bounds and the translated bounds.
+     *
+     * @param context the filter context.
+     * @return the translation in pixels or null if it isn't integral.
+     */
+    @Nullable
+    Point translation(@NotNull FilterContext context);
+
+    /**
+     * @return whether {@link #filterRow(int[], int, int)} changes any pixels.
+     */
+    boolean filtersColors();
+
+    /**
+     * Filters a row of premultiplied pixels in place. Applied after the translation.
+     *
+     * @param pixels the pixels.
+     * @param offset the index of the first pixel.
+     * @param length the number of pixels.
+     */
+    void filterRow(int @NotNull [] pixels, int offset, int length);
+}
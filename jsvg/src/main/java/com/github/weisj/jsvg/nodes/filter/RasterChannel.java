@@ -0,0 +1,196 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.nodes.filter;
+
+import java.awt.*;
+import java.awt.color.ColorSpace;
+import java.awt.image.*;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.github.weisj.jsvg.util.ImageUtil;
+
+/**
+ * A channel owning its pixel buffer.
+ */
+public final class RasterChannel implements Channel, PixelProvider {
+    private static final ColorModel PREMULTIPLIED_ARGB = new DirectColorModel(
+            ColorSpace.getInstance(ColorSpace.CS_sRGB), 32,
+            0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000,
+            true, DataBuffer.TYPE_INT);
+
+    private final @NotNull WritableRaster raster;
+    private @Nullable BufferedImage image;
+
+    public RasterChannel(@NotNull WritableRaster raster) {
+        if (!isPremultipliedArgb(raster)) {
+            throw new IllegalArgumentException("Raster doesn't hold packed int pixels: " + raster);
+        }
+        this.raster = raster;
+    }
+
+    public RasterChannel(@NotNull BufferedImage image) {
+        this(image, 0, 0);
+    }
+
+    /**
+     * Creates a channel backed by the given image.
+     *
+     * @param image the image of type {@link BufferedImage#TYPE_INT_ARGB_PRE}.
+     * @param x the x coordinate of the channel bounds.
+     * @param y the y coordinate of the channel bounds.
+     */
+    public RasterChannel(@NotNull BufferedImage image, int x, int y) {
+        if (image.getType() != BufferedImage.TYPE_INT_ARGB_PRE) {
+            throw new IllegalArgumentException("Image isn't of type TYPE_INT_ARGB_PRE: " + image);
+        }
+        WritableRaster imageRaster = image.getRaster();
+        this.raster = x != 0 || y != 0 ? imageRaster.createWritableTranslatedChild(x, y) : imageRaster;
+        this.image = image;
+    }
+
+    /**
+     * Creates a transparent raster to hold the pixels of a channel.
+     *
+     * @param bounds the bounds of the channel.
+     * @return the raster.
+     */
+    public static @NotNull WritableRaster createRaster(@NotNull Rectangle bounds) {
+        return Raster.createPackedRaster(DataBuffer.TYPE_INT, bounds.width, bounds.height,
+                new int[] {0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000}, bounds.getLocation());
+    }
+
+    static @NotNull BufferedImage copy(@NotNull BufferedImage image) {
+        BufferedImage copy = ImageUtil.createCompatibleTransparentImage(image.getWidth(), image.getHeight());
+        image.copyData(copy.getRaster());
+        return copy;
+    }
+
+    /**
+     * Restricts a channel to the given region. The bounds of the channel are kept.
+     *
+     * @param channel the channel.
+     * @param region the region in the pixel space of the filter buffer or null if the channel isn't restricted.
+     * @return the channel with all pixels outside the region being transparent.
+     */
+    public static @NotNull Channel clip(@NotNull Channel channel, @Nullable Rectangle region) {
+        Rectangle bounds = channel.bounds();
+        if (region == null || region.contains(bounds)) return channel;
+        return new RasterChannel(copyImage(channel, region), bounds.x, bounds.y);
+    }
+
+    /**
+     * Copies the pixels of a channel which lie inside the given region.
+     *
+     * @param channel the channel.
+     * @param region the region in the pixel space of the filter buffer or null if all pixels should be copied.
+     * @return an image of the size of the channel with all pixels outside the region being transparent.
+     */
+    static @NotNull BufferedImage copyImage(@NotNull Channel channel, @Nullable Rectangle region) {
+        Rectangle bounds = channel.bounds();
+        if (region == null || region.contains(bounds)) return channel.copyImage();
+        BufferedImage copy = ImageUtil.createCompatibleTransparentImage(bounds.width, bounds.height);
+        Rectangle visible = region.intersection(bounds);
+        if (visible.isEmpty()) return copy;
+        Raster src = channel.raster();
+        WritableRaster dst = copy.getRaster();
+        int[] srcPixels = ImageUtil.getINT_RGBA_DataBank(src);
+        int[] dstPixels = ImageUtil.getINT_RGBA_DataBank(dst);
+        int srcStride = ImageUtil.getINT_RGBA_ScanlineStride(src);
+        int dstStride = ImageUtil.getINT_RGBA_ScanlineStride(dst);
+        int x = visible.x - bounds.x;
+        int srcOffset = ImageUtil.getINT_RGBA_DataOffset(src) + (visible.y - bounds.y) * srcStride + x;
+        int dstOffset = ImageUtil.getINT_RGBA_DataOffset(dst) + (visible.y - bounds.y) * dstStride + x;
+        for (int y = 0; y < visible.height; y++) {
+            System.arraycopy(srcPixels, srcOffset + y * srcStride, dstPixels, dstOffset + y * dstStride,
+                    visible.width);
+        }
+        return copy;
+    }
+
+    private static boolean isPremultipliedArgb(@NotNull Raster raster) {
+        return raster.getDataBuffer() instanceof DataBufferInt
+                && PREMULTIPLIED_ARGB.isCompatibleSampleModel(raster.getSampleModel());
+    }
+
+    @Override
+    public @NotNull WritableRaster raster() {
+        return raster;
+    }
+
+    @Override
+    public @NotNull BufferedImage image() {
+        if (image == null) {
+            WritableRaster imageRaster = raster;
+            if (raster.getMinX() != 0 || raster.getMinY() != 0) {
+                imageRaster = raster.createWritableChild(raster.getMinX(), raster.getMinY(),
+                        raster.getWidth(), raster.getHeight(), 0, 0, null);
+            }
+            image = new BufferedImage(PREMULTIPLIED_ARGB, imageRaster, true, null);
+        }
+        return image;
+    }
+
+    @Override
+    public @NotNull PixelProvider pixels() {
+        return this;
+    }
+
+    /**
+     * The non-premultiplied color of the pixel containing the given point.
+     * Points outside the channel are transparent.
+     */
+    @Override
+    public int pixelAt(double x, double y) {
+        int px = (int) Math.floor(x);
+        int py = (int) Math.floor(y);
+        int minX = raster.getMinX();
+        int minY = raster.getMinY();
+        if (px < minX || py < minY || px >= minX + raster.getWidth() || py >= minY + raster.getHeight()) return 0;
+        int[] data = ImageUtil.getINT_RGBA_DataBank(raster);
+        int offset = ImageUtil.getINT_RGBA_DataOffset(raster);
+        int stride = ImageUtil.getINT_RGBA_ScanlineStride(raster);
+        return unpremultiply(data[offset + (py - minY) * stride + px - minX]);
+    }
+
+    static int premultiply(int argb) {
+        int a = argb >>> 24;
+        if (a == 0xFF) return argb;
+        if (a == 0) return 0;
+        int r = (((argb >> 16) & 0xFF) * a + 127) / 255;
+        int g = (((argb >> 8) & 0xFF) * a + 127) / 255;
+        int b = ((argb & 0xFF) * a + 127) / 255;
+        return (a << 24) | (r << 16) | (g << 8) | b;
+    }
+
+    static int unpremultiply(int argb) {
+        int a = argb >>> 24;
+        if (a == 0xFF) return argb;
+        if (a == 0) return 0;
+        int half = a / 2;
+        int r = Math.min(255, (((argb >> 16) & 0xFF) * 255 + half) / a);
+        int g = Math.min(255, (((argb >> 8) & 0xFF) * 255 + half) / a);
+        int b = Math.min(255, ((argb & 0xFF) * 255 + half) / a);
+        return (a << 24) | (r << 16) | (g << 8) | b;
+    }
+}
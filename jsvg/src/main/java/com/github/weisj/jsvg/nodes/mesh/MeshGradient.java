@@ -22,16 +22,25 @@
 package com.github.weisj.jsvg.nodes.mesh;
 
 import java.awt.*;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.util.Objects;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import com.github.weisj.jsvg.RenderListener;
+import com.github.weisj.jsvg.SVGRenderingHints;
 import com.github.weisj.jsvg.attributes.UnitType;
 import com.github.weisj.jsvg.attributes.paint.SVGPaint;
+import com.github.weisj.jsvg.geometry.mesh.MeshRasterizer;
 import com.github.weisj.jsvg.geometry.size.Length;
 import com.github.weisj.jsvg.geometry.size.MeasureContext;
+import com.github.weisj.jsvg.geometry.util.GeometryUtil;
+import com.github.weisj.jsvg.jfr.JFR;
 import com.github.weisj.jsvg.nodes.SVGNode;
 import com.github.weisj.jsvg.nodes.animation.Animate;
 import com.github.weisj.jsvg.nodes.animation.AnimateTransform;
@@ -44,6 +53,8 @@ import com.github.weisj.jsvg.nodes.prototype.spec.PermittedContent;
 import com.github.weisj.jsvg.parser.AttributeNode;
 import com.github.weisj.jsvg.renderer.Output;
 import com.github.weisj.jsvg.renderer.RenderContext;
+import com.github.weisj.jsvg.util.ImageUtil;
+import com.github.weisj.jsvg.util.RasterCache;
 
 @ElementCategories(Category.Gradient)
 @PermittedContent(
@@ -52,6 +63,15 @@ import com.github.weisj.jsvg.renderer.RenderContext;
 )
 public final class MeshGradient extends ContainerNode implements SVGPaint {
     public static final String TAG = "meshgradient";
+    private static final long RASTER_CACHE_BYTES = 16 << 20;
+    private static final long MAX_RASTER_PIXELS = 4096 * 4096;
+
+    // The mesh doesn't depend on the measure context, hence the rasterized patches can be reused for all shapes
+    // painted at the same scale.
+    private final @NotNull RasterCache<ScaleKey, MeshRaster> rasterCache =
+            new RasterCache<>(RASTER_CACHE_BYTES, RenderListener.Cache.MESH_GRADIENT,
+                    SVGRenderingHints.KEY_MESH_GRADIENT_CACHE,
+                    raster -> RasterCache.byteSize(raster.image.getRaster()));
 
     private Length x;
     private Length y;
@@ -81,16 +101,80 @@ public final class MeshGradient extends ContainerNode implements SVGPaint {
         // meshGraphics.translate(x.resolveWidth(measure), y.resolveHeight(measure));
 
         meshOutput.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
-        for (SVGNode child : children()) {
-            MeshRow row = (MeshRow) child;
-            for (SVGNode node : row.children()) {
-                MeshPatch patch = (MeshPatch) node;
-                patch.renderPath(meshOutput);
+        MeshRaster raster = meshOutput.supportsColors() ? meshRaster(meshOutput) : null;
+        if (raster != null) {
+            meshOutput.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            AffineTransform at = AffineTransform.getTranslateInstance(
+                    raster.originX / raster.scaleX, raster.originY / raster.scaleY);
+            at.scale(1 / raster.scaleX, 1 / raster.scaleY);
+            meshOutput.drawImage(raster.image, at, null);
+        } else {
+            for (SVGNode child : children()) {
+                MeshRow row = (MeshRow) child;
+                for (SVGNode node : row.children()) {
+                    MeshPatch patch = (MeshPatch) node;
+                    patch.renderPath(meshOutput);
+                }
             }
         }
         meshOutput.dispose();
     }
 
+    private @Nullable MeshRaster meshRaster(@NotNull Output output) {
+        AffineTransform transform = output.transform();
+        ScaleKey key = new ScaleKey(GeometryUtil.scaleXOfTransform(transform),
+                GeometryUtil.scaleYOfTransform(transform));
+        boolean useCache = rasterCache.isEnabled(output);
+        MeshRaster raster = useCache ? rasterCache.get(key, output.renderListener()) : null;
+        if (raster != null) return raster;
+
+        RenderListener listener = output.renderListener();
+        long start = listener.isEnabled() ? System.nanoTime() : 0;
+        raster = rasterize(output, (float) key.scaleX, (float) key.scaleY);
+        if (raster == null) return null;
+        if (listener.isEnabled()) {
+            listener.phaseCompleted(RenderListener.Phase.MESH_GRADIENT, this, System.nanoTime() - start);
+        }
+        if (useCache) rasterCache.put(key, raster);
+        return raster;
+    }
+
+    private @Nullable MeshRaster rasterize(@NotNull Output output, float scaleX, float scaleY) {
+        Rectangle2D bounds = null;
+        for (SVGNode child : children()) {
+            for (SVGNode node : ((MeshRow) child).children()) {
+                Rectangle2D patchBounds = ((MeshPatch) node).coonPatch.toShape().getBounds2D();
+                if (bounds == null) {
+                    bounds = patchBounds;
+                } else {
+                    bounds.add(patchBounds);
+                }
+            }
+        }
+        if (bounds == null) return null;
+
+        int originX = (int) Math.floor(bounds.getMinX() * scaleX);
+        int originY = (int) Math.floor(bounds.getMinY() * scaleY);
+        int width = (int) Math.ceil(bounds.getMaxX() * scaleX) - originX;
+        int height = (int) Math.ceil(bounds.getMaxY() * scaleY) - originY;
+        if (width <= 0 || height <= 0 || (long) width * height > MAX_RASTER_PIXELS) return null;
+
+        BufferedImage image = ImageUtil.createCompatibleTransparentImage(width, height);
+        output.renderListener().bufferAllocated(width, height);
+        JFR.bufferAllocated(image);
+        WritableRaster imageRaster = image.getRaster();
+        MeshRasterizer rasterizer = new MeshRasterizer(ImageUtil.getINT_RGBA_DataBank(imageRaster),
+                ImageUtil.getINT_RGBA_DataOffset(imageRaster), ImageUtil.getINT_RGBA_ScanlineStride(imageRaster),
+                width, height, scaleX, scaleY, originX, originY);
+        for (SVGNode child : children()) {
+            for (SVGNode node : ((MeshRow) child).children()) {
+                ((MeshPatch) node).rasterize(rasterizer);
+            }
+        }
+        return new MeshRaster(image, scaleX, scaleY, originX, originY);
+    }
+
     @Override
     public void fillShape(@NotNull Output output, @NotNull RenderContext context, @NotNull Shape shape,
             @Nullable Rectangle2D bounds) {
@@ -112,4 +196,42 @@ public final class MeshGradient extends ContainerNode implements SVGPaint {
         renderMesh(context.measureContext(), output);
         safeState.restore();
     }
+
+    private static final class ScaleKey {
+        private final double scaleX;
+        private final double scaleY;
+
+        private ScaleKey(double scaleX, double scaleY) {
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ScaleKey that)) return false;
+            return Double.compare(that.scaleX, scaleX) == 0 && Double.compare(that.scaleY, scaleY) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scaleX, scaleY);
+        }
+    }
+
+    private static final class MeshRaster {
+        private final @NotNull BufferedImage image;
+        private final float scaleX;
+        private final float scaleY;
+        private final int originX;
+        private final int originY;
+
+        private MeshRaster(@NotNull BufferedImage image, float scaleX, float scaleY, int originX, int originY) {
+            this.image = image;
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+            this.originX = originX;
+            this.originY = originY;
+        }
+    }
 }
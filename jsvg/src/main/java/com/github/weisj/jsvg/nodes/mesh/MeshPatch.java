@@ -30,6 +30,7 @@ import org.jetbrains.annotations.NotNull;
 
 import com.github.weisj.jsvg.geometry.mesh.CoonPatch;
 import com.github.weisj.jsvg.geometry.mesh.CoonValues;
+import com.github.weisj.jsvg.geometry.mesh.MeshRasterizer;
 import com.github.weisj.jsvg.geometry.mesh.Subdivided;
 import com.github.weisj.jsvg.geometry.util.GeometryUtil;
 import com.github.weisj.jsvg.nodes.Stop;
@@ -59,6 +60,10 @@ public final class MeshPatch extends ContainerNode {
         return TAG;
     }
 
+    void rasterize(@NotNull MeshRasterizer rasterizer) {
+        rasterizer.fillPatch(coonPatch, north.getRGB(), east.getRGB(), south.getRGB(), west.getRGB());
+    }
+
     public void renderPath(@NotNull Output output) {
         if (!output.supportsColors()) {
             output.fillShape(coonPatch.toShape());
@@ -23,6 +23,8 @@ package com.github.weisj.jsvg.parser;
 
 import com.github.weisj.jsvg.SVGDocument;
 import com.github.weisj.jsvg.attributes.AttributeParser;
+import com.github.weisj.jsvg.jfr.BuildEvent;
+import com.github.weisj.jsvg.jfr.JFR;
 import com.github.weisj.jsvg.nodes.SVG;
 import com.github.weisj.jsvg.nodes.SVGNode;
 import com.github.weisj.jsvg.nodes.Style;
@@ -50,6 +52,7 @@ public final class SVGDocumentBuilder {
     private final @NotNull NodeSupplier nodeSupplier;
 
     private ParsedElement rootNode;
+    private int elementCount;
 
 
     public SVGDocumentBuilder(
@@ -81,6 +84,7 @@ public final class SVGDocumentBuilder {
 
         @Nullable SVGNode newNode = nodeSupplier.create(tagName);
         if (newNode == null) return false;
+        elementCount++;
 
         AttributeNode attributeNode = new AttributeNode(tagName, attributes, parentAttributeNode,
                 namedElements, styleSheets, loadHelper);
@@ -139,20 +143,65 @@ public final class SVGDocumentBuilder {
     public @NotNull SVGDocument build() {
         if (rootNode == null) throw new IllegalStateException("No root node");
 
-        processStyleSheets();
+        runPhase(BuildEvent.PHASE_CSS, this::processStyleSheets);
 
         DomProcessor preProcessor = parserProvider.createPreProcessor();
-        if (preProcessor != null) preProcessor.process(rootNode);
+        if (preProcessor != null) runPhase(BuildEvent.PHASE_PRE_PROCESSOR, () -> preProcessor.process(rootNode));
 
-        rootNode.build();
+        runPhase(BuildEvent.PHASE_BUILD, rootNode::build);
 
         DomProcessor postProcessor = parserProvider.createPostProcessor();
-        if (postProcessor != null) postProcessor.process(rootNode);
+        if (postProcessor != null) runPhase(BuildEvent.PHASE_POST_PROCESSOR, () -> postProcessor.process(rootNode));
 
-        validateUseElements();
+        runPhase(BuildEvent.PHASE_USE_VALIDATION, this::validateUseElements);
         return new SVGDocument((SVG) rootNode.node());
     }
 
+    /**
+     * The number of elements encountered so far, which are represented by a node.
+     *
+     * @return the element count.
+     */
+    int elementCount() {
+        return elementCount;
+    }
+
+    /**
+     * Identifies the document in recorded events.
+     *
+     * @return the identity of the document or 0 if no element has been encountered yet.
+     */
+    int documentId() {
+        return rootNode != null ? System.identityHashCode(rootNode.node()) : 0;
+    }
+
+    private void runPhase(@NotNull String phase, @NotNull Runnable action) {
+        BuildEvent event = beginPhase(phase);
+        try {
+            action.run();
+        } finally {
+            // Failed phases are recorded as well.
+            commitPhase(event);
+        }
+    }
+
+    private static @Nullable BuildEvent beginPhase(@NotNull String phase) {
+        if (!JFR.isAvailable()) return null;
+        BuildEvent event = new BuildEvent();
+        event.begin();
+        event.phase = phase;
+        return event;
+    }
+
+    private void commitPhase(@Nullable BuildEvent event) {
+        if (event == null) return;
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.documentId = documentId();
+        event.elementCount = elementCount;
+        event.commit();
+    }
+
     private void processStyleSheets() {
         if (styleElements.isEmpty()) return;
         CssParser cssParser = parserProvider.createCssParser();
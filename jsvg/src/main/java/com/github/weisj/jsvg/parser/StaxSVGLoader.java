@@ -40,6 +40,8 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import com.github.weisj.jsvg.SVGDocument;
+import com.github.weisj.jsvg.jfr.JFR;
+import com.github.weisj.jsvg.jfr.ParseEvent;
 
 public final class StaxSVGLoader {
     private static final Logger LOGGER = Logger.getLogger(StaxSVGLoader.class.getName());
@@ -82,8 +84,11 @@ public final class StaxSVGLoader {
         if (inputStream == null) return null;
         XMLEventReader reader = createReader(inputStream);
         if (reader == null) return null;
+        SVGDocumentBuilder builder = new SVGDocumentBuilder(parserProvider, resourceLoader, nodeSupplier);
+        ParseEvent parseEvent = JFR.isAvailable() ? new ParseEvent() : null;
+        if (parseEvent != null) parseEvent.begin();
+        boolean parsed = false;
         try {
-            SVGDocumentBuilder builder = new SVGDocumentBuilder(parserProvider, resourceLoader, nodeSupplier);
             while (reader.hasNext()) {
                 XMLEvent event = reader.nextEvent();
                 switch (event.getEventType()) {
@@ -132,14 +137,27 @@ public final class StaxSVGLoader {
                         break;
                 }
             }
-            return builder.build();
+            parsed = true;
         } catch (XMLStreamException e) {
             LOGGER.log(Level.SEVERE, "Error while parsing SVG.", e);
         } finally {
+            // Failed parses are recorded as well.
+            commitParseEvent(parseEvent, builder, parsed);
             reader.close();
             inputStream.close();
         }
-        return null;
+        return parsed ? builder.build() : null;
+    }
+
+    private static void commitParseEvent(@Nullable ParseEvent event, @NotNull SVGDocumentBuilder builder,
+            boolean success) {
+        if (event == null) return;
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.documentId = builder.documentId();
+        event.elementCount = builder.elementCount();
+        event.success = success;
+        event.commit();
     }
 
     private static void skipElement(@NotNull XMLEventReader reader) throws XMLStreamException {
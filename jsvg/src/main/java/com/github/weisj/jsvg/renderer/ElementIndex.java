@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.renderer;
+
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.github.weisj.jsvg.geometry.util.RTree;
+import com.github.weisj.jsvg.nodes.SVGNode;
+
+/**
+ * Spatial index over the nodes painted by a document, used to answer hit testing queries.
+ * The index is built from the bounds of the shapes painted by each node, which are cheap to compute. Only the
+ * candidates found through the index are checked against the exact painted geometry.
+ */
+public final class ElementIndex {
+    private final @NotNull RTree<@NotNull Entry> tree;
+
+    public ElementIndex(@NotNull List<ShapeOutput.@NotNull ElementShape> shapes) {
+        // Consecutive shapes painted by the same node are indexed together.
+        List<Entry> entries = new ArrayList<>();
+        int start = 0;
+        while (start < shapes.size()) {
+            SVGNode node = shapes.get(start).node();
+            int end = start + 1;
+            while (end < shapes.size() && shapes.get(end).node() == node) {
+                end++;
+            }
+            entries.add(new Entry(entries.size(), shapes.subList(start, end)));
+            start = end;
+        }
+        tree = new RTree<>(entries, e -> e.bounds);
+    }
+
+    /**
+     * Finds the element painted topmost at the given point.
+     *
+     * @param point the point to test.
+     * @return the element or null if the topmost content at the point doesn't belong to an element with an id.
+     */
+    public @Nullable SVGNode elementAt(@NotNull Point2D point) {
+        Rectangle2D area = new Rectangle2D.Double(point.getX(), point.getY(), 0, 0);
+        Entry[] topmost = new Entry[1];
+        tree.search(area, e -> {
+            if (topmost[0] != null && topmost[0].order > e.order) return;
+            if (e.contains(point, area)) topmost[0] = e;
+        });
+        return topmost[0] != null ? topmost[0].element : null;
+    }
+
+    /**
+     * Finds all elements whose painted content intersects the given area.
+     *
+     * @param area the area to test.
+     * @return the elements in painting order.
+     */
+    public @NotNull List<@NotNull SVGNode> elementsIntersecting(@NotNull Rectangle2D area) {
+        List<Entry> hits = new ArrayList<>();
+        tree.search(area, e -> {
+            if (e.element != null && e.intersects(area)) hits.add(e);
+        });
+        Entry[] sorted = hits.toArray(new Entry[0]);
+        Arrays.sort(sorted, (a, b) -> Integer.compare(a.order, b.order));
+        Set<SVGNode> elements = new LinkedHashSet<>();
+        for (Entry entry : sorted) {
+            elements.add(entry.element);
+        }
+        return new ArrayList<>(elements);
+    }
+
+    private static boolean overlaps(@NotNull Rectangle2D a, @NotNull Rectangle2D b) {
+        return a.getMinX() <= b.getMaxX() && b.getMinX() <= a.getMaxX()
+                && a.getMinY() <= b.getMaxY() && b.getMinY() <= a.getMaxY();
+    }
+
+    private static final class Entry {
+        private final int order;
+        private final @NotNull List<ShapeOutput.@NotNull ElementShape> shapes;
+        private final @Nullable SVGNode element;
+        private final @NotNull Rectangle2D bounds;
+
+        private Entry(int order, @NotNull List<ShapeOutput.@NotNull ElementShape> shapes) {
+            this.order = order;
+            this.shapes = shapes;
+            this.element = shapes.get(0).element();
+            Rectangle2D b = null;
+            for (ShapeOutput.ElementShape shape : shapes) {
+                Rectangle2D shapeBounds = shape.bounds();
+                if (!(shapeBounds.getWidth() >= 0 && shapeBounds.getHeight() >= 0)) continue;
+                if (b == null) {
+                    b = new Rectangle2D.Double();
+                    b.setRect(shapeBounds);
+                } else {
+                    Rectangle2D.union(b, shapeBounds, b);
+                }
+            }
+            // Negative sizes mark the node as not painting anything.
+            this.bounds = b != null ? b : new Rectangle2D.Double(0, 0, -1, -1);
+        }
+
+        private boolean contains(@NotNull Point2D point, @NotNull Rectangle2D pointArea) {
+            for (ShapeOutput.ElementShape shape : shapes) {
+                if (overlaps(shape.bounds(), pointArea) && shape.shape().contains(point)) return true;
+            }
+            return false;
+        }
+
+        private boolean intersects(@NotNull Rectangle2D area) {
+            for (ShapeOutput.ElementShape shape : shapes) {
+                if (overlaps(shape.bounds(), area) && shape.shape().intersects(area)) return true;
+            }
+            return false;
+        }
+    }
+}
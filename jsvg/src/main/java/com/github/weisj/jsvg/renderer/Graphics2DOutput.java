@@ -58,19 +58,49 @@ public class Graphics2DOutput implements Output {
 
     @Override
     public void drawImage(@NotNull BufferedImage image) {
+        if (drawMaskedImage(image, null)) return;
         g.drawImage(image, 0, 0, image.getWidth(), image.getHeight(), null, null);
     }
 
     @Override
     public void drawImage(@NotNull Image image, @Nullable ImageObserver observer) {
+        if (drawMaskedImage(image, null)) return;
         g.drawImage(image, 0, 0, null);
     }
 
     @Override
     public void drawImage(@NotNull Image image, @NotNull AffineTransform at, @Nullable ImageObserver observer) {
+        if (drawMaskedImage(image, at)) return;
         g.drawImage(image, at, observer);
     }
 
+    /**
+     * Images are drawn without the paint, hence a mask or soft clip set as the paint wouldn't apply to them.
+     * Instead, the image is filled as a texture through the masked paint.
+     *
+     * @return true if the image has been drawn.
+     */
+    private boolean drawMaskedImage(@NotNull Image image, @Nullable AffineTransform at) {
+        if (!(g.getPaint() instanceof MaskedPaint maskedPaint) || !(image instanceof BufferedImage bufferedImage)) {
+            return false;
+        }
+        Paint paint = maskedPaint.maskedPaint();
+        AffineTransform transform = g.getTransform();
+        Object antialiasing = g.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
+
+        Rectangle bounds = new Rectangle(0, 0, bufferedImage.getWidth(), bufferedImage.getHeight());
+        maskedPaint.setPaint(new TexturePaint(bufferedImage, bounds));
+        if (at != null) g.transform(at);
+        // Drawn images don't have antialiased edges.
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+        g.fill(bounds);
+
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, antialiasing);
+        g.setTransform(transform);
+        maskedPaint.setPaint(paint);
+        return true;
+    }
+
     @Override
     public void setPaint(@NotNull Paint paint) {
         GraphicsUtil.safelySetPaint(g, paint);
@@ -130,6 +160,15 @@ public class Graphics2DOutput implements Output {
         return g.getClipBounds();
     }
 
+    @Override
+    public @Nullable Shape deviceClip() {
+        Graphics2D deviceGraphics = (Graphics2D) g.create();
+        deviceGraphics.setTransform(new AffineTransform());
+        Shape clip = deviceGraphics.getClip();
+        deviceGraphics.dispose();
+        return clip;
+    }
+
     @Override
     public @NotNull RenderingHints renderingHints() {
         return g.getRenderingHints();
@@ -27,6 +27,7 @@ import java.util.logging.Logger;
 
 import org.jetbrains.annotations.NotNull;
 
+import com.github.weisj.jsvg.SVGRenderingHints;
 
 
 public final class GraphicsUtil {
@@ -63,6 +64,27 @@ public final class GraphicsUtil {
         return AlphaComposite.getInstance(AlphaComposite.SRC_OVER, opacity);
     }
 
+    /**
+     * The rendering hints of the output which affect the rasterized pixels. Suitable as part of the key of cached
+     * rasterized content.
+     *
+     * @param output the output.
+     * @return the hints.
+     */
+    public static @NotNull RenderingHints rasterizationHints(@NotNull Output output) {
+        RenderingHints hints = output.renderingHints();
+        if (hints == null) return new RenderingHints(null);
+        hints = (RenderingHints) hints.clone();
+        hints.remove(SVGRenderingHints.KEY_LAYER_CACHE);
+        hints.remove(SVGRenderingHints.KEY_RENDER_LISTENER);
+        hints.remove(SVGRenderingHints.KEY_FILTER_CACHE);
+        hints.remove(SVGRenderingHints.KEY_MASK_CACHE);
+        hints.remove(SVGRenderingHints.KEY_PATTERN_CACHE);
+        hints.remove(SVGRenderingHints.KEY_MESH_GRADIENT_CACHE);
+        hints.remove(SVGRenderingHints.KEY_TURBULENCE_CACHE);
+        return hints;
+    }
+
     public interface WrappingPaint {
         void setPaint(@NotNull Paint paint);
     }
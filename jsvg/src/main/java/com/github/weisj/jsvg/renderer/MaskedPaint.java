@@ -22,6 +22,7 @@
 package com.github.weisj.jsvg.renderer;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.awt.PaintContext;
 import java.awt.*;
@@ -46,6 +47,16 @@ public final class MaskedPaint implements Paint, GraphicsUtil.WrappingPaint {
         this.paint = GraphicsUtil.setupPaint(this.paint, paint);
     }
 
+    /**
+     * The paint whose alpha is masked. Nested masks are resolved i.e. this is never a {@link MaskedPaint}.
+     *
+     * @return the masked paint.
+     */
+    @NotNull
+    Paint maskedPaint() {
+        return paint instanceof MaskedPaint ? ((MaskedPaint) paint).maskedPaint() : paint;
+    }
+
     @Override
     public PaintContext createContext(ColorModel cm, Rectangle deviceBounds, Rectangle2D userBounds,
             AffineTransform xform, RenderingHints hints) {
@@ -58,27 +69,74 @@ public final class MaskedPaint implements Paint, GraphicsUtil.WrappingPaint {
         return Transparency.TRANSLUCENT;
     }
 
+    /**
+     * Multiplies the alpha of the parent paint with the mask. The colors of the parent are read as packed ARGB
+     * integers, directly from the data bank if the parent uses a packed sRGB color model and otherwise by converting
+     * them into a scratch raster, which is reused for all tiles requested from the context.
+     */
     private static final class MaskPaintContext implements PaintContext {
+        private static final int RED_MASK = 0x00FF0000;
+        private static final int GREEN_MASK = 0x0000FF00;
+        private static final int BLUE_MASK = 0x000000FF;
+        private static final int ALPHA_MASK = 0xFF000000;
+
         private final @NotNull PaintContext parentContext;
-        private final @NotNull ColorModel colorModel;
-        private final int numColorComponents;
         private final @NotNull ColorModel parentColorModel;
+        private final @NotNull ColorModel colorModel;
+        private final boolean packedParent;
+        private final boolean parentHasAlpha;
+        private final boolean premultiplied;
+
         private final @NotNull Raster maskRaster;
+        private final byte @Nullable [] maskData;
+        private final int maskScanlineStride;
+        private final int maskDataOffset;
         private final @NotNull Point offset;
 
+        private @Nullable WritableRaster scratch;
+        private int @Nullable [] scratchData;
+        private @Nullable Graphics2D scratchGraphics;
+        private int @Nullable [] maskRow;
+
         private MaskPaintContext(@NotNull PaintContext parentContext, @NotNull Raster maskRaster,
                                  @NotNull Point offset) {
             this.parentContext = parentContext;
-            parentColorModel = parentContext.getColorModel();
+            this.parentColorModel = parentContext.getColorModel();
             this.maskRaster = maskRaster;
             this.offset = offset;
-            if (parentContext.getColorModel().hasAlpha()) {
-                colorModel = parentColorModel;
+
+            packedParent = isPackedSRGB(parentColorModel);
+            parentHasAlpha = parentColorModel.hasAlpha();
+            premultiplied = packedParent && parentHasAlpha && parentColorModel.isAlphaPremultiplied();
+            colorModel = premultiplied
+                    ? new DirectColorModel(parentColorModel.getColorSpace(), 32,
+                            RED_MASK, GREEN_MASK, BLUE_MASK, ALPHA_MASK, true, DataBuffer.TYPE_INT)
+                    : ColorModel.getRGBdefault();
+
+            SampleModel maskSampleModel = maskRaster.getSampleModel();
+            if (maskRaster.getDataBuffer() instanceof DataBufferByte maskBuffer
+                    && maskSampleModel instanceof ComponentSampleModel componentModel
+                    && componentModel.getPixelStride() == 1) {
+                maskData = maskBuffer.getData();
+                maskScanlineStride = componentModel.getScanlineStride();
+                maskDataOffset = maskBuffer.getOffset() + componentModel.getBandOffsets()[0]
+                        - maskRaster.getSampleModelTranslateX()
+                        - maskRaster.getSampleModelTranslateY() * maskScanlineStride;
             } else {
-                colorModel = new ComponentColorModel(parentContext.getColorModel()
-                        .getColorSpace(), true, false, Transparency.OPAQUE, DataBuffer.TYPE_BYTE);
+                maskData = null;
+                maskScanlineStride = 0;
+                maskDataOffset = 0;
             }
-            numColorComponents = colorModel.getNumColorComponents();
+        }
+
+        private static boolean isPackedSRGB(@NotNull ColorModel cm) {
+            if (!(cm instanceof DirectColorModel dcm)) return false;
+            return dcm.getTransferType() == DataBuffer.TYPE_INT
+                    && dcm.getColorSpace().isCS_sRGB()
+                    && dcm.getRedMask() == RED_MASK
+                    && dcm.getGreenMask() == GREEN_MASK
+                    && dcm.getBlueMask() == BLUE_MASK
+                    && (!dcm.hasAlpha() || dcm.getAlphaMask() == ALPHA_MASK);
         }
 
         @Override
@@ -89,61 +147,139 @@ public final class MaskedPaint implements Paint, GraphicsUtil.WrappingPaint {
         @Override
         public void dispose() {
             parentContext.dispose();
+            if (scratchGraphics != null) scratchGraphics.dispose();
+            scratchGraphics = null;
+            scratch = null;
+            scratchData = null;
         }
 
         @Override
         public Raster getRaster(int x, int y, int w, int h) {
             Raster parentRaster = parentContext.getRaster(x, y, w, h);
+            WritableRaster result = ensureScratch(w, h);
+            int[] data = scratchData;
+            assert data != null;
+            int stride = result.getWidth();
 
-            int parentMinX = parentRaster.getMinX();
-            int parentMinY = parentRaster.getMinY();
-
-            WritableRaster result;
-            if (parentRaster instanceof WritableRaster) {
-                if (parentColorModel.equals(colorModel)) {
-                    result = parentRaster.createCompatibleWritableRaster();
-                    result.setDataElements(-parentMinX, -parentMinY, parentRaster);
-                } else {
-                    BufferedImage parentImage = new BufferedImage(parentColorModel,
-                            (WritableRaster) parentRaster,
-                            parentColorModel.isAlphaPremultiplied(), null);
-                    result = Raster.createWritableRaster(
-                            colorModel.createCompatibleSampleModel(w, h), new Point(0, 0));
-                    BufferedImage resultImage = new BufferedImage(colorModel, result, false, null);
-                    Graphics graphics = resultImage.getGraphics();
-                    graphics.drawImage(parentImage, 0, 0, null);
-                    graphics.dispose();
-                }
+            if (packedParent) {
+                parentRaster.getDataElements(parentRaster.getMinX(), parentRaster.getMinY(), w, h, data);
+                if (stride != w) spreadRows(data, w, h, stride);
             } else {
-                result = Raster.createInterleavedRaster(DataBuffer.TYPE_BYTE, w, h,
-                        getColorModel().getNumComponents(), new Point(0, 0));
-                ColorConvertOp colorConvertOp = new ColorConvertOp(
-                        parentColorModel.getColorSpace(), colorModel.getColorSpace(), null);
-                colorConvertOp.filter(parentRaster, result);
+                convertParent(parentRaster, w, h);
             }
 
-            int softMaskMinX = maskRaster.getMinX();
-            int softMaskMinY = maskRaster.getMinY();
-            int softMaskMaxX = softMaskMinX + maskRaster.getWidth();
-            int softMaskMaxY = softMaskMinY + maskRaster.getHeight();
+            applyMask(data, stride, x, y, w, h);
+            return result;
+        }
+
+        private @NotNull WritableRaster ensureScratch(int w, int h) {
+            WritableRaster raster = scratch;
+            if (raster == null || raster.getWidth() < w || raster.getHeight() < h) {
+                if (scratchGraphics != null) scratchGraphics.dispose();
+                scratchGraphics = null;
+                raster = colorModel.createCompatibleWritableRaster(
+                        Math.max(w, raster != null ? raster.getWidth() : 0),
+                        Math.max(h, raster != null ? raster.getHeight() : 0));
+                scratch = raster;
+                scratchData = ((DataBufferInt) raster.getDataBuffer()).getData();
+            }
+            return raster;
+        }
+
+        /**
+         * Moves rows which have been read with a scanline stride of {@code w} to the scanline stride of the scratch
+         * raster.
+         */
+        private static void spreadRows(int @NotNull [] data, int w, int h, int stride) {
+            for (int j = h - 1; j > 0; j--) {
+                System.arraycopy(data, j * w, data, j * stride, w);
+            }
+        }
+
+        private void convertParent(@NotNull Raster parentRaster, int w, int h) {
+            WritableRaster writableParent = Raster.createWritableRaster(parentRaster.getSampleModel(),
+                    parentRaster.getDataBuffer(),
+                    new Point(parentRaster.getSampleModelTranslateX(), parentRaster.getSampleModelTranslateY()))
+                    .createWritableChild(parentRaster.getMinX(), parentRaster.getMinY(), w, h, 0, 0, null);
+            BufferedImage parentImage = new BufferedImage(parentColorModel, writableParent,
+                    parentColorModel.isAlphaPremultiplied(), null);
+            Graphics2D g = scratchGraphics;
+            if (g == null) {
+                g = new BufferedImage(colorModel, scratch, false, null).createGraphics();
+                g.setComposite(AlphaComposite.Src);
+                scratchGraphics = g;
+            }
+            g.drawImage(parentImage, 0, 0, null);
+        }
+
+        private void applyMask(int @NotNull [] data, int stride, int x, int y, int w, int h) {
+            int maskMinX = maskRaster.getMinX();
+            int maskMinY = maskRaster.getMinY();
+            int maskMaxX = maskMinX + maskRaster.getWidth();
+            int maskMaxY = maskMinY + maskRaster.getHeight();
+
+            int startX = x - offset.x;
+            int startY = y - offset.y;
+            // Columns [i0, i1) of the tile are covered by the mask.
+            int i0 = Math.max(0, Math.min(w, maskMinX - startX));
+            int i1 = Math.max(i0, Math.min(w, maskMaxX - startX));
 
             for (int j = 0; j < h; j++) {
-                for (int i = 0; i < w; i++) {
-                    int rx = x + i - offset.x;
-                    int ry = y + j - offset.y;
-
-                    int alpha;
-                    if ((rx >= softMaskMinX) && (rx < softMaskMaxX) && (ry >= softMaskMinY) && (ry < softMaskMaxY)) {
-                        alpha = maskRaster.getSample(rx, ry, 0);
-                    } else {
-                        alpha = 0;
-                    }
-                    alpha = alpha * result.getSample(i, j, numColorComponents) / 255;
-                    result.setSample(i, j, numColorComponents, alpha);
+                int row = j * stride;
+                int ry = startY + j;
+                if (ry < maskMinY || ry >= maskMaxY || i0 == i1) {
+                    clearAlpha(data, row, row + w);
+                    continue;
+                }
+                clearAlpha(data, row, row + i0);
+                clearAlpha(data, row + i1, row + w);
+
+                byte[] mask = maskData;
+                int maskIndex;
+                int[] maskValues = null;
+                if (mask != null) {
+                    maskIndex = maskDataOffset + ry * maskScanlineStride + startX + i0;
+                } else {
+                    maskValues = maskRow(i1 - i0);
+                    maskRaster.getSamples(startX + i0, ry, i1 - i0, 1, 0, maskValues);
+                    maskIndex = 0;
+                }
+
+                for (int i = row + i0, end = row + i1; i < end; i++, maskIndex++) {
+                    int alpha = mask != null ? mask[maskIndex] & 0xFF : maskValues[maskIndex];
+                    data[i] = applyAlpha(data[i], alpha);
                 }
             }
+        }
 
-            return result;
+        private int applyAlpha(int argb, int maskAlpha) {
+            if (!parentHasAlpha) return (maskAlpha << 24) | (argb & 0x00FFFFFF);
+            int a = argb >>> 24;
+            if (!premultiplied) return ((maskAlpha * a / 255) << 24) | (argb & 0x00FFFFFF);
+            int r = (argb >> 16) & 0xFF;
+            int g = (argb >> 8) & 0xFF;
+            int b = argb & 0xFF;
+            return ((maskAlpha * a / 255) << 24)
+                    | ((maskAlpha * r / 255) << 16)
+                    | ((maskAlpha * g / 255) << 8)
+                    | (maskAlpha * b / 255);
+        }
+
+        private void clearAlpha(int @NotNull [] data, int from, int to) {
+            if (premultiplied) {
+                for (int i = from; i < to; i++) data[i] = 0;
+            } else {
+                for (int i = from; i < to; i++) data[i] &= 0x00FFFFFF;
+            }
+        }
+
+        private int @NotNull [] maskRow(int length) {
+            int[] row = maskRow;
+            if (row == null || row.length < length) {
+                row = new int[length];
+                maskRow = row;
+            }
+            return row;
         }
     }
 }
@@ -21,22 +21,34 @@
  */
 package com.github.weisj.jsvg.renderer;
 
+import com.github.weisj.jsvg.LayerCache;
+import com.github.weisj.jsvg.RenderListener;
+import com.github.weisj.jsvg.SVGRenderingHints;
 import com.github.weisj.jsvg.attributes.FillRule;
 import com.github.weisj.jsvg.attributes.ViewBox;
 import com.github.weisj.jsvg.attributes.font.MeasurableFontSpec;
 import com.github.weisj.jsvg.geometry.size.Length;
 import com.github.weisj.jsvg.geometry.size.MeasureContext;
+import com.github.weisj.jsvg.geometry.util.GeometryUtil;
+import com.github.weisj.jsvg.jfr.JFR;
 import com.github.weisj.jsvg.nodes.ClipPath;
+import com.github.weisj.jsvg.nodes.Image;
 import com.github.weisj.jsvg.nodes.Mask;
 import com.github.weisj.jsvg.nodes.SVGNode;
+import com.github.weisj.jsvg.nodes.Use;
 import com.github.weisj.jsvg.nodes.filter.Filter;
 import com.github.weisj.jsvg.nodes.prototype.*;
+import com.github.weisj.jsvg.nodes.prototype.Container;
+import com.github.weisj.jsvg.util.ImageUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
 
 public final class NodeRenderer {
     private static final boolean CLIP_DEBUG = false;
@@ -64,6 +76,117 @@ public final class NodeRenderer {
         }
     }
 
+    private static final class InfoWithLayer extends Info {
+        private final @NotNull Info layerInfo;
+        private final @NotNull Output targetOutput;
+        private final @NotNull LayerCache layerCache;
+        private final @NotNull LayerKey key;
+        private final @NotNull LayerCache.Layer layer;
+        private final double tx;
+        private final double ty;
+
+        private InfoWithLayer(@NotNull Info layerInfo, @NotNull Output targetOutput, @NotNull LayerCache layerCache,
+                @NotNull LayerKey key, @NotNull LayerCache.Layer layer, double tx, double ty) {
+            super(layerInfo.renderable, layerInfo.context, layerInfo.output);
+            this.layerInfo = layerInfo;
+            this.targetOutput = targetOutput;
+            this.layerCache = layerCache;
+            this.key = key;
+            this.layer = layer;
+            this.tx = tx;
+            this.ty = ty;
+        }
+
+        @Override
+        public @NotNull Output output() {
+            return layerInfo.output();
+        }
+
+        @Override
+        public void close() {
+            layerInfo.close();
+            layerCache.put(key, layer);
+            blitLayer(targetOutput, layer, tx, ty);
+            targetOutput.dispose();
+        }
+    }
+
+    /**
+     * Identifies a rasterized layer or filter result. Two renderings of a node produce the same raster if they agree
+     * in everything but the integral part of the device translation. This includes the scale and rotation of the
+     * transform, the rendering hints and for filter results the visible area.
+     */
+    private static final class LayerKey {
+        // Subpixel offsets only have to agree up to rounding errors of the accumulated translation.
+        private static final int SUBPIXEL_STEPS = 256;
+
+        // Cached layers and filter results must not keep the document alive.
+        private final @NotNull WeakReference<SVGNode> node;
+        private final int nodeHash;
+        private final double m00;
+        private final double m10;
+        private final double m01;
+        private final double m11;
+        private final long fractionalX;
+        private final long fractionalY;
+        private final @Nullable Rectangle2D visibleBounds;
+        private final @NotNull RenderingHints hints;
+        private final @NotNull MeasureContext measureContext;
+        private final @NotNull PaintContext paintContext;
+        private final @NotNull MeasurableFontSpec fontSpec;
+        private final @NotNull FontRenderContext fontRenderContext;
+        private final @NotNull FillRule fillRule;
+        private final @Nullable ContextElementAttributes contextElementAttributes;
+
+        private LayerKey(@NotNull SVGNode node, @NotNull AffineTransform deviceTransform, double tx, double ty,
+                @Nullable Rectangle2D visibleBounds, @NotNull RenderingHints hints, @NotNull RenderContext context) {
+            this.node = new WeakReference<>(node);
+            this.nodeHash = System.identityHashCode(node);
+            this.m00 = deviceTransform.getScaleX();
+            this.m10 = deviceTransform.getShearY();
+            this.m01 = deviceTransform.getShearX();
+            this.m11 = deviceTransform.getScaleY();
+            this.fractionalX = Math.round((deviceTransform.getTranslateX() - tx) * SUBPIXEL_STEPS);
+            this.fractionalY = Math.round((deviceTransform.getTranslateY() - ty) * SUBPIXEL_STEPS);
+            this.visibleBounds = visibleBounds;
+            this.hints = hints;
+            this.measureContext = context.measureContext();
+            this.paintContext = context.paintContext();
+            this.fontSpec = context.fontSpec();
+            this.fontRenderContext = context.fontRenderContext();
+            this.fillRule = context.fillRule();
+            this.contextElementAttributes = context.contextElementAttributes();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof LayerKey that)) return false;
+            SVGNode n = node.get();
+            return n != null && n == that.node.get()
+                    && Double.compare(that.m00, m00) == 0
+                    && Double.compare(that.m10, m10) == 0
+                    && Double.compare(that.m01, m01) == 0
+                    && Double.compare(that.m11, m11) == 0
+                    && fractionalX == that.fractionalX
+                    && fractionalY == that.fractionalY
+                    && Objects.equals(visibleBounds, that.visibleBounds)
+                    && hints.equals(that.hints)
+                    && measureContext.equals(that.measureContext)
+                    && paintContext.equals(that.paintContext)
+                    && fontSpec.equals(that.fontSpec)
+                    && fontRenderContext.equals(that.fontRenderContext)
+                    && fillRule == that.fillRule
+                    && Objects.equals(contextElementAttributes, that.contextElementAttributes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(nodeHash, m00, m10, m01, m11, fractionalX, fractionalY, visibleBounds, hints,
+                    measureContext, paintContext, fontSpec, fontRenderContext, fillRule, contextElementAttributes);
+        }
+    }
+
     private static final class InfoWithFilter extends Info {
         private final @NotNull Filter filter;
         private final @NotNull Filter.FilterInfo filterInfo;
@@ -115,14 +238,27 @@ public final class NodeRenderer {
             return null;
         }
         if (!renderable.isVisible(context)) return null;
+        output.renderListener().nodeVisited(node);
         RenderContext childContext = createChildContext(node, context, instantiator);
 
         Output childOutput = output.createChild();
+        // Instantiated content is attributed to its instantiator e.g. the <use> element.
+        if (instantiator == null) childOutput.beginNode(node);
 
         if (renderable instanceof Transformable && ((Transformable) renderable).shouldTransform()) {
             ((Transformable) renderable).applyTransform(childOutput, childContext);
         }
 
+        if (isLayerCandidate(renderable) && childOutput.renderingHint(SVGRenderingHints.KEY_LAYER_CACHE)
+                instanceof LayerCache layerCache) {
+            return createLayerInfo(layerCache, node, renderable, childContext, childOutput);
+        }
+
+        return createEffectsInfo(node, renderable, childContext, childOutput);
+    }
+
+    private static @Nullable Info createEffectsInfo(@NotNull SVGNode node, @NotNull Renderable renderable,
+            @NotNull RenderContext childContext, @NotNull Output childOutput) {
         Rectangle2D elementBounds = null;
         if (renderable instanceof HasClip) {
 
@@ -144,38 +280,204 @@ public final class NodeRenderer {
                 if (!childClip.isValid()) return null;
                 if (elementBounds == null) elementBounds = elementBounds(renderable, childContext);
 
-                Shape childClipShape = childClip.clipShape(childContext, elementBounds);
+                ClipPath.Geometry clipGeometry =
+                        childClip.geometry(childContext, elementBounds, childOutput.renderListener());
 
                 if (CLIP_DEBUG) {
                     childOutput.debugPaint(g -> {
                         g.setClip(null);
                         g.setPaint(Color.MAGENTA);
-                        g.draw(childClipShape);
+                        g.draw(clipGeometry.outline());
                     });
                 }
 
-                childOutput.applyClip(childClipShape);
+                if (useSoftClip(childOutput, clipGeometry)) {
+                    Paint softClip = childClip.createSoftClipPaint(childOutput, clipGeometry);
+                    if (softClip == null) return null;
+                    childOutput.applyClip(clipGeometry.bounds());
+                    childOutput.setPaint(softClip);
+                } else {
+                    childOutput.applyClip(clipGeometry.clipShape());
+                }
             }
         }
 
-        Info info = tryCreateFilterInfo(renderable, childContext, childOutput, elementBounds);
-        if (info != null) return info;
-
-        return new Info(renderable, childContext, childOutput);
-    }
-
-    private static @Nullable InfoWithFilter tryCreateFilterInfo(
-            @NotNull Renderable renderable, @NotNull RenderContext childContext, @NotNull Output childOutput,
-            @Nullable Rectangle2D elementBounds) {
         Filter filter = renderable instanceof HasFilter
                 ? ((HasFilter) renderable).filter()
                 : null;
 
         if (filter != null && filter.hasEffect() && childOutput.supportsFilters()) {
             if (elementBounds == null) elementBounds = elementBounds(renderable, childContext);
-            return InfoWithFilter.create(renderable, childContext, childOutput, filter, elementBounds);
+            AffineTransform deviceTransform = childOutput.transform();
+            double tx = Math.floor(deviceTransform.getTranslateX());
+            double ty = Math.floor(deviceTransform.getTranslateY());
+            LayerKey key = useFilterCache(childOutput)
+                    ? createFilterKey(node, filter, childContext, childOutput, elementBounds, deviceTransform, tx, ty)
+                    : null;
+            if (key != null && filter.blitCachedResult(childOutput, key, tx, ty)) {
+                childOutput.dispose();
+                return null;
+            }
+
+            InfoWithFilter info = InfoWithFilter.create(renderable, childContext, childOutput, filter, elementBounds);
+            if (info != null) {
+                // Placeholders of images which are still loading must not end up in the cache.
+                if (key != null && !hasLoadingImages(node)) info.filterInfo.cacheResult(key, tx, ty);
+                return info;
+            }
+        }
+
+        return new Info(renderable, childContext, childOutput);
+    }
+
+    private static boolean useSoftClip(@NotNull Output output, ClipPath.@NotNull Geometry geometry) {
+        if (!output.supportsColors()) return false;
+        int threshold = output.renderingHint(SVGRenderingHints.KEY_SOFT_CLIP_THRESHOLD) instanceof Integer value
+                ? value
+                : SVGRenderingHints.DEFAULT_SOFT_CLIP_THRESHOLD;
+        return geometry.segmentCount() > threshold;
+    }
+
+    private static boolean isLayerCandidate(@NotNull Renderable renderable) {
+        if (renderable instanceof HasFilter) {
+            Filter filter = ((HasFilter) renderable).filter();
+            if (filter != null && filter.hasEffect()) return true;
+        }
+        if (renderable instanceof HasClip) {
+            HasClip hasClip = (HasClip) renderable;
+            return hasClip.mask() != null || hasClip.clipPath() != null;
+        }
+        return false;
+    }
+
+    private static @Nullable Info createLayerInfo(@NotNull LayerCache layerCache, @NotNull SVGNode node,
+            @NotNull Renderable renderable, @NotNull RenderContext childContext, @NotNull Output childOutput) {
+        Shape deviceClip = childOutput.deviceClip();
+        if (deviceClip == null) return createEffectsInfo(node, renderable, childContext, childOutput);
+
+        AffineTransform deviceTransform = childOutput.transform();
+        double tx = Math.floor(deviceTransform.getTranslateX());
+        double ty = Math.floor(deviceTransform.getTranslateY());
+        // The layer covers the whole region of the element and the clip of the output only applies when blitting it.
+        // Hence, the visible area isn't part of the key and the layer is reused while scrolling.
+        LayerKey key = new LayerKey(node, deviceTransform, tx, ty, null,
+                GraphicsUtil.rasterizationHints(childOutput), childContext);
+
+        LayerCache.Layer cachedLayer = layerCache.get(key);
+        childOutput.renderListener().cacheAccessed(RenderListener.Cache.LAYER, cachedLayer != null);
+        if (cachedLayer != null) {
+            blitLayer(childOutput, cachedLayer, tx, ty);
+            childOutput.dispose();
+            return null;
+        }
+
+        Rectangle2D region = layerRegion(renderable, childContext);
+        if (region == null) return createEffectsInfo(node, renderable, childContext, childOutput);
+
+        // The layer is rendered without the integral part of the device translation, so it can be reused
+        // at any other integral offset.
+        AffineTransform layerTransform = AffineTransform.getTranslateInstance(-tx, -ty);
+        layerTransform.concatenate(deviceTransform);
+        Rectangle2D layerBounds = GeometryUtil.containingBoundsAfterTransform(layerTransform, region);
+        int x = (int) Math.floor(layerBounds.getMinX());
+        int y = (int) Math.floor(layerBounds.getMinY());
+        int width = (int) Math.ceil(layerBounds.getMaxX()) - x;
+        int height = (int) Math.ceil(layerBounds.getMaxY()) - y;
+        if (width <= 0 || height <= 0 || !deviceClip.intersects(tx + x, ty + y, width, height)) {
+            childOutput.dispose();
+            return null;
+        }
+        if (!layerCache.canHold(width, height)) return createEffectsInfo(node, renderable, childContext, childOutput);
+
+        BufferedImage image = ImageUtil.createCompatibleTransparentImage(width, height);
+        childOutput.renderListener().bufferAllocated(width, height);
+        JFR.bufferAllocated(image);
+        Graphics2D g = GraphicsUtil.createGraphics(image);
+        RenderingHints hints = childOutput.renderingHints();
+        if (hints != null) {
+            hints = (RenderingHints) hints.clone();
+            // Nested layers are already part of this one.
+            hints.remove(SVGRenderingHints.KEY_LAYER_CACHE);
+            g.setRenderingHints(hints);
+        }
+        // The layer already holds the filter results.
+        g.setRenderingHint(SVGRenderingHints.KEY_FILTER_CACHE, SVGRenderingHints.VALUE_FILTER_CACHE_OFF);
+        g.clipRect(0, 0, width, height);
+
+        AffineTransform toLayer = AffineTransform.getTranslateInstance(-tx - x, -ty - y);
+        layerTransform.preConcatenate(AffineTransform.getTranslateInstance(-x, -y));
+        g.setTransform(layerTransform);
+
+        AffineTransform layerRootTransform = new AffineTransform(toLayer);
+        layerRootTransform.concatenate(childContext.rootTransform());
+        RenderContext layerContext = childContext.deriveForRootTransform(layerRootTransform);
+
+        Info effectsInfo = createEffectsInfo(node, renderable, layerContext, new Graphics2DOutput(g));
+        if (effectsInfo == null) {
+            g.dispose();
+            childOutput.dispose();
+            return null;
+        }
+        return new InfoWithLayer(effectsInfo, childOutput, layerCache, key,
+                new LayerCache.Layer(image, x, y), tx, ty);
+    }
+
+    private static @Nullable Rectangle2D layerRegion(@NotNull Renderable renderable,
+            @NotNull RenderContext childContext) {
+        Rectangle2D elementBounds = elementBounds(renderable, childContext);
+        Rectangle2D region = null;
+        if (renderable instanceof HasFilter) {
+            Filter filter = ((HasFilter) renderable).filter();
+            if (filter != null && filter.hasEffect()) region = filter.filterRegion(childContext, elementBounds);
+        }
+        if (renderable instanceof HasClip) {
+            Mask mask = ((HasClip) renderable).mask();
+            if (mask != null) region = intersect(region, mask.maskRegion(childContext, elementBounds));
+            ClipPath clipPath = ((HasClip) renderable).clipPath();
+            if (clipPath != null && clipPath.isValid()) {
+                ClipPath.Geometry clipGeometry = clipPath.geometry(childContext, elementBounds, RenderListener.NONE);
+                region = intersect(region, clipGeometry.bounds());
+            }
+        }
+        return region;
+    }
+
+    private static @NotNull Rectangle2D intersect(@Nullable Rectangle2D a, @NotNull Rectangle2D b) {
+        return a != null ? a.createIntersection(b) : b;
+    }
+
+    private static void blitLayer(@NotNull Output output, @NotNull LayerCache.Layer layer, double tx, double ty) {
+        output.setTransform(AffineTransform.getTranslateInstance(tx + layer.x(), ty + layer.y()));
+        output.drawImage(layer.image());
+    }
+
+    private static boolean useFilterCache(@NotNull Output output) {
+        return output.renderingHint(SVGRenderingHints.KEY_FILTER_CACHE) == SVGRenderingHints.VALUE_FILTER_CACHE_ON;
+    }
+
+    private static @NotNull LayerKey createFilterKey(@NotNull SVGNode node, @NotNull Filter filter,
+            @NotNull RenderContext childContext, @NotNull Output childOutput, @NotNull Rectangle2D elementBounds,
+            @NotNull AffineTransform deviceTransform, double tx, double ty) {
+        // The layout of the filter depends on both the filter region and the element bounds.
+        Rectangle2D region = filter.filterRegion(childContext, elementBounds).createUnion(elementBounds);
+        Rectangle2D visibleBounds = GeometryUtil.containingBoundsAfterTransform(deviceTransform,
+                region.createIntersection(childOutput.clipBounds()));
+        // Relative to the integral device translation.
+        visibleBounds.setRect(visibleBounds.getX() - tx, visibleBounds.getY() - ty,
+                visibleBounds.getWidth(), visibleBounds.getHeight());
+        return new LayerKey(node, deviceTransform, tx, ty, visibleBounds,
+                GraphicsUtil.rasterizationHints(childOutput), childContext);
+    }
+
+    private static boolean hasLoadingImages(@Nullable SVGNode node) {
+        if (node instanceof Image) return ((Image) node).isLoading();
+        if (node instanceof Use) return hasLoadingImages(((Use) node).referencedNode());
+        if (node instanceof Container<?>) {
+            for (Object child : ((Container<?>) node).children()) {
+                if (child instanceof SVGNode && hasLoadingImages((SVGNode) child)) return true;
+            }
         }
-        return null;
+        return false;
     }
 
     private static @NotNull Rectangle2D elementBounds(@NotNull Object node, @NotNull RenderContext childContext) {
@@ -32,6 +32,9 @@ import java.util.function.Consumer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import com.github.weisj.jsvg.RenderListener;
+import com.github.weisj.jsvg.SVGRenderingHints;
+import com.github.weisj.jsvg.nodes.SVGNode;
 import com.github.weisj.jsvg.util.Provider;
 
 public interface Output {
@@ -70,6 +73,17 @@ public interface Output {
     @NotNull
     Output createChild();
 
+    /**
+     * Marks the start of the content of the given node. Everything painted into this output afterwards,
+     * including its children, originates from this node unless another node is started.
+     * Outputs which don't care about the origin of the painted content can ignore this.
+     *
+     * @param node the node whose content is painted next.
+     */
+    default void beginNode(@NotNull SVGNode node) {
+        // Not tracked by default.
+    }
+
     void dispose();
 
     void debugPaint(@NotNull Consumer<Graphics2D> painter);
@@ -77,6 +91,16 @@ public interface Output {
     @NotNull
     Rectangle2D clipBounds();
 
+    /**
+     * The clip of the output in device space i.e. independent of the current transform.
+     *
+     * @return the clip or null if the output isn't clipped or the clip is unknown. Content painted into an output
+     *         without a known clip isn't layered, see {@link SVGRenderingHints#KEY_LAYER_CACHE}.
+     */
+    default @Nullable Shape deviceClip() {
+        return null;
+    }
+
     @Nullable
     RenderingHints renderingHints();
 
@@ -85,6 +109,17 @@ public interface Output {
 
     void setRenderingHint(@NotNull RenderingHints.Key key, @Nullable Object value);
 
+    /**
+     * The listener installed using {@link SVGRenderingHints#KEY_RENDER_LISTENER}.
+     *
+     * @return the listener or {@link RenderListener#NONE} if none is installed.
+     */
+    default @NotNull RenderListener renderListener() {
+        return renderingHint(SVGRenderingHints.KEY_RENDER_LISTENER) instanceof RenderListener listener
+                ? listener
+                : RenderListener.NONE;
+    }
+
     @NotNull
     AffineTransform transform();
 
@@ -30,6 +30,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.awt.*;
+import java.util.Objects;
 
 public final class PaintContext implements Mutator<PaintContext> {
     public final @Nullable AwtSVGPaint color;
@@ -91,6 +92,24 @@ public final class PaintContext implements Mutator<PaintContext> {
         return element.derive(this);
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PaintContext that)) return false;
+        return Float.compare(that.opacity, opacity) == 0
+                && Float.compare(that.fillOpacity, fillOpacity) == 0
+                && Float.compare(that.strokeOpacity, strokeOpacity) == 0
+                && Objects.equals(color, that.color)
+                && Objects.equals(fillPaint, that.fillPaint)
+                && Objects.equals(strokePaint, that.strokePaint)
+                && Objects.equals(strokeContext, that.strokeContext);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(color, fillPaint, strokePaint, opacity, fillOpacity, strokeOpacity, strokeContext);
+    }
+
     @Override
     public String toString() {
         return "PaintContext{" +
@@ -119,6 +119,29 @@ public final class RenderContext {
         return derive(t -> t, null, null, null, null, null);
     }
 
+    /**
+     * Creates a copy of this context which paints into a different device, whose device space is given by the
+     * provided root transform.
+     *
+     * @param rootTransform the new root transform.
+     * @return the derived context.
+     */
+    @NotNull
+    RenderContext deriveForRootTransform(@NotNull AffineTransform rootTransform) {
+        return new RenderContext(awtSupport, new AffineTransform(rootTransform),
+                new AffineTransform(userSpaceTransform), paintContext, measureContext, fontRenderContext, fontSpec,
+                fillRule, contextElementAttributes);
+    }
+
+    @NotNull
+    PaintContext paintContext() {
+        return paintContext;
+    }
+
+    public @NotNull MeasurableFontSpec fontSpec() {
+        return fontSpec;
+    }
+
     public @NotNull StrokeContext strokeContext() {
         // This will never be null for a RenderContext.
         // Our deriving mechanism together with non-null initial values prohibits this.
@@ -24,35 +24,65 @@ package com.github.weisj.jsvg.renderer;
 import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Area;
+import java.awt.geom.Path2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.awt.image.ImageObserver;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Consumer;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import com.github.weisj.jsvg.geometry.util.GeometryUtil;
+import com.github.weisj.jsvg.nodes.SVGNode;
 import com.github.weisj.jsvg.util.Provider;
 import com.github.weisj.jsvg.util.ShapeUtil;
 
-
 public class ShapeOutput implements Output {
 
-    private final @NotNull Area accumulatorShape;
+    private final @NotNull List<@NotNull ElementShape> accumulatedShapes;
+    private final @Nullable Area accumulatorArea;
+    private @Nullable SVGNode currentNode;
+    private @Nullable SVGNode currentElement;
     private @NotNull AffineTransform currentTransform;
     private @NotNull Stroke currentStroke;
     private @Nullable Shape currentClip;
 
+    public ShapeOutput() {
+        accumulatedShapes = new ArrayList<>();
+        accumulatorArea = null;
+        currentStroke = new BasicStroke();
+        currentTransform = new AffineTransform();
+        currentClip = null;
+    }
+
+    /**
+     * Creates an output, which adds each painted shape to the given area right away.
+     *
+     * The individual shapes aren't kept, hence {@link #elementShapes()} stays empty.
+     *
+     * @param area the area to add the painted shapes to.
+     * @deprecated Adding shapes one at a time to a single growing area is quadratic in the number of shapes.
+     *             Use {@link #ShapeOutput()} and {@link #accumulatedShape()} instead.
+     */
+    @Deprecated
     public ShapeOutput(@NotNull Area area) {
-        accumulatorShape = area;
+        accumulatedShapes = new ArrayList<>();
+        accumulatorArea = area;
         currentStroke = new BasicStroke();
         currentTransform = new AffineTransform();
         currentClip = null;
     }
 
     private ShapeOutput(@NotNull ShapeOutput parent) {
-        accumulatorShape = parent.accumulatorShape;
+        accumulatedShapes = parent.accumulatedShapes;
+        accumulatorArea = parent.accumulatorArea;
+        currentNode = parent.currentNode;
+        currentElement = parent.currentElement;
         currentStroke = parent.currentStroke;
         currentTransform = new AffineTransform(parent.currentTransform);
         currentClip = parent.currentClip != null ? new Area(parent.currentClip) : null;
@@ -60,10 +90,42 @@ public class ShapeOutput implements Output {
 
     private void addShape(@NotNull Shape shape) {
         // NOTE: ShapeUtil.transformShape always returns a new shape hence we can safely modify shape.
-        Shape s = currentClip != null
-                ? ShapeUtil.intersect(currentClip, shape, true, false)
-                : shape;
-        accumulatorShape.add(new Area(s));
+        addShape(new ElementShape(shape, null, null, currentClip, currentNode, currentElement));
+    }
+
+    private void addShape(@NotNull ElementShape shape) {
+        // The area already holds everything needed. Keeping the shapes would retain them for no use.
+        if (accumulatorArea != null) {
+            accumulatorArea.add(new Area(shape.shape()));
+        } else {
+            accumulatedShapes.add(shape);
+        }
+    }
+
+    /**
+     * Computes the union of all shapes painted into this output (or any of its children).
+     * Shapes are only collected while painting. Merging them at the end in a balanced fashion is a lot cheaper
+     * than adding each of them to a single growing {@link Area}.
+     *
+     * @return the accumulated shape. If the output was created with an area, this is the given area.
+     */
+    public @NotNull Area accumulatedShape() {
+        if (accumulatorArea != null) return accumulatorArea;
+        List<@NotNull Shape> shapes = new ArrayList<>(accumulatedShapes.size());
+        for (ElementShape elementShape : accumulatedShapes) {
+            shapes.add(elementShape.shape());
+        }
+        return ShapeUtil.union(shapes);
+    }
+
+    /**
+     * The individual shapes painted into this output (or any of its children) in painting order.
+     *
+     * @return the painted shapes together with the element they originate from. Empty if the output was created
+     *         with an area, as those outputs don't keep the individual shapes.
+     */
+    public @NotNull List<@NotNull ElementShape> elementShapes() {
+        return accumulatedShapes;
     }
 
     private void append(@NotNull Shape shape, @NotNull AffineTransform transform) {
@@ -81,10 +143,15 @@ public class ShapeOutput implements Output {
         append(shape);
     }
 
-
     @Override
     public void drawShape(@NotNull Shape shape) {
-        append(currentStroke.createStrokedShape(shape));
+        if (currentStroke instanceof BasicStroke) {
+            // The outline is copied as the shape may change after it has been painted.
+            addShape(new ElementShape(new Path2D.Double(shape), (BasicStroke) currentStroke,
+                    new AffineTransform(currentTransform), currentClip, currentNode, currentElement));
+        } else {
+            append(currentStroke.createStrokedShape(shape));
+        }
     }
 
     @Override
@@ -149,6 +216,18 @@ public class ShapeOutput implements Output {
         return new ShapeOutput(this);
     }
 
+    /**
+     * Tracks the node the following shapes originate from. Besides the node itself the innermost node with an id
+     * is tracked, as nodes without an id can't be referred to by users.
+     *
+     * @param node the node whose content is painted next.
+     */
+    @Override
+    public void beginNode(@NotNull SVGNode node) {
+        currentNode = node;
+        if (node.id() != null) currentElement = node;
+    }
+
     @Override
     public void dispose() {
         // No action needed
@@ -166,6 +245,11 @@ public class ShapeOutput implements Output {
                 : new Rectangle2D.Float(-veryLargeNumber, -veryLargeNumber, 2 * veryLargeNumber, 2 * veryLargeNumber);
     }
 
+    @Override
+    public @Nullable Shape deviceClip() {
+        return currentClip;
+    }
+
     @Override
     public @Nullable RenderingHints renderingHints() {
         return null;
@@ -231,6 +315,99 @@ public class ShapeOutput implements Output {
         return false;
     }
 
+    /**
+     * A shape painted into the output. Stroking and clipping the shape is deferred until its exact geometry is
+     * requested. Until then only conservative bounds are computed.
+     */
+    public static final class ElementShape {
+        private @Nullable Shape shape;
+        private @Nullable Shape outline;
+        private final @Nullable BasicStroke stroke;
+        private final @Nullable AffineTransform transform;
+        private @Nullable Shape clip;
+        private @Nullable Rectangle2D bounds;
+        private final @Nullable SVGNode node;
+        private final @Nullable SVGNode element;
+
+        private ElementShape(@NotNull Shape shape, @Nullable BasicStroke stroke, @Nullable AffineTransform transform,
+                @Nullable Shape clip, @Nullable SVGNode node, @Nullable SVGNode element) {
+            if (stroke != null) {
+                this.outline = shape;
+            } else {
+                this.shape = shape;
+            }
+            this.stroke = stroke;
+            this.transform = transform;
+            this.clip = clip;
+            this.node = node;
+            this.element = element;
+        }
+
+        /**
+         * @return the painted shape in the coordinate system of the output.
+         */
+        public synchronized @NotNull Shape shape() {
+            if (outline != null) {
+                shape = ShapeUtil.transformShape(Objects.requireNonNull(stroke).createStrokedShape(outline),
+                        Objects.requireNonNull(transform));
+                outline = null;
+            }
+            Shape s = Objects.requireNonNull(shape);
+            if (clip != null) {
+                s = ShapeUtil.intersect(clip, s, true, false);
+                shape = s;
+                clip = null;
+            }
+            return s;
+        }
+
+        /**
+         * @return bounds containing the painted shape, which are a lot cheaper to compute than the bounds of
+         *         {@link #shape()}. They may be larger than the painted shape.
+         */
+        public synchronized @NotNull Rectangle2D bounds() {
+            if (bounds == null) {
+                Rectangle2D b;
+                if (outline != null) {
+                    b = GeometryUtil.containingBoundsAfterTransform(Objects.requireNonNull(transform),
+                            strokeBounds(outline.getBounds2D(), Objects.requireNonNull(stroke)));
+                } else {
+                    b = Objects.requireNonNull(shape).getBounds2D();
+                }
+                if (clip != null) Rectangle2D.intersect(b, clip.getBounds2D(), b);
+                bounds = b;
+            }
+            return bounds;
+        }
+
+        private static @NotNull Rectangle2D strokeBounds(@NotNull Rectangle2D outlineBounds,
+                @NotNull BasicStroke stroke) {
+            // Miter joins extend by at most the miter limit and square caps by the diagonal of half the width.
+            double extent = 1;
+            if (stroke.getLineJoin() == BasicStroke.JOIN_MITER) extent = Math.max(extent, stroke.getMiterLimit());
+            if (stroke.getEndCap() == BasicStroke.CAP_SQUARE) extent = Math.max(extent, Math.sqrt(2));
+            double grow = extent * stroke.getLineWidth() / 2;
+            return new Rectangle2D.Double(outlineBounds.getX() - grow, outlineBounds.getY() - grow,
+                    outlineBounds.getWidth() + 2 * grow, outlineBounds.getHeight() + 2 * grow);
+        }
+
+        /**
+         * @return the node the shape originates from or null if it wasn't painted by a node. Content instantiated
+         *         by a {@code <use>} element is attributed to the {@code <use>} element.
+         */
+        public @Nullable SVGNode node() {
+            return node;
+        }
+
+        /**
+         * @return the innermost element with an id the shape originates from or null if there is none. This is
+         *         either {@link #node()} itself or the closest of its ancestors with an id.
+         */
+        public @Nullable SVGNode element() {
+            return element;
+        }
+    }
+
     private static class ShapeOutputSafeState implements SafeState {
         private final @NotNull ShapeOutput shapeOutput;
         private final @NotNull Stroke oldStroke;
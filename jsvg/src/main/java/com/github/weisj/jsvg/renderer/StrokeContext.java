@@ -30,6 +30,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
+import java.util.Objects;
 
 public final class StrokeContext {
     public final @Nullable Length strokeWidth;
@@ -102,6 +103,25 @@ public final class StrokeContext {
                 attributeNode.getLength("stroke-dashoffset"));
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof StrokeContext that)) return false;
+        return Float.compare(that.miterLimit, miterLimit) == 0
+                && Objects.equals(strokeWidth, that.strokeWidth)
+                && lineCap == that.lineCap
+                && lineJoin == that.lineJoin
+                && Arrays.equals(dashPattern, that.dashPattern)
+                && Objects.equals(dashOffset, that.dashOffset);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hash(strokeWidth, lineCap, lineJoin, miterLimit, dashOffset);
+        result = 31 * result + Arrays.hashCode(dashPattern);
+        return result;
+    }
+
     @Override
     public String toString() {
         return "StrokeContext{" +
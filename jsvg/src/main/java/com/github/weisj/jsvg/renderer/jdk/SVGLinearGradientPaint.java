@@ -0,0 +1,146 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.renderer.jdk;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.ColorModel;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/*
+ * Copyright (c) 2006, 2018, Oracle and/or its affiliates. All rights reserved. DO NOT ALTER OR
+ * REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License version 2 only, as published by the Free Software Foundation. Oracle
+ * designates this particular file as subject to the "Classpath" exception as provided by Oracle in
+ * the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version 2 along with this work;
+ * if not, write to the Free Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA or visit www.oracle.com
+ * if you need additional information or have any questions.
+ */
+
+/**
+ * The {@code LinearGradientPaint} class provides a way to fill
+ * a {@link java.awt.Shape} with a linear color gradient pattern.  The user
+ * may specify two or more gradient colors, and this paint will provide an
+ * interpolation between each color.  The user also specifies start and end
+ * points which define where in user space the color gradient should begin
+ * and end.
+ * <p>
+ * Unlike {@link java.awt.LinearGradientPaint} the interpolated colors can be provided
+ * as a precomputed {@link GradientLookup}, which allows sharing them between all paints
+ * created for the same gradient.
+ *
+ * @see java.awt.Paint
+ * @see java.awt.Graphics2D#setPaint
+ * @author Nicholas Talian, Vincent Hardy, Jim Graham, Jerry Evans
+ * @since 1.6
+ */
+public final class SVGLinearGradientPaint extends SVGMultipleGradientPaint {
+
+    /** Gradient start and end points. */
+    private final @NotNull Point2D start;
+    private final @NotNull Point2D end;
+
+    /**
+     * Constructs a {@code LinearGradientPaint}.
+     *
+     * @param start the gradient axis start {@code Point2D} in user space
+     * @param end the gradient axis end {@code Point2D} in user space
+     * @param fractions numbers ranging from 0.0 to 1.0 specifying the
+     *                  distribution of colors along the gradient
+     * @param colors array of colors corresponding to each fractional value
+     * @param cycleMethod either {@code NO_CYCLE}, {@code REFLECT},
+     *                    or {@code REPEAT}
+     * @param colorSpace which color space to use for interpolation,
+     *                   either {@code SRGB} or {@code LINEAR_RGB}
+     * @param gradientTransform transform to apply to the gradient
+     * @param lookup the precomputed lookup tables for the colors or null if they should be computed
+     *
+     * @throws NullPointerException
+     * if one of the points is null,
+     * or {@code fractions} array is null,
+     * or {@code colors} array is null,
+     * or {@code cycleMethod} is null,
+     * or {@code colorSpace} is null,
+     * or {@code gradientTransform} is null
+     * @throws IllegalArgumentException
+     * if start and end points are the same points,
+     * or {@code fractions.length != colors.length},
+     * or {@code colors} is less than 2 in size,
+     * or a {@code fractions} value is less than 0.0 or greater than 1.0,
+     * or the {@code fractions} are not provided in strictly increasing order
+     */
+    public SVGLinearGradientPaint(@NotNull Point2D start, @NotNull Point2D end,
+            float[] fractions, Color[] colors,
+            MultipleGradientPaint.CycleMethod cycleMethod, MultipleGradientPaint.ColorSpaceType colorSpace,
+            @NotNull AffineTransform gradientTransform, @Nullable GradientLookup lookup) {
+        super(fractions, colors, cycleMethod, colorSpace, gradientTransform, lookup);
+
+        // check start and end args
+        if (start.equals(end)) {
+            throw new IllegalArgumentException("Start point cannot equal endpoint");
+        }
+
+        // copy the points...
+        this.start = new Point2D.Double(start.getX(), start.getY());
+        this.end = new Point2D.Double(end.getX(), end.getY());
+    }
+
+    @Override
+    public PaintContext createContext(ColorModel cm,
+            Rectangle deviceBounds,
+            Rectangle2D userBounds,
+            AffineTransform transform,
+            RenderingHints hints) {
+        // avoid modifying the user's transform...
+        transform = new AffineTransform(transform);
+        // incorporate the gradient transform
+        transform.concatenate(gradientTransform);
+
+        if ((fractions.length == 2) &&
+                (cycleMethod != MultipleGradientPaint.CycleMethod.REPEAT) &&
+                (colorSpace == MultipleGradientPaint.ColorSpaceType.SRGB)) {
+            // faster to use the basic GradientPaintContext for this
+            // common case
+            boolean cyclic = (cycleMethod != MultipleGradientPaint.CycleMethod.NO_CYCLE);
+            return new GradientPaint(start, colors[0], end, colors[1], cyclic)
+                    .createContext(cm, deviceBounds, userBounds, transform, hints);
+        }
+        return new SVGLinearGradientPaintContext(this, transform, start, end,
+                fractions, colors, cycleMethod, colorSpace);
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.renderer.jdk;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+
+import org.jetbrains.annotations.NotNull;
+
+/*
+ * Copyright (c) 2006, 2018, Oracle and/or its affiliates. All rights reserved. DO NOT ALTER OR
+ * REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License version 2 only, as published by the Free Software Foundation. Oracle
+ * designates this particular file as subject to the "Classpath" exception as provided by Oracle in
+ * the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version 2 along with this work;
+ * if not, write to the Free Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA or visit www.oracle.com
+ * if you need additional information or have any questions.
+ */
+
+/**
+ * Provides the actual implementation for the LinearGradientPaint.
+ * This is where the pixel processing is done.
+ *
+ * @author Nicholas Talian, Vincent Hardy, Jim Graham, Jerry Evans
+ */
+final class SVGLinearGradientPaintContext extends SVGMultipleGradientPaintContext {
+
+    /**
+     * The following invariants are used to process the gradient value from
+     * a device space coordinate, (X, Y):
+     *     g(X, Y) = dgdX*X + dgdY*Y + gc
+     */
+    private final float dgdX;
+    private final float dgdY;
+    private final float gc;
+
+    /**
+     * Constructor for LinearGradientPaintContext.
+     *
+     * @param paint the {@code LinearGradientPaint} from which this context
+     *              is created
+     * @param t the {@code AffineTransform} from user
+     *          space into device space (gradientTransform should be
+     *          concatenated with this)
+     * @param start gradient start point, in user space
+     * @param end gradient end point, in user space
+     * @param fractions the fractions specifying the gradient distribution
+     * @param colors the gradient colors
+     * @param cycleMethod either NO_CYCLE, REFLECT, or REPEAT
+     * @param colorSpace which colorspace to use for interpolation,
+     *                   either SRGB or LINEAR_RGB
+     */
+    SVGLinearGradientPaintContext(@NotNull SVGLinearGradientPaint paint, @NotNull AffineTransform t,
+            @NotNull Point2D start, @NotNull Point2D end, float @NotNull [] fractions,
+            @NotNull Color @NotNull [] colors, MultipleGradientPaint.CycleMethod cycleMethod,
+            MultipleGradientPaint.ColorSpaceType colorSpace) {
+        super(paint, t, fractions, colors, cycleMethod, colorSpace);
+
+        // A given point in the raster should take on the same color as its
+        // projection onto the gradient vector.
+        // Thus, we want the projection of the current position vector
+        // onto the gradient vector, then normalized with respect to the
+        // length of the gradient vector, giving a value which can be mapped
+        // into the range 0-1.
+        //    projection =
+        //        currentVector dot gradientVector / length(gradientVector)
+        //    normalized = projection / length(gradientVector)
+
+        float startx = (float) start.getX();
+        float starty = (float) start.getY();
+        float endx = (float) end.getX();
+        float endy = (float) end.getY();
+
+        float dx = endx - startx; // change in x from start to end
+        float dy = endy - starty; // change in y from start to end
+        float dSq = dx * dx + dy * dy; // total distance squared
+
+        // avoid repeated calculations by doing these divides once
+        float constX = dx / dSq;
+        float constY = dy / dSq;
+
+        // incremental change along gradient for +x
+        dgdX = a00 * constX + a10 * constY;
+        // incremental change along gradient for +y
+        dgdY = a01 * constX + a11 * constY;
+
+        // constant, incorporates the translation components from the matrix
+        gc = (a02 - startx) * constX + (a12 - starty) * constY;
+    }
+
+    /**
+     * Return a Raster containing the colors generated for the graphics
+     * operation.  This is where the area is filled with colors distributed
+     * linearly.
+     * <p>
+     * Gradients which are axis aligned in device space only compute a single
+     * row or a single color per row. Single array lookups, which includes all
+     * two-stop ramps, use a loop specialized for the cycle method.
+     *
+     * @param x,y,w,h the area in device space for which colors are
+     * generated.
+     */
+    @Override
+    protected void fillRaster(int[] pixels, int off, int adjust,
+            int x, int y, int w, int h) {
+        // constant which can be pulled out of the inner loop
+        float initConst = (dgdX * x) + gc;
+        int scan = w + adjust;
+
+        if (dgdX == 0) {
+            // vertical gradient: every row has a single color
+            for (int i = 0; i < h; i++) {
+                int rgb = indexIntoGradientsArrays(initConst + dgdY * (y + i));
+                Arrays.fill(pixels, off, off + w, rgb);
+                off += scan;
+            }
+        } else if (dgdY == 0) {
+            // horizontal gradient: all rows are equal to the first one
+            fillRow(pixels, off, w, initConst + dgdY * y);
+            for (int i = 1; i < h; i++) {
+                System.arraycopy(pixels, off, pixels, off + i * scan, w);
+            }
+        } else {
+            for (int i = 0; i < h; i++) {
+                fillRow(pixels, off, w, initConst + dgdY * (y + i));
+                off += scan;
+            }
+        }
+    }
+
+    private void fillRow(int[] pixels, int off, int w, float g) {
+        int rowLimit = off + w;
+        if (!isSimpleLookup) {
+            while (off < rowLimit) {
+                pixels[off++] = indexIntoGradientsArrays(g);
+                g += dgdX;
+            }
+            return;
+        }
+
+        int[] gradient = this.gradient;
+        int size = fastGradientArraySize;
+        if (cycleMethod == MultipleGradientPaint.CycleMethod.NO_CYCLE) {
+            int first = gradient[0];
+            int last = gradient[size];
+            while (off < rowLimit) {
+                if (g > 1) {
+                    pixels[off++] = last;
+                } else if (g < 0) {
+                    pixels[off++] = first;
+                } else {
+                    pixels[off++] = gradient[(int) (g * size)];
+                }
+                g += dgdX;
+            }
+        } else if (cycleMethod == MultipleGradientPaint.CycleMethod.REPEAT) {
+            while (off < rowLimit) {
+                float position = g - (int) g;
+                if (position < 0) position += 1;
+                pixels[off++] = gradient[(int) (position * size)];
+                g += dgdX;
+            }
+        } else {
+            while (off < rowLimit) {
+                float position = g < 0 ? -g : g;
+                int part = (int) position;
+                position -= part;
+                if ((part & 1) == 1) position = 1 - position;
+                pixels[off++] = gradient[(int) (position * size)];
+                g += dgdX;
+            }
+        }
+    }
+}
@@ -23,10 +23,9 @@ package com.github.weisj.jsvg.renderer.jdk;
 
 import java.awt.*;
 import java.awt.geom.AffineTransform;
-import java.awt.image.ColorModel;
-import java.lang.ref.SoftReference;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /*
  * Copyright (c) 2006, 2011, Oracle and/or its affiliates. All rights reserved. DO NOT ALTER OR
@@ -79,17 +78,8 @@ public abstract class SVGMultipleGradientPaint implements Paint {
     /** The color space in which to perform the gradient interpolation. */
     final @NotNull MultipleGradientPaint.ColorSpaceType colorSpace;
 
-    /**
-     * The following fields are used only by MultipleGradientPaintContext
-     * to cache certain values that remain constant and do not need to be
-     * recalculated for each context created from this paint instance.
-     */
-    ColorModel model;
-    float[] normalizedIntervals;
-    boolean isSimpleLookup;
-    SoftReference<int[][]> gradients;
-    SoftReference<int[]> gradient;
-    int fastGradientArraySize;
+    /** The lookup tables of the interpolated colors, computed on first use if not provided. */
+    private volatile GradientLookup lookup;
 
     /**
      * Package-private constructor.
@@ -102,6 +92,7 @@ public abstract class SVGMultipleGradientPaint implements Paint {
      * @param colorSpace which color space to use for interpolation,
      *                   either {@code SRGB} or {@code LINEAR_RGB}
      * @param gradientTransform transform to apply to the gradient
+     * @param lookup the precomputed lookup tables for the colors or null if they should be computed
      *
      * @throws NullPointerException
      * if {@code fractions} array is null,
@@ -119,7 +110,7 @@ public abstract class SVGMultipleGradientPaint implements Paint {
             @NotNull Color @NotNull [] colors,
             @NotNull MultipleGradientPaint.CycleMethod cycleMethod,
             @NotNull MultipleGradientPaint.ColorSpaceType colorSpace,
-            @NotNull AffineTransform gradientTransform) {
+            @NotNull AffineTransform gradientTransform, @Nullable GradientLookup lookup) {
         if (fractions.length != colors.length) {
             throw new IllegalArgumentException("Colors and fractions must have equal size");
         }
@@ -167,6 +158,21 @@ public abstract class SVGMultipleGradientPaint implements Paint {
             opaque = opaque && (color.getAlpha() == 0xff);
         }
         this.transparency = opaque ? OPAQUE : TRANSLUCENT;
+
+        if (lookup != null && !lookup.isFor(fractions, colors, colorSpace)) {
+            throw new IllegalArgumentException("Lookup doesn't match the gradient stops");
+        }
+        this.lookup = lookup;
+    }
+
+    @NotNull
+    GradientLookup lookup() {
+        GradientLookup l = lookup;
+        if (l == null) {
+            l = new GradientLookup(fractions, colors, colorSpace);
+            lookup = l;
+        }
+        return l;
     }
 
     @Override
@@ -28,6 +28,7 @@ import java.awt.geom.Rectangle2D;
 import java.awt.image.ColorModel;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /*
  * Copyright (c) 2006, 2017, Oracle and/or its affiliates. All rights reserved. DO NOT ALTER OR
@@ -199,6 +200,7 @@ public final class SVGRadialGradientPaint extends SVGMultipleGradientPaint {
      * @param colorSpace which color space to use for interpolation,
      *                   either {@code SRGB} or {@code LINEAR_RGB}
      * @param gradientTransform transform to apply to the gradient
+     * @param lookup the precomputed lookup tables for the colors or null if they should be computed
      *
      * @throws NullPointerException
      * if one of the points is null,
@@ -217,8 +219,8 @@ public final class SVGRadialGradientPaint extends SVGMultipleGradientPaint {
     public SVGRadialGradientPaint(@NotNull Point2D center, float radius, @NotNull Point2D focus, float focusRadius,
             float[] fractions, Color[] colors,
             MultipleGradientPaint.CycleMethod cycleMethod, MultipleGradientPaint.ColorSpaceType colorSpace,
-            @NotNull AffineTransform gradientTransform) {
-        super(fractions, colors, cycleMethod, colorSpace, gradientTransform);
+            @NotNull AffineTransform gradientTransform, @Nullable GradientLookup lookup) {
+        super(fractions, colors, cycleMethod, colorSpace, gradientTransform, lookup);
 
         if (radius <= 0) {
             throw new IllegalArgumentException("Radius must be greater than zero");
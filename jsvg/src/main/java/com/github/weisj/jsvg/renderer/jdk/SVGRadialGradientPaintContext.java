@@ -179,6 +179,8 @@ final class SVGRadialGradientPaintContext extends SVGMultipleGradientPaintContex
             int x, int y, int w, int h) {
         if (isSimpleFocus && isNonCyclic && isSimpleLookup) {
             simpleNonCyclicFillRaster(pixels, off, adjust, x, y, w, h);
+        } else if (isSimpleFocus) {
+            simpleFocusFillRaster(pixels, off, adjust, x, y, w, h);
         } else {
             cyclicCircularGradientFillRaster(pixels, off, adjust, x, y, w, h);
         }
@@ -277,6 +279,46 @@ final class SVGRadialGradientPaintContext extends SVGMultipleGradientPaintContex
         }
     }
 
+    /**
+     * Handles the remaining cases where focus == center, i.e. cyclic gradients or
+     * gradients which need the multiple array lookup. The distance to the center
+     * relative to the radius is the gradient value, hence it can be evaluated
+     * incrementally in the same way as in {@link #simpleNonCyclicFillRaster}
+     * instead of intersecting the focus-perimeter line with the circle.
+     */
+    private void simpleFocusFillRaster(int[] pixels, int off, int adjust, int x, int y, int w, int h) {
+        // coordinates of UL corner in "user space" relative to center
+        float rowX = (a00 * x) + (a01 * y) + constA;
+        float rowY = (a10 * x) + (a11 * y) + constB;
+
+        // second order delta calculated in constructor
+        float gDeltaDelta = this.gDeltaDelta;
+
+        // adjust is (scan-w) of pixels array, we need (scan)
+        adjust += w;
+
+        for (int j = 0; j < h; j++) {
+            // these values depend on the coordinates of the start of the row
+            float gRel = (rowX * rowX + rowY * rowY) / radiusSq;
+            float gDelta = (2 * (a00 * rowX + a10 * rowY) / radiusSq +
+                    gDeltaDelta / 2);
+
+            for (int i = 0; i < w; i++) {
+                // gRel may drop marginally below zero due to rounding
+                float g = gRel > 0 ? (float) Math.sqrt(gRel) : 0;
+                pixels[off + i] = indexIntoGradientsArrays(g);
+
+                // incremental calculation
+                gRel += gDelta;
+                gDelta += gDeltaDelta;
+            }
+
+            off += adjust;
+            rowX += a01;
+            rowY += a11;
+        }
+    }
+
     // SQRT_LUT_SIZE must be a power of 2 for the test above to work.
     private static final int SQRT_LUT_SIZE = (1 << 11);
     private static final float[] sqrtLookup = new float[SQRT_LUT_SIZE + 1];
@@ -32,6 +32,7 @@ import org.jetbrains.annotations.Nullable;
 
 import com.github.weisj.jsvg.attributes.UnitType;
 import com.github.weisj.jsvg.geometry.util.GeometryUtil;
+import com.github.weisj.jsvg.jfr.JFR;
 import com.github.weisj.jsvg.nodes.SVGNode;
 import com.github.weisj.jsvg.nodes.prototype.Instantiator;
 import com.github.weisj.jsvg.renderer.*;
@@ -47,31 +48,30 @@ public final class BlittableImage {
     private final @NotNull BufferedImage image;
     private final @NotNull RenderContext context;
     private final @NotNull Rectangle2D boundsInUserSpace;
+    private final @NotNull Point originInRootSpace;
     private final @NotNull UnitType contentUnits;
 
     private BlittableImage(@NotNull BufferedImage image, @NotNull RenderContext context,
-            @NotNull Rectangle2D boundsInUserSpace, @NotNull UnitType contentUnits) {
+            @NotNull Rectangle2D boundsInUserSpace, @NotNull Point originInRootSpace,
+            @NotNull UnitType contentUnits) {
         this.image = image;
         this.context = context;
         this.boundsInUserSpace = boundsInUserSpace;
+        this.originInRootSpace = originInRootSpace;
         this.contentUnits = contentUnits;
     }
 
     public static @NotNull BlittableImage create(@NotNull BufferSurfaceSupplier bufferSurfaceSupplier,
-            @NotNull RenderContext context, @Nullable Rectangle2D clipBounds,
+            @NotNull Output output, @NotNull RenderContext context, @Nullable Rectangle2D clipBounds,
             @NotNull Rectangle2D bounds, @NotNull Rectangle2D objectBounds, @NotNull UnitType contentUnits) {
-        Rectangle2D boundsInUserSpace =
-                GeometryUtil.containingBoundsAfterTransform(context.userSpaceTransform(), bounds);
-        Rectangle2D boundsInRootSpace =
-                GeometryUtil.containingBoundsAfterTransform(context.rootTransform(), boundsInUserSpace);
-
-        if (clipBounds != null) {
-            Rectangle2D clipBoundsInUserSpace =
-                    GeometryUtil.containingBoundsAfterTransform(context.userSpaceTransform(), clipBounds);
-            Rectangle2D clipBoundsInRootSpace =
-                    GeometryUtil.containingBoundsAfterTransform(context.rootTransform(), clipBoundsInUserSpace);
-            Rectangle2D.intersect(clipBoundsInRootSpace, boundsInRootSpace, boundsInRootSpace);
-        }
+        // The image is laid out relative to the integral part of the root translation. Hence, its content and
+        // bounds in user space are exactly the same for all integral translations, which cached images rely on.
+        AffineTransform root = context.rootTransform();
+        int originX = (int) Math.floor(root.getTranslateX());
+        int originY = (int) Math.floor(root.getTranslateY());
+        AffineTransform relativeRoot = AffineTransform.getTranslateInstance(-originX, -originY);
+        relativeRoot.concatenate(root);
+        Rectangle2D boundsInRootSpace = boundsInRootSpace(relativeRoot, context, clipBounds, bounds);
 
         int imgX = (int) Math.floor(boundsInRootSpace.getX());
         int imgY = (int) Math.floor(boundsInRootSpace.getY());
@@ -81,12 +81,14 @@ public final class BlittableImage {
         Rectangle2D adjustedUserSpaceBounds = new Rectangle2D.Double(imgX, imgY, imgWidth, imgHeight);
         try {
             adjustedUserSpaceBounds = GeometryUtil
-                    .containingBoundsAfterTransform(context.rootTransform().createInverse(), adjustedUserSpaceBounds);
+                    .containingBoundsAfterTransform(relativeRoot.createInverse(), adjustedUserSpaceBounds);
         } catch (NoninvertibleTransformException e) {
             throw new RuntimeException(e);
         }
 
         BufferedImage img = bufferSurfaceSupplier.createBufferSurface(null, imgWidth, imgHeight);
+        output.renderListener().bufferAllocated(img.getWidth(), img.getHeight());
+        JFR.bufferAllocated(img);
 
         RenderContext imageContext = RenderContext.createInitial(context.platformSupport(),
                 contentUnits.deriveMeasure(context.measureContext()));
@@ -110,13 +112,53 @@ public final class BlittableImage {
 
         imageContext.setRootTransform(rootTransform, context.userSpaceTransform());
 
-        return new BlittableImage(img, imageContext, ub, contentUnits);
+        return new BlittableImage(img, imageContext, ub, new Point(originX + imgX, originY + imgY), contentUnits);
+    }
+
+    /**
+     * The area covered by an image created for the given bounds in root space i.e. device space.
+     *
+     * @param context the context of the element.
+     * @param clipBounds the clip bounds of the output.
+     * @param bounds the bounds of the image content.
+     * @return the area in root space.
+     */
+    public static @NotNull Rectangle2D boundsInRootSpace(@NotNull RenderContext context,
+            @Nullable Rectangle2D clipBounds, @NotNull Rectangle2D bounds) {
+        return boundsInRootSpace(context.rootTransform(), context, clipBounds, bounds);
+    }
+
+    private static @NotNull Rectangle2D boundsInRootSpace(@NotNull AffineTransform rootTransform,
+            @NotNull RenderContext context, @Nullable Rectangle2D clipBounds, @NotNull Rectangle2D bounds) {
+        Rectangle2D boundsInUserSpace =
+                GeometryUtil.containingBoundsAfterTransform(context.userSpaceTransform(), bounds);
+        Rectangle2D boundsInRootSpace =
+                GeometryUtil.containingBoundsAfterTransform(rootTransform, boundsInUserSpace);
+
+        if (clipBounds != null) {
+            Rectangle2D clipBoundsInUserSpace =
+                    GeometryUtil.containingBoundsAfterTransform(context.userSpaceTransform(), clipBounds);
+            Rectangle2D clipBoundsInRootSpace =
+                    GeometryUtil.containingBoundsAfterTransform(rootTransform, clipBoundsInUserSpace);
+            Rectangle2D.intersect(clipBoundsInRootSpace, boundsInRootSpace, boundsInRootSpace);
+        }
+        return boundsInRootSpace;
     }
 
     public @NotNull Rectangle2D boundsInUserSpace() {
         return boundsInUserSpace;
     }
 
+    /**
+     * The position of the top left pixel of the image in root space i.e. device space. Unlike mapping
+     * {@link #boundsInUserSpace()} back through the root transform this is exact.
+     *
+     * @return the integral origin of the image in root space.
+     */
+    public @NotNull Point originInRootSpace() {
+        return new Point(originInRootSpace);
+    }
+
     public @NotNull BufferedImage image() {
         return image;
     }
@@ -21,7 +21,6 @@
  */
 package com.github.weisj.jsvg.util;
 
-import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.awt.image.*;
 
@@ -29,9 +28,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import com.github.weisj.jsvg.geometry.util.GeometryUtil;
-import com.github.weisj.jsvg.renderer.GraphicsUtil;
 import com.github.weisj.jsvg.renderer.Output;
-import com.github.weisj.jsvg.renderer.RenderContext;
 
 public final class ImageUtil {
     private ImageUtil() {}
@@ -80,14 +77,4 @@ public final class ImageUtil {
     public static int getINT_RGBA_ScanlineStride(@NotNull Raster raster) {
         return ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride();
     }
-
-    public static @NotNull BufferedImage copy(@NotNull RenderContext context, @NotNull ImageProducer producer) {
-        Image img = context.platformSupport().createImage(producer);
-        BufferedImage bufferedImage = createCompatibleTransparentImage((AffineTransform) null,
-                img.getWidth(null), img.getHeight(null));
-        Graphics2D g = GraphicsUtil.createGraphics(bufferedImage);
-        g.drawImage(img, null, null);
-        g.dispose();
-        return bufferedImage;
-    }
 }
@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Thread safe least recently used cache with a byte budget. Entries are evicted once the total size of the
+ * cached values exceeds the budget. Values larger than the budget aren't cached at all.
+ * <p>
+ * Every entry is charged a fixed overhead in addition to the size of its value. This keeps the number of entries
+ * bounded even if values are empty.
+ *
+ * @param <K> the key type.
+ * @param <V> the value type.
+ */
+public final class LruByteCache<K, V> {
+    static final long ENTRY_OVERHEAD_BYTES = 256;
+
+    private final long maxBytes;
+    private final @NotNull LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes;
+    private long evictionCount;
+
+    /**
+     * @param maxBytes the maximum number of bytes occupied by the cached values.
+     */
+    public LruByteCache(long maxBytes) {
+        if (maxBytes < 0) throw new IllegalArgumentException("Negative byte budget " + maxBytes);
+        this.maxBytes = maxBytes;
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    public boolean canHold(long bytes) {
+        return bytes + ENTRY_OVERHEAD_BYTES <= maxBytes;
+    }
+
+    public synchronized @Nullable V get(@NotNull K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null ? entry.value : null;
+    }
+
+    /**
+     * Adds a value to the cache and evicts the least recently used entries if the budget is exceeded.
+     *
+     * @param key the key.
+     * @param value the value.
+     * @param bytes the number of bytes occupied by the value.
+     */
+    public synchronized void put(@NotNull K key, @NotNull V value, long bytes) {
+        if (!canHold(bytes)) return;
+        long size = bytes + ENTRY_OVERHEAD_BYTES;
+        Entry<V> old = entries.put(key, new Entry<>(value, size));
+        if (old != null) currentBytes -= old.size;
+        currentBytes += size;
+
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && it.hasNext()) {
+            Entry<V> evicted = it.next().getValue();
+            it.remove();
+            currentBytes -= evicted.size;
+            evictionCount++;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long currentBytes() {
+        return currentBytes;
+    }
+
+    public synchronized long evictionCount() {
+        return evictionCount;
+    }
+
+    private static final class Entry<V> {
+        private final @NotNull V value;
+        private final long size;
+
+        private Entry(@NotNull V value, long size) {
+            this.value = value;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023-2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Splits pixel work into stripes which are processed on the common {@link ForkJoinPool}.
+ * Work below a fixed number of pixels runs on the calling thread, as it would be dominated by the
+ * scheduling overhead otherwise. Setting the parallelism of the common pool to 1 turns off multithreading.
+ */
+public final class ParallelUtil {
+    /**
+     * The minimum number of pixels processed by a single stripe.
+     */
+    public static final long MIN_STRIPE_PIXELS = 1 << 15;
+    private static final int STRIPES_PER_THREAD = 4;
+
+    private ParallelUtil() {}
+
+    @FunctionalInterface
+    public interface StripeAction {
+        /**
+         * Processes the indices {@code start} (inclusive) to {@code end} (exclusive).
+         *
+         * @param start the first index of the stripe.
+         * @param end the index after the last index of the stripe.
+         */
+        void process(int start, int end);
+    }
+
+    /**
+     * Processes the range {@code start} to {@code end} in stripes. The stripes may run concurrently, hence they must
+     * not write to pixels of any other stripe.
+     *
+     * @param start the first index.
+     * @param end the index after the last index.
+     * @param pixelsPerIndex the number of pixels processed for each index e.g. the width of a row.
+     * @param action the action processing a stripe.
+     */
+    public static void forEachStripe(int start, int end, long pixelsPerIndex, @NotNull StripeAction action) {
+        int count = end - start;
+        if (count <= 0) return;
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        long pixels = count * Math.max(pixelsPerIndex, 1);
+        int stripeCount = (int) Math.min(Math.min(count, (long) parallelism * STRIPES_PER_THREAD),
+                pixels / MIN_STRIPE_PIXELS);
+        if (parallelism <= 1 || stripeCount <= 1) {
+            action.process(start, end);
+            return;
+        }
+        int stripeSize = (count + stripeCount - 1) / stripeCount;
+        new StripeTask(start, end, stripeSize, action).invoke();
+    }
+
+    private static final class StripeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int start;
+        private final int end;
+        private final int stripeSize;
+        private final @NotNull StripeAction action;
+
+        private StripeTask(int start, int end, int stripeSize, @NotNull StripeAction action) {
+            this.start = start;
+            this.end = end;
+            this.stripeSize = stripeSize;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            int count = end - start;
+            if (count <= stripeSize) {
+                action.process(start, end);
+                return;
+            }
+            int stripes = (count + stripeSize - 1) / stripeSize;
+            int mid = start + (stripes / 2) * stripeSize;
+            invokeAll(new StripeTask(start, mid, stripeSize, action), new StripeTask(mid, end, stripeSize, action));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.util;
+
+import java.awt.color.ColorSpace;
+import java.awt.image.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.function.Consumer;
+
+import org.jetbrains.annotations.NotNull;
+
+import com.github.weisj.jsvg.PixelFormat;
+
+/**
+ * Paints into caller supplied pixel memory. Int arrays (and buffers backed by them) are wrapped by an image without
+ * copying, which Java2D paints into using its specialized loops. Any other storage, e.g. direct buffers, would only be
+ * accessible through a custom {@link DataBuffer}, which forces Java2D to fall back to generic per pixel loops. These
+ * are several times slower than copying the pixels in and out of an intermediate array in bulk, hence the latter is
+ * done instead.
+ */
+public final class PixelBuffers {
+    private static final int[] ARGB_MASKS = {0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000};
+
+    private PixelBuffers() {}
+
+    public static void paint(int @NotNull [] pixels, int width, int height, int stride,
+            @NotNull PixelFormat format, @NotNull Consumer<@NotNull BufferedImage> painter) {
+        checkBounds(pixels.length, width, height, stride);
+        painter.accept(wrap(pixels, 0, width, height, stride, format));
+    }
+
+    public static void paint(@NotNull IntBuffer pixels, int width, int height, int stride,
+            @NotNull PixelFormat format, @NotNull Consumer<@NotNull BufferedImage> painter) {
+        if (pixels.isReadOnly()) throw new ReadOnlyBufferException();
+        checkBounds(pixels.remaining(), width, height, stride);
+        int position = pixels.position();
+        if (pixels.hasArray()) {
+            painter.accept(wrap(pixels.array(), pixels.arrayOffset() + position, width, height, stride, format));
+            return;
+        }
+        int[] staging = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            pixels.get(position + y * stride, staging, y * width, width);
+        }
+        painter.accept(wrap(staging, 0, width, height, width, format));
+        for (int y = 0; y < height; y++) {
+            pixels.put(position + y * stride, staging, y * width, width);
+        }
+    }
+
+    /**
+     * Paints into a byte buffer. Pixels are accessed as ints in the byte order matching the pixel format, hence the
+     * stride is given in bytes and has to be a multiple of four.
+     */
+    public static void paint(@NotNull ByteBuffer pixels, int width, int height, int stride,
+            @NotNull PixelFormat format, @NotNull Consumer<@NotNull BufferedImage> painter) {
+        if (stride % 4 != 0) {
+            throw new IllegalArgumentException("Stride must be a multiple of 4 bytes but was " + stride);
+        }
+        ByteOrder order = format == PixelFormat.ARGB ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+        paint(pixels.duplicate().order(order).asIntBuffer(), width, height, stride / 4, format, painter);
+    }
+
+    private static void checkBounds(int available, int width, int height, int stride) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid size " + width + "x" + height);
+        }
+        if (stride < width) {
+            throw new IllegalArgumentException("Stride " + stride + " is smaller than the width " + width);
+        }
+        long required = (long) (height - 1) * stride + width;
+        if (required > available) {
+            throw new IllegalArgumentException(
+                    "Buffer holds " + available + " pixels but " + required + " are required");
+        }
+    }
+
+    private static @NotNull BufferedImage wrap(int @NotNull [] pixels, int offset, int width, int height,
+            int stride, @NotNull PixelFormat format) {
+        DataBuffer dataBuffer = new DataBufferInt(pixels, (height - 1) * stride + width, offset);
+        SampleModel sampleModel = new SinglePixelPackedSampleModel(
+                DataBuffer.TYPE_INT, width, height, stride, ARGB_MASKS);
+        ColorModel colorModel = new DirectColorModel(ColorSpace.getInstance(ColorSpace.CS_sRGB), 32,
+                ARGB_MASKS[0], ARGB_MASKS[1], ARGB_MASKS[2], ARGB_MASKS[3],
+                format.isPremultiplied(), DataBuffer.TYPE_INT);
+        WritableRaster raster = Raster.createWritableRaster(sampleModel, dataBuffer, null);
+        return new BufferedImage(colorModel, raster, format.isPremultiplied(), null);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023-2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.util;
+
+import java.awt.*;
+import java.awt.image.Raster;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.github.weisj.jsvg.RenderListener;
+import com.github.weisj.jsvg.SVGRenderingHints;
+import com.github.weisj.jsvg.renderer.Output;
+
+/**
+ * Cache for rasterized content owned by a node. The caches of all nodes share a single least recently used
+ * store with a byte budget, so the memory held by cached rasters stays bounded no matter how many documents are
+ * painted. A cache doesn't hold on to its node, hence the cached rasters of a dropped document are evicted
+ * eventually.
+ * <p>
+ * Each kind of cache can be turned off using its rendering hint e.g. {@link SVGRenderingHints#KEY_MASK_CACHE}.
+ *
+ * @param <K> the key type.
+ * @param <V> the value type.
+ */
+public final class RasterCache<K, V> {
+    private static final long SHARED_CACHE_BYTES = 64 << 20;
+    private static final LruByteCache<SharedKey, Object> SHARED_CACHE = new LruByteCache<>(SHARED_CACHE_BYTES);
+
+    private final long maxEntryBytes;
+    private final @NotNull RenderListener.Cache cacheType;
+    private final @NotNull RenderingHints.Key hintKey;
+    private final @NotNull ToLongFunction<? super V> byteSize;
+
+    /**
+     * @param maxEntryBytes the maximum number of bytes occupied by a single value. Larger values aren't cached.
+     * @param cacheType the type of the cache reported to render listeners.
+     * @param hintKey the rendering hint which turns the cache off if set to {@link SVGRenderingHints#VALUE_CACHE_OFF}.
+     * @param byteSize computes the number of bytes occupied by a value.
+     */
+    public RasterCache(long maxEntryBytes, @NotNull RenderListener.Cache cacheType,
+            @NotNull RenderingHints.Key hintKey, @NotNull ToLongFunction<? super V> byteSize) {
+        if (maxEntryBytes < 0) throw new IllegalArgumentException("Negative byte budget " + maxEntryBytes);
+        this.maxEntryBytes = Math.min(maxEntryBytes, SHARED_CACHE_BYTES);
+        this.cacheType = cacheType;
+        this.hintKey = hintKey;
+        this.byteSize = byteSize;
+    }
+
+    public static long byteSize(@NotNull Raster raster) {
+        int bitsPerPixel = 0;
+        for (int size : raster.getSampleModel().getSampleSize()) {
+            bitsPerPixel += size;
+        }
+        return (long) raster.getWidth() * raster.getHeight() * ((bitsPerPixel + 7) / 8);
+    }
+
+    /**
+     * Clears the cached values of all nodes.
+     */
+    public static void clearAll() {
+        SHARED_CACHE.clear();
+    }
+
+    public long maxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    public boolean canHold(long bytes) {
+        return bytes <= maxEntryBytes;
+    }
+
+    public boolean isEnabled(@NotNull Output output) {
+        return output.renderingHint(hintKey) != SVGRenderingHints.VALUE_CACHE_OFF;
+    }
+
+    /**
+     * Looks up the value for the given key and reports the access to the listener.
+     *
+     * @param key the key.
+     * @param listener the listener to report the access to.
+     * @return the cached value or null if there is none.
+     */
+    public @Nullable V get(@NotNull K key, @NotNull RenderListener listener) {
+        @SuppressWarnings("unchecked")
+        V value = (V) SHARED_CACHE.get(new SharedKey(this, key));
+        if (listener.isEnabled()) listener.cacheAccessed(cacheType, value != null);
+        return value;
+    }
+
+    public void put(@NotNull K key, @NotNull V value) {
+        long size = byteSize.applyAsLong(value);
+        if (!canHold(size)) return;
+        SHARED_CACHE.put(new SharedKey(this, key), value, size);
+    }
+
+    private static final class SharedKey {
+        private final @NotNull RasterCache<?, ?> owner;
+        private final @NotNull Object key;
+
+        private SharedKey(@NotNull RasterCache<?, ?> owner, @NotNull Object key) {
+            this.owner = owner;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof SharedKey that)) return false;
+            return owner == that.owner && key.equals(that.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(owner), key);
+        }
+    }
+}
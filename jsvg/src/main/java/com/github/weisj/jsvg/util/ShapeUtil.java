@@ -23,6 +23,7 @@ package com.github.weisj.jsvg.util;
 
 import java.awt.*;
 import java.awt.geom.*;
+import java.util.List;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -126,6 +127,32 @@ public final class ShapeUtil {
         return a1;
     }
 
+    /*
+     * Computes the union of the given shapes. Adding shapes one by one to a single Area is quadratic in
+     * the number of shapes as every addition has to process the whole accumulated outline. Instead,
+     * neighbouring areas are merged pairwise until only one remains, which keeps the intermediate
+     * areas small. Shapes which are adjacent in the list are usually close to each other, which further
+     * helps keeping intermediate outlines simple.
+     */
+    public static @NotNull Area union(@NotNull List<? extends @NotNull Shape> shapes) {
+        int count = shapes.size();
+        if (count == 0) return new Area();
+        Area[] areas = new Area[count];
+        for (int i = 0; i < count; i++) {
+            areas[i] = new Area(shapes.get(i));
+        }
+        while (count > 1) {
+            int merged = 0;
+            for (int i = 0; i < count; i += 2) {
+                Area a = areas[i];
+                if (i + 1 < count) a.add(areas[i + 1]);
+                areas[merged++] = a;
+            }
+            count = merged;
+        }
+        return areas[0];
+    }
+
     public static @NotNull Shape transformShape(@NotNull Shape s, @NotNull AffineTransform transform) {
         if (transform.getType() > AffineTransform.TYPE_TRANSLATION) {
             return transformShape(transform, s);
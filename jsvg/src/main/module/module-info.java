@@ -26,6 +26,7 @@ module com.github.weisj.jsvg {
     requires transitive java.desktop;
     requires transitive java.logging;
 
+    requires static jdk.jfr;
     requires static org.jetbrains.annotations;
     requires static com.google.errorprone.annotations;
 
@@ -23,14 +23,138 @@ package com.github.weisj.jsvg;
 
 import static com.github.weisj.jsvg.ReferenceTest.ReferenceTestResult.SUCCESS;
 import static com.github.weisj.jsvg.ReferenceTest.compareImages;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.Test;
 
+import com.github.weisj.jsvg.parser.SVGLoader;
+
 class ClipPathTest {
 
     @Test
     void tetClipPathUnits() {
         assertEquals(SUCCESS, compareImages("clipPathUnits.svg"));
     }
+
+    @Test
+    void reusesClipShapes() {
+        SVGDocument document = Objects.requireNonNull(
+                new SVGLoader().load(Objects.requireNonNull(ClipPathTest.class.getResource("clipPathUnits.svg"))));
+        RenderMetrics metrics = new RenderMetrics();
+
+        int[] first = render(document, metrics);
+        // The user space clip is shared by three elements, the object bounding box clip is used once.
+        assertEquals(2, metrics.cacheMisses(RenderListener.Cache.CLIP_PATH));
+        assertEquals(2, metrics.cacheHits(RenderListener.Cache.CLIP_PATH));
+
+        int[] second = render(document, metrics);
+        assertEquals(2, metrics.cacheMisses(RenderListener.Cache.CLIP_PATH));
+        assertEquals(6, metrics.cacheHits(RenderListener.Cache.CLIP_PATH));
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    void softClipsComplexClipPaths() {
+        StringBuilder points = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            double angle = 2 * Math.PI * i / 200;
+            points.append(50 + 40 * Math.cos(angle)).append(',').append(50 + 40 * Math.sin(angle)).append(' ');
+        }
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"100\" height=\"100\">"
+                + "<clipPath id=\"clip\"><polygon points=\"" + points + "\"/></clipPath>"
+                + "<rect width=\"100\" height=\"100\" fill=\"red\" clip-path=\"url(#clip)\"/></svg>";
+        SVGDocument document = Objects.requireNonNull(
+                new SVGLoader().load(new ByteArrayInputStream(svg.getBytes(StandardCharsets.UTF_8))));
+
+        RenderMetrics geometricMetrics = new RenderMetrics();
+        int[] geometric = render(document, geometricMetrics, Integer.MAX_VALUE);
+        RenderMetrics softMetrics = new RenderMetrics();
+        int[] soft = render(document, softMetrics, 100);
+
+        assertEquals(0, geometricMetrics.phaseDurations(RenderListener.Phase.CLIP_PATH).count());
+        assertEquals(1, softMetrics.phaseDurations(RenderListener.Phase.CLIP_PATH).count());
+
+        // Both agree everywhere except along the edge of the clip.
+        int differing = 0;
+        for (int i = 0; i < soft.length; i++) {
+            if (soft[i] != geometric[i]) differing++;
+        }
+        assertTrue(differing < 2 * Math.PI * 40 * 2, "Differing pixels " + differing);
+        assertEquals(0xFFFF0000, soft[50 * 100 + 50]);
+        assertEquals(0, soft[5 * 100 + 5]);
+    }
+
+    @Test
+    void softClipsImagesAndFilterResults() {
+        // More segments than the default threshold.
+        StringBuilder points = new StringBuilder();
+        for (int i = 0; i < 1200; i++) {
+            double angle = 2 * Math.PI * i / 1200;
+            points.append(50 + 40 * Math.cos(angle)).append(',').append(50 + 40 * Math.sin(angle)).append(' ');
+        }
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" xmlns:xlink=\"http://www.w3.org/1999/xlink\" "
+                + "width=\"100\" height=\"100\">"
+                + "<clipPath id=\"clip\"><polygon points=\"" + points + "\"/></clipPath>"
+                + "<filter id=\"blur\"><feGaussianBlur stdDeviation=\"2\"/></filter>"
+                + "<g clip-path=\"url(#clip)\">"
+                + "<image width=\"50\" height=\"100\" preserveAspectRatio=\"none\" xlink:href=\"data:image/png;base64,"
+                + "iVBORw0KGgoAAAANSUhEUgAAAAUAAAAFCAYAAACNbyblAAAAHElEQVQI12P4//8/w38GIAXDIBKE0DHxgljNBAAO9TXL0Y4O"
+                + "HwAAAABJRU5ErkJggg==\"/>"
+                + "<rect x=\"50\" width=\"50\" height=\"100\" fill=\"blue\" filter=\"url(#blur)\"/>"
+                + "</g></svg>";
+        SVGDocument document = Objects.requireNonNull(
+                new SVGLoader().load(new ByteArrayInputStream(svg.getBytes(StandardCharsets.UTF_8))));
+
+        // Images are drawn instead of filled as a texture if image antialiasing is off.
+        int[] geometric = render(document, new RenderMetrics(), Integer.MAX_VALUE,
+                SVGRenderingHints.VALUE_IMAGE_ANTIALIASING_OFF);
+        RenderMetrics softMetrics = new RenderMetrics();
+        int[] soft = render(document, softMetrics, SVGRenderingHints.DEFAULT_SOFT_CLIP_THRESHOLD,
+                SVGRenderingHints.VALUE_IMAGE_ANTIALIASING_OFF);
+        assertEquals(1, softMetrics.phaseDurations(RenderListener.Phase.CLIP_PATH).count());
+
+        int differing = 0;
+        for (int i = 0; i < soft.length; i++) {
+            if (soft[i] != geometric[i]) differing++;
+        }
+        assertTrue(differing < 2 * Math.PI * 40 * 2, "Differing pixels " + differing);
+        // Inside the bounds of the clip, but outside of its shape.
+        assertEquals(0, soft[15 * 100 + 15], "Image");
+        assertEquals(0, soft[85 * 100 + 85], "Filter result");
+        assertEquals(geometric[50 * 100 + 30], soft[50 * 100 + 30]);
+        assertEquals(geometric[50 * 100 + 70], soft[50 * 100 + 70]);
+    }
+
+    private static int @NotNull [] render(@NotNull SVGDocument document, @NotNull RenderMetrics metrics) {
+        return render(document, metrics, SVGRenderingHints.DEFAULT_SOFT_CLIP_THRESHOLD);
+    }
+
+    private static int @NotNull [] render(@NotNull SVGDocument document, @NotNull RenderMetrics metrics,
+            int softClipThreshold) {
+        return render(document, metrics, softClipThreshold, null);
+    }
+
+    private static int @NotNull [] render(@NotNull SVGDocument document, @NotNull RenderMetrics metrics,
+            int softClipThreshold, @Nullable Object imageAntialiasing) {
+        BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(SVGRenderingHints.KEY_RENDER_LISTENER, metrics);
+        g.setRenderingHint(SVGRenderingHints.KEY_SOFT_CLIP_THRESHOLD, softClipThreshold);
+        if (imageAntialiasing != null) {
+            g.setRenderingHint(SVGRenderingHints.KEY_IMAGE_ANTIALIASING, imageAntialiasing);
+        }
+        document.render(null, g);
+        g.dispose();
+        return image.getRGB(0, 0, 100, 100, null, 0, 100);
+    }
 }
@@ -26,12 +26,63 @@ import static com.github.weisj.jsvg.ReferenceTest.compareImages;
 import static com.github.weisj.jsvg.ReferenceTest.render;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.ConvolveOp;
+import java.awt.image.Kernel;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.EnabledForJreRange;
 import org.junit.jupiter.api.condition.JRE;
 
+import com.github.weisj.jsvg.nodes.filter.FeGaussianBlur;
+import com.github.weisj.jsvg.parser.SVGLoader;
+
 class FilterTest {
 
+    private static final String DROP_SHADOW = "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"100\" height=\"100\">"
+            + "<filter id=\"shadow\"><feOffset in=\"SourceAlpha\" dx=\"3\" dy=\"3\"/>"
+            + "<feGaussianBlur stdDeviation=\"2\"/>"
+            + "<feMerge><feMergeNode/><feMergeNode in=\"SourceGraphic\"/></feMerge></filter>"
+            + "<rect x=\"20\" y=\"20\" width=\"40\" height=\"40\" fill=\"orange\" filter=\"url(#shadow)\"/>"
+            + "</svg>";
+
+    private static final String NOISE = "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"100\" height=\"100\">"
+            + "<filter id=\"noise\" x=\"0\" y=\"0\" width=\"1\" height=\"1\">"
+            + "<feTurbulence baseFrequency=\"0.05\" numOctaves=\"2\"/>"
+            + "<feComposite in2=\"SourceGraphic\" operator=\"in\"/></filter>"
+            + "<rect width=\"100\" height=\"100\" fill=\"white\" filter=\"url(#noise)\"/>"
+            + "</svg>";
+
+    private static final String COLOR_MATRIX =
+            "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"100\" height=\"100\">"
+            + "<filter id=\"matrix\"><feColorMatrix type=\"%s\" values=\"%s\"/></filter>"
+            + "<circle cx=\"50\" cy=\"50\" r=\"40\" fill=\"orange\" fill-opacity=\"0.7\" filter=\"url(#matrix)\"/>"
+            + "</svg>";
+
+    private static final String EDGE_MODE_BLUR =
+            "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"100\" height=\"100\">"
+            + "<filter id=\"blur\" x=\"0\" y=\"0\" width=\"1\" height=\"1\">"
+            + "<feGaussianBlur stdDeviation=\"4\" edgeMode=\"%s\"/></filter>"
+            + "<g filter=\"url(#blur)\"><rect width=\"50\" height=\"100\" fill=\"red\"/>"
+            + "<rect x=\"50\" width=\"50\" height=\"100\" fill=\"blue\"/></g>"
+            + "</svg>";
+
+    private static final String SMALL_BLUR =
+            "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"100\" height=\"100\">"
+            + "<filter id=\"blur\" filterUnits=\"userSpaceOnUse\" x=\"0\" y=\"0\" width=\"100\" height=\"100\">"
+            + "<feGaussianBlur stdDeviation=\"%s\"/></filter>"
+            + "<g %s><circle cx=\"35\" cy=\"40\" r=\"25\" fill=\"orange\" fill-opacity=\"0.8\"/>"
+            + "<rect x=\"40\" y=\"30\" width=\"45\" height=\"50\" fill=\"blue\" fill-opacity=\"0.5\""
+            + " transform=\"rotate(15 60 55)\"/></g>"
+            + "</svg>";
+
     @Test
     void testGaussianBlur() {
         assertEquals(SUCCESS, compareImages("filter/blur.svg", 0.6));
@@ -46,12 +97,73 @@ class FilterTest {
         assertDoesNotThrow(() -> render("filter/edgeModeWrap.svg"));
     }
 
+    @Test
+    void edgeModesSampleOutsideOfBuffer() {
+        // Pixels at the left and right edge of the buffer. Only wrapping pulls in the color of the opposite edge.
+        int[] duplicate = renderEdgeMode("duplicate");
+        assertTrue((duplicate[50 * 100] >>> 24) >= 0xF0);
+        assertEquals(0, duplicate[50 * 100] & 0xFF);
+        assertEquals(0, (duplicate[50 * 100 + 99] >> 16) & 0xFF);
+
+        int[] wrap = renderEdgeMode("wrap");
+        assertTrue((wrap[50 * 100] >>> 24) >= 0xF0);
+        assertTrue((wrap[50 * 100] & 0xFF) > 0);
+        assertEquals((wrap[50 * 100] >> 16) & 0xFF, wrap[50 * 100 + 99] & 0xFF);
+
+        int[] none = renderEdgeMode("none");
+        assertTrue((none[50 * 100] >>> 24) < 0xC0);
+        assertTrue((none[50 * 100 + 99] >>> 24) < 0xC0);
+    }
+
+    @Test
+    void smallBlurMatchesConvolveOp() {
+        // Away from the edges of the buffer the gaussian kernel produces exactly the result of ConvolveOp.
+        for (String sigma : new String[] {"0.6", "1.2", "1.9"}) {
+            int[] blurred = renderSvg(String.format(SMALL_BLUR, sigma, "filter=\"url(#blur)\""));
+
+            SVGDocument document = Objects.requireNonNull(new SVGLoader().load(new ByteArrayInputStream(
+                    String.format(SMALL_BLUR, sigma, "").getBytes(StandardCharsets.UTF_8))));
+            BufferedImage source = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g = source.createGraphics();
+            document.render(null, g);
+            g.dispose();
+            float[] kernel = gaussianKernel(Double.parseDouble(sigma));
+            BufferedImage convolved = new ConvolveOp(new Kernel(kernel.length, 1, kernel), ConvolveOp.EDGE_NO_OP, null)
+                    .filter(source, null);
+            convolved = new ConvolveOp(new Kernel(1, kernel.length, kernel), ConvolveOp.EDGE_NO_OP, null)
+                    .filter(convolved, null);
+            BufferedImage expected = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+            g = expected.createGraphics();
+            g.drawImage(convolved, 0, 0, null);
+            g.dispose();
+
+            int margin = kernel.length / 2;
+            for (int y = margin; y < 100 - margin; y++) {
+                for (int x = margin; x < 100 - margin; x++) {
+                    assertEquals(expected.getRGB(x, y), blurred[y * 100 + x],
+                            "Pixel at " + x + "," + y + " for stdDeviation " + sigma);
+                }
+            }
+        }
+    }
+
     @Test
     void testGaussianBlurNotThrowing() {
         assertDoesNotThrow(() -> render("filter/blur.svg"));
         assertDoesNotThrow(() -> render("filter/blur2.svg"));
     }
 
+    @Test
+    void skipsNearIdentityColorMatrices() {
+        int[] identity = renderSvg(String.format(COLOR_MATRIX, "matrix",
+                "1 0 0 0 0  0 1 0 0 0  0 0 1 0 0  0 0 0 1 0"));
+        assertArrayEquals(identity, renderSvg(String.format(COLOR_MATRIX, "matrix",
+                "1.0005 0 0 0 0  0 1 0 0 0.0001  0 0 0.9999 0 0  0 0 0 1 0")));
+        assertArrayEquals(identity, renderSvg(String.format(COLOR_MATRIX, "hueRotate", "0")));
+        assertArrayEquals(identity, renderSvg(String.format(COLOR_MATRIX, "saturate", "1")));
+        assertFalse(Arrays.equals(identity, renderSvg(String.format(COLOR_MATRIX, "saturate", "0.5"))));
+    }
+
     @Test
     void testColorMatrix() {
         assertEquals(SUCCESS, compareImages("filter/colormatrix.svg", 1.5));
@@ -109,4 +221,205 @@ class FilterTest {
         assertDoesNotThrow(() -> render("filter/outOfBoundsHidden.svg"));
         assertEquals(SUCCESS, compareImages("filter/outOfBoundsHidden.svg"));
     }
+
+    private static final String FILTER_GRAPH =
+            "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"100\" height=\"100\">"
+            + "<filter id=\"graph\">%s</filter>"
+            + "<g filter=\"url(#graph)\"><circle cx=\"50\" cy=\"50\" r=\"30\" fill=\"orange\" fill-opacity=\"0.7\"/>"
+            + "<rect x=\"10\" y=\"10\" width=\"30\" height=\"20\" fill=\"navy\"/></g>"
+            + "</svg>";
+
+    @Test
+    void reusesFilterResults() {
+        SVGDocument document = Objects.requireNonNull(
+                new SVGLoader().load(new ByteArrayInputStream(DROP_SHADOW.getBytes(StandardCharsets.UTF_8))));
+        RenderMetrics metrics = new RenderMetrics();
+        Object cacheOn = SVGRenderingHints.VALUE_FILTER_CACHE_ON;
+
+        int[] first = render(document, metrics, 1, 0, cacheOn);
+        assertEquals(1, metrics.cacheMisses(RenderListener.Cache.FILTER));
+        assertEquals(1, metrics.phaseDurations(RenderListener.Phase.FILTER_SETUP).count());
+
+        int[] second = render(document, metrics, 1, 0, cacheOn);
+        assertEquals(1, metrics.cacheHits(RenderListener.Cache.FILTER));
+        assertEquals(1, metrics.phaseDurations(RenderListener.Phase.FILTER_SETUP).count());
+        assertArrayEquals(first, second);
+
+        // Integral translations don't change the result.
+        int[] translated = render(document, metrics, 1, 10, cacheOn);
+        assertEquals(2, metrics.cacheHits(RenderListener.Cache.FILTER));
+        assertArrayEquals(first, translated);
+
+        // A different scale requires the filter to be applied again.
+        render(document, metrics, 2, 0, cacheOn);
+        assertEquals(2, metrics.cacheMisses(RenderListener.Cache.FILTER));
+
+        render(document, metrics, 1, 0, SVGRenderingHints.VALUE_FILTER_CACHE_OFF);
+        assertEquals(2, metrics.cacheHits(RenderListener.Cache.FILTER));
+        assertEquals(2, metrics.cacheMisses(RenderListener.Cache.FILTER));
+        assertEquals(3, metrics.phaseDurations(RenderListener.Phase.FILTER_SETUP).count());
+
+        // The cache has to be turned on explicitly.
+        render(document, metrics, 1, 0, null);
+        assertEquals(2, metrics.cacheHits(RenderListener.Cache.FILTER));
+        assertEquals(2, metrics.cacheMisses(RenderListener.Cache.FILTER));
+    }
+
+    @Test
+    void cachedFilterResultsMatchUncachedRendering() {
+        Object[][] hintSets = {
+            {},
+            {RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON},
+            {RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED},
+        };
+        for (String svg : new String[] {DROP_SHADOW, NOISE}) {
+            SVGDocument document = Objects.requireNonNull(
+                    new SVGLoader().load(new ByteArrayInputStream(svg.getBytes(StandardCharsets.UTF_8))));
+            RenderMetrics metrics = new RenderMetrics();
+            // Repaint after translations, scaling and changes of the rendering hints.
+            for (Object[] hints : hintSets) {
+                for (double scale : new double[] {1, 1.5}) {
+                    for (int offset : new int[] {0, 13, 7}) {
+                        int[] cached = render(document, metrics, scale, offset,
+                                SVGRenderingHints.VALUE_FILTER_CACHE_ON, hints);
+                        SVGDocument uncachedDocument = Objects.requireNonNull(
+                                new SVGLoader().load(new ByteArrayInputStream(svg.getBytes(StandardCharsets.UTF_8))));
+                        int[] uncached = render(uncachedDocument, new RenderMetrics(), scale, offset,
+                                SVGRenderingHints.VALUE_FILTER_CACHE_OFF, hints);
+                        assertArrayEquals(uncached, cached);
+                    }
+                }
+            }
+            assertEquals(hintSets.length * 2, metrics.cacheMisses(RenderListener.Cache.FILTER));
+            assertEquals(hintSets.length * 2 * 2, metrics.cacheHits(RenderListener.Cache.FILTER));
+        }
+    }
+
+    @Test
+    void reusesTurbulenceTiles() {
+        SVGDocument document = Objects.requireNonNull(
+                new SVGLoader().load(new ByteArrayInputStream(NOISE.getBytes(StandardCharsets.UTF_8))));
+        RenderMetrics metrics = new RenderMetrics();
+        Object cacheOff = SVGRenderingHints.VALUE_FILTER_CACHE_OFF;
+
+        int[] first = render(document, metrics, 1, 0, cacheOff);
+        assertEquals(1, metrics.cacheMisses(RenderListener.Cache.TURBULENCE));
+
+        int[] second = render(document, metrics, 1, 0, cacheOff);
+        assertEquals(1, metrics.cacheHits(RenderListener.Cache.TURBULENCE));
+        assertArrayEquals(first, second);
+
+        render(document, metrics, 2, 0, cacheOff);
+        assertEquals(2, metrics.cacheMisses(RenderListener.Cache.TURBULENCE));
+    }
+
+    @Test
+    void compilesFilterGraph() {
+        RenderMetrics metrics = new RenderMetrics();
+        int[] pointwise = renderSvg(String.format(FILTER_GRAPH,
+                "<feGaussianBlur stdDeviation=\"5\" result=\"unused\"/>"
+                        + "<feOffset in=\"SourceGraphic\" dx=\"3\" dy=\"2\"/>"
+                        + "<feColorMatrix type=\"saturate\" values=\"0.2\"/>"),
+                metrics);
+        // The unused blur is dropped, offset and color matrix are applied in a single step.
+        assertEquals(1, metrics.phaseDurations(RenderListener.Phase.FILTER_PRIMITIVE).count());
+        // A merge in between prevents fusing the primitives.
+        assertArrayEquals(renderSvg(String.format(FILTER_GRAPH,
+                "<feOffset dx=\"3\" dy=\"2\"/><feMerge><feMergeNode/></feMerge>"
+                        + "<feColorMatrix type=\"saturate\" values=\"0.2\"/>")),
+                pointwise);
+
+        metrics = new RenderMetrics();
+        int[] maskedFlood = renderSvg(String.format(FILTER_GRAPH,
+                "<feFlood flood-color=\"purple\" flood-opacity=\"0.6\"/>"
+                        + "<feComposite in2=\"SourceAlpha\" operator=\"in\"/>"),
+                metrics);
+        assertEquals(1, metrics.phaseDurations(RenderListener.Phase.FILTER_PRIMITIVE).count());
+        assertArrayEquals(renderSvg(String.format(FILTER_GRAPH,
+                "<feFlood flood-color=\"purple\" flood-opacity=\"0.6\"/><feMerge><feMergeNode/></feMerge>"
+                        + "<feComposite in2=\"SourceAlpha\" operator=\"in\"/>")),
+                maskedFlood);
+    }
+
+    @Test
+    void respectsPrimitiveSubregions() {
+        Rectangle region = new Rectangle(20, 25, 40, 30);
+        String subregion = String.format("x=\"%d\" y=\"%d\" width=\"%d\" height=\"%d\"",
+                region.x, region.y, region.width, region.height);
+
+        assertRestricted(renderSvg(String.format(FILTER_GRAPH, "<feGaussianBlur stdDeviation=\"4\"/>")),
+                renderSvg(String.format(FILTER_GRAPH, "<feGaussianBlur stdDeviation=\"4\" " + subregion + "/>")),
+                region);
+        // The blur only computes the part read by the offset.
+        assertRestricted(
+                renderSvg(String.format(FILTER_GRAPH, "<feGaussianBlur stdDeviation=\"4\"/><feOffset dx=\"7\"/>")),
+                renderSvg(String.format(FILTER_GRAPH,
+                        "<feGaussianBlur stdDeviation=\"4\"/><feOffset dx=\"7\" " + subregion + "/>")),
+                region);
+        assertRestricted(
+                renderSvg(String.format(FILTER_GRAPH, "<feOffset dx=\"3\" dy=\"2\"/>"
+                        + "<feColorMatrix type=\"saturate\" values=\"0.2\"/>")),
+                renderSvg(String.format(FILTER_GRAPH, "<feOffset dx=\"3\" dy=\"2\" " + subregion + "/>"
+                        + "<feColorMatrix type=\"saturate\" values=\"0.2\"/>")),
+                region);
+    }
+
+    private static void assertRestricted(int @NotNull [] expected, int @NotNull [] actual,
+            @NotNull Rectangle region) {
+        for (int y = 0; y < 100; y++) {
+            for (int x = 0; x < 100; x++) {
+                int i = y * 100 + x;
+                if (region.contains(x, y)) {
+                    assertEquals(expected[i], actual[i], "Pixel inside the region at " + x + "," + y);
+                } else {
+                    assertEquals(0, actual[i], "Pixel outside the region at " + x + "," + y);
+                }
+            }
+        }
+    }
+
+    private static float @NotNull [] gaussianKernel(double sigma) {
+        int diameter = FeGaussianBlur.kernelDiameterForStandardDeviation(sigma);
+        float[] kernel = new float[diameter];
+        float total = 0;
+        for (int i = 0; i < diameter; i++) {
+            float x = (float) i - diameter / 2;
+            kernel[i] = (float) (Math.exp(-x * x / (2 * sigma * sigma)) / (sigma * Math.sqrt(2 * Math.PI)));
+            total += kernel[i];
+        }
+        for (int i = 0; i < diameter; i++) {
+            kernel[i] /= total;
+        }
+        return kernel;
+    }
+
+    private static int @NotNull [] renderEdgeMode(@NotNull String edgeMode) {
+        return renderSvg(String.format(EDGE_MODE_BLUR, edgeMode));
+    }
+
+    private static int @NotNull [] renderSvg(@NotNull String svg) {
+        return renderSvg(svg, new RenderMetrics());
+    }
+
+    private static int @NotNull [] renderSvg(@NotNull String svg, @NotNull RenderMetrics metrics) {
+        SVGDocument document = Objects.requireNonNull(
+                new SVGLoader().load(new ByteArrayInputStream(svg.getBytes(StandardCharsets.UTF_8))));
+        return render(document, metrics, 1, 0, null);
+    }
+
+    private static int @NotNull [] render(@NotNull SVGDocument document, @NotNull RenderMetrics metrics,
+            double scale, int offset, @Nullable Object filterCache, @NotNull Object... hints) {
+        BufferedImage image = new BufferedImage(100 + offset, 100 + offset, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        for (int i = 0; i < hints.length; i += 2) {
+            g.setRenderingHint((RenderingHints.Key) hints[i], hints[i + 1]);
+        }
+        g.setRenderingHint(SVGRenderingHints.KEY_RENDER_LISTENER, metrics);
+        if (filterCache != null) g.setRenderingHint(SVGRenderingHints.KEY_FILTER_CACHE, filterCache);
+        g.translate(offset, offset);
+        g.scale(scale, scale);
+        document.render(null, g);
+        g.dispose();
+        return image.getRGB(offset, offset, 100, 100, null, 0, 100);
+    }
 }
@@ -24,11 +24,31 @@ package com.github.weisj.jsvg;
 import static com.github.weisj.jsvg.ReferenceTest.ReferenceTestResult.SUCCESS;
 import static com.github.weisj.jsvg.ReferenceTest.compareImages;
 import static com.github.weisj.jsvg.ReferenceTest.render;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
+import com.github.weisj.jsvg.geometry.size.FloatSize;
+import com.github.weisj.jsvg.parser.SVGLoader;
+import com.github.weisj.jsvg.renderer.jdk.GradientLookup;
+import com.github.weisj.jsvg.renderer.jdk.SVGLinearGradientPaint;
+import com.github.weisj.jsvg.renderer.jdk.SVGRadialGradientPaint;
+
 class GradientTest {
 
     @Test
@@ -48,4 +68,102 @@ class GradientTest {
     void radialGradientOutOfMemory() {
         assertDoesNotThrow(() -> render("gradient/bad_gradient_stop_issue_51.svg"));
     }
+
+    @Test
+    void sharedLookupPaintsSameColors() {
+        float[] fractions = {0, 0.3f, 1};
+        Color[] colors = {Color.RED, Color.GREEN, Color.BLUE};
+        MultipleGradientPaint.ColorSpaceType colorSpace = MultipleGradientPaint.ColorSpaceType.SRGB;
+        GradientLookup lookup = new GradientLookup(fractions, colors, colorSpace);
+
+        int[] expected = paint(linearPaint(fractions, colors, null));
+        assertArrayEquals(expected, paint(linearPaint(fractions, colors, lookup)));
+        assertArrayEquals(expected, paint(linearPaint(fractions, colors, lookup)));
+        assertThrows(IllegalArgumentException.class,
+                () -> linearPaint(fractions.clone(), colors, lookup));
+    }
+
+    @Test
+    void rendersGradientsConcurrently() throws Exception {
+        String[] paths = {"gradient/stripes.svg", "gradient/radialGradient.svg", "gradient/linearGradient.svg"};
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (String path : paths) {
+                SVGDocument document = Objects.requireNonNull(
+                        new SVGLoader().load(Objects.requireNonNull(GradientTest.class.getResource(path))));
+                int[] expected = pixels(rasterize(document));
+                List<Future<int[]>> results = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    results.add(executor.submit(() -> pixels(rasterize(document))));
+                }
+                for (Future<int[]> result : results) {
+                    assertArrayEquals(expected, result.get(), path);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void axisAlignedLinearGradientsMatchJdk() {
+        float[] fractions = {0, 0.3f, 1};
+        Color[] colors = {Color.RED, Color.GREEN, Color.BLUE};
+        Point2D start = new Point2D.Float(10, 10);
+        Point2D[] ends = {new Point2D.Float(40, 10), new Point2D.Float(10, 40), new Point2D.Float(40, 30)};
+        for (MultipleGradientPaint.CycleMethod cycleMethod : MultipleGradientPaint.CycleMethod.values()) {
+            for (Point2D end : ends) {
+                Paint expected = new LinearGradientPaint(start, end, fractions, colors, cycleMethod);
+                Paint actual = new SVGLinearGradientPaint(start, end, fractions, colors, cycleMethod,
+                        MultipleGradientPaint.ColorSpaceType.SRGB, new AffineTransform(), null);
+                assertArrayEquals(paint(expected), paint(actual), cycleMethod + " " + end);
+            }
+        }
+    }
+
+    @Test
+    void centeredRadialGradientFollowsDistance() {
+        float radius = 16;
+        Paint paint = new SVGRadialGradientPaint(new Point2D.Float(0, 50), radius, new Point2D.Float(0, 50), 0,
+                new float[] {0, 1}, new Color[] {Color.BLACK, Color.WHITE},
+                MultipleGradientPaint.CycleMethod.REPEAT, MultipleGradientPaint.ColorSpaceType.SRGB,
+                new AffineTransform(), null);
+        int[] pixels = paint(paint);
+        for (int x = 0; x < 100; x++) {
+            float g = x / radius;
+            int expected = (int) ((g - (int) g) * 255);
+            int actual = pixels[50 * 100 + x] & 0xFF;
+            assertEquals(expected, actual, 2, "x = " + x);
+        }
+    }
+
+    private static @NotNull BufferedImage rasterize(@NotNull SVGDocument document) {
+        FloatSize size = document.size();
+        BufferedImage image = new BufferedImage((int) size.width, (int) size.height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        document.render(null, g);
+        g.dispose();
+        return image;
+    }
+
+    private static @NotNull Paint linearPaint(float @NotNull [] fractions, @NotNull Color @NotNull [] colors,
+            GradientLookup lookup) {
+        return new SVGLinearGradientPaint(new Point2D.Float(0, 0), new Point2D.Float(50, 20), fractions, colors,
+                MultipleGradientPaint.CycleMethod.REFLECT, MultipleGradientPaint.ColorSpaceType.SRGB,
+                new AffineTransform(), lookup);
+    }
+
+    private static int @NotNull [] paint(@NotNull Paint paint) {
+        BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(paint);
+        g.fillRect(0, 0, 100, 100);
+        g.dispose();
+        return pixels(image);
+    }
+
+    private static int @NotNull [] pixels(@NotNull BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
 }
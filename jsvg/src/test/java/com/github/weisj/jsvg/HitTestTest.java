@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.jsvg.attributes.ViewBox;
+import com.github.weisj.jsvg.nodes.Circle;
+import com.github.weisj.jsvg.nodes.SVGNode;
+import com.github.weisj.jsvg.parser.SVGLoader;
+import com.github.weisj.jsvg.renderer.ShapeOutput;
+import com.github.weisj.jsvg.renderer.awt.NullPlatformSupport;
+
+class HitTestTest {
+
+    private static final String SVG = "<svg xmlns=\"http://www.w3.org/2000/svg\" "
+            + "xmlns:xlink=\"http://www.w3.org/1999/xlink\" width=\"100\" height=\"100\">"
+            + "<defs><rect id=\"template\" width=\"10\" height=\"10\"/></defs>"
+            + "<rect id=\"bottom\" x=\"0\" y=\"0\" width=\"60\" height=\"60\"/>"
+            + "<g id=\"group\"><circle cx=\"50\" cy=\"50\" r=\"20\"/></g>"
+            + "<rect id=\"outline\" x=\"70\" y=\"0\" width=\"20\" height=\"20\" fill=\"none\" "
+            + "stroke=\"black\" stroke-width=\"2\"/>"
+            + "<use id=\"instance\" xlink:href=\"#template\" x=\"80\" y=\"80\"/>"
+            + "</svg>";
+
+    private static final String SPIKE = "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"100\" height=\"100\">"
+            + "<polyline id=\"spike\" points=\"10,50 50,55 10,60\" fill=\"none\" stroke=\"black\" "
+            + "stroke-width=\"4\" stroke-miterlimit=\"10\"/>"
+            + "</svg>";
+
+    private static @NotNull SVGDocument load() {
+        return load(SVG);
+    }
+
+    private static @NotNull SVGDocument load(@NotNull String svg) {
+        return Objects.requireNonNull(new SVGLoader().load(
+                new ByteArrayInputStream(svg.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static @Nullable String hit(@NotNull SVGDocument document, double x, double y,
+            @Nullable ViewBox viewBox) {
+        SVGNode node = document.hitTest(new Point2D.Double(x, y), viewBox);
+        return node != null ? node.id() : null;
+    }
+
+    @Test
+    void testTopmostElementIsHit() {
+        SVGDocument document = load();
+        assertEquals("bottom", hit(document, 10, 10, null));
+        assertEquals("group", hit(document, 50, 50, null));
+        assertEquals("group", hit(document, 65, 50, null));
+        assertNull(hit(document, 95, 50, null));
+    }
+
+    @Test
+    void testOnlyPaintedGeometryIsHit() {
+        SVGDocument document = load();
+        assertEquals("outline", hit(document, 70, 10, null));
+        assertNull(hit(document, 80, 10, null));
+    }
+
+    @Test
+    void testUseIsAttributedToInstance() {
+        SVGDocument document = load();
+        assertEquals("instance", hit(document, 85, 85, null));
+        assertNull(hit(document, 5, 95, null));
+    }
+
+    @Test
+    void testViewBox() {
+        SVGDocument document = load();
+        ViewBox viewBox = new ViewBox(0, 0, 200, 200);
+        assertEquals("instance", hit(document, 170, 170, viewBox));
+        assertEquals("group", hit(document, 85, 85, viewBox));
+        assertNull(hit(document, 190, 100, viewBox));
+        assertEquals("instance", hit(document, 85, 85, null));
+    }
+
+    @Test
+    void testElementsIntersecting() {
+        SVGDocument document = load();
+        List<String> ids = document.elementsIntersecting(new Rectangle2D.Double(55, 0, 30, 90)).stream()
+                .map(SVGNode::id)
+                .collect(Collectors.toList());
+        assertEquals(List.of("bottom", "group", "outline", "instance"), ids);
+        assertTrue(document.elementsIntersecting(new Rectangle2D.Double(92, 30, 5, 5)).isEmpty());
+    }
+
+    @Test
+    void testMiterJoinsAreHit() {
+        // The miter of the sharp join reaches far beyond the points of the polyline.
+        SVGDocument document = load(SPIKE);
+        assertEquals("spike", hit(document, 60, 55, null));
+        assertNull(hit(document, 70, 55, null));
+    }
+
+    @Test
+    void testShapesKnowTheirNode() {
+        ShapeOutput output = new ShapeOutput();
+        load().renderWithPlatform(NullPlatformSupport.INSTANCE, output, null);
+        List<ShapeOutput.ElementShape> shapes = output.elementShapes();
+        ShapeOutput.ElementShape circle = shapes.stream()
+                .filter(shape -> shape.node() instanceof Circle)
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+        assertEquals("group", Objects.requireNonNull(circle.element()).id());
+        for (ShapeOutput.ElementShape shape : shapes) {
+            Rectangle2D bounds = shape.bounds();
+            Rectangle2D exactBounds = shape.shape().getBounds2D();
+            assertTrue(bounds.contains(exactBounds), () -> bounds + " doesn't contain " + exactBounds);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.jsvg.parser.SVGLoader;
+import com.github.weisj.jsvg.renderer.Graphics2DOutput;
+import com.github.weisj.jsvg.renderer.Output;
+import com.github.weisj.jsvg.renderer.awt.NullPlatformSupport;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+class JfrEventsTest {
+
+    private static final String[] EVENTS = {"Parse", "Build", "Render", "Filter", "BufferAllocation"};
+
+    @Test
+    void recordsLoadingAndRendering() throws IOException {
+        List<RecordedEvent> events = record(() -> {
+            URL url = Objects.requireNonNull(JfrEventsTest.class.getResource("filter/blur.svg"));
+            SVGDocument document = Objects.requireNonNull(new SVGLoader().load(url));
+            BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = image.createGraphics();
+            document.render(null, g);
+            g.dispose();
+        });
+
+        RecordedEvent parse = single(events, "Parse");
+        assertTrue(parse.getBoolean("success"));
+        assertEquals(5, parse.getInt("elementCount"));
+        int documentId = parse.getInt("documentId");
+
+        List<String> phases = ofType(events, "Build").stream()
+                .peek(e -> assertEquals(documentId, e.getInt("documentId")))
+                .map(e -> e.getString("phase"))
+                .collect(Collectors.toList());
+        assertTrue(phases.containsAll(List.of("css", "build", "useValidation")), phases::toString);
+
+        RecordedEvent render = single(events, "Render");
+        assertEquals(documentId, render.getInt("documentId"));
+        assertEquals(230, render.getFloat("width"));
+        assertEquals(120, render.getFloat("height"));
+
+        RecordedEvent filter = single(events, "Filter");
+        assertEquals("blurMe", filter.getString("filterId"));
+        assertEquals(1, filter.getInt("primitiveCount"));
+        assertEquals(documentId, filter.getInt("documentId"));
+
+        RecordedEvent buffer = single(events, "BufferAllocation");
+        assertEquals(filter.getInt("bufferWidth"), buffer.getInt("width"));
+        assertEquals(4L * buffer.getInt("width") * buffer.getInt("height"), buffer.getLong("bytes"));
+
+        // Events on the rendering path are frequent, hence they don't record stack traces.
+        assertNull(render.getStackTrace());
+        assertNull(filter.getStackTrace());
+        assertNull(buffer.getStackTrace());
+    }
+
+    @Test
+    void recordsFailedRenders() throws IOException {
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"40\" height=\"30\"><rect width=\"10\" "
+                + "height=\"10\"/></svg>";
+        SVGDocument document = Objects.requireNonNull(
+                new SVGLoader().load(new ByteArrayInputStream(svg.getBytes(StandardCharsets.UTF_8))));
+        List<RecordedEvent> events = record(() -> {
+            BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = image.createGraphics();
+            Output output = new Graphics2DOutput(g) {
+                @Override
+                public @NotNull Output createChild() {
+                    throw new IllegalStateException("Failing output");
+                }
+            };
+            assertThrows(IllegalStateException.class,
+                    () -> document.renderWithPlatform(NullPlatformSupport.INSTANCE, output, null));
+            g.dispose();
+        });
+
+        RecordedEvent render = single(events, "Render");
+        assertEquals(40, render.getFloat("width"));
+        assertEquals(30, render.getFloat("height"));
+    }
+
+    private interface Action {
+        void run() throws IOException;
+    }
+
+    private static @NotNull List<RecordedEvent> record(@NotNull Action action) throws IOException {
+        Path file = Files.createTempFile("jsvg", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                for (String event : EVENTS) {
+                    recording.enable("com.github.weisj.jsvg." + event).withThreshold(Duration.ZERO);
+                }
+                recording.start();
+                action.run();
+                recording.stop();
+                recording.dump(file);
+            }
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static @NotNull List<RecordedEvent> ofType(@NotNull List<RecordedEvent> events, @NotNull String name) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.github.weisj.jsvg." + name))
+                .collect(Collectors.toList());
+    }
+
+    private static @NotNull RecordedEvent single(@NotNull List<RecordedEvent> events, @NotNull String name) {
+        List<RecordedEvent> matching = ofType(events, name);
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+}
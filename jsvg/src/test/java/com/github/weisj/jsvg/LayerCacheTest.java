@@ -0,0 +1,217 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.jsvg.parser.SVGLoader;
+
+class LayerCacheTest {
+
+    private static @NotNull SVGDocument load(@NotNull String path) throws IOException {
+        URL url = Objects.requireNonNull(LayerCacheTest.class.getResource(path), path);
+        return Objects.requireNonNull(new SVGLoader().load(url));
+    }
+
+    private static @NotNull SVGDocument parse(@NotNull String svg) {
+        return Objects.requireNonNull(new SVGLoader().load(
+                new ByteArrayInputStream(svg.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static @NotNull BufferedImage render(@NotNull SVGDocument document, @Nullable LayerCache cache,
+            int dx, int dy) {
+        BufferedImage image = new BufferedImage(200, 200, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        if (cache != null) g.setRenderingHint(SVGRenderingHints.KEY_LAYER_CACHE, cache);
+        g.translate(dx, dy);
+        document.render(null, g);
+        g.dispose();
+        return image;
+    }
+
+    private static void assertSameImage(@NotNull BufferedImage expected, @NotNull BufferedImage actual) {
+        assertSameImage(expected, actual, "");
+    }
+
+    private static void assertSameImage(@NotNull BufferedImage expected, @NotNull BufferedImage actual,
+            @NotNull String message) {
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), message + " Pixel at " + x + ", " + y);
+            }
+        }
+    }
+
+    private static void assertSimilarImage(@NotNull BufferedImage expected, @NotNull BufferedImage actual,
+            int tolerance, @NotNull String message) {
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                int e = expected.getRGB(x, y);
+                int a = actual.getRGB(x, y);
+                for (int shift = 0; shift < 32; shift += 8) {
+                    int difference = Math.abs(premultipliedChannel(e, shift) - premultipliedChannel(a, shift));
+                    assertTrue(difference <= tolerance, message + " Pixel at " + x + ", " + y + " expected "
+                            + Integer.toHexString(e) + " but was " + Integer.toHexString(a));
+                }
+            }
+        }
+    }
+
+    private static int premultipliedChannel(int argb, int shift) {
+        int alpha = argb >>> 24;
+        int channel = (argb >>> shift) & 0xFF;
+        return shift == 24 ? alpha : channel * alpha / 255;
+    }
+
+    private static @NotNull String[] corpus() {
+        String pack = LayerCacheTest.class.getPackage().getName();
+        try (ResourceWalker walker = ResourceWalker.walkResources(pack)) {
+            return walker.stream().filter(p -> p.endsWith("svg"))
+                    .map(p -> p.substring(pack.length() + 1))
+                    .sorted()
+                    .toArray(String[]::new);
+        }
+    }
+
+    @Test
+    void cachedLayerMatchesUncachedRendering() throws IOException {
+        SVGDocument document = load("filter/blur.svg");
+        LayerCache cache = new LayerCache(16 << 20);
+        BufferedImage expected = render(document, null, 0, 0);
+
+        assertSameImage(expected, render(document, cache, 0, 0));
+        assertEquals(1, cache.layerCount());
+        assertSameImage(expected, render(document, cache, 0, 0));
+        assertEquals(1, cache.layerCount());
+    }
+
+    @Test
+    void cachedLayersMatchUncachedRenderingOfCorpus() throws IOException {
+        for (String path : corpus()) {
+            SVGDocument document;
+            SVGDocument cachedDocument;
+            try {
+                document = load(path);
+                cachedDocument = load(path);
+            } catch (RuntimeException e) {
+                // Some documents are expected to be rejected by the loader.
+                continue;
+            }
+            LayerCache cache = new LayerCache(64 << 20);
+            // Without a layer filters and masks cut by the clip are computed from the visible part only.
+            assertSimilarImage(render(document, null, 0, 0), render(cachedDocument, cache, 0, 0), 64, path);
+            // Repaints at another offset are served from the cache.
+            int layerCount = cache.layerCount();
+            assertSimilarImage(render(document, null, 7, 7), render(cachedDocument, cache, 7, 7), 64, path);
+            assertEquals(layerCount, cache.layerCount(), path);
+        }
+    }
+
+    @Test
+    void layersAreReusedWhileScrollingScaledClippedContent() {
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"150\" height=\"300\">"
+                + "<filter id=\"blur\"><feGaussianBlur stdDeviation=\"3\"/></filter>"
+                + "<clipPath id=\"clip\"><circle cx=\"75\" cy=\"150\" r=\"50\"/></clipPath>"
+                + "<rect x=\"20\" y=\"20\" width=\"80\" height=\"80\" fill=\"red\" filter=\"url(#blur)\"/>"
+                + "<rect x=\"25\" y=\"100\" width=\"100\" height=\"100\" fill=\"green\" clip-path=\"url(#clip)\"/>"
+                + "</svg>";
+        SVGDocument document = parse(svg);
+        SVGDocument cachedDocument = parse(svg);
+        LayerCache cache = new LayerCache(64 << 20);
+
+        RenderMetrics metrics = new RenderMetrics();
+        assertSameImage(renderScrolled(document, null, null, 50),
+                renderScrolled(cachedDocument, cache, metrics, 50));
+        assertEquals(0, metrics.cacheHits(RenderListener.Cache.LAYER));
+        assertEquals(2, metrics.cacheMisses(RenderListener.Cache.LAYER));
+        assertEquals(2, cache.layerCount());
+
+        metrics.reset();
+        assertSameImage(renderScrolled(document, null, null, 80),
+                renderScrolled(cachedDocument, cache, metrics, 80));
+        assertEquals(2, metrics.cacheHits(RenderListener.Cache.LAYER));
+        assertEquals(0, metrics.cacheMisses(RenderListener.Cache.LAYER));
+        assertEquals(2, cache.layerCount());
+    }
+
+    private static @NotNull BufferedImage renderScrolled(@NotNull SVGDocument document, @Nullable LayerCache cache,
+            @Nullable RenderListener listener, int scroll) {
+        BufferedImage image = new BufferedImage(300, 400, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        if (cache != null) g.setRenderingHint(SVGRenderingHints.KEY_LAYER_CACHE, cache);
+        if (listener != null) g.setRenderingHint(SVGRenderingHints.KEY_RENDER_LISTENER, listener);
+        g.scale(2, 2);
+        g.clipRect(0, 0, 150, 200);
+        g.translate(0, -scroll);
+        document.render(null, g);
+        g.dispose();
+        return image;
+    }
+
+    @Test
+    void maskedElementsAreLayered() throws IOException {
+        SVGDocument document = load("mask/mask2.svg");
+        LayerCache cache = new LayerCache(64 << 20);
+        BufferedImage cached = render(document, cache, 0, 0);
+        assertTrue(cache.layerCount() > 0);
+        // Masks are composited into the layer, which may round differently.
+        assertSimilarImage(render(document, null, 0, 0), cached, 3, "");
+    }
+
+    @Test
+    void layerIsReusedAtIntegralOffsets() throws IOException {
+        SVGDocument document = load("filter/blur.svg");
+        LayerCache cache = new LayerCache(16 << 20);
+        render(document, cache, 0, 0);
+        long bytes = cache.currentBytes();
+
+        render(document, cache, 13, -7);
+        assertEquals(1, cache.layerCount());
+        assertEquals(bytes, cache.currentBytes());
+
+        cache.clear();
+        assertEquals(0, cache.layerCount());
+        assertEquals(0, cache.currentBytes());
+    }
+
+    @Test
+    void layersExceedingTheBudgetAreNotCached() throws IOException {
+        SVGDocument document = load("filter/blur.svg");
+        LayerCache cache = new LayerCache(16);
+        assertSameImage(render(document, null, 0, 0), render(document, cache, 0, 0));
+        assertEquals(0, cache.layerCount());
+    }
+}
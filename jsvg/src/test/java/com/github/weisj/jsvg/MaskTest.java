@@ -26,10 +26,20 @@ import static com.github.weisj.jsvg.ReferenceTest.compareImages;
 import static com.github.weisj.jsvg.ReferenceTest.render;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
+import com.github.weisj.jsvg.parser.SVGLoader;
+
 class MaskTest {
 
     @Test
@@ -66,4 +76,90 @@ class MaskTest {
     void emptyGroupReportsCorrectSize() {
         assertDoesNotThrow(() -> render("mask/empty_group_issue_48.svg"));
     }
+
+    @Test
+    void reusesMaskRasters() {
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"100\" height=\"25\">"
+                + "<mask id=\"mask\"><circle cx=\"10\" cy=\"10\" r=\"8\" fill=\"white\"/></mask>"
+                + "<rect width=\"20\" height=\"20\" fill=\"red\" mask=\"url(#mask)\"/>"
+                + "<rect width=\"20\" height=\"20\" fill=\"green\" mask=\"url(#mask)\" "
+                + "transform=\"translate(25 0)\"/>"
+                + "<rect width=\"20\" height=\"20\" fill=\"blue\" mask=\"url(#mask)\" "
+                + "transform=\"translate(50 0)\"/>"
+                + "<rect x=\"75\" width=\"20\" height=\"20\" fill=\"red\" mask=\"url(#mask)\"/></svg>";
+        SVGDocument document = Objects.requireNonNull(
+                new SVGLoader().load(new ByteArrayInputStream(svg.getBytes(StandardCharsets.UTF_8))));
+        RenderMetrics metrics = new RenderMetrics();
+
+        BufferedImage first = render(document, metrics);
+        // Translated elements with the same bounds share the mask, the last one has different bounds.
+        assertEquals(2, metrics.cacheMisses(RenderListener.Cache.MASK));
+        assertEquals(2, metrics.cacheHits(RenderListener.Cache.MASK));
+
+        BufferedImage second = render(document, metrics);
+        assertEquals(2, metrics.cacheMisses(RenderListener.Cache.MASK));
+        assertEquals(6, metrics.cacheHits(RenderListener.Cache.MASK));
+        for (int x = 0; x < 100; x++) {
+            for (int y = 0; y < 25; y++) {
+                assertEquals(first.getRGB(x, y), second.getRGB(x, y));
+            }
+        }
+        // The shared mask is positioned for each element.
+        assertEquals(first.getRGB(10, 10) & 0xFF000000, first.getRGB(60, 10) & 0xFF000000);
+        assertEquals(0, first.getRGB(21, 10));
+        assertEquals(0, first.getRGB(46, 10));
+    }
+
+    @Test
+    void masksPremultipliedPaints() {
+        // Patterns are painted from premultiplied tiles, whose colors have to be scaled along with the alpha.
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"100\" height=\"25\">"
+                + "<pattern id=\"pattern\" width=\"4\" height=\"4\" patternUnits=\"userSpaceOnUse\">"
+                + "<rect width=\"4\" height=\"4\" fill=\"#808080\"/></pattern>"
+                + "<mask id=\"mask\"><rect width=\"100\" height=\"25\" fill=\"white\" fill-opacity=\"0.5\"/></mask>"
+                + "<rect width=\"100\" height=\"25\" fill=\"white\"/>"
+                + "<rect width=\"100\" height=\"25\" fill=\"url(#pattern)\" mask=\"url(#mask)\"/></svg>";
+        SVGDocument document = Objects.requireNonNull(
+                new SVGLoader().load(new ByteArrayInputStream(svg.getBytes(StandardCharsets.UTF_8))));
+        int rgb = render(document, new RenderMetrics()).getRGB(50, 12);
+        assertEquals(191, (rgb >> 8) & 0xFF, 2);
+    }
+
+    @Test
+    void reusesMasksAcrossIntegralTranslations() {
+        for (String path : new String[] {"mask/maskUnits.svg", "mask/mask2.svg", "mask/nestedMask.svg"}) {
+            SVGDocument document = load(path);
+            RenderMetrics metrics = new RenderMetrics();
+            for (Point offset : new Point[] {new Point(0, 0), new Point(13, 7)}) {
+                BufferedImage cached = render(document, metrics, 300, 300, offset);
+                BufferedImage uncached = render(load(path), new RenderMetrics(), 300, 300, offset);
+                for (int x = 0; x < 300; x++) {
+                    for (int y = 0; y < 300; y++) {
+                        assertEquals(uncached.getRGB(x, y), cached.getRGB(x, y),
+                                path + " at " + offset + " differs in pixel " + x + "," + y);
+                    }
+                }
+            }
+            assertTrue(metrics.cacheHits(RenderListener.Cache.MASK) > 0, path);
+        }
+    }
+
+    private static @NotNull SVGDocument load(@NotNull String path) {
+        return Objects.requireNonNull(new SVGLoader().load(Objects.requireNonNull(MaskTest.class.getResource(path))));
+    }
+
+    private static @NotNull BufferedImage render(@NotNull SVGDocument document, @NotNull RenderMetrics metrics) {
+        return render(document, metrics, 100, 25, new Point());
+    }
+
+    private static @NotNull BufferedImage render(@NotNull SVGDocument document, @NotNull RenderMetrics metrics,
+            int width, int height, @NotNull Point offset) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(SVGRenderingHints.KEY_RENDER_LISTENER, metrics);
+        g.translate(offset.x, offset.y);
+        document.render(null, g);
+        g.dispose();
+        return image;
+    }
 }
@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2022 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.jsvg.parser.SVGLoader;
+
+class MeshGradientTest {
+
+    private static final String SQUARE_MESH = "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"100\" height=\"100\">"
+            + "<meshgradient id=\"mesh\" x=\"0\" y=\"0\"><meshrow><meshpatch>"
+            + "<stop path=\"l 100,0\" stop-color=\"#ff0000\"/>"
+            + "<stop path=\"l 0,100\" stop-color=\"#00ff00\"/>"
+            + "<stop path=\"l -100,0\" stop-color=\"#0000ff\"/>"
+            + "<stop path=\"l 0,-100\" stop-color=\"#ffffff\"/>"
+            + "</meshpatch></meshrow></meshgradient>"
+            + "<rect width=\"50\" height=\"100\" fill=\"url(#mesh)\"/>"
+            + "<rect x=\"60\" width=\"40\" height=\"10\" fill=\"url(#mesh)\"/>"
+            + "</svg>";
+
+    @Test
+    void interpolatesCornerColors() {
+        int[] pixels = render(load(SQUARE_MESH), new RenderMetrics(), 1);
+        assertColor(0xff0000, pixels[0]);
+        assertColor(0xffffff, pixels[99 * 100]);
+        // Bilinear interpolation between red, green, blue and white at (u, v) = (0.25, 0.5)
+        assertColor(0xbf8080, pixels[50 * 100 + 25]);
+        // Outside the painted rectangles.
+        assertEquals(0, pixels[50 * 100 + 75] >>> 24);
+    }
+
+    @Test
+    void reusesMeshRasters() {
+        SVGDocument document = load(SQUARE_MESH);
+        RenderMetrics metrics = new RenderMetrics();
+
+        int[] first = render(document, metrics, 1);
+        assertEquals(1, metrics.cacheMisses(RenderListener.Cache.MESH_GRADIENT));
+        assertEquals(1, metrics.cacheHits(RenderListener.Cache.MESH_GRADIENT));
+        assertEquals(1, metrics.phaseDurations(RenderListener.Phase.MESH_GRADIENT).count());
+
+        int[] second = render(document, metrics, 1);
+        assertEquals(1, metrics.cacheMisses(RenderListener.Cache.MESH_GRADIENT));
+        assertEquals(3, metrics.cacheHits(RenderListener.Cache.MESH_GRADIENT));
+        assertArrayEquals(first, second);
+
+        // A different scale requires a raster with a different resolution.
+        render(document, metrics, 2);
+        assertEquals(2, metrics.cacheMisses(RenderListener.Cache.MESH_GRADIENT));
+    }
+
+    private static void assertColor(int expected, int actual) {
+        for (int shift = 0; shift < 24; shift += 8) {
+            int e = (expected >> shift) & 0xFF;
+            int a = (actual >> shift) & 0xFF;
+            assertEquals(e, a, 3, () -> Integer.toHexString(expected) + " != " + Integer.toHexString(actual));
+        }
+    }
+
+    private static @NotNull SVGDocument load(@NotNull String svg) {
+        return Objects.requireNonNull(
+                new SVGLoader().load(new ByteArrayInputStream(svg.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static int @NotNull [] render(@NotNull SVGDocument document, @NotNull RenderMetrics metrics,
+            double scale) {
+        BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(SVGRenderingHints.KEY_RENDER_LISTENER, metrics);
+        g.scale(scale, scale);
+        document.render(null, g);
+        g.dispose();
+        return image.getRGB(0, 0, 100, 100, null, 0, 100);
+    }
+}
@@ -23,10 +23,20 @@ package com.github.weisj.jsvg;
 
 import static com.github.weisj.jsvg.ReferenceTest.ReferenceTestResult.SUCCESS;
 import static com.github.weisj.jsvg.ReferenceTest.compareImages;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
+import com.github.weisj.jsvg.parser.SVGLoader;
+
 class PatternTest {
 
     @Test
@@ -34,4 +44,42 @@ class PatternTest {
         assertEquals(SUCCESS, compareImages("pattern/patternUnits.svg"));
         assertEquals(SUCCESS, compareImages("pattern/patternContentUnits.svg"));
     }
+
+    @Test
+    void reusesPatternTiles() {
+        StringBuilder svg = new StringBuilder("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"100\" height=\"20\">"
+                + "<pattern id=\"hatch\" width=\"4\" height=\"4\" patternUnits=\"userSpaceOnUse\">"
+                + "<path d=\"M0 4L4 0\" stroke=\"black\"/></pattern>");
+        for (int i = 0; i < 5; i++) {
+            svg.append("<rect x=\"").append(i * 20).append("\" width=\"15\" height=\"20\" fill=\"url(#hatch)\"/>");
+        }
+        svg.append("</svg>");
+        SVGDocument document = Objects.requireNonNull(
+                new SVGLoader().load(new ByteArrayInputStream(svg.toString().getBytes(StandardCharsets.UTF_8))));
+        RenderMetrics metrics = new RenderMetrics();
+
+        int[] first = render(document, metrics, 1);
+        assertEquals(1, metrics.cacheMisses(RenderListener.Cache.PATTERN));
+        assertEquals(4, metrics.cacheHits(RenderListener.Cache.PATTERN));
+
+        int[] second = render(document, metrics, 1);
+        assertEquals(1, metrics.cacheMisses(RenderListener.Cache.PATTERN));
+        assertEquals(9, metrics.cacheHits(RenderListener.Cache.PATTERN));
+        assertArrayEquals(first, second);
+
+        // A different scale requires a tile with a different resolution.
+        render(document, metrics, 2);
+        assertEquals(2, metrics.cacheMisses(RenderListener.Cache.PATTERN));
+    }
+
+    private static int @NotNull [] render(@NotNull SVGDocument document, @NotNull RenderMetrics metrics,
+            double scale) {
+        BufferedImage image = new BufferedImage(100, 20, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(SVGRenderingHints.KEY_RENDER_LISTENER, metrics);
+        g.scale(scale, scale);
+        document.render(null, g);
+        g.dispose();
+        return image.getRGB(0, 0, 100, 20, null, 0, 100);
+    }
 }
@@ -0,0 +1,139 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Objects;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.jsvg.parser.SVGLoader;
+
+class RenderMetricsTest {
+
+    private static @NotNull SVGDocument load(@NotNull String path) throws IOException {
+        URL url = Objects.requireNonNull(RenderMetricsTest.class.getResource(path), path);
+        return Objects.requireNonNull(new SVGLoader().load(url));
+    }
+
+    private static void render(@NotNull String path, @NotNull Object... hints) throws IOException {
+        render(load(path), hints);
+    }
+
+    private static void render(@NotNull SVGDocument document, @NotNull Object... hints) {
+        BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        for (int i = 0; i < hints.length; i += 2) {
+            g.setRenderingHint((RenderingHints.Key) hints[i], hints[i + 1]);
+        }
+        document.render(null, g);
+        g.dispose();
+    }
+
+    @Test
+    void collectsFilterMetrics() throws IOException {
+        RenderMetrics metrics = new RenderMetrics();
+        render("filter/blur.svg", SVGRenderingHints.KEY_RENDER_LISTENER, metrics);
+
+        assertTrue(metrics.nodesVisited() > 0);
+        assertTrue(metrics.bufferPixels().count() > 0);
+        assertEquals(1, metrics.phaseDurations(RenderListener.Phase.FILTER_SETUP).count());
+        assertTrue(metrics.phaseDurations(RenderListener.Phase.FILTER_PRIMITIVE).count() > 0);
+        assertEquals(0, metrics.phaseDurations(RenderListener.Phase.MASK).count());
+    }
+
+    @Test
+    void collectsMaskAndPatternMetrics() throws IOException {
+        RenderMetrics metrics = new RenderMetrics();
+        render("mask/mask1.svg", SVGRenderingHints.KEY_RENDER_LISTENER, metrics);
+        assertTrue(metrics.phaseDurations(RenderListener.Phase.MASK).count() > 0);
+
+        metrics.reset();
+        assertEquals(0, metrics.nodesVisited());
+        render("pattern/pattern.svg", SVGRenderingHints.KEY_RENDER_LISTENER, metrics);
+        assertTrue(metrics.phaseDurations(RenderListener.Phase.PATTERN).count() > 0);
+    }
+
+    @Test
+    void countsLayerCacheAccesses() throws IOException {
+        RenderMetrics metrics = new RenderMetrics();
+        LayerCache cache = new LayerCache(16 << 20);
+        SVGDocument document = load("filter/blur.svg");
+        render(document, SVGRenderingHints.KEY_RENDER_LISTENER, metrics, SVGRenderingHints.KEY_LAYER_CACHE, cache);
+        render(document, SVGRenderingHints.KEY_RENDER_LISTENER, metrics, SVGRenderingHints.KEY_LAYER_CACHE, cache);
+
+        assertEquals(1, metrics.cacheMisses(RenderListener.Cache.LAYER));
+        assertEquals(1, metrics.cacheHits(RenderListener.Cache.LAYER));
+    }
+
+    @Test
+    void cacheHintsTurnCachesOff() throws IOException {
+        Object[][] caches = {
+            {"mask/mask1.svg", SVGRenderingHints.KEY_MASK_CACHE, RenderListener.Cache.MASK},
+            {"pattern/pattern.svg", SVGRenderingHints.KEY_PATTERN_CACHE, RenderListener.Cache.PATTERN},
+            {"mesh/mesh.svg", SVGRenderingHints.KEY_MESH_GRADIENT_CACHE, RenderListener.Cache.MESH_GRADIENT},
+            {"filter/turbulence1.svg", SVGRenderingHints.KEY_TURBULENCE_CACHE, RenderListener.Cache.TURBULENCE},
+            {"filter/blur.svg", SVGRenderingHints.KEY_FILTER_CACHE, RenderListener.Cache.FILTER},
+        };
+        for (Object[] cache : caches) {
+            SVGDocument document = load((String) cache[0]);
+            RenderListener.Cache cacheType = (RenderListener.Cache) cache[2];
+
+            RenderMetrics metrics = new RenderMetrics();
+            renderWithCache(document, metrics, (RenderingHints.Key) cache[1], SVGRenderingHints.VALUE_CACHE_ON);
+            renderWithCache(document, metrics, (RenderingHints.Key) cache[1], SVGRenderingHints.VALUE_CACHE_ON);
+            assertTrue(metrics.cacheHits(cacheType) > 0, cacheType.toString());
+
+            metrics = new RenderMetrics();
+            renderWithCache(document, metrics, (RenderingHints.Key) cache[1], SVGRenderingHints.VALUE_CACHE_OFF);
+            assertEquals(0, metrics.cacheHits(cacheType), cacheType.toString());
+            assertEquals(0, metrics.cacheMisses(cacheType), cacheType.toString());
+        }
+    }
+
+    private static void renderWithCache(@NotNull SVGDocument document, @NotNull RenderMetrics metrics,
+            @NotNull RenderingHints.Key cacheKey, @NotNull Object value) {
+        // Cached filter results would hide the turbulence cache. For filters the cache hint takes precedence.
+        render(document, SVGRenderingHints.KEY_RENDER_LISTENER, metrics,
+                SVGRenderingHints.KEY_FILTER_CACHE, SVGRenderingHints.VALUE_CACHE_OFF, cacheKey, value);
+    }
+
+    @Test
+    void histogramQuantiles() {
+        RenderMetrics metrics = new RenderMetrics();
+        for (int i = 1; i <= 100; i++) {
+            metrics.bufferAllocated(i, 1);
+        }
+        RenderMetrics.Histogram histogram = metrics.bufferPixels();
+        assertEquals(100, histogram.count());
+        assertEquals(5050, histogram.sum());
+        assertEquals(100, histogram.max());
+        assertEquals(64, histogram.quantile(0.5));
+        assertEquals(100, histogram.quantile(1));
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Objects;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.jsvg.attributes.ViewBox;
+import com.github.weisj.jsvg.parser.SVGLoader;
+import com.github.weisj.jsvg.renderer.Graphics2DOutput;
+import com.github.weisj.jsvg.renderer.awt.NullPlatformSupport;
+
+class RenderToBufferTest {
+    private static final int SIZE = 64;
+    private static final int STRIDE = SIZE + 3;
+
+    private static @NotNull SVGDocument load() {
+        URL url = Objects.requireNonNull(RenderToBufferTest.class.getResource("mask/chromeLogo.svg"));
+        return Objects.requireNonNull(new SVGLoader().load(url));
+    }
+
+    private static int @NotNull [] reference(@NotNull SVGDocument document, int imageType) {
+        BufferedImage image = new BufferedImage(SIZE, SIZE, imageType);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+        document.renderWithPlatform(NullPlatformSupport.INSTANCE, new Graphics2DOutput(g), new ViewBox(SIZE, SIZE));
+        g.dispose();
+        return image.getRaster().getPixels(0, 0, SIZE, SIZE, (int[]) null);
+    }
+
+    private static int premultiply(int component, int alpha, boolean premultiplied) {
+        // Colors of almost transparent pixels are imprecise without premultiplication, hence compare premultiplied.
+        return premultiplied ? component : (component * alpha + 127) / 255;
+    }
+
+    private static void assertPixelsEqual(int @NotNull [] expected, int @NotNull [] actualArgb, int offset,
+            boolean premultiplied) {
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                int argb = actualArgb[offset + y * STRIDE + x];
+                int i = 4 * (y * SIZE + x);
+                int[] components = {(argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF, argb >>> 24};
+                for (int c = 0; c < 4; c++) {
+                    int e = premultiply(expected[i + c], expected[i + 3], premultiplied || c == 3);
+                    int a = premultiply(components[c], components[3], premultiplied || c == 3);
+                    if (Math.abs(e - a) > 1) {
+                        fail("Pixel mismatch at " + x + "," + y + " component " + c);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void rendersIntoIntArray() {
+        SVGDocument document = load();
+        int[] pixels = new int[STRIDE * SIZE];
+        document.renderTo(pixels, SIZE, SIZE, STRIDE, PixelFormat.ARGB);
+        assertPixelsEqual(reference(document, BufferedImage.TYPE_INT_ARGB), pixels, 0, false);
+
+        int[] padding = new int[STRIDE * SIZE - SIZE];
+        for (int y = 0; y < SIZE - 1; y++) {
+            System.arraycopy(pixels, y * STRIDE + SIZE, padding, y * (STRIDE - SIZE), STRIDE - SIZE);
+        }
+        assertArrayEquals(new int[padding.length], padding, "Padding must not be touched");
+    }
+
+    @Test
+    void rendersIntoDirectIntBuffer() {
+        SVGDocument document = load();
+        IntBuffer pixels = ByteBuffer.allocateDirect(4 * (STRIDE * SIZE + 5)).asIntBuffer();
+        pixels.position(5);
+        document.renderTo(pixels, SIZE, SIZE, STRIDE, PixelFormat.BGRA_PREMULTIPLIED);
+        assertEquals(5, pixels.position());
+
+        int[] contents = new int[pixels.capacity()];
+        pixels.get(0, contents);
+        assertPixelsEqual(reference(document, BufferedImage.TYPE_INT_ARGB_PRE), contents, 5, true);
+    }
+
+    @Test
+    void rendersIntoByteBuffer() {
+        SVGDocument document = load();
+        for (PixelFormat format : PixelFormat.values()) {
+            ByteBuffer pixels = ByteBuffer.allocateDirect(4 * STRIDE * SIZE);
+            document.renderTo(pixels, SIZE, SIZE, 4 * STRIDE, format);
+
+            int[] contents = new int[STRIDE * SIZE];
+            for (int i = 0; i < contents.length; i++) {
+                int b0 = pixels.get(4 * i) & 0xFF;
+                int b1 = pixels.get(4 * i + 1) & 0xFF;
+                int b2 = pixels.get(4 * i + 2) & 0xFF;
+                int b3 = pixels.get(4 * i + 3) & 0xFF;
+                contents[i] = format == PixelFormat.ARGB
+                        ? (b0 << 24) | (b1 << 16) | (b2 << 8) | b3
+                        : (b3 << 24) | (b2 << 16) | (b1 << 8) | b0;
+            }
+            int imageType = format.isPremultiplied()
+                    ? BufferedImage.TYPE_INT_ARGB_PRE
+                    : BufferedImage.TYPE_INT_ARGB;
+            assertPixelsEqual(reference(document, imageType), contents, 0, format.isPremultiplied());
+        }
+    }
+
+    @Test
+    void rejectsTooSmallBuffers() {
+        SVGDocument document = load();
+        assertThrows(IllegalArgumentException.class,
+                () -> document.renderTo(new int[SIZE * SIZE - 1], SIZE, SIZE, SIZE, PixelFormat.ARGB));
+        assertThrows(IllegalArgumentException.class,
+                () -> document.renderTo(new int[SIZE * SIZE], SIZE, SIZE, SIZE - 1, PixelFormat.ARGB));
+        assertThrows(IllegalArgumentException.class,
+                () -> document.renderTo(ByteBuffer.allocate(4 * SIZE * SIZE), SIZE, SIZE, 4 * SIZE + 1,
+                        PixelFormat.ARGB));
+    }
+}
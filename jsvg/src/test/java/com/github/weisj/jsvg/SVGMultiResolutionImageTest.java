@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.jsvg.parser.SVGLoader;
+
+class SVGMultiResolutionImageTest {
+
+    private static @NotNull SVGDocument load() {
+        URL url = Objects.requireNonNull(SVGMultiResolutionImageTest.class.getResource("icons/folder.svg"));
+        return Objects.requireNonNull(new SVGLoader().load(url));
+    }
+
+    private static @NotNull RenderingHints hints(@NotNull RenderMetrics metrics) {
+        return new RenderingHints(SVGRenderingHints.KEY_RENDER_LISTENER, metrics);
+    }
+
+    @Test
+    void rendersVariantsLazily() {
+        SVGDocument document = load();
+        RenderMetrics metrics = new RenderMetrics();
+        SVGMultiResolutionImage image = new SVGMultiResolutionImage(document, hints(metrics), 16, 16);
+
+        assertEquals(16, image.getWidth(null));
+        assertEquals(16, image.getHeight(null));
+        assertEquals(0, metrics.nodesVisited());
+
+        Image variant = image.getResolutionVariant(23.5, 23.5);
+        assertEquals(24, variant.getWidth(null));
+        assertEquals(24, variant.getHeight(null));
+        long nodesPerRender = metrics.nodesVisited();
+        assertTrue(nodesPerRender > 0);
+
+        assertSame(variant, image.getResolutionVariant(24, 24));
+        assertEquals(nodesPerRender, metrics.nodesVisited());
+
+        List<Image> variants = image.getResolutionVariants();
+        assertEquals(2, variants.size());
+        assertEquals(16, variants.get(0).getWidth(null));
+        assertEquals(2 * nodesPerRender, metrics.nodesVisited());
+    }
+
+    @Test
+    void deduplicatesConcurrentRequests() throws Exception {
+        SVGDocument document = load();
+        RenderMetrics metrics = new RenderMetrics();
+        SVGMultiResolutionImage image = new SVGMultiResolutionImage(document, hints(metrics));
+        image.getResolutionVariant(8, 8);
+        long nodesPerRender = metrics.nodesVisited();
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CyclicBarrier barrier = new CyclicBarrier(threads);
+            List<Future<Image>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int scale = 2 + i % 2;
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    return image.getResolutionVariant(16 * scale, 16 * scale);
+                }));
+            }
+            List<Image> results = new ArrayList<>();
+            for (Future<Image> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            for (int i = 2; i < threads; i++) {
+                assertSame(results.get(i % 2), results.get(i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(3 * nodesPerRender, metrics.nodesVisited());
+    }
+
+    @Test
+    void rendersDocumentScaledToVariant() {
+        SVGDocument document = load();
+        SVGMultiResolutionImage image = new SVGMultiResolutionImage(document);
+        BufferedImage base = (BufferedImage) image.getResolutionVariant(
+                image.getWidth(null), image.getHeight(null));
+        BufferedImage doubled = (BufferedImage) image.getResolutionVariant(
+                2 * image.getWidth(null), 2 * image.getHeight(null));
+        for (int y = 0; y < base.getHeight(); y++) {
+            for (int x = 0; x < base.getWidth(); x++) {
+                int baseAlpha = base.getRGB(x, y) >>> 24;
+                int doubledAlpha = doubled.getRGB(2 * x, 2 * y) >>> 24;
+                if (baseAlpha == 0xFF) assertTrue(doubledAlpha > 0, "Pixel " + x + "," + y);
+            }
+        }
+    }
+}
@@ -23,8 +23,14 @@ package com.github.weisj.jsvg;
 
 import static com.github.weisj.jsvg.ReferenceTest.ReferenceTestResult.SUCCESS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.awt.*;
+import java.awt.geom.Area;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.net.URL;
@@ -39,6 +45,7 @@ import com.github.weisj.jsvg.geometry.size.FloatSize;
 import com.github.weisj.jsvg.parser.SVGLoader;
 import com.github.weisj.jsvg.renderer.Graphics2DOutput;
 import com.github.weisj.jsvg.renderer.Output;
+import com.github.weisj.jsvg.renderer.ShapeOutput;
 import com.github.weisj.jsvg.renderer.awt.NullPlatformSupport;
 import com.github.weisj.jsvg.util.Provider;
 
@@ -144,6 +151,96 @@ class ToShapeTest {
         assertEquals(SUCCESS, compareShape("paintOrder.svg"));
     }
 
+    @Test
+    void testBalancedUnionMatchesIncrementalUnion() {
+        // Documents with clipped and overlapping content.
+        String[] paths = {
+            "clipPathUnits.svg", "text/textClip.svg", "marker/marker3_flattened.svg", "test2.svg",
+            "fillRule.svg", "paintOrder.svg", "stroke/stroke1.svg", "svg_logo.svg"
+        };
+        for (String path : paths) {
+            SVGDocument document = load(path);
+            ShapeOutput output = new ShapeOutput();
+            document.renderWithPlatform(NullPlatformSupport.INSTANCE, output, null);
+            Area incremental = new Area();
+            for (ShapeOutput.ElementShape shape : output.elementShapes()) {
+                incremental.add(new Area(shape.shape()));
+            }
+            Area balanced = output.accumulatedShape();
+
+            double tolerance = 1e-6 * Math.max(1, area(incremental));
+            assertEquals(area(incremental), area(balanced), tolerance, path);
+            Rectangle2D expectedBounds = incremental.getBounds2D();
+            Rectangle2D bounds = balanced.getBounds2D();
+            assertEquals(expectedBounds.getMinX(), bounds.getMinX(), 1e-6, path);
+            assertEquals(expectedBounds.getMinY(), bounds.getMinY(), 1e-6, path);
+            assertEquals(expectedBounds.getMaxX(), bounds.getMaxX(), 1e-6, path);
+            assertEquals(expectedBounds.getMaxY(), bounds.getMaxY(), 1e-6, path);
+            Area difference = new Area(incremental);
+            difference.exclusiveOr(balanced);
+            assertEquals(0, area(difference), tolerance, path);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void testAreaOutputDoesNotKeepShapes() {
+        SVGDocument document = load("clipPathUnits.svg");
+        Area area = new Area();
+        ShapeOutput output = new ShapeOutput(area);
+        document.renderWithPlatform(NullPlatformSupport.INSTANCE, output, null);
+
+        assertSame(area, output.accumulatedShape());
+        assertTrue(output.elementShapes().isEmpty());
+        assertFalse(area.isEmpty());
+
+        ShapeOutput balancedOutput = new ShapeOutput();
+        document.renderWithPlatform(NullPlatformSupport.INSTANCE, balancedOutput, null);
+        Area difference = new Area(area);
+        difference.exclusiveOr(balancedOutput.accumulatedShape());
+        assertEquals(0, area(difference), 1e-6 * area(area));
+    }
+
+    private static double area(@NotNull Area area) {
+        // The outlines of an area don't overlap and holes are oriented opposite to their enclosing outline.
+        double signedArea = 0;
+        double[] coords = new double[6];
+        double startX = 0;
+        double startY = 0;
+        double x = 0;
+        double y = 0;
+        for (PathIterator it = area.getPathIterator(null, 0.01); !it.isDone(); it.next()) {
+            switch (it.currentSegment(coords)) {
+                case PathIterator.SEG_MOVETO:
+                    startX = x = coords[0];
+                    startY = y = coords[1];
+                    break;
+                case PathIterator.SEG_LINETO:
+                    signedArea += x * coords[1] - coords[0] * y;
+                    x = coords[0];
+                    y = coords[1];
+                    break;
+                case PathIterator.SEG_CLOSE:
+                    signedArea += x * startY - startX * y;
+                    x = startX;
+                    y = startY;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return Math.abs(signedArea / 2);
+    }
+
+    private static @NotNull SVGDocument load(@NotNull String path) {
+        try {
+            URL url = Objects.requireNonNull(ReferenceTest.class.getResource(path), path);
+            return Objects.requireNonNull(new SVGLoader().load(url.openStream()));
+        } catch (IOException e) {
+            return Assertions.fail(e);
+        }
+    }
+
     private static @NotNull BufferedImage prepareImage(@NotNull SVGDocument document) {
         FloatSize size = document.size();
         int w = 2000;
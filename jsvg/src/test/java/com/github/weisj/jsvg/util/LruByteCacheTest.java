@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class LruByteCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedEntries() {
+        long entryBytes = 1000;
+        LruByteCache<String, String> cache =
+                new LruByteCache<>(3 * (entryBytes + LruByteCache.ENTRY_OVERHEAD_BYTES));
+        cache.put("a", "a", entryBytes);
+        cache.put("b", "b", entryBytes);
+        cache.put("c", "c", entryBytes);
+        assertNotNull(cache.get("a"));
+
+        cache.put("d", "d", entryBytes);
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.evictionCount());
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("d"));
+    }
+
+    @Test
+    void replacesEntries() {
+        LruByteCache<String, String> cache = new LruByteCache<>(1 << 20);
+        cache.put("a", "old", 1000);
+        cache.put("a", "new", 10);
+        assertEquals("new", cache.get("a"));
+        assertEquals(10 + LruByteCache.ENTRY_OVERHEAD_BYTES, cache.currentBytes());
+    }
+
+    @Test
+    void boundsEntryCount() {
+        LruByteCache<Integer, String> cache = new LruByteCache<>(10 * LruByteCache.ENTRY_OVERHEAD_BYTES);
+        cache.put(-1, "too large", 10 * LruByteCache.ENTRY_OVERHEAD_BYTES);
+        assertEquals(0, cache.size());
+
+        // Empty values still count against the budget.
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, "empty", 0);
+        }
+        assertEquals(10, cache.size());
+        assertEquals(cache.maxBytes(), cache.currentBytes());
+    }
+}
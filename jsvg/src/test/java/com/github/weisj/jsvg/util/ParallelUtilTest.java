@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.jsvg.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.jsvg.nodes.InplaceBoxBlurFilter;
+
+class ParallelUtilTest {
+
+    @Test
+    void processesEachIndexOnce() {
+        int[] counts = {0, 1, 7, 100, 4096};
+        long[] pixelsPerIndex = {0, 1, 1000, 1 << 20};
+        for (int count : counts) {
+            for (long pixels : pixelsPerIndex) {
+                AtomicIntegerArray visits = new AtomicIntegerArray(count + 10);
+                ParallelUtil.forEachStripe(5, 5 + count, pixels, (start, end) -> {
+                    for (int i = start; i < end; i++) {
+                        visits.incrementAndGet(i);
+                    }
+                });
+                for (int i = 0; i < visits.length(); i++) {
+                    assertEquals(i >= 5 && i < 5 + count ? 1 : 0, visits.get(i), "Index " + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    void stripedBoxBlurMatchesFullPass() {
+        int size = 300;
+        WritableRaster full = randomRaster(size);
+        WritableRaster striped = randomRaster(size);
+
+        InplaceBoxBlurFilter.horizontalPass(full, full, 0, 0, 9, 4);
+        InplaceBoxBlurFilter.verticalPass(full, full, 0, 0, 8, 3);
+        for (int i = 0; i < size; i += 37) {
+            InplaceBoxBlurFilter.horizontalPass(striped, striped, 0, 0, 9, 4, i, i + 37);
+        }
+        for (int i = 0; i < size; i += 37) {
+            InplaceBoxBlurFilter.verticalPass(striped, striped, 0, 0, 8, 3, i, i + 37);
+        }
+
+        assertArrayEquals(ImageUtil.getINT_RGBA_DataBank(full), ImageUtil.getINT_RGBA_DataBank(striped));
+    }
+
+    private static @NotNull WritableRaster randomRaster(int size) {
+        BufferedImage image = ImageUtil.createCompatibleTransparentImage(size, size);
+        int[] pixels = ImageUtil.getINT_RGBA_DataBank(image.getRaster());
+        Random random = new Random(42);
+        for (int i = 0; i < pixels.length; i++) {
+            int a = random.nextInt(256);
+            pixels[i] = (a << 24) | (random.nextInt(a + 1) << 16) | (random.nextInt(a + 1) << 8)
+                    | random.nextInt(a + 1);
+        }
+        return image.getRaster();
+    }
+}
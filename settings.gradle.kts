@@ -69,5 +69,6 @@ dependencyResolutionManagement {
 }
 
 include(
-    "jsvg"
+    "jsvg",
+    "jsvg-rasterizer"
 )